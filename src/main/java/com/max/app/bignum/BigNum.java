@@ -1,11 +1,10 @@
 package com.max.app.bignum;
 
 import java.math.BigInteger;
-import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.Deque;
 import java.util.Objects;
-import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * All work in this class inspired by the following article:
@@ -16,16 +15,55 @@ import java.util.Queue;
  */
 public class BigNum {
 
-    public static BigNum ZERO = new BigNum(0, new int[]{});
+    public static final BigNum ZERO = new BigNum(0, new int[]{});
+
+    // canonical instances for small values, returned by 'valueOf'
+    private static final int SMALL_VALUES_MIN = -128;
+    private static final int SMALL_VALUES_MAX = 1024;
+    private static final BigNum[] SMALL_VALUES = createSmallValues();
+
+    public static final BigNum ONE = valueOf(1);
+    public static final BigNum TEN = valueOf(10);
 
     // use 2**30 as a base
-    private static final int BASE_SHIFT = 30;
-    private static final int BASE = 1 << BASE_SHIFT;
+    static final int BASE_SHIFT = 30;
+    static final int BASE = 1 << BASE_SHIFT;
 
     // BASE_MASK == MAX_DIGIT in BASE
-    private static final int BASE_MASK = BASE - 1;
+    static final int BASE_MASK = BASE - 1;
     private static final int MAX_DIGIT = BASE_MASK;
 
+    // Multiplication cutoffs in limbs, can be tuned using system properties,
+    // defaults are taken from a sweep, see BigNumMulBenchmark.
+    // If any operand is smaller than KARATSUBA_THRESHOLD, grade school algorithm is used.
+    // If the longer operand is at least UNBALANCED_MUL_RATIO times longer than the shorter one,
+    // it's multiplied block by block (see 'mulUnbalanced').
+    // If the shorter operand is smaller than TOOM_COOK_THRESHOLD, Karatsuba algorithm is used.
+    // If the shorter operand is at least NTT_THRESHOLD, number-theoretic transform is used.
+    // Otherwise, Toom-Cook 3-way multiplication is used.
+    static final int KARATSUBA_THRESHOLD = Integer.getInteger("bignum.mul.karatsuba.threshold", 128);
+    static final int TOOM_COOK_THRESHOLD = Integer.getInteger("bignum.mul.toom.threshold", 384);
+    static final int NTT_THRESHOLD = Integer.getInteger("bignum.mul.ntt.threshold", 5_000);
+    static final int UNBALANCED_MUL_RATIO = Integer.getInteger("bignum.mul.unbalanced.ratio", 2);
+
+    // 'parallelMul' forks sub-products only for operands with at least this many limbs
+    static final int PARALLEL_MUL_THRESHOLD = Integer.getInteger("bignum.mul.parallel.threshold", 2_000);
+
+    // 10**9 is the biggest power of 10 that fits into a single limb
+    private static final int DECIMAL_GROUP_DIGITS = 9;
+    private static final int DECIMAL_GROUP_BASE = 1_000_000_000;
+
+    // Decimal conversion cutoffs, below them quadratic algorithms are used.
+    private static final int PARSE_THRESHOLD_DIGITS = 800;
+    private static final int TO_STRING_THRESHOLD_LIMBS = 100;
+
+    // radixPowers[i] = (10**9)**(2**i), extended lazily
+    private static volatile int[][] radixPowers = {{DECIMAL_GROUP_BASE}};
+
+    // radixPowerReciprocals[i] = floor(BASE**(2 * k) / radixPowers[i]), where k = radixPowers[i].length,
+    // used for Barrett reduction, extended lazily
+    private static volatile int[][] radixPowerReciprocals = new int[0][];
+
     private final int[] digits;
 
     // for positive values, sign = 1,
@@ -34,69 +72,291 @@ public class BigNum {
     private final int sign;
 
     public BigNum(String decimalValue) {
+        this(decimalValue, trimStart(decimalValue), trimEnd(decimalValue));
+    }
 
-        String normalized = Objects.requireNonNull(decimalValue).trim();
+    /**
+     * Parse decimal value from characters range [from, to) of 'decimalValue'.
+     * Value can have a leading '+' or '-' sign, whitespaces are not allowed.
+     */
+    public BigNum(CharSequence decimalValue, int from, int to) {
+        Objects.requireNonNull(decimalValue);
+        Objects.checkFromToIndex(from, to, decimalValue.length());
 
-        if (isZeroStringRepresentation(normalized)) {
-            this.sign = 0;
-            this.digits = new int[0];
-        }
-        else if (beginsWith(normalized, "-")) {
-            this.sign = -1;
-            this.digits = convertToBase(toIntArray(normalized.substring(1)));
+        int parsedSign = 1;
+        int digitsFrom = from;
+
+        if (from < to && decimalValue.charAt(from) == '-') {
+            parsedSign = -1;
+            ++digitsFrom;
         }
-        else if (beginsWith(normalized, "+")) {
-            this.sign = 1;
-            this.digits = convertToBase(toIntArray(normalized.substring(1)));
+        else if (from < to && decimalValue.charAt(from) == '+') {
+            ++digitsFrom;
         }
-        else {
-            this.sign = 1;
-            this.digits = convertToBase(toIntArray(normalized));
+
+        if (digitsFrom == to) {
+            throw new NumberFormatException("No decimal digits found: '" + decimalValue.subSequence(from, to) + "'");
         }
+
+        // value with all zero decimal digits, like '0', '-0' or '000', converted to an empty array
+        this.digits = parseMagnitude(decimalValue, digitsFrom, to);
+        this.sign = (digits.length == 0) ? 0 : parsedSign;
     }
 
-    private static boolean beginsWith(String str, String prefix) {
-        return str.startsWith(prefix);
+    private static int trimStart(String str) {
+        int index = 0;
+
+        while (index < str.length() && str.charAt(index) <= ' ') {
+            ++index;
+        }
+
+        return index;
     }
 
-    private static boolean isZeroStringRepresentation(String str) {
-        return "0".equals(str) || "-0".equals(str) || "+0".equals(str);
+    private static int trimEnd(String str) {
+        int index = str.length();
+
+        while (index > 0 && str.charAt(index - 1) <= ' ') {
+            --index;
+        }
+
+        return Math.max(index, trimStart(str));
     }
 
     public BigNum(int intValue) {
-        this(String.valueOf(intValue));
+        this((long) intValue);
     }
 
     public BigNum(long longValue) {
-        this(String.valueOf(longValue));
+        this.sign = Long.signum(longValue);
+        this.digits = longToLimbs(longValue);
+    }
+
+    /**
+     * Returns canonical cached instance for values in range [-128...1024], otherwise creates a new one.
+     */
+    public static BigNum valueOf(long longValue) {
+        if (longValue >= SMALL_VALUES_MIN && longValue <= SMALL_VALUES_MAX) {
+            return SMALL_VALUES[(int) longValue - SMALL_VALUES_MIN];
+        }
+        return new BigNum(longValue);
+    }
+
+    private static BigNum[] createSmallValues() {
+        BigNum[] values = new BigNum[SMALL_VALUES_MAX - SMALL_VALUES_MIN + 1];
+
+        for (int i = 0; i < values.length; ++i) {
+            int value = i + SMALL_VALUES_MIN;
+            values[i] = (value == 0) ? ZERO : new BigNum((long) value);
+        }
+
+        return values;
+    }
+
+    /**
+     * Convert absolute value to limbs directly, Long.MIN_VALUE handled as unsigned 2**63.
+     */
+    private static int[] longToLimbs(long longValue) {
+        long abs = (longValue < 0L) ? -longValue : longValue;
+
+        if (abs == 0L) {
+            return new int[0];
+        }
+
+        // unsigned shifts, so that abs(Long.MIN_VALUE) is handled correctly
+        if ((abs >>> BASE_SHIFT) == 0L) {
+            return new int[]{(int) abs};
+        }
+
+        if ((abs >>> (2 * BASE_SHIFT)) == 0L) {
+            return new int[]{(int) (abs >>> BASE_SHIFT), (int) (abs & BASE_MASK)};
+        }
+
+        return new int[]{(int) (abs >>> (2 * BASE_SHIFT)), (int) ((abs >>> BASE_SHIFT) & BASE_MASK),
+                (int) (abs & BASE_MASK)};
+    }
+
+    /**
+     * Values with at most 2 limbs are less than 2**60 by absolute value,
+     * so sum, difference and product of single limb values always fit into 'long'.
+     */
+    private boolean fitsTwoLimbs() {
+        return digits.length <= 2;
+    }
+
+    private long smallValue() {
+        assert fitsTwoLimbs() : "value doesn't fit into 2 limbs";
+
+        long abs = 0L;
+
+        for (int singleDigit : digits) {
+            abs = (abs << BASE_SHIFT) | singleDigit;
+        }
+
+        return sign * abs;
     }
 
     private BigNum(int sign, int[] digits) {
-        this.sign = sign;
-        this.digits = digits;
+        int[] normalized = stripLeadingZeros(digits);
+        this.sign = (normalized.length == 0) ? 0 : sign;
+        this.digits = normalized;
     }
 
-    private int[] convertToBase(int[] decimalDigits) {
+    /**
+     * Create value from sign and big-endian magnitude without copying, 'digits' array should not be modified later.
+     */
+    static BigNum fromMagnitude(int sign, int[] digits) {
+        return new BigNum(sign, digits);
+    }
 
-        Deque<Integer> resDigits = new ArrayDeque<>();
+    /**
+     * Remove leading zero digits, so that the same value always has the same representation.
+     * Returns the same array if there are no leading zeros.
+     */
+    private static int[] stripLeadingZeros(int[] value) {
+        int firstNonZero = 0;
 
-        int[] cur = decimalDigits;
+        while (firstNonZero < value.length && value[firstNonZero] == 0) {
+            ++firstNonZero;
+        }
 
-        while (cur.length != 0) {
+        return (firstNonZero == 0) ? value : Arrays.copyOfRange(value, firstNonZero, value.length);
+    }
 
-            DivResult res = divideDecimalForBase(cur);
+    /**
+     * Divide and conquer conversion from decimal to base 2**30:
+     * value = high * 10**(9 * 2**j) + low, where 'low' contains the last 9 * 2**j decimal digits.
+     * With fast multiplication time complexity is O(M(N) * logN) instead of O(N^2).
+     */
+    private static int[] parseMagnitude(CharSequence decimalValue, int from, int to) {
+
+        final int length = to - from;
+
+        if (length <= PARSE_THRESHOLD_DIGITS) {
+            return parseMagnitudeSimple(decimalValue, from, to);
+        }
+
+        // choose the biggest power, so that 'low' part has at least half of all digits
+        int powerIndex = 0;
+
+        while ((((long) DECIMAL_GROUP_DIGITS) << (powerIndex + 1)) < length) {
+            ++powerIndex;
+        }
+
+        final int lowDigitsCount = DECIMAL_GROUP_DIGITS << powerIndex;
+
+        int[] high = parseMagnitude(decimalValue, from, to - lowDigitsCount);
+        int[] low = parseMagnitude(decimalValue, to - lowDigitsCount, to);
+
+        return stripLeadingZeros(addAbs(mulMagnitudes(high, radixPower(powerIndex)), low));
+    }
+
+    /**
+     * Convert decimal to base 2**30 using Horner's rule with groups of 9 decimal digits.
+     * Time complexity: O(N^2)
+     */
+    private static int[] parseMagnitudeSimple(CharSequence decimalValue, int from, int to) {
+
+        // each limb holds at least 9 decimal digits
+        final int[] result = new int[(to - from) / DECIMAL_GROUP_DIGITS + 1];
+        int resultFrom = result.length;
+
+        int groupLength = (to - from) % DECIMAL_GROUP_DIGITS;
+        if (groupLength == 0) {
+            groupLength = DECIMAL_GROUP_DIGITS;
+        }
+
+        for (int groupFrom = from; groupFrom < to; groupFrom += groupLength, groupLength = DECIMAL_GROUP_DIGITS) {
+
+            // result = result * 10**9 + group
+            long carry = parseDecimalGroup(decimalValue, groupFrom, groupFrom + groupLength);
+
+            for (int i = result.length - 1; i >= resultFrom; --i) {
+                long cur = ((long) result[i]) * DECIMAL_GROUP_BASE + carry;
+                result[i] = (int) (cur & BASE_MASK);
+                carry = cur >>> BASE_SHIFT;
+            }
+
+            while (carry != 0L) {
+                --resultFrom;
+                result[resultFrom] = (int) (carry & BASE_MASK);
+                carry >>>= BASE_SHIFT;
+            }
+        }
+
+        return Arrays.copyOfRange(result, resultFrom, result.length);
+    }
+
+    private static int parseDecimalGroup(CharSequence decimalValue, int from, int to) {
+        int group = 0;
+
+        for (int i = from; i < to; ++i) {
+            char digitCh = decimalValue.charAt(i);
 
-            resDigits.push(res.remain());
-            cur = res.result();
+            if (digitCh < '0' || digitCh > '9') {
+                throw new NumberFormatException("incorrect decimal digit detected: " + digitCh);
+            }
+
+            group = group * 10 + (digitCh - '0');
         }
 
-        int[] convertedValue = new int[resDigits.size()];
+        return group;
+    }
+
+    /**
+     * @return (10**9)**(2**index)
+     */
+    private static int[] radixPower(int index) {
+        int[][] powers = radixPowers;
 
-        for (int i = 0; i < convertedValue.length && !resDigits.isEmpty(); ++i) {
-            convertedValue[i] = resDigits.pop();
+        if (index >= powers.length) {
+            final int oldLength = powers.length;
+            powers = Arrays.copyOf(powers, index + 1);
+
+            for (int i = oldLength; i < powers.length; ++i) {
+                powers[i] = mulMagnitudes(powers[i - 1], powers[i - 1]);
+            }
+
+            // benign race here, all threads calculate the same values
+            radixPowers = powers;
         }
 
-        return convertedValue;
+        return powers[index];
+    }
+
+    /**
+     * @return floor(BASE**(2 * k) / radixPower(index)), where k = radixPower(index).length
+     */
+    private static int[] radixPowerReciprocal(int index) {
+        int[][] reciprocals = radixPowerReciprocals;
+
+        if (index < reciprocals.length && reciprocals[index] != null) {
+            return reciprocals[index];
+        }
+
+        int[] power = radixPower(index);
+
+        int[] dividend = new int[2 * power.length + 1];
+        dividend[0] = 1;
+
+        int[] reciprocal = divRemKnuth(dividend, power).quotient();
+
+        // copy on write, so that already published array never changes
+        reciprocals = Arrays.copyOf(reciprocals, Math.max(reciprocals.length, index + 1));
+        reciprocals[index] = reciprocal;
+        radixPowerReciprocals = reciprocals;
+
+        return reciprocal;
+    }
+
+    private static int skipZeros(int[] arr, int from) {
+        int index = from;
+
+        while (index < arr.length && arr[index] == 0) {
+            ++index;
+        }
+
+        return index;
     }
 
     /**
@@ -109,7 +369,9 @@ public class BigNum {
 
         assert value != null : "null 'value' detected";
 
-        Queue<Integer> result = new ArrayDeque<>();
+        // quotient can't have more digits than value
+        final int[] result = new int[value.length];
+        int resultLength = 0;
 
         int index = 0;
 
@@ -124,14 +386,16 @@ public class BigNum {
         if (index == value.length) {
 
             if (cur >= BASE) {
-                result.add((int) (cur >>> BASE_SHIFT));
+                result[resultLength] = (int) (cur >>> BASE_SHIFT);
+                ++resultLength;
                 cur &= BASE_MASK;
             }
 
-            return new DivResult(toIntArray(result), (int) cur);
+            return new DivResult(Arrays.copyOf(result, resultLength), (int) cur);
         }
 
-        result.add((int) (cur >>> BASE_SHIFT));
+        result[resultLength] = (int) (cur >>> BASE_SHIFT);
+        ++resultLength;
         cur &= BASE_MASK;
 
         for (int i = index; i < value.length; ++i) {
@@ -140,79 +404,383 @@ public class BigNum {
 
             // do division
             if (cur >= BASE) {
-                result.add((int) (cur >>> BASE_SHIFT));
+                result[resultLength] = (int) (cur >>> BASE_SHIFT);
                 cur &= BASE_MASK;
             }
             else {
-                result.add(0);
+                result[resultLength] = 0;
             }
+            ++resultLength;
         }
 
-        return new DivResult(toIntArray(result), (int) cur);
+        return new DivResult(Arrays.copyOf(result, resultLength), (int) cur);
+    }
+
+    public static int[] toIntArray(String decimalValue) {
+        assert decimalValue != null;
+        int[] res = new int[decimalValue.length()];
+
+        for (int i = 0; i < res.length; ++i) {
+
+            char digitCh = decimalValue.charAt(i);
+
+            assert digitCh >= '0' && digitCh <= '9' : "incorrect decimal digit detected: " + digitCh;
+
+            res[i] = (digitCh - '0');
+        }
+
+        return res;
     }
 
     /**
-     * Converts Queue<Integer> in big endian order to array of int[]
-     * with the same order (most significant digit first).
+     * Multiply big numbers. Depending on operands size, one of the following algorithms is used:
+     * grade school O(N^2), Karatsuba O(N^1.585), Toom-Cook 3-way O(N^1.465) or NTT O(N * logN).
      */
-    private static int[] toIntArray(Queue<Integer> queue) {
-        int[] res = new int[queue.size()];
+    public BigNum mul(BigNum other) {
+        if (isZero() || other.isZero()) {
+            return BigNum.ZERO;
+        }
 
-        int i = 0;
-        for (int singleValue : queue) {
-            res[i] = singleValue;
-            ++i;
+        // single limb fast path: |product| < 2**60
+        if (digits.length == 1 && other.digits.length == 1) {
+            return valueOf(smallValue() * other.smallValue());
         }
-        return res;
+
+        return new BigNum(sign * other.sign, mulMagnitudes(digits, other.digits));
     }
 
     /**
-     * Converts stack of integers in big endian order (Deque<Integer>) to an array of int[]
-     * with the same order (most significant digit first).
+     * Multiply absolute values selecting algorithm based on operands length.
+     * Karatsuba, Toom-Cook and NTT split both operands into parts of the same size, so for unbalanced operands
+     * the longer one is cut into blocks of the shorter one length first (the same way BigInteger does).
      */
-    private static int[] toIntArray(Deque<Integer> stack) {
-        int[] res = new int[stack.size()];
+    static int[] mulMagnitudes(int[] first, int[] second) {
+        if (first.length == 0 || second.length == 0) {
+            return new int[0];
+        }
 
-        int i = 0;
+        final int shorterLength = Math.min(first.length, second.length);
 
-        while (!stack.isEmpty()) {
-            res[i] = stack.pop();
-            ++i;
+        if (shorterLength < KARATSUBA_THRESHOLD) {
+            return mulAbs(first, second);
         }
-        return res;
+
+        if (Math.max(first.length, second.length) >= UNBALANCED_MUL_RATIO * shorterLength) {
+            return first.length > second.length ? mulUnbalanced(first, second) : mulUnbalanced(second, first);
+        }
+
+        if (shorterLength < TOOM_COOK_THRESHOLD) {
+            return mulKaratsuba(first, second);
+        }
+
+        if (shorterLength >= NTT_THRESHOLD && NumberTheoreticTransform.canMultiply(first.length, second.length)) {
+            return stripLeadingZeros(NumberTheoreticTransform.multiply(first, second));
+        }
+
+        return mulToomCook3(first, second);
     }
 
-    public static int[] toIntArray(String decimalValue) {
-        assert decimalValue != null;
-        int[] res = new int[decimalValue.length()];
+    /**
+     * Multiply 'longer' by 'shorter' block by block, every block of 'longer' has shorter.length limbs,
+     * so every block product is balanced and can use the fast algorithms.
+     */
+    private static int[] mulUnbalanced(int[] longer, int[] shorter) {
+        final int blockLength = shorter.length;
+        final int[] res = new int[longer.length + shorter.length];
 
-        for (int i = 0; i < res.length; ++i) {
+        for (int from = 0; from < longer.length; from += blockLength) {
+            addShifted(res, mulMagnitudes(limbsSlice(longer, from, blockLength), shorter), from);
+        }
 
-            char digitCh = decimalValue.charAt(i);
+        return stripLeadingZeros(res);
+    }
 
-            assert digitCh >= '0' && digitCh <= '9' : "incorrect decimal digit detected: " + digitCh;
+    /**
+     * Karatsuba multiplication.
+     * x = x1 * B^half + x0
+     * y = y1 * B^half + y0
+     * x * y = p1 * B^(2*half) + (p3 - p1 - p2) * B^half + p2,
+     * where p1 = x1 * y1, p2 = x0 * y0, p3 = (x1 + x0) * (y1 + y0)
+     */
+    private static int[] mulKaratsuba(int[] first, int[] second) {
 
-            res[i] = (digitCh - '0');
+        final int half = (Math.max(first.length, second.length) + 1) / 2;
+
+        int[] firstLow = limbsSlice(first, 0, half);
+        int[] firstHigh = limbsSlice(first, half, first.length);
+
+        int[] secondLow = limbsSlice(second, 0, half);
+        int[] secondHigh = limbsSlice(second, half, second.length);
+
+        int[] p1 = mulMagnitudes(firstHigh, secondHigh);
+        int[] p2 = mulMagnitudes(firstLow, secondLow);
+        int[] p3 = mulMagnitudes(addAbs(firstHigh, firstLow), addAbs(secondHigh, secondLow));
+
+        // p3 - p1 - p2 is always non-negative
+        int[] middle = stripLeadingZeros(subAbs(stripLeadingZeros(subAbs(p3, p1)), p2));
+
+        int[] res = new int[first.length + second.length];
+        addShifted(res, p2, 0);
+        addShifted(res, middle, half);
+        addShifted(res, p1, 2 * half);
+
+        return stripLeadingZeros(res);
+    }
+
+    /**
+     * Toom-Cook 3-way multiplication with Bodrato's interpolation sequence
+     * (the same sequence used by java.math.BigInteger).
+     * Split each operand into 3 parts of 'k' limbs and evaluate at points 0, 1, -1, 2 and infinity,
+     * so only 5 recursive multiplications required instead of 9.
+     * All steps work directly on magnitudes: only the value at -1 can be negative, so its sign is tracked
+     * separately, and all interpolation intermediates are non-negative.
+     */
+    private static int[] mulToomCook3(int[] first, int[] second) {
+
+        final int k = toomCookSliceLength(first, second);
+
+        ToomCookPoints firstPoints = toomCookEvaluate(first, k);
+        ToomCookPoints secondPoints = toomCookEvaluate(second, k);
+
+        int[][] products = new int[TOOM_COOK_POINTS][];
+
+        for (int i = 0; i < products.length; ++i) {
+            products[i] = mulMagnitudes(firstPoints.values[i], secondPoints.values[i]);
         }
 
-        return res;
+        return toomCookInterpolate(products, firstPoints.minusOneSign * secondPoints.minusOneSign, k,
+                                   first.length + second.length);
+    }
+
+    // evaluation points order: 0, 1, -1, 2, infinity
+    private static final int TOOM_COOK_POINTS = 5;
+
+    private static final int TOOM_COOK_MINUS_ONE = 2;
+
+    private static int toomCookSliceLength(int[] first, int[] second) {
+        return (Math.max(first.length, second.length) + 2) / 3;
     }
 
     /**
-     * Multiply big numbers using grade school algorithm with O(N^2) time complexity.
+     * Evaluate polynomial value = a2 * x^2 + a1 * x + a0, where x = BASE**k,
+     * at points 0, 1, -1, 2 and infinity.
      */
-    public BigNum mul(BigNum other) {
+    private static ToomCookPoints toomCookEvaluate(int[] value, int k) {
+
+        int[] a0 = limbsSlice(value, 0, k);
+        int[] a1 = limbsSlice(value, k, k);
+        int[] a2 = limbsSlice(value, 2 * k, value.length);
+
+        int[] a2PlusA0 = addAbs(a2, a0);
+        int[] atOne = addAbs(a2PlusA0, a1);
+
+        // a2 + a0 - a1 is the only value that can be negative
+        int minusOneSign = cmpAbsValues(a2PlusA0, a1);
+        int[] atMinusOne = (minusOneSign >= 0) ? stripLeadingZeros(subAbs(a2PlusA0, a1)) :
+                stripLeadingZeros(subAbs(a1, a2PlusA0));
+
+        // 2 * (a2 + a1 + a0 + a2) - a0 = 4 * a2 + 2 * a1 + a0
+        int[] atOnePlusA2 = addAbs(atOne, a2);
+        int[] atTwo = stripLeadingZeros(subAbs(addAbs(atOnePlusA2, atOnePlusA2), a0));
+
+        return new ToomCookPoints(new int[][]{a0, atOne, atMinusOne, atTwo, a2}, minusOneSign);
+    }
+
+    /**
+     * Recover product from its values at points 0, 1, -1, 2 and infinity, product of values at -1 has
+     * 'minusOneSign' sign. If product coefficients are c0..c4, intermediates are:
+     * t2 = c1 + c2 + 3 * c3 + 5 * c4, tm1 = c1 + c3, t1 = c1 + c2 + c3 + c4, so all of them are non-negative.
+     *
+     * @param resultLength - number of limbs in the product, enough to store all shifted coefficients.
+     */
+    private static int[] toomCookInterpolate(int[][] products, int minusOneSign, int k, int resultLength) {
+
+        int[] v0 = products[0];
+        int[] v1 = products[1];
+        int[] vm1 = products[TOOM_COOK_MINUS_ONE];
+        int[] v2 = products[3];
+        int[] vinf = products[4];
+
+        int[] t2 = exactDivideBy3(minusOneSign < 0 ? addAbs(v2, vm1) : stripLeadingZeros(subAbs(v2, vm1)));
+        int[] tm1 = exactHalve(minusOneSign < 0 ? addAbs(v1, vm1) : stripLeadingZeros(subAbs(v1, vm1)));
+        int[] t1 = stripLeadingZeros(subAbs(v1, v0));
+        t2 = exactHalve(stripLeadingZeros(subAbs(t2, t1)));
+        t1 = stripLeadingZeros(subAbs(stripLeadingZeros(subAbs(t1, tm1)), vinf));
+        t2 = stripLeadingZeros(subAbs(t2, addAbs(vinf, vinf)));
+        tm1 = stripLeadingZeros(subAbs(tm1, t2));
+
+        // res = vinf * x^4 + t2 * x^3 + t1 * x^2 + tm1 * x + v0, all coefficients are non-negative
+        int[] res = new int[resultLength];
+        addShifted(res, v0, 0);
+        addShifted(res, tm1, k);
+        addShifted(res, t1, 2 * k);
+        addShifted(res, t2, 3 * k);
+        addShifted(res, vinf, 4 * k);
+
+        return stripLeadingZeros(res);
+    }
+
+    /**
+     * Operand evaluated at Toom-Cook points 0, 1, -1, 2 and infinity, values are magnitudes
+     * and 'minusOneSign' is the sign of the value at -1 (all other values are non-negative).
+     */
+    private static final class ToomCookPoints {
+
+        final int[][] values;
+        final int minusOneSign;
+
+        ToomCookPoints(int[][] values, int minusOneSign) {
+            this.values = values;
+            this.minusOneSign = minusOneSign;
+        }
+    }
+
+    /**
+     * Multiply using ForkJoin pool. Operands are split using Toom-Cook 3-way algorithm
+     * and all 5 sub-products are calculated in parallel.
+     * If any operand is smaller than PARALLEL_MUL_THRESHOLD limbs, sequential 'mul' is used.
+     */
+    public BigNum parallelMul(BigNum other, ForkJoinPool pool) {
+        Objects.requireNonNull(other, "null 'other' passed");
+        Objects.requireNonNull(pool, "null 'pool' passed");
+
         if (isZero() || other.isZero()) {
             return BigNum.ZERO;
         }
 
-        return new BigNum(sign * other.sign, mulAbs(digits, other.digits));
+        if (digits.length < PARALLEL_MUL_THRESHOLD || other.digits.length < PARALLEL_MUL_THRESHOLD) {
+            return mul(other);
+        }
+
+        return new BigNum(sign * other.sign, pool.invoke(new ParallelMulTask(digits, other.digits)));
+    }
+
+    private static final class ParallelMulTask extends RecursiveTask<int[]> {
+
+        private final int[] first;
+        private final int[] second;
+
+        ParallelMulTask(int[] first, int[] second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        protected int[] compute() {
+
+            if (first.length < PARALLEL_MUL_THRESHOLD || second.length < PARALLEL_MUL_THRESHOLD) {
+                return mulMagnitudes(first, second);
+            }
+
+            final int k = toomCookSliceLength(first, second);
+
+            ToomCookPoints firstPoints = toomCookEvaluate(first, k);
+            ToomCookPoints secondPoints = toomCookEvaluate(second, k);
+
+            ParallelMulTask[] subtasks = new ParallelMulTask[TOOM_COOK_POINTS];
+
+            for (int i = 0; i < subtasks.length; ++i) {
+                subtasks[i] = new ParallelMulTask(firstPoints.values[i], secondPoints.values[i]);
+            }
+
+            // fork all, but the last one, which is calculated in current thread
+            for (int i = 0; i < subtasks.length - 1; ++i) {
+                subtasks[i].fork();
+            }
+
+            int[][] products = new int[TOOM_COOK_POINTS][];
+
+            final int last = subtasks.length - 1;
+            products[last] = subtasks[last].compute();
+
+            for (int i = 0; i < last; ++i) {
+                products[i] = subtasks[i].join();
+            }
+
+            return toomCookInterpolate(products, firstPoints.minusOneSign * secondPoints.minusOneSign, k,
+                                       first.length + second.length);
+        }
+    }
+
+    /**
+     * Returns 'count' limbs of 'value' starting from limb with index 'from',
+     * where limb with index 0 is the least significant one.
+     */
+    private static int[] limbsSlice(int[] value, int from, int count) {
+        int end = value.length - from;
+
+        if (end <= 0) {
+            return new int[0];
+        }
+
+        int start = Math.max(0, end - count);
+
+        return stripLeadingZeros(Arrays.copyOfRange(value, start, end));
+    }
+
+    /**
+     * res += value * BASE^shift, 'res' should have enough limbs to store the sum.
+     */
+    private static void addShifted(int[] res, int[] value, int shift) {
+        int k = res.length - 1 - shift;
+        int carry = 0;
+
+        for (int i = value.length - 1; i >= 0; --i, --k) {
+            // max value: 2 * (BASE - 1) + 1 < 2**31, so no overflow possible
+            int sum = res[k] + value[i] + carry;
+            res[k] = sum & BASE_MASK;
+            carry = sum >>> BASE_SHIFT;
+        }
+
+        for (; carry != 0; --k) {
+            int sum = res[k] + carry;
+            res[k] = sum & BASE_MASK;
+            carry = sum >>> BASE_SHIFT;
+        }
+    }
+
+    /**
+     * Divide by 2, value should be even.
+     */
+    private static int[] exactHalve(int[] value) {
+        int[] res = new int[value.length];
+
+        int lowestBitOfPrev = 0;
+
+        for (int i = 0; i < value.length; ++i) {
+            res[i] = (value[i] >>> 1) | (lowestBitOfPrev << (BASE_SHIFT - 1));
+            lowestBitOfPrev = value[i] & 1;
+        }
+
+        assert lowestBitOfPrev == 0 : "odd value can't be divided by 2 exactly";
+
+        return stripLeadingZeros(res);
+    }
+
+    /**
+     * Divide by 3, value should be divisible by 3.
+     */
+    private static int[] exactDivideBy3(int[] value) {
+        int[] res = new int[value.length];
+
+        long remainder = 0L;
+
+        for (int i = 0; i < value.length; ++i) {
+            long cur = (remainder << BASE_SHIFT) | value[i];
+            res[i] = (int) (cur / 3);
+            remainder = cur % 3;
+        }
+
+        assert remainder == 0L : "value is not divisible by 3";
+
+        return stripLeadingZeros(res);
     }
 
     /**
      * Use grade school algorithm to multiply two values.
+     * All partial products accumulated directly into result array.
      */
-    private static int[] mulAbs(int[] first, int[] second) {
+    static int[] mulAbs(int[] first, int[] second) {
 
         // swap, if 'first' has smaller number of digits,
         // so that 'first' is always bigger in terms of digits
@@ -224,42 +792,293 @@ public class BigNum {
 
         assert first.length >= second.length : "first.length < second.length";
 
-        int[] result = {0};
-        int digitsToShift = 0;
+        final int[] result = new int[first.length + second.length];
 
-        for (int i = second.length - 1; i >= 0; --i, ++digitsToShift) {
+        for (int i = second.length - 1; i >= 0; --i) {
             final long secondDigit = second[i];
 
-            long curry = 0L;
-            Deque<Integer> partialStack = shiftedStack(digitsToShift);
+            long carry = 0L;
+
+            // first[j] * second[i] should be added to result[i + j + 1]
+            int k = i + first.length;
 
-            for (int j = first.length - 1; j >= 0; --j) {
+            for (int j = first.length - 1; j >= 0; --j, --k) {
 
-                long digitsMul = (((long) first[j]) * secondDigit) + curry;
+                // max value: (BASE - 1)^2 + 2 * (BASE - 1) < 2**60, so no overflow possible
+                long digitsMul = (((long) first[j]) * secondDigit) + result[k] + carry;
 
-                partialStack.push((int) (digitsMul % BASE));
+                result[k] = (int) (digitsMul & BASE_MASK);
 
-                curry = digitsMul / BASE;
+                carry = digitsMul >>> BASE_SHIFT;
             }
 
-            if (curry != 0L) {
-                partialStack.push((int) (curry));
+            result[k] = (int) carry;
+        }
+
+        return stripLeadingZeros(result);
+    }
+
+    /**
+     * Divide with truncation toward zero, the same as BigInteger.divideAndRemainder:
+     * quotient = this / divisor, remainder = this - quotient * divisor,
+     * remainder has the same sign as 'this'.
+     */
+    public BigNumDivResult divRem(BigNum divisor) {
+        checkNotZero(divisor);
+
+        if (isZero()) {
+            return new BigNumDivResult(ZERO, ZERO);
+        }
+
+        MagnitudeDivRem res = divRemKnuth(digits, divisor.digits);
+
+        return new BigNumDivResult(new BigNum(sign * divisor.sign, res.quotient()), new BigNum(sign, res.remainder()));
+    }
+
+    /**
+     * Calculate this mod modulus, result is always non-negative.
+     */
+    public BigNum mod(BigNum modulus) {
+        checkPositiveModulus(modulus);
+
+        BigNum remainder = divRem(modulus).remainder();
+
+        return remainder.isNegative() ? remainder.add(modulus) : remainder;
+    }
+
+    /**
+     * Calculate (this ** exponent) mod modulus using binary exponentiation.
+     * Each modular multiplication uses Barrett reduction, so only one long division required to
+     * calculate reciprocal of modulus.
+     */
+    public BigNum modPow(BigNum exponent, BigNum modulus) {
+        checkPositiveModulus(modulus);
+
+        if (exponent.isNegative()) {
+            throw new ArithmeticException("BigNum negative exponent: " + exponent);
+        }
+
+        final int[] m = modulus.digits;
+
+        // x mod 1 == 0 for any x
+        if (m.length == 1 && m[0] == 1) {
+            return ZERO;
+        }
+
+        int[] reciprocalDividend = new int[2 * m.length + 1];
+        reciprocalDividend[0] = 1;
+        final int[] reciprocal = divRemKnuth(reciprocalDividend, m).quotient();
+
+        final int[] base = mod(modulus).digits;
+
+        int[] res = {1};
+
+        for (int exponentLimb : exponent.digits) {
+            for (int bit = BASE_SHIFT - 1; bit >= 0; --bit) {
+                res = divRemBarrett(mulMagnitudes(res, res), m, reciprocal).remainder();
+
+                if (((exponentLimb >>> bit) & 1) != 0) {
+                    res = divRemBarrett(mulMagnitudes(res, base), m, reciprocal).remainder();
+                }
             }
+        }
 
-            result = addAbs(result, toIntArray(partialStack));
+        return new BigNum(1, res);
+    }
+
+    private static void checkNotZero(BigNum divisor) {
+        if (Objects.requireNonNull(divisor, "null 'divisor' passed").isZero()) {
+            throw new ArithmeticException("BigNum divide by zero");
         }
+    }
 
-        return result;
+    private static void checkPositiveModulus(BigNum modulus) {
+        if (!Objects.requireNonNull(modulus, "null 'modulus' passed").isPositive()) {
+            throw new ArithmeticException("BigNum: modulus not positive: " + modulus);
+        }
+    }
+
+    /**
+     * Knuth's Algorithm D (The Art of Computer Programming, Vol. 2, 4.3.1).
+     * Time complexity: O((N - M) * M), where N = dividend.length, M = divisor.length
+     */
+    private static MagnitudeDivRem divRemKnuth(int[] dividend, int[] divisor) {
+
+        assert divisor.length != 0 && divisor[0] != 0 : "division by zero or not normalized divisor";
+
+        if (cmpAbsValues(dividend, divisor) < 0) {
+            return new MagnitudeDivRem(new int[0], dividend);
+        }
+
+        if (divisor.length == 1) {
+            return divRemBySingleLimb(dividend, divisor[0]);
+        }
+
+        // D1. normalize, so that the most significant bit of the divisor is set
+        final int shift = Integer.numberOfLeadingZeros(divisor[0]) - (Integer.SIZE - BASE_SHIFT);
+
+        final int[] v = shiftLeftBits(divisor, shift, 0);
+        final int[] u = shiftLeftBits(dividend, shift, 1);
+
+        final int n = v.length;
+        final long vTop = v[0];
+        final long vNext = v[1];
+
+        final int[] quotient = new int[u.length - n];
+
+        // D2-D7. main loop, each step calculates single quotient digit
+        for (int j = 0; j < quotient.length; ++j) {
+
+            // D3. estimate quotient digit using the 2 most significant digits of current remainder
+            long num = (((long) u[j]) << BASE_SHIFT) | u[j + 1];
+            long qHat = num / vTop;
+            long rHat = num % vTop;
+
+            while (qHat >= BASE || qHat * vNext > ((rHat << BASE_SHIFT) | u[j + 2])) {
+                --qHat;
+                rHat += vTop;
+
+                if (rHat >= BASE) {
+                    break;
+                }
+            }
+
+            // D4. multiply and subtract: u[j...j+n] -= qHat * v
+            long carry = 0L;
+            long borrow = 0L;
+
+            for (int i = n - 1; i >= 0; --i) {
+                long product = qHat * v[i] + carry;
+                carry = product >>> BASE_SHIFT;
+
+                long cur = u[j + i + 1] - (product & BASE_MASK) - borrow;
+                u[j + i + 1] = (int) (cur & BASE_MASK);
+                borrow = (cur < 0) ? 1L : 0L;
+            }
+
+            long top = u[j] - carry - borrow;
+            u[j] = (int) (top & BASE_MASK);
+
+            // D6. add back, qHat was 1 bigger than real quotient digit (rare case)
+            if (top < 0) {
+                --qHat;
+
+                carry = 0L;
+                for (int i = n - 1; i >= 0; --i) {
+                    long sum = ((long) u[j + i + 1]) + v[i] + carry;
+                    u[j + i + 1] = (int) (sum & BASE_MASK);
+                    carry = sum >>> BASE_SHIFT;
+                }
+
+                u[j] = (int) ((u[j] + carry) & BASE_MASK);
+            }
+
+            quotient[j] = (int) qHat;
+        }
+
+        // D8. unnormalize remainder
+        int[] remainder = shiftRightBits(Arrays.copyOfRange(u, u.length - n, u.length), shift);
+
+        return new MagnitudeDivRem(stripLeadingZeros(quotient), stripLeadingZeros(remainder));
     }
 
-    private static Deque<Integer> shiftedStack(int shiftLength) {
-        Deque<Integer> stack = new ArrayDeque<>();
+    private static MagnitudeDivRem divRemBySingleLimb(int[] dividend, int divisor) {
+        final int[] quotient = new int[dividend.length];
+
+        long remainder = 0L;
 
-        for (int i = 0; i < shiftLength; ++i) {
-            stack.push(0);
+        for (int i = 0; i < dividend.length; ++i) {
+            long cur = (remainder << BASE_SHIFT) | dividend[i];
+            quotient[i] = (int) (cur / divisor);
+            remainder = cur % divisor;
         }
 
-        return stack;
+        int[] remainderDigits = (remainder == 0L) ? new int[0] : new int[]{(int) remainder};
+
+        return new MagnitudeDivRem(stripLeadingZeros(quotient), remainderDigits);
+    }
+
+    /**
+     * Barrett reduction: calculate quotient and remainder using only multiplications.
+     * 'reciprocal' should be equal to floor(BASE**(2 * k) / divisor), where k = divisor.length,
+     * and 'dividend' should be less than BASE**(2 * k).
+     */
+    private static MagnitudeDivRem divRemBarrett(int[] dividend, int[] divisor, int[] reciprocal) {
+
+        final int k = divisor.length;
+
+        assert dividend.length <= 2 * k : "dividend is too big for Barrett reduction";
+
+        // estimated quotient is smaller than real one at most by 2
+        int[] quotient = dropLowLimbs(mulMagnitudes(dropLowLimbs(dividend, k - 1), reciprocal), k + 1);
+
+        int[] remainder = stripLeadingZeros(subAbs(dividend, mulMagnitudes(quotient, divisor)));
+
+        while (cmpAbsValues(remainder, divisor) >= 0) {
+            remainder = stripLeadingZeros(subAbs(remainder, divisor));
+            quotient = addAbs(quotient, new int[]{1});
+        }
+
+        return new MagnitudeDivRem(quotient, remainder);
+    }
+
+    /**
+     * Divide value by BASE**limbsCount.
+     */
+    private static int[] dropLowLimbs(int[] value, int limbsCount) {
+        if (limbsCount >= value.length) {
+            return new int[0];
+        }
+        return Arrays.copyOf(value, value.length - limbsCount);
+    }
+
+    /**
+     * Shift value left by 'shift' bits, where shift in range [0, BASE_SHIFT),
+     * 'extraLimbs' additional most significant limbs are allocated.
+     */
+    private static int[] shiftLeftBits(int[] value, int shift, int extraLimbs) {
+        final int[] res = new int[value.length + extraLimbs];
+
+        int carry = 0;
+
+        for (int i = value.length - 1; i >= 0; --i) {
+            long cur = (((long) value[i]) << shift) | carry;
+            res[i + extraLimbs] = (int) (cur & BASE_MASK);
+            carry = (int) (cur >>> BASE_SHIFT);
+        }
+
+        if (extraLimbs > 0) {
+            res[extraLimbs - 1] = carry;
+        }
+        else {
+            assert carry == 0 : "value overflow during left shift";
+        }
+
+        return res;
+    }
+
+    /**
+     * Shift value right by 'shift' bits, where shift in range [0, BASE_SHIFT).
+     */
+    private static int[] shiftRightBits(int[] value, int shift) {
+        final int[] res = new int[value.length];
+
+        final int lowMask = (1 << shift) - 1;
+
+        int prevLowBits = 0;
+
+        for (int i = 0; i < value.length; ++i) {
+            res[i] = (value[i] >>> shift) | (prevLowBits << (BASE_SHIFT - shift));
+            prevLowBits = value[i] & lowMask;
+        }
+
+        return res;
+    }
+
+    /**
+     * Quotient and remainder for absolute values.
+     */
+    private record MagnitudeDivRem(int[] quotient, int[] remainder) {
     }
 
     /**
@@ -267,6 +1086,20 @@ public class BigNum {
      */
     public BigNum sub(BigNum other) {
 
+        // handle zero as a corner case
+        if (other.isZero()) {
+            return this;
+        }
+
+        if (isZero()) {
+            return other.negate();
+        }
+
+        // small values fast path: |difference| < 2**61
+        if (fitsTwoLimbs() && other.fitsTwoLimbs()) {
+            return valueOf(smallValue() - other.smallValue());
+        }
+
         /*
          case-1: both values are positive.
          x - y = |x| - |y| => |x| - |y|, if x >= y, - (|y| - |x|) otherwise
@@ -323,6 +1156,11 @@ public class BigNum {
             return isZero() ? other : this;
         }
 
+        // small values fast path: |sum| < 2**61
+        if (fitsTwoLimbs() && other.fitsTwoLimbs()) {
+            return valueOf(smallValue() + other.smallValue());
+        }
+
         // case-1: (+x) + (+y) => |x| + |y|
         if (isPositive() && other.isPositive()) {
             return new BigNum(1, addAbs(this.digits, other.digits));
@@ -361,60 +1199,69 @@ public class BigNum {
         return new BigNum(-1, addAbs(this.digits, other.digits));
     }
 
+    /**
+     * Subtract absolute values, carry-save algorithm is used for big enough operands.
+     * <p>
+     * Important invariant that always holds: |first| >= |second|
+     */
+    private static int[] subAbs(int[] first, int[] second) {
+        if (CarrySaveLimbs.isApplicable(first.length, second.length)) {
+            return CarrySaveLimbs.subAbs(first, second);
+        }
+        return subAbsScalar(first, second);
+    }
+
     /**
      * Use grade school subtraction algorithm with borrowing if needed.
      * <p>
      * Important invariant that always holds: |first| >= |second|
      */
-    private static int[] subAbs(int[] initialFirst, int[] second) {
+    static int[] subAbsScalar(int[] first, int[] second) {
 
-        // taking into account that we can modify 'initialFirst' array during
-        // subtraction procedure, we need make defensive copy here
-        final int[] first = Arrays.copyOf(initialFirst, initialFirst.length);
+        final int[] res = new int[first.length];
 
         int i = first.length - 1;
         int j = second.length - 1;
 
-        Deque<Integer> res = new ArrayDeque<>();
+        int borrow = 0;
 
         while (j >= 0) {
 
-            int d1 = first[i];
-            int d2 = second[j];
+            // overflow is not possible here, all digits are in range [0...BASE)
+            int cur = first[i] - second[j] - borrow;
 
-            if (d1 >= d2) {
-                res.push(d1 - d2);
+            if (cur < 0) {
+                cur += BASE;
+                borrow = 1;
             }
             else {
-                int index = i - 1;
-
-                while (first[index] == 0) {
-                    --index;
-                }
-
-                first[index] -= 1;
-                index += 1;
-
-                while (index < i) {
-                    first[index] = MAX_DIGIT;
-                    ++index;
-                }
-
-                // overflow is not possible here, because d2 > d1
-                int cur = BASE - d2 + d1;
-                res.push(cur);
+                borrow = 0;
             }
 
+            res[i] = cur;
+
             --i;
             --j;
         }
 
         while (i >= 0) {
-            res.push(first[i]);
+            int cur = first[i] - borrow;
+
+            if (cur < 0) {
+                cur += BASE;
+                borrow = 1;
+            }
+            else {
+                borrow = 0;
+            }
+
+            res[i] = cur;
             --i;
         }
 
-        return toIntArray(res);
+        assert borrow == 0 : "|first| < |second| detected";
+
+        return res;
     }
 
     public int cmp(BigNum other) {
@@ -429,6 +1276,11 @@ public class BigNum {
             return isPositive() ? 1 : -1;
         }
 
+        // single limb fast path
+        if (sign == other.sign && digits.length == 1 && other.digits.length == 1) {
+            return sign * Integer.compare(digits[0], other.digits[0]);
+        }
+
         if (isPositive()) {
             return other.isPositive() ? cmpAbsValues(this.digits, other.digits) : 1;
         }
@@ -458,14 +1310,26 @@ public class BigNum {
 
 
     /**
-     * Add absolute values.
+     * Add absolute values, carry-save algorithm is used for big enough operands.
      */
     private static int[] addAbs(int[] first, int[] second) {
+        if (CarrySaveLimbs.isApplicable(first.length, second.length)) {
+            return CarrySaveLimbs.addAbs(first, second);
+        }
+        return addAbsScalar(first, second);
+    }
+
+    /**
+     * Add absolute values using grade school algorithm.
+     */
+    static int[] addAbsScalar(int[] first, int[] second) {
 
         int i = first.length - 1;
         int j = second.length - 1;
 
-        Deque<Integer> result = new ArrayDeque<>();
+        final int[] result = new int[Math.max(first.length, second.length)];
+        int k = result.length - 1;
+
         long carry = 0L;
 
         while (i >= 0 || j >= 0) {
@@ -476,15 +1340,33 @@ public class BigNum {
 
             long digitsSum = d1 + d2 + carry;
 
-            result.push((int) (digitsSum & BASE_MASK));
+            result[k] = (int) (digitsSum & BASE_MASK);
+            --k;
             carry = digitsSum >>> BASE_SHIFT;
         }
 
-        if (carry > 0L) {
-            result.push((int) (carry & BASE_MASK));
+        if (carry == 0L) {
+            return result;
         }
 
-        return toIntArray(result);
+        // rare case: one more digit required for carry
+        final int[] extendedResult = new int[result.length + 1];
+        extendedResult[0] = (int) carry;
+        System.arraycopy(result, 0, extendedResult, 1, result.length);
+
+        return extendedResult;
+    }
+
+    public BigNum negate() {
+        return isZero() ? this : new BigNum(-sign, digits);
+    }
+
+    int[] digits() {
+        return digits;
+    }
+
+    int sign() {
+        return sign;
     }
 
     public boolean isPositive() {
@@ -500,7 +1382,7 @@ public class BigNum {
     }
 
     /**
-     * Use Horner's rule to convert number from base=2**30 to base = 10.
+     * Convert to BigInteger directly from binary representation, time complexity: O(N).
      */
     public BigInteger toBigInt() {
 
@@ -508,19 +1390,131 @@ public class BigNum {
             return BigInteger.ZERO;
         }
 
-        BigInteger res = BigInteger.ZERO;
-        BigInteger base = BigInteger.valueOf(BASE);
+        final int bitLength = (digits.length - 1) * BASE_SHIFT + (Integer.SIZE - Integer.numberOfLeadingZeros(digits[0]));
 
-        for (int singleDigit : digits) {
-            res = res.multiply(base).add(BigInteger.valueOf(singleDigit));
+        // big-endian magnitude bytes
+        final byte[] bytes = new byte[bitLength / Byte.SIZE + 1];
+        int bytesIndex = bytes.length - 1;
+
+        long bitsBuffer = 0L;
+        int bitsCount = 0;
+
+        for (int i = digits.length - 1; i >= 0; --i) {
+            bitsBuffer |= ((long) digits[i]) << bitsCount;
+            bitsCount += BASE_SHIFT;
+
+            // leading zero bits of the most significant limb are not stored
+            while (bitsCount >= Byte.SIZE && bytesIndex >= 0) {
+                bytes[bytesIndex] = (byte) bitsBuffer;
+                --bytesIndex;
+                bitsBuffer >>>= Byte.SIZE;
+                bitsCount -= Byte.SIZE;
+            }
         }
 
-        return res.multiply(BigInteger.valueOf(sign));
+        if (bitsCount > 0 && bytesIndex >= 0) {
+            bytes[bytesIndex] = (byte) bitsBuffer;
+        }
+
+        return new BigInteger(sign, bytes);
     }
 
     @Override
     public String toString() {
-        return toBigInt().toString();
+        if (isZero()) {
+            return "0";
+        }
+
+        // each limb has less than 10 decimal digits
+        StringBuilder buf = new StringBuilder(digits.length * 10 + 1);
+
+        if (isNegative()) {
+            buf.append('-');
+        }
+
+        appendDecimal(buf, digits, 0);
+
+        return buf.toString();
+    }
+
+    /**
+     * Divide and conquer conversion to decimal:
+     * value = high * 10**(9 * 2**j) + low, where 10**(9 * 2**j) has about half of value limbs.
+     * Division done with Barrett reduction, so time complexity is O(M(N) * logN).
+     * Decimal representation of 'value' is padded with leading zeros up to 'minDigitsCount'.
+     */
+    private static void appendDecimal(StringBuilder buf, int[] value, int minDigitsCount) {
+
+        if (value.length <= TO_STRING_THRESHOLD_LIMBS) {
+            appendDecimalSimple(buf, value, minDigitsCount);
+            return;
+        }
+
+        // choose the smallest power with at least half of the value limbs,
+        // so it is always less than value and Barrett reduction precondition holds
+        int powerIndex = 0;
+
+        while (2 * radixPower(powerIndex).length < value.length) {
+            ++powerIndex;
+        }
+
+        MagnitudeDivRem highAndLow = divRemBarrett(value, radixPower(powerIndex), radixPowerReciprocal(powerIndex));
+
+        final int lowDigitsCount = DECIMAL_GROUP_DIGITS << powerIndex;
+
+        appendDecimal(buf, highAndLow.quotient(), minDigitsCount - lowDigitsCount);
+        appendDecimal(buf, highAndLow.remainder(), lowDigitsCount);
+    }
+
+    /**
+     * Convert to decimal using repeated division by 10**9.
+     * Time complexity: O(N^2)
+     */
+    private static void appendDecimalSimple(StringBuilder buf, int[] value, int minDigitsCount) {
+
+        final int[] cur = Arrays.copyOf(value, value.length);
+
+        // 9 decimal digits groups in little-endian order
+        // each group has ~29.9 bits, so there can be slightly more groups than limbs
+        final int[] groups = new int[value.length + value.length / 256 + 2];
+        int groupsCount = 0;
+
+        int from = skipZeros(cur, 0);
+
+        while (from < cur.length) {
+
+            long remainder = 0L;
+
+            for (int i = from; i < cur.length; ++i) {
+                long digitsValue = (remainder << BASE_SHIFT) | cur[i];
+                cur[i] = (int) (digitsValue / DECIMAL_GROUP_BASE);
+                remainder = digitsValue % DECIMAL_GROUP_BASE;
+            }
+
+            groups[groupsCount] = (int) remainder;
+            ++groupsCount;
+
+            from = skipZeros(cur, from);
+        }
+
+        String topGroup = (groupsCount == 0) ? "" : String.valueOf(groups[groupsCount - 1]);
+
+        int digitsCount = topGroup.length() + (Math.max(groupsCount, 1) - 1) * DECIMAL_GROUP_DIGITS;
+
+        appendZeros(buf, minDigitsCount - digitsCount);
+        buf.append(topGroup);
+
+        for (int i = groupsCount - 2; i >= 0; --i) {
+            String group = String.valueOf(groups[i]);
+            appendZeros(buf, DECIMAL_GROUP_DIGITS - group.length());
+            buf.append(group);
+        }
+    }
+
+    private static void appendZeros(StringBuilder buf, int count) {
+        for (int i = 0; i < count; ++i) {
+            buf.append('0');
+        }
     }
 
 }
@@ -0,0 +1,98 @@
+package com.max.app.bignum;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Measure heap allocation per single operation (bytes/op) using per-thread allocation counter.
+ * <p>
+ * operation            limbs    bytes/op (boxed Deque)    bytes/op (int[] accumulators)
+ * add                  10       360                       144
+ * sub                  10       408                       80
+ * mul                  10       9408                      120
+ * new BigNum(String)   10       7864                      528
+ * add                  100      3072                      864
+ * sub                  100      3504                      440
+ * mul                  100      676144                    6912
+ * new BigNum(String)   100      831040                    4496
+ * add                  1000     34940                     8064
+ * sub                  1000     38954                     4040
+ * mul                  1000     22561096                  509008
+ * new BigNum(String)   1000     84091376                  44216
+ * <p>
+ * MutableBigNum in-place operations don't allocate once capacity is big enough:
+ * addInPlace           10/100/1000                        0
+ * mulSmallInPlace      10/100/1000                        0
+ */
+public final class BigNumAllocationBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int[] LIMBS_COUNT = {1, 2, 10, 100, 1000};
+
+    private static final int WARMUP_ITERATIONS = 1000;
+    private static final int MEASURE_ITERATIONS = 1000;
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+
+        System.out.printf("operation            limbs    bytes/op%n");
+
+        for (int limbsCount : LIMBS_COUNT) {
+
+            BigNum first = randomBigNum(limbsCount);
+            BigNum second = randomBigNum(limbsCount);
+            String decimal = first.toString();
+
+            print("add", limbsCount, measure(() -> first.add(second)));
+            print("sub", limbsCount, measure(() -> first.sub(second)));
+            print("mul", limbsCount, measure(() -> first.mul(second)));
+            print("new BigNum(String)", limbsCount, measure(() -> new BigNum(decimal)));
+
+            if (limbsCount <= 2) {
+                long longValue = first.toBigInt().longValue();
+                print("new BigNum(long)", limbsCount, measure(() -> new BigNum(longValue)));
+            }
+
+            // accumulator value stays bounded, so capacity doesn't grow during measurement
+            MutableBigNum acc = new MutableBigNum(first);
+            print("addInPlace", limbsCount, measure(() -> acc.addInPlace(second).subInPlace(second)) / 2);
+            print("mulSmallInPlace", limbsCount, measure(() -> acc.mulSmallInPlace(-1)));
+        }
+
+        System.out.println("BigNumAllocationBenchmark done...");
+    }
+
+    private static void print(String operation, int limbsCount, long bytesPerOp) {
+        System.out.printf("%-20s %-8d %d%n", operation, limbsCount, bytesPerOp);
+    }
+
+    /**
+     * @return average number of bytes allocated by current thread per single call.
+     */
+    private static long measure(Runnable action) {
+        for (int it = 0; it < WARMUP_ITERATIONS; ++it) {
+            action.run();
+        }
+
+        final long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = THREAD_BEAN.getThreadAllocatedBytes(threadId);
+
+        for (int it = 0; it < MEASURE_ITERATIONS; ++it) {
+            action.run();
+        }
+
+        long allocatedAfter = THREAD_BEAN.getThreadAllocatedBytes(threadId);
+
+        return (allocatedAfter - allocatedBefore) / MEASURE_ITERATIONS;
+    }
+
+    private static BigNum randomBigNum(int limbsCount) {
+        // each limb has 30 bits
+        return new BigNum(new BigInteger(limbsCount * 30 - 1, RAND).setBit(limbsCount * 30 - 1).toString());
+    }
+}
@@ -0,0 +1,68 @@
+package com.max.app.bignum;
+
+/**
+ * Binary file layout for BigNum vectors, all values are stored in big-endian byte order:
+ * <pre>
+ * header: int MAGIC, long count
+ * record: int sign, int limbsCount, int[limbsCount] limbs (base 2**30, most significant limb first)
+ * </pre>
+ * Every field is 4 bytes aligned, so records can be read directly from an IntBuffer view.
+ */
+final class BigNumBinaryFormat {
+
+    // 'BGN1' in ASCII
+    static final int MAGIC = 0x42_47_4E_31;
+
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    static final int COUNT_OFFSET = Integer.BYTES;
+
+    static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private BigNumBinaryFormat() {
+        throw new AssertionError("Can't instantiate utility only class");
+    }
+
+    /**
+     * @return number of bytes required to store single value.
+     */
+    static long recordSize(int limbsCount) {
+        return RECORD_HEADER_SIZE + ((long) limbsCount) * Integer.BYTES;
+    }
+
+    /**
+     * Every record takes at least RECORD_HEADER_SIZE bytes, so 'count' from a corrupted header can't make
+     * readers allocate more than the file can hold.
+     */
+    static void checkCount(long count, long fileSize) {
+        if (count < 0 || count > (fileSize - HEADER_SIZE) / RECORD_HEADER_SIZE) {
+            throw new IllegalStateException(String.format("Corrupted BigNum file header: count = %d, file size = %d",
+                                                          count, fileSize));
+        }
+    }
+
+    static void checkRecordHeader(int sign, int limbsCount, long offset) {
+        if (sign < -1 || sign > 1 || limbsCount < 0 || ((sign == 0) != (limbsCount == 0))) {
+            throw new IllegalStateException(String.format("Corrupted BigNum record at offset %d: sign = %d, limbs = %d",
+                                                          offset, sign, limbsCount));
+        }
+    }
+
+    /**
+     * Every limb should be in [0, BASE) range and the most significant limb can't be 0,
+     * otherwise BigNum would be created with broken invariants.
+     */
+    static void checkLimbs(int[] limbs, long offset) {
+        if (limbs.length > 0 && limbs[0] == 0) {
+            throw new IllegalStateException(String.format("Corrupted BigNum record at offset %d: leading limb is 0",
+                                                          offset));
+        }
+
+        for (int i = 0; i < limbs.length; ++i) {
+            if ((limbs[i] & ~BigNum.BASE_MASK) != 0) {
+                throw new IllegalStateException(String.format("Corrupted BigNum record at offset %d: limbs[%d] = %d",
+                                                              offset, i, limbs[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.max.app.bignum;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.BinaryOperator;
+
+/**
+ * Average time per single operation on magnitudes, scalar loops vs carry-save passes.
+ * <p>
+ * limbs        scalar add, us    carry-save add, us    scalar sub, us    carry-save sub, us    cmp, us
+ * 1_000        3.12              2.38                  2.13              2.11                  0.17
+ * 10_000       37.32             23.40                 42.49             21.15                 1.85
+ * 100_000      341.98            264.91                819.59            198.83                20.05
+ * <p>
+ * Scalar subtraction suffers from unpredictable borrow branch, carry-save passes are branch free.
+ * Comparison uses Arrays.compare, which is already a vectorized JVM intrinsic, so it is left as is.
+ */
+public final class BigNumCarrySaveBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int[] LIMBS_COUNT = {1_000, 10_000, 100_000};
+
+    // total limbs processed per measurement, so that every size takes about the same time
+    private static final long LIMBS_PER_MEASUREMENT = 200_000_000L;
+
+    public static void main(String[] args) {
+
+        System.out.printf("carry-save enabled: %b%n", CarrySaveLimbs.ENABLED);
+        System.out.printf("limbs        scalar add, us    carry-save add, us    scalar sub, us    " +
+                                  "carry-save sub, us    cmp, us%n");
+
+        for (int it = 0; it < 3; ++it) {
+            for (int limbsCount : LIMBS_COUNT) {
+                int[] first = randomMagnitude(limbsCount);
+                int[] second = randomMagnitude(limbsCount);
+
+                // subtraction expects |first| >= |second|
+                if (Arrays.compare(first, second) < 0) {
+                    int[] temp = first;
+                    first = second;
+                    second = temp;
+                }
+
+                int[] firstCopy = first.clone();
+
+                System.out.printf("%-12d %-17.2f %-21.2f %-17.2f %-21.2f %.2f%n", limbsCount,
+                                  measure(first, second, BigNum::addAbsScalar),
+                                  measure(first, second, CarrySaveLimbs::addAbs),
+                                  measure(first, second, BigNum::subAbsScalar),
+                                  measure(first, second, CarrySaveLimbs::subAbs),
+                                  measure(first, firstCopy, (x, y) -> Arrays.compare(x, y) == 0 ? x : y));
+            }
+        }
+
+        System.out.println("BigNumCarrySaveBenchmark done...");
+    }
+
+    private static double measure(int[] first, int[] second, BinaryOperator<int[]> operation) {
+        final long iterations = LIMBS_PER_MEASUREMENT / first.length;
+
+        long startTime = System.nanoTime();
+
+        long limbsCount = 0L;
+
+        for (long it = 0; it < iterations; ++it) {
+            limbsCount += operation.apply(first, second).length;
+        }
+
+        long endTime = System.nanoTime();
+
+        if (limbsCount < 0) {
+            throw new IllegalStateException("Should never happen");
+        }
+
+        return (endTime - startTime) / (iterations * 1000.0);
+    }
+
+    private static int[] randomMagnitude(int limbsCount) {
+        int[] limbs = new int[limbsCount];
+
+        for (int i = 0; i < limbs.length; ++i) {
+            limbs[i] = RAND.nextInt(BigNum.BASE);
+        }
+
+        // no leading zeros
+        limbs[0] = 1 + RAND.nextInt(BigNum.BASE_MASK);
+
+        return limbs;
+    }
+}
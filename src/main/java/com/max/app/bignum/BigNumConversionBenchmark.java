@@ -0,0 +1,84 @@
+package com.max.app.bignum;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Compare decimal parsing and 'toString' for BigNum and BigInteger.
+ * <p>
+ * Average time per single conversion:
+ * <p>
+ * decimal digits    new BigNum, ms    BigNum.toString, ms    new BigInteger, ms    BigInteger.toString, ms
+ * 1000              0.688             0.614                  0.320                 0.490
+ * 10000             4.646             8.526                  6.844                 17.368
+ * 100000            84.892            197.218                204.572               117.496
+ * <p>
+ * Before divide and conquer conversion (repeated division by 2**30 and Horner's rule through BigInteger):
+ * 1000              0.201             3.008
+ * 10000             11.067            23.787
+ * 100000            1059.509          335.738
+ */
+public final class BigNumConversionBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int[] DIGITS_COUNT = {1_000, 10_000, 100_000};
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURE_ITERATIONS = 5;
+
+    public static void main(String[] args) {
+
+        System.out.printf("decimal digits    new BigNum, ms    BigNum.toString, ms    " +
+                                  "new BigInteger, ms    BigInteger.toString, ms%n");
+
+        for (int digitsCount : DIGITS_COUNT) {
+
+            String decimal = randomDecimalString(digitsCount);
+
+            BigNum bigNum = new BigNum(decimal);
+            BigInteger bigInt = new BigInteger(decimal);
+
+            double parseTime = measure(() -> new BigNum(decimal));
+            double toStringTime = measure(bigNum::toString);
+            double bigIntParseTime = measure(() -> new BigInteger(decimal));
+            double bigIntToStringTime = measure(bigInt::toString);
+
+            System.out.printf("%-17d %-17.3f %-22.3f %-21.3f %.3f%n", digitsCount, parseTime, toStringTime,
+                              bigIntParseTime, bigIntToStringTime);
+        }
+
+        System.out.println("BigNumConversionBenchmark done...");
+    }
+
+    /**
+     * @return average time in milliseconds per single call.
+     */
+    private static double measure(Runnable action) {
+        for (int it = 0; it < WARMUP_ITERATIONS; ++it) {
+            action.run();
+        }
+
+        long startTime = System.nanoTime();
+
+        for (int it = 0; it < MEASURE_ITERATIONS; ++it) {
+            action.run();
+        }
+
+        long endTime = System.nanoTime();
+
+        return (endTime - startTime) / (MEASURE_ITERATIONS * 1_000_000.0);
+    }
+
+    private static String randomDecimalString(int length) {
+        char[] arr = new char[length];
+
+        // first digit should not be zero
+        arr[0] = (char) ('1' + RAND.nextInt(9));
+
+        for (int i = 1; i < arr.length; ++i) {
+            arr[i] = (char) ('0' + RAND.nextInt(10));
+        }
+        return new String(arr);
+    }
+}
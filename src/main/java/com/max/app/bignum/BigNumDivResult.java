@@ -0,0 +1,4 @@
+package com.max.app.bignum;
+
+public record BigNumDivResult(BigNum quotient, BigNum remainder) {
+}
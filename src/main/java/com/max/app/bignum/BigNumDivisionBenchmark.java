@@ -0,0 +1,91 @@
+package com.max.app.bignum;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Compare BigNum 'divRem'/'modPow' with BigInteger 'divideAndRemainder'/'modPow'.
+ * <p>
+ * Average time per single operation:
+ * <p>
+ * operation                 BigNum, ms    BigInteger, ms
+ * divRem 100/50 limbs       0.338         0.304
+ * divRem 1000/500 limbs     2.406         2.110
+ * divRem 4000/2000 limbs    12.990        9.595
+ * modPow 512 bits           4.447         3.125
+ * modPow 1024 bits          20.623        9.125
+ * modPow 2048 bits          84.462        12.959
+ * <p>
+ * BigInteger.modPow uses Montgomery multiplication with sliding window, which explains the gap for modPow.
+ */
+public final class BigNumDivisionBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURE_ITERATIONS = 20;
+
+    public static void main(String[] args) {
+
+        System.out.printf("operation                 BigNum, ms    BigInteger, ms%n");
+
+        for (int dividendLimbs : new int[]{100, 1000, 4000}) {
+
+            BigInteger dividend = randomBigInteger(dividendLimbs * 30);
+            BigInteger divisor = randomBigInteger(dividendLimbs * 30 / 2);
+
+            BigNum dividendNum = new BigNum(dividend.toString());
+            BigNum divisorNum = new BigNum(divisor.toString());
+
+            double bigNumTime = measure(() -> dividendNum.divRem(divisorNum));
+            double bigIntTime = measure(() -> dividend.divideAndRemainder(divisor));
+
+            print(String.format("divRem %d/%d limbs", dividendLimbs, dividendLimbs / 2), bigNumTime, bigIntTime);
+        }
+
+        for (int bitsCount : new int[]{512, 1024, 2048}) {
+
+            BigInteger base = randomBigInteger(bitsCount);
+            BigInteger exponent = randomBigInteger(bitsCount);
+            BigInteger modulus = randomBigInteger(bitsCount).setBit(0);
+
+            BigNum baseNum = new BigNum(base.toString());
+            BigNum exponentNum = new BigNum(exponent.toString());
+            BigNum modulusNum = new BigNum(modulus.toString());
+
+            double bigNumTime = measure(() -> baseNum.modPow(exponentNum, modulusNum));
+            double bigIntTime = measure(() -> base.modPow(exponent, modulus));
+
+            print(String.format("modPow %d bits", bitsCount), bigNumTime, bigIntTime);
+        }
+
+        System.out.println("BigNumDivisionBenchmark done...");
+    }
+
+    private static void print(String operation, double bigNumTime, double bigIntTime) {
+        System.out.printf("%-25s %-13.3f %.3f%n", operation, bigNumTime, bigIntTime);
+    }
+
+    /**
+     * @return average time in milliseconds per single call.
+     */
+    private static double measure(Runnable action) {
+        for (int it = 0; it < WARMUP_ITERATIONS; ++it) {
+            action.run();
+        }
+
+        long startTime = System.nanoTime();
+
+        for (int it = 0; it < MEASURE_ITERATIONS; ++it) {
+            action.run();
+        }
+
+        long endTime = System.nanoTime();
+
+        return (endTime - startTime) / (MEASURE_ITERATIONS * 1_000_000.0);
+    }
+
+    private static BigInteger randomBigInteger(int bitsCount) {
+        return new BigInteger(bitsCount - 1, RAND).setBit(bitsCount - 1);
+    }
+}
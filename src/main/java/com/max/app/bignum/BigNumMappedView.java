@@ -0,0 +1,201 @@
+package com.max.app.bignum;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Read-only memory-mapped view over a file written by BigNumWriter.
+ * Values are materialized lazily by file offset, so opening a file doesn't parse anything.
+ * All read operations use absolute positions, so view can be safely shared between threads.
+ * <p>
+ * A single mapping is limited to 2GB, so the file is mapped in chunks of 2^28 ints (1GB),
+ * records that cross chunk boundaries are read from both chunks.
+ */
+public final class BigNumMappedView {
+
+    // 2^28 ints = 1GB per mapping
+    static final int DEFAULT_CHUNK_SHIFT = 28;
+
+    private final MappedIntArray ints;
+    private final long count;
+    private final long size;
+
+    private BigNumMappedView(MappedIntArray ints, long count, long size) {
+        this.ints = ints;
+        this.count = count;
+        this.size = size;
+    }
+
+    public static BigNumMappedView open(Path path) throws IOException {
+        return open(path, DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * @param chunkShift - every mapping contains 2^chunkShift ints, smaller chunks are used only in tests.
+     */
+    static BigNumMappedView open(Path path, int chunkShift) throws IOException {
+        Objects.requireNonNull(path, "null 'path' passed");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+
+            if (fileSize < BigNumBinaryFormat.HEADER_SIZE) {
+                throw new IllegalStateException("Not a BigNum binary file");
+            }
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0L, BigNumBinaryFormat.HEADER_SIZE);
+
+            if (header.getInt(0) != BigNumBinaryFormat.MAGIC) {
+                throw new IllegalStateException("Not a BigNum binary file");
+            }
+
+            long count = header.getLong(BigNumBinaryFormat.COUNT_OFFSET);
+            BigNumBinaryFormat.checkCount(count, fileSize);
+
+            // mappings stay valid after channel is closed
+            return new BigNumMappedView(MappedIntArray.map(channel, fileSize / Integer.BYTES, chunkShift), count,
+                                        fileSize);
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return offset of the first value, if there are any values.
+     */
+    public long firstOffset() {
+        return BigNumBinaryFormat.HEADER_SIZE;
+    }
+
+    /**
+     * @return offset of the value that follows value at 'offset' (or file size for the last value).
+     */
+    public long nextOffset(long offset) {
+        return offset + checkRecord(offset);
+    }
+
+    /**
+     * Scan only records headers and return offsets of all values, so they can be accessed by index.
+     */
+    public long[] offsets() {
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many values to index: " + count);
+        }
+
+        long[] offsets = new long[(int) count];
+
+        long cur = firstOffset();
+
+        for (int i = 0; i < offsets.length; ++i) {
+            offsets[i] = cur;
+            cur = nextOffset(cur);
+        }
+
+        return offsets;
+    }
+
+    /**
+     * Materialize BigNum stored at the specified file offset.
+     */
+    public BigNum get(long offset) {
+        checkRecord(offset);
+
+        long index = offset / Integer.BYTES;
+
+        int sign = ints.get(index);
+        int[] digits = new int[ints.get(index + 1)];
+        ints.get(index + 2, digits);
+
+        BigNumBinaryFormat.checkLimbs(digits, offset);
+
+        return BigNum.fromMagnitude(sign, digits);
+    }
+
+    /**
+     * Check record header at 'offset' and that the record fits into the file.
+     *
+     * @return record size in bytes.
+     */
+    private long checkRecord(long offset) {
+        if (offset < BigNumBinaryFormat.HEADER_SIZE || offset + BigNumBinaryFormat.RECORD_HEADER_SIZE > size ||
+                (offset % Integer.BYTES) != 0) {
+            throw new IllegalArgumentException("Incorrect BigNum record offset: " + offset);
+        }
+
+        long index = offset / Integer.BYTES;
+
+        int sign = ints.get(index);
+        int limbsCount = ints.get(index + 1);
+
+        BigNumBinaryFormat.checkRecordHeader(sign, limbsCount, offset);
+
+        long recordSize = BigNumBinaryFormat.recordSize(limbsCount);
+
+        if (offset + recordSize > size) {
+            throw new IllegalStateException("Truncated BigNum record at offset " + offset);
+        }
+
+        return recordSize;
+    }
+
+    /**
+     * Read-only 'int' array mapped as several IntBuffers of 2^chunkShift ints each.
+     */
+    private static final class MappedIntArray {
+
+        private final IntBuffer[] chunks;
+        private final int chunkShift;
+        private final long chunkMask;
+
+        private MappedIntArray(IntBuffer[] chunks, int chunkShift) {
+            this.chunks = chunks;
+            this.chunkShift = chunkShift;
+            this.chunkMask = (1L << chunkShift) - 1L;
+        }
+
+        static MappedIntArray map(FileChannel channel, long length, int chunkShift) throws IOException {
+            final long chunkLength = 1L << chunkShift;
+
+            IntBuffer[] chunks = new IntBuffer[Math.toIntExact((length + chunkLength - 1) / chunkLength)];
+
+            for (int i = 0; i < chunks.length; ++i) {
+                long chunkOffset = i * chunkLength;
+                long curLength = Math.min(chunkLength, length - chunkOffset);
+
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, chunkOffset * Integer.BYTES,
+                                        curLength * Integer.BYTES).asIntBuffer();
+            }
+
+            return new MappedIntArray(chunks, chunkShift);
+        }
+
+        int get(long index) {
+            return chunks[(int) (index >>> chunkShift)].get((int) (index & chunkMask));
+        }
+
+        /**
+         * Bulk read of dst.length ints starting from 'index', can span several chunks.
+         */
+        void get(long index, int[] dst) {
+            int from = 0;
+
+            while (from < dst.length) {
+                long cur = index + from;
+                IntBuffer chunk = chunks[(int) (cur >>> chunkShift)];
+                int chunkIndex = (int) (cur & chunkMask);
+
+                int chunkLength = Math.min(chunk.capacity() - chunkIndex, dst.length - from);
+                chunk.get(chunkIndex, dst, from, chunkLength);
+
+                from += chunkLength;
+            }
+        }
+    }
+}
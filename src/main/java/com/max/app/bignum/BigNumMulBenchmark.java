@@ -0,0 +1,101 @@
+package com.max.app.bignum;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Compare grade school 'mulAbs', 'BigNum.mul' (Karatsuba / Toom-Cook 3 / NTT, unbalanced operands block by block)
+ * and 'BigInteger.multiply'.
+ * <p>
+ * Average time per single multiplication:
+ * <p>
+ * limbs             mulAbs, ms    BigNum.mul, ms    BigInteger.multiply, ms
+ * 100 x 100         0.018         0.018             0.005
+ * 200 x 200         0.073         0.057             0.017
+ * 500 x 500         0.464         0.222             0.080
+ * 1000 x 1000       1.834         0.697             0.259
+ * 2000 x 2000       6.887         1.808             0.701
+ * 4000 x 4000       27.897        4.491             1.935
+ * 20000 x 240       7.854         6.705             9.281
+ * 20000 x 300       10.344        6.605             9.014
+ * 20000 x 1000      35.531        14.185            13.547
+ * 100000 x 5000     866.465       249.400           127.699
+ * <p>
+ * Measured on a single core machine with -Xms3g -Xmx3g. Before unbalanced operands were multiplied block by block,
+ * 20000 x 300 limbs took 174 ms and 20000 x 240 took 45 ms with 'BigNum.mul'.
+ * Default cutoffs come from a sweep over -Dbignum.mul.*.threshold values (a separate JVM for each value):
+ * schoolbook and Karatsuba are even at ~140 limbs (KARATSUBA_THRESHOLD = 128), Toom-Cook 3 is faster than
+ * Karatsuba from ~400 limbs (TOOM_COOK_THRESHOLD = 384), NTT and Toom-Cook 3 are within noise from 5000 to
+ * 12000 limbs and NTT is 2x faster from 15000 limbs (NTT_THRESHOLD stays 5000). Block by block multiplication
+ * wins over padding the shorter operand already for 2:1 operands (UNBALANCED_MUL_RATIO = 2).
+ */
+public final class BigNumMulBenchmark {
+
+    private static final Random RAND = new Random();
+
+    // {first limbs, second limbs}
+    private static final int[][] LIMBS_COUNTS = {
+            {100, 100}, {200, 200}, {500, 500}, {1000, 1000}, {2000, 2000}, {4000, 4000},
+            {20_000, 240}, {20_000, 300}, {20_000, 1000}, {100_000, 5000}
+    };
+
+    // every action is repeated for at least this time and this number of iterations
+    private static final long MIN_MEASURE_TIME_NS = 1_000_000_000L;
+    private static final int MIN_ITERATIONS = 3;
+
+    public static void main(String[] args) {
+
+        // the first pass over all cases is a warmup: Karatsuba / Toom-Cook code paths are recursive
+        // and get compiled only after being used with different operand lengths
+        for (int pass = 0; pass < 2; ++pass) {
+            final boolean print = pass > 0;
+
+            if (print) {
+                System.out.printf("limbs             mulAbs, ms    BigNum.mul, ms    BigInteger.multiply, ms%n");
+            }
+
+            for (int[] limbsCounts : LIMBS_COUNTS) {
+
+                BigNum first = randomBigNum(limbsCounts[0]);
+                BigNum second = randomBigNum(limbsCounts[1]);
+
+                BigInteger firstBigInt = first.toBigInt();
+                BigInteger secondBigInt = second.toBigInt();
+
+                double mulAbsTime = measure(() -> BigNum.mulAbs(first.digits(), second.digits()));
+                double mulTime = measure(() -> first.mul(second));
+                double bigIntTime = measure(() -> firstBigInt.multiply(secondBigInt));
+
+                if (print) {
+                    System.out.printf("%-17s %-13.3f %-17.3f %.3f%n", limbsCounts[0] + " x " + limbsCounts[1],
+                                      mulAbsTime, mulTime, bigIntTime);
+                }
+            }
+        }
+
+        System.out.println("BigNumMulBenchmark done...");
+    }
+
+    /**
+     * @return average time in milliseconds per single call.
+     */
+    private static double measure(Runnable action) {
+        long startTime = System.nanoTime();
+        long endTime;
+        int iterations = 0;
+
+        do {
+            action.run();
+            ++iterations;
+            endTime = System.nanoTime();
+        }
+        while (endTime - startTime < MIN_MEASURE_TIME_NS || iterations < MIN_ITERATIONS);
+
+        return (endTime - startTime) / (iterations * 1_000_000.0);
+    }
+
+    private static BigNum randomBigNum(int limbsCount) {
+        // each limb has 30 bits
+        return new BigNum(new BigInteger(limbsCount * 30 - 1, RAND).setBit(limbsCount * 30 - 1).toString());
+    }
+}
@@ -0,0 +1,77 @@
+package com.max.app.bignum;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Multiplication sweep over operand sizes from 10**3 to 10**6 limbs (both operands with the same length).
+ * Compare automatic algorithm selection 'BigNum.mul', NTT only and 'BigInteger.multiply'.
+ * To measure Toom-Cook without NTT tier use -Dbignum.mul.ntt.threshold=2147483647
+ * <p>
+ * limbs      BigNum.mul, ms    NTT, ms        BigInteger.multiply, ms
+ * 1000       1.664             5.526          1.423
+ * 3000       8.426             10.598         6.426
+ * 10000      51.930            50.061         17.920
+ * 30000      121.947           58.432         103.132
+ * 100000     233.072           252.371        304.352
+ * 300000     1094.863          1050.225       1629.534
+ * 1000000    2175.147          2138.152       8573.273
+ * <p>
+ * Without NTT tier (Toom-Cook 3 only) 'BigNum.mul' takes 10.4 ms for 3000 limbs, 58.3 ms for 10000 limbs
+ * and 23586 ms for 1000000 limbs, so NTT_THRESHOLD is set to 5000 limbs.
+ */
+public final class BigNumMulSweepBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int[] LIMBS_COUNT = {1_000, 3_000, 10_000, 30_000, 100_000, 300_000, 1_000_000};
+
+    public static void main(String[] args) {
+
+        System.out.printf("limbs      BigNum.mul, ms    NTT, ms        BigInteger.multiply, ms%n");
+
+        for (int limbsCount : LIMBS_COUNT) {
+
+            BigInteger firstBigInt = randomBigInteger(limbsCount);
+            BigInteger secondBigInt = randomBigInteger(limbsCount);
+
+            BigNum first = new BigNum(firstBigInt.toString());
+            BigNum second = new BigNum(secondBigInt.toString());
+
+            // fewer iterations for huge operands
+            final int iterations = Math.max(1, 100_000 / limbsCount);
+
+            double mulTime = measure(() -> first.mul(second), iterations);
+            double nttTime = measure(() -> NumberTheoreticTransform.multiply(first.digits(), second.digits()), iterations);
+            double bigIntTime = measure(() -> firstBigInt.multiply(secondBigInt), iterations);
+
+            System.out.printf("%-10d %-17.3f %-14.3f %.3f%n", limbsCount, mulTime, nttTime, bigIntTime);
+        }
+
+        System.out.println("BigNumMulSweepBenchmark done...");
+    }
+
+    /**
+     * @return average time in milliseconds per single call.
+     */
+    private static double measure(Runnable action, int iterations) {
+        for (int it = 0; it < iterations; ++it) {
+            action.run();
+        }
+
+        long startTime = System.nanoTime();
+
+        for (int it = 0; it < iterations; ++it) {
+            action.run();
+        }
+
+        long endTime = System.nanoTime();
+
+        return (endTime - startTime) / (iterations * 1_000_000.0);
+    }
+
+    private static BigInteger randomBigInteger(int limbsCount) {
+        // each limb has 30 bits
+        return new BigInteger(limbsCount * 30 - 1, RAND).setBit(limbsCount * 30 - 1);
+    }
+}
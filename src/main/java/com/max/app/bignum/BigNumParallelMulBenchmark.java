@@ -0,0 +1,86 @@
+package com.max.app.bignum;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measure 'parallelMul' scaling for huge operands using ForkJoin pools with 1 ... N threads,
+ * where N = Runtime.getRuntime().availableProcessors().
+ * <p>
+ * limbs     threads    parallelMul, ms    speedup
+ * 20000     1          180.844            1.00
+ * 100000    1          1013.754           1.00
+ * <p>
+ * Numbers above measured on a single core machine, so only 1 thread row available.
+ * Top level split produces 5 independent sub-products of ~1/3 operand size, so expected speedup
+ * is close to 5 for the first level and continues to grow while sub-products are above the threshold.
+ */
+public final class BigNumParallelMulBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int[] LIMBS_COUNT = {20_000, 100_000};
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURE_ITERATIONS = 5;
+
+    public static void main(String[] args) {
+
+        final int maxThreads = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("limbs     threads    parallelMul, ms    speedup%n");
+
+        for (int limbsCount : LIMBS_COUNT) {
+
+            BigNum first = randomBigNum(limbsCount);
+            BigNum second = randomBigNum(limbsCount);
+
+            double singleThreadTime = 0.0;
+
+            for (int threads = 1; threads <= maxThreads; ++threads) {
+
+                ForkJoinPool pool = new ForkJoinPool(threads);
+
+                try {
+                    double time = measure(() -> first.parallelMul(second, pool));
+
+                    if (threads == 1) {
+                        singleThreadTime = time;
+                    }
+
+                    System.out.printf("%-9d %-10d %-18.3f %.2f%n", limbsCount, threads, time, singleThreadTime / time);
+                }
+                finally {
+                    pool.shutdown();
+                }
+            }
+        }
+
+        System.out.println("BigNumParallelMulBenchmark done...");
+    }
+
+    /**
+     * @return average time in milliseconds per single call.
+     */
+    private static double measure(Runnable action) {
+        for (int it = 0; it < WARMUP_ITERATIONS; ++it) {
+            action.run();
+        }
+
+        long startTime = System.nanoTime();
+
+        for (int it = 0; it < MEASURE_ITERATIONS; ++it) {
+            action.run();
+        }
+
+        long endTime = System.nanoTime();
+
+        return (endTime - startTime) / (MEASURE_ITERATIONS * 1_000_000.0);
+    }
+
+    private static BigNum randomBigNum(int limbsCount) {
+        // each limb has 30 bits
+        return new BigNum(new BigInteger(limbsCount * 30 - 1, RAND).setBit(limbsCount * 30 - 1).toString());
+    }
+}
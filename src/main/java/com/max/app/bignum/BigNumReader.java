@@ -0,0 +1,131 @@
+package com.max.app.bignum;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sequentially read BigNum values written by BigNumWriter.
+ * <p>
+ * Not thread safe.
+ */
+public final class BigNumReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private final long count;
+    private long readCount;
+
+    private long offset = BigNumBinaryFormat.HEADER_SIZE;
+
+    public BigNumReader(Path path) throws IOException {
+        Objects.requireNonNull(path, "null 'path' passed");
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        // start with empty buffer
+        buffer.flip();
+
+        try {
+            ensureAvailable(BigNumBinaryFormat.HEADER_SIZE);
+
+            int magic = buffer.getInt();
+            if (magic != BigNumBinaryFormat.MAGIC) {
+                throw new IOException(String.format("Not a BigNum binary file, magic: 0x%08X", magic));
+            }
+
+            this.count = buffer.getLong();
+            BigNumBinaryFormat.checkCount(count, channel.size());
+        }
+        catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    public static List<BigNum> readAll(Path path) throws IOException {
+        try (BigNumReader reader = new BigNumReader(path)) {
+            // 'count' is already checked against the file size, so a corrupted header can't cause a huge allocation
+            List<BigNum> values = new ArrayList<>((int) Math.min(reader.count(), Integer.MAX_VALUE - 8));
+
+            while (reader.hasNext()) {
+                values.add(reader.next());
+            }
+
+            return values;
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public boolean hasNext() {
+        return readCount < count;
+    }
+
+    public BigNum next() throws IOException {
+        if (!hasNext()) {
+            throw new EOFException("All " + count + " values were already read");
+        }
+
+        ensureAvailable(BigNumBinaryFormat.RECORD_HEADER_SIZE);
+
+        int sign = buffer.getInt();
+        int limbsCount = buffer.getInt();
+
+        BigNumBinaryFormat.checkRecordHeader(sign, limbsCount, offset);
+
+        int[] digits = new int[limbsCount];
+
+        int from = 0;
+
+        while (from < limbsCount) {
+            ensureAvailable(Integer.BYTES);
+
+            int chunkLength = Math.min(buffer.remaining() / Integer.BYTES, limbsCount - from);
+
+            buffer.asIntBuffer().get(digits, from, chunkLength);
+            buffer.position(buffer.position() + chunkLength * Integer.BYTES);
+
+            from += chunkLength;
+        }
+
+        BigNumBinaryFormat.checkLimbs(digits, offset);
+
+        offset += BigNumBinaryFormat.recordSize(limbsCount);
+        ++readCount;
+
+        return BigNum.fromMagnitude(sign, digits);
+    }
+
+    private void ensureAvailable(int bytesCount) throws IOException {
+        if (buffer.remaining() >= bytesCount) {
+            return;
+        }
+
+        buffer.compact();
+
+        while (buffer.position() < bytesCount) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of BigNum binary file at offset " + offset);
+            }
+        }
+
+        buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,121 @@
+package com.max.app.bignum;
+
+import java.util.Random;
+import java.util.function.BinaryOperator;
+
+/**
+ * Average time per single operation for values that fit into 1 or 2 limbs.
+ * <p>
+ * operation            1 limb, ns/op    2 limbs, ns/op
+ * add                  22.5             24.3
+ * sub                  22.3             24.9
+ * mul                  23.8             41.6
+ * cmp                  12.8             13.6
+ * new BigNum(long)     2.6              3.1
+ * <p>
+ * Before small values fast path (new BigNum(long) through decimal string parsing):
+ * add                  34.7             32.2
+ * sub                  25.2             38.9
+ * mul                  22.4             31.9
+ * cmp                  10.0             9.7
+ * new BigNum(long)     68.6             110.0
+ */
+public final class BigNumSmallValuesBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int VALUES_COUNT = 1024;
+
+    private static final int ITERATIONS = 5_000;
+
+    public static void main(String[] args) {
+
+        long[] oneLimbValues = randomLongs(30);
+        long[] twoLimbsValues = randomLongs(60);
+
+        BigNum[] oneLimb = toBigNums(oneLimbValues);
+        BigNum[] twoLimbs = toBigNums(twoLimbsValues);
+
+        System.out.printf("operation            1 limb, ns/op    2 limbs, ns/op%n");
+
+        for (int it = 0; it < 3; ++it) {
+            print("add", measure(oneLimb, BigNum::add), measure(twoLimbs, BigNum::add));
+            print("sub", measure(oneLimb, BigNum::sub), measure(twoLimbs, BigNum::sub));
+            print("mul", measure(oneLimb, BigNum::mul), measure(twoLimbs, BigNum::mul));
+            print("cmp", measure(oneLimb, (x, y) -> x.cmp(y) > 0 ? x : y),
+                  measure(twoLimbs, (x, y) -> x.cmp(y) > 0 ? x : y));
+            print("new BigNum(long)", measureCreate(oneLimbValues), measureCreate(twoLimbsValues));
+        }
+
+        System.out.println("BigNumSmallValuesBenchmark done...");
+    }
+
+    private static void print(String operation, double oneLimbTime, double twoLimbsTime) {
+        System.out.printf("%-20s %-16.1f %.1f%n", operation, oneLimbTime, twoLimbsTime);
+    }
+
+    private static double measure(BigNum[] values, BinaryOperator<BigNum> operation) {
+        long startTime = System.nanoTime();
+
+        int nonZeroCount = 0;
+
+        for (int it = 0; it < ITERATIONS; ++it) {
+            for (int i = 1; i < values.length; ++i) {
+                if (!operation.apply(values[i - 1], values[i]).isZero()) {
+                    ++nonZeroCount;
+                }
+            }
+        }
+
+        long endTime = System.nanoTime();
+
+        if (nonZeroCount < 0) {
+            throw new IllegalStateException("Should never happen");
+        }
+
+        return (double) (endTime - startTime) / (ITERATIONS * (values.length - 1L));
+    }
+
+    private static double measureCreate(long[] values) {
+        long startTime = System.nanoTime();
+
+        int nonZeroCount = 0;
+
+        for (int it = 0; it < ITERATIONS; ++it) {
+            for (long singleValue : values) {
+                if (!new BigNum(singleValue).isZero()) {
+                    ++nonZeroCount;
+                }
+            }
+        }
+
+        long endTime = System.nanoTime();
+
+        if (nonZeroCount < 0) {
+            throw new IllegalStateException("Should never happen");
+        }
+
+        return (double) (endTime - startTime) / (ITERATIONS * (long) values.length);
+    }
+
+    private static long[] randomLongs(int bitsCount) {
+        long[] values = new long[VALUES_COUNT];
+
+        for (int i = 0; i < values.length; ++i) {
+            long value = RAND.nextLong() >>> (Long.SIZE - bitsCount);
+            values[i] = RAND.nextBoolean() ? value : -value;
+        }
+
+        return values;
+    }
+
+    private static BigNum[] toBigNums(long[] values) {
+        BigNum[] res = new BigNum[values.length];
+
+        for (int i = 0; i < values.length; ++i) {
+            res[i] = new BigNum(values[i]);
+        }
+
+        return res;
+    }
+}
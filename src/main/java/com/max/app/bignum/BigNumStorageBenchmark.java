@@ -0,0 +1,75 @@
+package com.max.app.bignum;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compare loading of BigNum vector from decimal strings and from binary file.
+ * <p>
+ * values    limbs    parse decimal, ms    BigNumReader, ms    mapped open + get all, ms
+ * 100000    100      953                  87                  121
+ * 100000    100      1206                 101                 58
+ * 100000    100      978                  21                  170
+ */
+public final class BigNumStorageBenchmark {
+
+    private static final Random RAND = new Random();
+
+    public static void main(String[] args) throws IOException {
+
+        final int valuesCount = 100_000;
+        final int limbsCount = 100;
+
+        List<String> decimals = new ArrayList<>(valuesCount);
+
+        Path file = Files.createTempFile("bignum", ".bin");
+
+        try (BigNumWriter writer = new BigNumWriter(file)) {
+            for (int i = 0; i < valuesCount; ++i) {
+                String decimal = new BigInteger(limbsCount * 30, RAND).toString();
+                decimals.add(decimal);
+                writer.write(new BigNum(decimal));
+            }
+        }
+
+        for (int it = 0; it < 3; ++it) {
+
+            long startParse = System.nanoTime();
+            List<BigNum> parsed = new ArrayList<>(valuesCount);
+            for (String decimal : decimals) {
+                parsed.add(new BigNum(decimal));
+            }
+            long endParse = System.nanoTime();
+
+            long startRead = System.nanoTime();
+            List<BigNum> read = BigNumReader.readAll(file);
+            long endRead = System.nanoTime();
+
+            long startMapped = System.nanoTime();
+            BigNumMappedView view = BigNumMappedView.open(file);
+            long offset = view.firstOffset();
+            for (long i = 0; i < view.count(); ++i) {
+                view.get(offset);
+                offset = view.nextOffset(offset);
+            }
+            long endMapped = System.nanoTime();
+
+            System.out.printf("%-9d %-8d %-20d %-19d %d%n", parsed.size(), limbsCount,
+                              (endParse - startParse) / 1_000_000, (endRead - startRead) / 1_000_000,
+                              (endMapped - startMapped) / 1_000_000);
+
+            if (read.size() != parsed.size()) {
+                throw new IllegalStateException("Incorrect values count read");
+            }
+        }
+
+        Files.delete(file);
+
+        System.out.println("BigNumStorageBenchmark done...");
+    }
+}
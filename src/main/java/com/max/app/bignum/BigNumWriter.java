@@ -0,0 +1,108 @@
+package com.max.app.bignum;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Stream BigNum values into a file using compact binary format (see BigNumBinaryFormat).
+ * Values count is written into the header when writer is closed.
+ * <p>
+ * Not thread safe.
+ */
+public final class BigNumWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private long count;
+
+    // file offset of the next record
+    private long offset = BigNumBinaryFormat.HEADER_SIZE;
+
+    public BigNumWriter(Path path) throws IOException {
+        Objects.requireNonNull(path, "null 'path' passed");
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                        StandardOpenOption.TRUNCATE_EXISTING);
+
+        // count is unknown yet, will be updated in 'close'
+        buffer.putInt(BigNumBinaryFormat.MAGIC);
+        buffer.putLong(0L);
+    }
+
+    /**
+     * @return file offset of written value, can be used with BigNumMappedView.get
+     */
+    public long write(BigNum value) throws IOException {
+        Objects.requireNonNull(value, "null 'value' passed");
+
+        final long valueOffset = offset;
+        final int[] digits = value.digits();
+
+        ensureRemaining(BigNumBinaryFormat.RECORD_HEADER_SIZE);
+        buffer.putInt(value.sign());
+        buffer.putInt(digits.length);
+
+        int from = 0;
+
+        while (from < digits.length) {
+            ensureRemaining(Integer.BYTES);
+
+            int chunkLength = Math.min(buffer.remaining() / Integer.BYTES, digits.length - from);
+
+            buffer.asIntBuffer().put(digits, from, chunkLength);
+            buffer.position(buffer.position() + chunkLength * Integer.BYTES);
+
+            from += chunkLength;
+        }
+
+        offset += BigNumBinaryFormat.recordSize(digits.length);
+        ++count;
+
+        return valueOffset;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    private void ensureRemaining(int bytesCount) throws IOException {
+        if (buffer.remaining() < bytesCount) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+
+            ByteBuffer countBuffer = ByteBuffer.allocate(Long.BYTES);
+            countBuffer.putLong(count).flip();
+
+            long position = BigNumBinaryFormat.COUNT_OFFSET;
+            while (countBuffer.hasRemaining()) {
+                position += channel.write(countBuffer, position);
+            }
+        }
+        finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.max.app.bignum;
+
+/**
+ * Addition and subtraction of BigNum magnitudes in carry-save form.
+ * <p>
+ * Every limb uses only 30 bits of an 'int', so a sum of two limbs still fits into an 'int' (and
+ * a difference of two limbs never overflows). That allows to split the operation into passes
+ * without loop-carried dependencies, which the JIT compiler can turn into SIMD instructions:
+ * 1. limb-wise sum (difference) of operands;
+ * 2. each limb keeps its low 30 bits and takes a carry (borrow) from the less significant neighbour.
+ * Only when pass 2 produces limb equal to BASE (or -1) the carry ripples further, which is handled
+ * by an extra scalar pass. For random operands this happens with probability ~N / 2**30.
+ */
+final class CarrySaveLimbs {
+
+    // Operands with fewer limbs are processed by scalar loops.
+    static final int THRESHOLD = Integer.getInteger("bignum.carrysave.threshold", 64);
+
+    // Can be disabled with '-Dbignum.carrysave.enabled=false' (e.g. when the JIT is started with
+    // '-XX:-UseSuperWord'). By default it's off only in interpreted mode (-Xint), where no loops are compiled.
+    static final boolean ENABLED = Boolean.parseBoolean(
+            System.getProperty("bignum.carrysave.enabled", String.valueOf(!isInterpretedMode())));
+
+    private static final int BASE_SHIFT = BigNum.BASE_SHIFT;
+    private static final int BASE_MASK = BigNum.BASE_MASK;
+
+    private CarrySaveLimbs() {
+        throw new AssertionError("Can't instantiate utility only class");
+    }
+
+    static boolean isApplicable(int firstLength, int secondLength) {
+        return ENABLED && Math.min(firstLength, secondLength) >= THRESHOLD;
+    }
+
+    /**
+     * Add absolute values, result has max(first.length, second.length) limbs or one limb more
+     * in case of a carry.
+     */
+    static int[] addAbs(int[] first, int[] second) {
+
+        // 'first' always has more limbs
+        if (first.length < second.length) {
+            int[] temp = first;
+            first = second;
+            second = temp;
+        }
+
+        if (second.length == 0) {
+            return first.clone();
+        }
+
+        final int length = first.length;
+        final int offset = length - second.length;
+
+        final int[] res = new int[length];
+
+        // pass 1: limb-wise sum, each value < 2 * BASE, so no 'int' overflow possible
+        System.arraycopy(first, 0, res, 0, offset);
+        for (int i = 0; i < second.length; ++i) {
+            res[offset + i] = first[offset + i] + second[i];
+        }
+
+        // carry out of the most significant limb
+        int carry = res[0] >>> BASE_SHIFT;
+
+        // pass 2: take carry from the right neighbour, each value <= BASE
+        int overflow = 0;
+        for (int i = 0; i < length - 1; ++i) {
+            int cur = (res[i] & BASE_MASK) + (res[i + 1] >>> BASE_SHIFT);
+            res[i] = cur;
+            overflow |= cur;
+        }
+        res[length - 1] &= BASE_MASK;
+
+        // rare case: some limb is equal to BASE, so carry should ripple further
+        if ((overflow >>> BASE_SHIFT) != 0) {
+            carry += rippleCarry(res);
+        }
+
+        if (carry == 0) {
+            return res;
+        }
+
+        final int[] extendedRes = new int[length + 1];
+        extendedRes[0] = carry;
+        System.arraycopy(res, 0, extendedRes, 1, length);
+
+        return extendedRes;
+    }
+
+    /**
+     * Subtract absolute values, |first| >= |second| expected.
+     * Result has first.length limbs and can contain leading zeros.
+     */
+    static int[] subAbs(int[] first, int[] second) {
+        assert first.length >= second.length : "|first| < |second| detected";
+
+        if (second.length == 0) {
+            return first.clone();
+        }
+
+        final int length = first.length;
+        final int offset = length - second.length;
+
+        final int[] res = new int[length];
+
+        // pass 1: limb-wise difference, each value in range (-BASE, BASE)
+        System.arraycopy(first, 0, res, 0, offset);
+        for (int i = 0; i < second.length; ++i) {
+            res[offset + i] = first[offset + i] - second[i];
+        }
+
+        // pass 2: take borrow from the right neighbour (sign bit), each value in range [-1, BASE)
+        int underflow = 0;
+        for (int i = 0; i < length - 1; ++i) {
+            int cur = (res[i] & BASE_MASK) - (res[i + 1] >>> (Integer.SIZE - 1));
+            res[i] = cur;
+            underflow |= cur;
+        }
+        res[length - 1] &= BASE_MASK;
+
+        // rare case: some limb is equal to -1, so borrow should ripple further
+        if (underflow < 0) {
+            int borrow = rippleBorrow(res);
+            assert borrow == 0 : "|first| < |second| detected";
+        }
+
+        return res;
+    }
+
+    /**
+     * Normalize limbs in range [0, BASE], returns carry out of the most significant limb.
+     */
+    private static int rippleCarry(int[] limbs) {
+        int carry = 0;
+
+        for (int i = limbs.length - 1; i >= 0; --i) {
+            int cur = limbs[i] + carry;
+            limbs[i] = cur & BASE_MASK;
+            carry = cur >>> BASE_SHIFT;
+        }
+
+        return carry;
+    }
+
+    /**
+     * Normalize limbs in range [-1, BASE), returns borrow from the most significant limb.
+     */
+    private static int rippleBorrow(int[] limbs) {
+        int borrow = 0;
+
+        for (int i = limbs.length - 1; i >= 0; --i) {
+            int cur = limbs[i] - borrow;
+            limbs[i] = cur & BASE_MASK;
+            borrow = cur >>> (Integer.SIZE - 1);
+        }
+
+        return borrow;
+    }
+
+    private static boolean isInterpretedMode() {
+        // cheap check of a standard system property, no JMX classes are loaded
+        return System.getProperty("java.vm.info", "").contains("interpreted mode");
+    }
+}
@@ -0,0 +1,297 @@
+package com.max.app.bignum;
+
+import java.util.Objects;
+
+/**
+ * Mutable accumulator for BigNum values, can be used to add/subtract a lot of values without
+ * allocating new array for each intermediate result.
+ * <p>
+ * Magnitude is stored in big-endian order (most significant digit first) in base 2**30,
+ * aligned to the end of 'limbs' array, so it occupies limbs[limbs.length - length ... limbs.length).
+ * Capacity grows twice when there is not enough space, so amortized cost of growing is O(1) per operation.
+ * <p>
+ * Not thread safe.
+ */
+public final class MutableBigNum {
+
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private int[] limbs;
+
+    // number of used limbs
+    private int length;
+
+    // 1, -1 or 0, the same as for BigNum
+    private int sign;
+
+    public MutableBigNum() {
+        this.limbs = new int[DEFAULT_CAPACITY];
+    }
+
+    public MutableBigNum(BigNum initialValue) {
+        this.limbs = new int[Math.max(DEFAULT_CAPACITY, initialValue.digits().length)];
+        set(initialValue);
+    }
+
+    /**
+     * Replace current value, existing capacity reused if possible.
+     */
+    public MutableBigNum set(BigNum value) {
+        Objects.requireNonNull(value, "null 'value' passed");
+
+        final int[] digits = value.digits();
+
+        ensureCapacity(digits.length);
+        System.arraycopy(digits, 0, limbs, limbs.length - digits.length, digits.length);
+
+        length = digits.length;
+        sign = value.sign();
+        return this;
+    }
+
+    public MutableBigNum reset() {
+        length = 0;
+        sign = 0;
+        return this;
+    }
+
+    public BigNum toBigNum() {
+        if (sign == 0) {
+            return BigNum.ZERO;
+        }
+
+        int[] digits = new int[length];
+        System.arraycopy(limbs, limbs.length - length, digits, 0, length);
+
+        return BigNum.fromMagnitude(sign, digits);
+    }
+
+    public boolean isZero() {
+        return sign == 0;
+    }
+
+    /**
+     * this = this + other
+     */
+    public MutableBigNum addInPlace(BigNum other) {
+        Objects.requireNonNull(other, "null 'other' passed");
+        addSigned(other.sign(), other.digits());
+        return this;
+    }
+
+    /**
+     * this = this - other
+     */
+    public MutableBigNum subInPlace(BigNum other) {
+        Objects.requireNonNull(other, "null 'other' passed");
+        addSigned(-other.sign(), other.digits());
+        return this;
+    }
+
+    /**
+     * this = this * factor
+     */
+    public MutableBigNum mulSmallInPlace(int factor) {
+
+        if (factor == 0 || sign == 0) {
+            return reset();
+        }
+
+        if (factor < 0) {
+            sign = -sign;
+        }
+
+        // Math.abs can't be used here, because of Integer.MIN_VALUE
+        final long absFactor = Math.abs((long) factor);
+
+        // |factor| < 2**31, so carry can add at most 2 more limbs
+        ensureCapacity(length + 2);
+
+        final int from = limbs.length - length;
+
+        long carry = 0L;
+
+        for (int i = limbs.length - 1; i >= from; --i) {
+            // max value: (BASE - 1) * 2**31 + carry < 2**61
+            long cur = limbs[i] * absFactor + carry;
+            limbs[i] = (int) (cur & BigNum.BASE_MASK);
+            carry = cur >>> BigNum.BASE_SHIFT;
+        }
+
+        while (carry != 0L) {
+            ++length;
+            limbs[limbs.length - length] = (int) (carry & BigNum.BASE_MASK);
+            carry >>>= BigNum.BASE_SHIFT;
+        }
+
+        return this;
+    }
+
+    private void addSigned(int otherSign, int[] otherDigits) {
+
+        if (otherSign == 0) {
+            return;
+        }
+
+        if (sign == 0) {
+            ensureCapacity(otherDigits.length);
+            System.arraycopy(otherDigits, 0, limbs, limbs.length - otherDigits.length, otherDigits.length);
+            length = otherDigits.length;
+            sign = otherSign;
+            return;
+        }
+
+        // (+x) + (+y) or (-x) + (-y) => sign * (|x| + |y|)
+        if (sign == otherSign) {
+            addMagnitude(otherDigits);
+            return;
+        }
+
+        // different signs: result has sign of the value with bigger absolute value
+        if (cmpMagnitude(otherDigits) >= 0) {
+            subMagnitude(otherDigits);
+        }
+        else {
+            reverseSubMagnitude(otherDigits);
+            sign = otherSign;
+        }
+
+        normalize();
+    }
+
+    /**
+     * |this| = |this| + |other|
+     */
+    private void addMagnitude(int[] other) {
+
+        final int maxLength = Math.max(length, other.length);
+
+        ensureCapacity(maxLength + 1);
+
+        final int from = limbs.length - length;
+
+        long carry = 0L;
+
+        int i = limbs.length - 1;
+        int j = other.length - 1;
+
+        for (; j >= 0; --i, --j) {
+            long d1 = (i >= from) ? limbs[i] : 0L;
+            long digitsSum = d1 + other[j] + carry;
+
+            limbs[i] = (int) (digitsSum & BigNum.BASE_MASK);
+            carry = digitsSum >>> BigNum.BASE_SHIFT;
+        }
+
+        // propagate carry through the rest of 'this' digits
+        for (; carry != 0L && i >= from; --i) {
+            long digitsSum = limbs[i] + carry;
+
+            limbs[i] = (int) (digitsSum & BigNum.BASE_MASK);
+            carry = digitsSum >>> BigNum.BASE_SHIFT;
+        }
+
+        length = maxLength;
+
+        if (carry != 0L) {
+            ++length;
+            limbs[limbs.length - length] = (int) carry;
+        }
+    }
+
+    /**
+     * |this| = |this| - |other|, where |this| >= |other|
+     */
+    private void subMagnitude(int[] other) {
+
+        int borrow = 0;
+
+        int i = limbs.length - 1;
+
+        for (int j = other.length - 1; j >= 0; --i, --j) {
+            int cur = limbs[i] - other[j] - borrow;
+
+            borrow = (cur < 0) ? 1 : 0;
+            limbs[i] = cur + (borrow << BigNum.BASE_SHIFT);
+        }
+
+        for (; borrow != 0; --i) {
+            int cur = limbs[i] - borrow;
+
+            borrow = (cur < 0) ? 1 : 0;
+            limbs[i] = cur + (borrow << BigNum.BASE_SHIFT);
+        }
+    }
+
+    /**
+     * |this| = |other| - |this|, where |other| > |this|
+     */
+    private void reverseSubMagnitude(int[] other) {
+
+        ensureCapacity(other.length);
+
+        final int from = limbs.length - length;
+
+        int borrow = 0;
+
+        int i = limbs.length - 1;
+
+        for (int j = other.length - 1; j >= 0; --i, --j) {
+            int d2 = (i >= from) ? limbs[i] : 0;
+            int cur = other[j] - d2 - borrow;
+
+            borrow = (cur < 0) ? 1 : 0;
+            limbs[i] = cur + (borrow << BigNum.BASE_SHIFT);
+        }
+
+        assert borrow == 0 : "|other| < |this| detected";
+
+        length = other.length;
+    }
+
+    private int cmpMagnitude(int[] other) {
+
+        if (length != other.length) {
+            return (length > other.length) ? 1 : -1;
+        }
+
+        final int from = limbs.length - length;
+
+        for (int i = 0; i < length; ++i) {
+            if (limbs[from + i] != other[i]) {
+                return (limbs[from + i] > other[i]) ? 1 : -1;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Remove leading zero limbs after subtraction.
+     */
+    private void normalize() {
+        while (length > 0 && limbs[limbs.length - length] == 0) {
+            --length;
+        }
+
+        if (length == 0) {
+            sign = 0;
+        }
+    }
+
+    private void ensureCapacity(int requiredLength) {
+        if (requiredLength <= limbs.length) {
+            return;
+        }
+
+        int[] newLimbs = new int[Math.max(requiredLength, limbs.length * 2)];
+        System.arraycopy(limbs, limbs.length - length, newLimbs, newLimbs.length - length, length);
+
+        limbs = newLimbs;
+    }
+
+    @Override
+    public String toString() {
+        return toBigNum().toString();
+    }
+}
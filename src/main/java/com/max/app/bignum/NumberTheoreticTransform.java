@@ -0,0 +1,227 @@
+package com.max.app.bignum;
+
+/**
+ * Exact multiplication of BigNum magnitudes using number-theoretic transform (NTT),
+ * time complexity: O(N * logN).
+ * <p>
+ * Each 30-bit limb is split into two 15-bit pieces, so every convolution coefficient is less than
+ * (2**15)**2 * 2**25 = 2**55 for transforms up to MAX_TRANSFORM_LENGTH.
+ * Convolution is calculated modulo two NTT-friendly primes and the exact coefficient is recovered
+ * with Chinese remainder theorem, because P1 * P2 > 2**56.
+ */
+final class NumberTheoreticTransform {
+
+    // 7 * 2**26 + 1, primitive root 3
+    private static final int P1 = 469_762_049;
+    private static final int G1 = 3;
+
+    // 5 * 2**25 + 1, primitive root 3
+    private static final int P2 = 167_772_161;
+    private static final int G2 = 3;
+
+    // P1^-1 mod P2, used for CRT
+    private static final long P1_INVERSE_MOD_P2 = modPow(P1 % P2, P2 - 2, P2);
+
+    // limited by P2, which supports transforms up to 2**25 points
+    static final int MAX_TRANSFORM_LENGTH = 1 << 25;
+
+    private static final int PIECE_BITS = BigNum.BASE_SHIFT / 2;
+    private static final int PIECE_MASK = (1 << PIECE_BITS) - 1;
+
+    private NumberTheoreticTransform() {
+        throw new AssertionError("Can't instantiate utility only class");
+    }
+
+    /**
+     * Check if product of two magnitudes fits into maximum transform length.
+     */
+    static boolean canMultiply(int firstLength, int secondLength) {
+        return transformLength(firstLength, secondLength) <= MAX_TRANSFORM_LENGTH;
+    }
+
+    /**
+     * Multiply two big-endian magnitudes in base 2**30.
+     */
+    static int[] multiply(int[] first, int[] second) {
+
+        final int n = transformLength(first.length, second.length);
+
+        assert n <= MAX_TRANSFORM_LENGTH : "too big operands for NTT multiplication";
+
+        final int[] firstPieces = toPieces(first, n);
+        final int[] secondPieces = (first == second) ? null : toPieces(second, n);
+
+        final int[] conv1 = convolution(firstPieces, secondPieces, P1, G1);
+        final int[] conv2 = convolution(firstPieces, secondPieces, P2, G2);
+
+        final int[] result = new int[first.length + second.length];
+
+        long carry = 0L;
+        int low = 0;
+
+        for (int k = 0; k < 2 * result.length; ++k) {
+
+            long coefficient = (k < n) ? crt(conv1[k], conv2[k]) : 0L;
+
+            long cur = coefficient + carry;
+            int piece = (int) (cur & PIECE_MASK);
+            carry = cur >>> PIECE_BITS;
+
+            if ((k & 1) == 0) {
+                low = piece;
+            }
+            else {
+                result[result.length - 1 - (k >> 1)] = (piece << PIECE_BITS) | low;
+            }
+        }
+
+        assert carry == 0L : "NTT multiplication overflow";
+
+        return result;
+    }
+
+    private static int transformLength(int firstLength, int secondLength) {
+        // product has at most 2 * (firstLength + secondLength) pieces
+        long piecesCount = 2L * (firstLength + secondLength);
+
+        long n = 1L;
+        while (n < piecesCount) {
+            n <<= 1;
+        }
+
+        return (int) Math.min(n, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Split big-endian limbs into little-endian 15-bit pieces.
+     */
+    private static int[] toPieces(int[] value, int n) {
+        final int[] pieces = new int[n];
+
+        for (int i = value.length - 1, k = 0; i >= 0; --i, k += 2) {
+            pieces[k] = value[i] & PIECE_MASK;
+            pieces[k + 1] = value[i] >>> PIECE_BITS;
+        }
+
+        return pieces;
+    }
+
+    /**
+     * Cyclic convolution modulo 'p', 'second' == null means squaring.
+     */
+    private static int[] convolution(int[] first, int[] second, int p, int g) {
+
+        final int[] fa = first.clone();
+        transform(fa, false, p, g);
+
+        final int[] fb;
+
+        if (second == null) {
+            fb = fa;
+        }
+        else {
+            fb = second.clone();
+            transform(fb, false, p, g);
+        }
+
+        for (int i = 0; i < fa.length; ++i) {
+            fa[i] = (int) (((long) fa[i]) * fb[i] % p);
+        }
+
+        transform(fa, true, p, g);
+
+        return fa;
+    }
+
+    /**
+     * Iterative in-place radix-2 transform (Cooley-Tukey).
+     */
+    private static void transform(int[] arr, boolean invert, int p, int g) {
+
+        final int n = arr.length;
+
+        // bit reversal permutation
+        for (int i = 1, j = 0; i < n; ++i) {
+            int bit = n >> 1;
+
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+
+            if (i < j) {
+                int temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+            }
+        }
+
+        final int[] roots = new int[Math.max(1, n >> 1)];
+
+        for (int length = 2; length <= n; length <<= 1) {
+
+            long root = modPow(g, (p - 1) / length, p);
+
+            if (invert) {
+                root = modPow(root, p - 2, p);
+            }
+
+            final int half = length >> 1;
+
+            roots[0] = 1;
+            for (int j = 1; j < half; ++j) {
+                roots[j] = (int) (roots[j - 1] * root % p);
+            }
+
+            for (int i = 0; i < n; i += length) {
+                for (int j = 0; j < half; ++j) {
+                    int u = arr[i + j];
+                    int v = (int) (((long) arr[i + j + half]) * roots[j] % p);
+
+                    int sum = u + v;
+                    arr[i + j] = (sum >= p) ? sum - p : sum;
+
+                    int diff = u - v;
+                    arr[i + j + half] = (diff < 0) ? diff + p : diff;
+                }
+            }
+        }
+
+        if (invert) {
+            long nInverse = modPow(n, p - 2, p);
+
+            for (int i = 0; i < n; ++i) {
+                arr[i] = (int) (arr[i] * nInverse % p);
+            }
+        }
+    }
+
+    /**
+     * Recover x from x mod P1 and x mod P2, where 0 <= x < P1 * P2
+     */
+    private static long crt(int r1, int r2) {
+        long diff = (r2 - (r1 % P2)) % P2;
+
+        if (diff < 0) {
+            diff += P2;
+        }
+
+        return r1 + ((long) P1) * (diff * P1_INVERSE_MOD_P2 % P2);
+    }
+
+    private static long modPow(long base, long exponent, long mod) {
+        long res = 1L;
+        long cur = base % mod;
+        long exp = exponent;
+
+        while (exp > 0) {
+            if ((exp & 1) != 0) {
+                res = res * cur % mod;
+            }
+            cur = cur * cur % mod;
+            exp >>= 1;
+        }
+
+        return res;
+    }
+}
@@ -0,0 +1,152 @@
+package com.max.app.hashing;
+
+import java.util.Random;
+
+/**
+ * Probabilistic pre-checks in front of StaticLongHashSet, 1M random 'long' keys, fpp = 1%.
+ * <p>
+ * structure            build, ms    hit, ns    miss, ns    bulk miss, ns    false positives, %    size, KB
+ * StaticLongHashSet    202          122.1      104.0       58.8             0.00                  31245
+ * BlockedBloomFilter   85           48.6       56.3        37.4             0.93                  1231
+ * CuckooFilter         48           46.4       41.9        31.3             0.37                  4096
+ * <p>
+ * Cuckoo filter needs 10 bits fingerprints for 1%, but stores them in 'short' slots and rounds buckets count
+ * up to a power of 2, so it is bigger than the Bloom filter here.
+ */
+public final class ApproximateMembershipBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int KEYS_COUNT = 1_000_000;
+
+    private static final int LOOKUPS_COUNT = 10_000_000;
+
+    private static final double FPP = 0.01;
+
+    public static void main(String[] args) {
+
+        long[] keys = RAND.longs(KEYS_COUNT).toArray();
+        long[] misses = RAND.longs(KEYS_COUNT).toArray();
+
+        System.out.printf("structure            build, ms    hit, ns    miss, ns    bulk miss, ns    " +
+                                  "false positives, %%    size, KB%n");
+
+        for (int it = 0; it < 3; ++it) {
+            long startTime = System.nanoTime();
+            StaticLongHashSet set = StaticLongHashSet.fromArray(keys);
+            long buildTime = System.nanoTime() - startTime;
+
+            print("StaticLongHashSet", buildTime,
+                  measure(index -> set.contains(keys[index])),
+                  measure(index -> set.contains(misses[index])),
+                  measureBulk(containsAll(set), misses),
+                  0.0, set.calculateUsedBytes());
+
+            startTime = System.nanoTime();
+            BlockedBloomFilter bloomFilter = BlockedBloomFilter.create(KEYS_COUNT, FPP);
+            for (long singleKey : keys) {
+                bloomFilter.put(singleKey);
+            }
+            buildTime = System.nanoTime() - startTime;
+
+            print("BlockedBloomFilter", buildTime,
+                  measure(index -> bloomFilter.mightContain(keys[index])),
+                  measure(index -> bloomFilter.mightContain(misses[index])),
+                  measureBulk(bloomFilter::mightContainAll, misses),
+                  falsePositivesPercentage(bloomFilter.mightContainAll(misses)),
+                  bloomFilter.calculateUsedBytes());
+
+            startTime = System.nanoTime();
+            CuckooFilter cuckooFilter = CuckooFilter.create(KEYS_COUNT, FPP);
+            for (long singleKey : keys) {
+                if (!cuckooFilter.add(singleKey)) {
+                    throw new IllegalStateException("CuckooFilter is full");
+                }
+            }
+            buildTime = System.nanoTime() - startTime;
+
+            print("CuckooFilter", buildTime,
+                  measure(index -> cuckooFilter.mightContain(keys[index])),
+                  measure(index -> cuckooFilter.mightContain(misses[index])),
+                  measureBulk(cuckooFilter::mightContainAll, misses),
+                  falsePositivesPercentage(cuckooFilter.mightContainAll(misses)),
+                  cuckooFilter.calculateUsedBytes());
+        }
+
+        System.out.println("ApproximateMembershipBenchmark done...");
+    }
+
+    private static void print(String name, long buildTimeNs, double hitTime, double missTime, double bulkMissTime,
+                              double falsePositives, long usedBytes) {
+        System.out.printf("%-20s %-12d %-10.1f %-11.1f %-16.1f %-21.2f %d%n", name, buildTimeNs / 1_000_000L,
+                          hitTime, missTime, bulkMissTime, falsePositives, usedBytes / 1024L);
+    }
+
+    private static BulkPredicate containsAll(StaticLongHashSet set) {
+        return keys -> {
+            boolean[] res = new boolean[keys.length];
+            for (int i = 0; i < keys.length; ++i) {
+                res[i] = set.contains(keys[i]);
+            }
+            return res;
+        };
+    }
+
+    private static double falsePositivesPercentage(boolean[] results) {
+        int falsePositivesCount = 0;
+        for (boolean singleResult : results) {
+            if (singleResult) {
+                ++falsePositivesCount;
+            }
+        }
+        return falsePositivesCount * 100.0 / results.length;
+    }
+
+    private interface IndexPredicate {
+        boolean test(int index);
+    }
+
+    private interface BulkPredicate {
+        boolean[] test(long[] keys);
+    }
+
+    private static double measure(IndexPredicate predicate) {
+        long startTime = System.nanoTime();
+
+        int foundCount = 0;
+        for (int it = 0; it < LOOKUPS_COUNT; ++it) {
+            if (predicate.test(it % KEYS_COUNT)) {
+                ++foundCount;
+            }
+        }
+
+        long endTime = System.nanoTime();
+
+        if (foundCount < 0) {
+            throw new IllegalStateException("Should never happen");
+        }
+
+        return (double) (endTime - startTime) / LOOKUPS_COUNT;
+    }
+
+    private static double measureBulk(BulkPredicate predicate, long[] keys) {
+        final int iterationsCount = LOOKUPS_COUNT / keys.length;
+
+        long startTime = System.nanoTime();
+
+        int foundCount = 0;
+        for (int it = 0; it < iterationsCount; ++it) {
+            if (predicate.test(keys)[it]) {
+                ++foundCount;
+            }
+        }
+
+        long endTime = System.nanoTime();
+
+        if (foundCount < 0) {
+            throw new IllegalStateException("Should never happen");
+        }
+
+        return (double) (endTime - startTime) / ((long) iterationsCount * keys.length);
+    }
+}
@@ -0,0 +1,323 @@
+package com.max.app.hashing;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cache-line-blocked Bloom filter for 'long' keys: all bits of a key are set inside a single 512-bit block
+ * (64 bytes, one cache line), so every lookup touches exactly one cache line.
+ * https://algo2.iti.kit.edu/documents/cacheefficientbloomfilters-jea.pdf
+ * <p>
+ * Key is hashed once with {@link UniversalHashMersennePrime}: high bits of the 61-bit hash select the block,
+ * bit positions inside the block are the top bits of the hash repeatedly multiplied by an odd constant.
+ * Double hashing (h1 + i * h2) is not used: inside 512 bits it gives too few distinct bit patterns and
+ * doubles the false positive rate for fpp ~ 0.001.
+ * Blocking makes the false positive rate higher than for the classic Bloom filter with the same size
+ * (keys are not spread evenly between blocks), so bits per key are increased until the rate estimated for
+ * Poisson distributed blocks load is not above the requested one.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ * header: int MAGIC, int hashesCount, long seed, int blocksCount, int 0 (padding)
+ * bits:   long[blocksCount * 8]
+ * </pre>
+ * Files are written and read through a small buffer, so filters bigger than 2GB can be saved as well.
+ * Not thread safe.
+ */
+public final class BlockedBloomFilter {
+
+    // 'BBF2' in ASCII, version 2: block index is scrambled by UniversalHashMersennePrime.toRange
+    private static final int MAGIC = 0x42_42_46_32;
+
+    private static final int HEADER_SIZE = 3 * Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private static final int BLOCK_BITS = 512;
+
+    private static final int BLOCK_WORDS = BLOCK_BITS / Long.SIZE;
+
+    private static final int POSITION_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(BLOCK_BITS);
+
+    private static final long GOLDEN_GAMMA = 0x9E37_79B9_7F4A_7C15L;
+
+    private static final int MAX_HASHES_COUNT = 16;
+
+    // max 'long[]' length supported by JVM
+    private static final long MAX_WORDS_COUNT = Integer.MAX_VALUE - 8;
+
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    private static final double BITS_PER_KEY_STEP = 0.25;
+
+    private static final double LN_2 = Math.log(2.0);
+
+    private final long seed;
+
+    private final int hashesCount;
+
+    private final int blocksCount;
+
+    private final long[] bits;
+
+    private final UniversalHashMersennePrime<Object> hashFunction;
+
+    /**
+     * @param expectedKeys - number of keys for which false positive rate will be close to 'fpp'.
+     * @param fpp          - desired false positive probability, in range (0, 1).
+     */
+    public static BlockedBloomFilter create(long expectedKeys, double fpp) {
+        if (expectedKeys < 0) {
+            throw new IllegalArgumentException("Negative 'expectedKeys': " + expectedKeys);
+        }
+        if (!(fpp > 0.0 && fpp < 1.0)) {
+            throw new IllegalArgumentException("'fpp' should be in range (0, 1), but found " + fpp);
+        }
+
+        // start from optimal classic Bloom filter: m/n = -ln(fpp) / ln(2)^2, k = m/n * ln(2)
+        double bitsPerKey = -Math.log(fpp) / (LN_2 * LN_2);
+
+        while (blockedFalsePositiveRate(bitsPerKey, optimalHashesCount(bitsPerKey)) > fpp) {
+            bitsPerKey += BITS_PER_KEY_STEP;
+        }
+
+        final int hashesCount = optimalHashesCount(bitsPerKey);
+
+        long bitsCount = (long) Math.ceil(Math.max(1L, expectedKeys) * bitsPerKey);
+        long blocksCount = (bitsCount + BLOCK_BITS - 1) / BLOCK_BITS;
+
+        if (blocksCount * BLOCK_WORDS > MAX_WORDS_COUNT) {
+            throw new IllegalArgumentException("Filter is too big: " + blocksCount + " blocks");
+        }
+
+        return new BlockedBloomFilter(ThreadLocalRandom.current().nextLong(), hashesCount,
+                                      new long[(int) blocksCount * BLOCK_WORDS]);
+    }
+
+    private BlockedBloomFilter(long seed, int hashesCount, long[] bits) {
+        this.seed = seed;
+        this.hashesCount = hashesCount;
+        this.blocksCount = bits.length / BLOCK_WORDS;
+        this.bits = bits;
+        this.hashFunction = new UniversalHashMersennePrime<>(blocksCount, seed);
+    }
+
+    /**
+     * @return true if some bit was changed, i.e. the key definitely wasn't added before.
+     */
+    public boolean put(long key) {
+        final long hash = hashFunction.hash64(key);
+        final int blockOffset = hashFunction.toRange(hash) * BLOCK_WORDS;
+
+        long positions = hash | 1L;
+        boolean changed = false;
+
+        for (int i = 0; i < hashesCount; ++i) {
+            positions *= GOLDEN_GAMMA;
+            int position = (int) (positions >>> POSITION_SHIFT);
+
+            int wordIndex = blockOffset + (position >>> 6);
+            long mask = 1L << position;
+
+            if ((bits[wordIndex] & mask) == 0L) {
+                bits[wordIndex] |= mask;
+                changed = true;
+            }
+        }
+
+        return changed;
+    }
+
+    /**
+     * @return false if the key was definitely not added, true if it was added with probability ~ 1 - fpp.
+     */
+    public boolean mightContain(long key) {
+        return mightContainHash(hashFunction.hash64(key));
+    }
+
+    /**
+     * Check all keys at once: hashes are calculated first in a tight loop, so the memory accesses of the second
+     * loop don't depend on each other and can overlap.
+     *
+     * @return array with 'mightContain' result for every key.
+     */
+    public boolean[] mightContainAll(long[] keys) {
+        Objects.requireNonNull(keys, "null 'keys' passed");
+
+        long[] hashes = new long[keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            hashes[i] = hashFunction.hash64(keys[i]);
+        }
+
+        boolean[] res = new boolean[keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            res[i] = mightContainHash(hashes[i]);
+        }
+
+        return res;
+    }
+
+    private boolean mightContainHash(long hash) {
+        final int blockOffset = hashFunction.toRange(hash) * BLOCK_WORDS;
+
+        long positions = hash | 1L;
+
+        for (int i = 0; i < hashesCount; ++i) {
+            positions *= GOLDEN_GAMMA;
+            int position = (int) (positions >>> POSITION_SHIFT);
+
+            if ((bits[blockOffset + (position >>> 6)] & (1L << position)) == 0L) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public void writeTo(Path path) throws IOException {
+        Objects.requireNonNull(path, "null 'path' passed");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(hashesCount);
+            buffer.putLong(seed);
+            buffer.putInt(blocksCount);
+            buffer.putInt(0);
+
+            int from = 0;
+
+            while (from < bits.length) {
+                if (buffer.remaining() < Long.BYTES) {
+                    flush(channel, buffer);
+                }
+
+                int chunkLength = Math.min(buffer.remaining() / Long.BYTES, bits.length - from);
+
+                buffer.asLongBuffer().put(bits, from, chunkLength);
+                buffer.position(buffer.position() + chunkLength * Long.BYTES);
+
+                from += chunkLength;
+            }
+
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Read filter written by 'writeTo', the filter is loaded fully into heap.
+     */
+    public static BlockedBloomFilter readFrom(Path path) throws IOException {
+        Objects.requireNonNull(path, "null 'path' passed");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+
+            if (fileSize < HEADER_SIZE) {
+                throw new IllegalStateException("Not a BlockedBloomFilter file");
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+            buffer.limit(HEADER_SIZE);
+            readFully(channel, buffer);
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalStateException("Not a BlockedBloomFilter file");
+            }
+
+            int hashesCount = buffer.getInt();
+            long seed = buffer.getLong();
+            int blocksCount = buffer.getInt();
+            buffer.getInt();
+
+            if (hashesCount < 1 || hashesCount > MAX_HASHES_COUNT || blocksCount <= 0 ||
+                    (long) blocksCount * BLOCK_WORDS > MAX_WORDS_COUNT ||
+                    HEADER_SIZE + (long) blocksCount * BLOCK_WORDS * Long.BYTES != fileSize) {
+                throw new IllegalStateException(String.format("Corrupted BlockedBloomFilter file: hashes = %d, " +
+                                                                      "blocks = %d, file size = %d",
+                                                              hashesCount, blocksCount, fileSize));
+            }
+
+            long[] bits = new long[blocksCount * BLOCK_WORDS];
+
+            int from = 0;
+
+            while (from < bits.length) {
+                int chunkLength = Math.min(IO_BUFFER_SIZE / Long.BYTES, bits.length - from);
+
+                buffer.clear();
+                buffer.limit(chunkLength * Long.BYTES);
+                readFully(channel, buffer);
+
+                buffer.asLongBuffer().get(bits, from, chunkLength);
+
+                from += chunkLength;
+            }
+
+            return new BlockedBloomFilter(seed, hashesCount, bits);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * Fill 'buffer' up to its limit from the current channel position and flip it for reading.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of BlockedBloomFilter file");
+            }
+        }
+
+        buffer.flip();
+    }
+
+    private static int optimalHashesCount(double bitsPerKey) {
+        return (int) Math.max(1L, Math.min(MAX_HASHES_COUNT, Math.round(bitsPerKey * LN_2)));
+    }
+
+    /**
+     * Number of keys in a block has Poisson distribution with mean BLOCK_BITS / bitsPerKey,
+     * false positive rate is the average of classic Bloom filter rates for a single block.
+     */
+    static double blockedFalsePositiveRate(double bitsPerKey, int hashesCount) {
+        final double mean = BLOCK_BITS / bitsPerKey;
+        final int maxKeys = (int) (mean + 10.0 * Math.sqrt(mean) + 10.0);
+
+        // Poisson probability of 'keysCount' keys, calculated iteratively
+        double probability = Math.exp(-mean);
+        double res = 0.0;
+
+        for (int keysCount = 0; keysCount <= maxKeys; ++keysCount) {
+            double bitSetProbability = 1.0 - Math.pow(1.0 - 1.0 / BLOCK_BITS, (double) hashesCount * keysCount);
+            res += probability * Math.pow(bitSetProbability, hashesCount);
+
+            probability *= mean / (keysCount + 1);
+        }
+
+        return res;
+    }
+
+    int hashesCount() {
+        return hashesCount;
+    }
+
+    long calculateUsedBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+}
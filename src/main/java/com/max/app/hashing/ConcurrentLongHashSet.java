@@ -0,0 +1,393 @@
+package com.max.app.hashing;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent set of primitive 'long' keys, uses open addressing with linear probing over a single 'long[]'.
+ * Slots are updated only with VarHandle CAS, no locks are used and no thread ever waits for another one.
+ * Slot addresses are calculated with multiply-shift hashing ({@link UniversalHashWithPowerOfTwoCapacityFast}),
+ * every table gets its own random seed.
+ * <p>
+ * Every slot moves only forward through the states: EMPTY -> key -> MOVED or EMPTY -> MOVED.
+ * Resize is cooperative: a thread that meets MOVED slot (or fills the table) allocates a candidate table and
+ * installs it with CAS (losers drop their candidates), claims chunks of the old table, copies their keys into
+ * the new table and marks slots as MOVED. Copying a slot is idempotent (the key is added only if absent),
+ * so when all chunks are claimed, a thread copies every chunk that is not finished yet by itself instead of
+ * waiting for the owner of the chunk. New keys are added into the new table only after all chunks are copied,
+ * so 'add' returns true exactly once for every key.
+ * Lookups never wait: they continue scanning over MOVED slots and check the new table afterwards.
+ * <p>
+ * Keys 0 and Long.MIN_VALUE are used as EMPTY and MOVED markers, so they are stored as separate flags.
+ */
+public final class ConcurrentLongHashSet {
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final long EMPTY = 0L;
+    private static final long MOVED = Long.MIN_VALUE;
+
+    private static final int EMPTY_KEY_FLAG = 1;
+    private static final int MOVED_KEY_FLAG = 2;
+
+    private static final int MIN_CAPACITY = 16;
+
+    // the biggest power of 2 'long[]' length
+    static final int MAX_CAPACITY = 1 << 30;
+
+    // linear probing degrades quickly above 1/2 load
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    // number of slots claimed at once by a thread helping to resize
+    private static final int TRANSFER_CHUNK_SIZE = 1024;
+
+    private final AtomicReference<Table> table;
+
+    private final LongAdder keysCount = new LongAdder();
+
+    private final AtomicInteger specialKeys = new AtomicInteger();
+
+    private final AtomicInteger resizesCount = new AtomicInteger();
+
+    private final int maxCapacity;
+
+    public ConcurrentLongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public ConcurrentLongHashSet(int expectedSize) {
+        this(expectedSize, MAX_CAPACITY);
+    }
+
+    /**
+     * @param maxCapacity - power of 2, the table is never resized above it.
+     */
+    ConcurrentLongHashSet(int expectedSize, int maxCapacity) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative 'expectedSize': " + expectedSize);
+        }
+        if (expectedSize > maxCapacity * MAX_LOAD_FACTOR) {
+            throw new IllegalArgumentException("'expectedSize' is too big: " + expectedSize + ", max: " +
+                                                       (long) (maxCapacity * MAX_LOAD_FACTOR));
+        }
+
+        int capacity = MIN_CAPACITY;
+        while (capacity * MAX_LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+
+        this.maxCapacity = maxCapacity;
+        this.table = new AtomicReference<>(new Table(capacity));
+    }
+
+    /**
+     * @return true if the key was not in the set.
+     */
+    public boolean add(long key) {
+        if (key == EMPTY || key == MOVED) {
+            int flag = (key == EMPTY) ? EMPTY_KEY_FLAG : MOVED_KEY_FLAG;
+            return (specialKeys.getAndUpdate(flags -> flags | flag) & flag) == 0;
+        }
+
+        Table cur = table.get();
+
+        while (true) {
+            int probesCount = cur.tryAdd(key);
+
+            if (probesCount > 0) {
+                keysCount.increment();
+
+                // LongAdder.sum is cheap enough, it sums only per CPU cells (the same as ConcurrentHashMap does),
+                // table with max capacity is filled till the last slot
+                if (keysCount.sum() > cur.threshold && cur.capacity < maxCapacity) {
+                    resize(cur);
+                }
+                return true;
+            }
+
+            if (probesCount == Table.PRESENT) {
+                return false;
+            }
+
+            // Table.RESIZING: help to finish resize and repeat in the new table
+            cur = resize(cur);
+        }
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY || key == MOVED) {
+            int flag = (key == EMPTY) ? EMPTY_KEY_FLAG : MOVED_KEY_FLAG;
+            return (specialKeys.get() & flag) != 0;
+        }
+
+        for (Table cur = table.get(); cur != null; cur = cur.next.get()) {
+            int lookupResult = cur.lookup(key);
+
+            if (lookupResult != Table.NOT_FOUND_MOVED) {
+                return lookupResult == Table.FOUND;
+            }
+        }
+
+        return false;
+    }
+
+    public long size() {
+        return keysCount.sum() + Integer.bitCount(specialKeys.get());
+    }
+
+    int capacity() {
+        return table.get().capacity;
+    }
+
+    /**
+     * Occupancy of home slots and probe lengths of keys in the current table, rebuilds count is the number
+     * of resizes. Scans the whole table concurrently with updates, so the result is approximate
+     * when keys are added in parallel.
+     */
+    public HashStatistics statistics() {
+        final Table cur = table.get();
+
+        HashStatistics.Builder builder = new HashStatistics.Builder();
+        int[] homeSlotCounts = new int[cur.capacity];
+
+        for (int i = 0; i < cur.capacity; ++i) {
+            long key = (long) SLOTS.getVolatile(cur.slots, i);
+
+            if (key != EMPTY && key != MOVED) {
+                int homeIndex = cur.hashFunction.hash(key);
+                builder.addProbeLength(((i - homeIndex) & cur.mask) + 1);
+                ++homeSlotCounts[homeIndex];
+            }
+        }
+
+        for (int singleCount : homeSlotCounts) {
+            builder.addBucket(singleCount);
+        }
+
+        return builder.build(resizesCount.get(), (double) keysCount.sum() / cur.capacity);
+    }
+
+    /**
+     * Start resize of 'old' table if not started yet and help to copy it.
+     * Never waits for other threads, every unfinished chunk is copied by the calling thread as well.
+     *
+     * @return new table, all keys from 'old' are already copied into it.
+     */
+    private Table resize(Table old) {
+        Table next = old.next.get();
+
+        if (next == null) {
+            if (old.capacity >= maxCapacity) {
+                throw new IllegalStateException("ConcurrentLongHashSet is full, max capacity: " + maxCapacity);
+            }
+
+            // every thread allocates its own candidate, so nobody waits for a preempted allocator
+            Table candidate = new Table(old.capacity << 1);
+            next = old.next.compareAndExchange(null, candidate);
+
+            if (next == null) {
+                next = candidate;
+            }
+        }
+
+        final int chunksCount = old.chunksDone.length();
+
+        while (old.transferIndex.get() < chunksCount) {
+            int chunk = old.transferIndex.getAndIncrement();
+
+            if (chunk >= chunksCount) {
+                break;
+            }
+
+            transferChunk(old, next, chunk);
+        }
+
+        // all chunks are claimed, copy chunks that are not finished by their owners yet
+        for (int chunk = 0; chunk < chunksCount && old.transferredSlots.get() < old.capacity; ++chunk) {
+            if (old.chunksDone.get(chunk) == 0) {
+                transferChunk(old, next, chunk);
+            }
+        }
+
+        if (table.compareAndSet(old, next)) {
+            resizesCount.incrementAndGet();
+        }
+
+        return next;
+    }
+
+    private static void transferChunk(Table old, Table next, int chunk) {
+        int from = chunk * TRANSFER_CHUNK_SIZE;
+        int to = Math.min(old.capacity, from + TRANSFER_CHUNK_SIZE);
+
+        for (int i = from; i < to; ++i) {
+            transferSlot(old, next, i);
+        }
+
+        // the same chunk can be copied by several threads, count it only once
+        if (old.chunksDone.compareAndSet(chunk, 0, 1)) {
+            old.transferredSlots.addAndGet(to - from);
+        }
+    }
+
+    private static void transferSlot(Table old, Table next, int index) {
+        while (true) {
+            long key = (long) SLOTS.getVolatile(old.slots, index);
+
+            if (key == EMPTY) {
+                if (SLOTS.compareAndSet(old.slots, index, EMPTY, MOVED)) {
+                    return;
+                }
+                // some key was just added, copy it
+                continue;
+            }
+
+            if (key == MOVED) {
+                // already copied by another thread
+                return;
+            }
+
+            // key should be visible in the new table before the old slot is marked
+            next.addForTransfer(key);
+            SLOTS.setVolatile(old.slots, index, MOVED);
+            return;
+        }
+    }
+
+    private static final class Table {
+
+        static final int PRESENT = 0;
+        static final int RESIZING = -1;
+
+        static final int FOUND = 1;
+        static final int NOT_FOUND = 0;
+        static final int NOT_FOUND_MOVED = -1;
+
+        final long[] slots;
+        final int capacity;
+        final int mask;
+        final long threshold;
+        final LongUniversalHash hashFunction;
+
+        final AtomicReference<Table> next = new AtomicReference<>();
+
+        // next chunk to claim during resize
+        final AtomicInteger transferIndex = new AtomicInteger();
+
+        // 1 for chunks that are completely copied into 'next'
+        final AtomicIntegerArray chunksDone;
+
+        // number of slots in completely copied chunks
+        final AtomicInteger transferredSlots = new AtomicInteger();
+
+        Table(int capacity) {
+            this.slots = new long[capacity];
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+            this.threshold = (long) (capacity * MAX_LOAD_FACTOR);
+            this.hashFunction = new UniversalHashWithPowerOfTwoCapacityFast<>(capacity,
+                                                                              ThreadLocalRandom.current().nextInt());
+            this.chunksDone = new AtomicIntegerArray((capacity + TRANSFER_CHUNK_SIZE - 1) / TRANSFER_CHUNK_SIZE);
+        }
+
+        /**
+         * @return number of probes if key was added, PRESENT if key is already in the table or RESIZING if
+         * the table is being resized (or is full) and key should be added into the next table.
+         */
+        int tryAdd(long key) {
+            int index = hashFunction.hash(key);
+
+            for (int probesCount = 1; probesCount <= capacity; ) {
+                long cur = (long) SLOTS.getVolatile(slots, index);
+
+                if (cur == key) {
+                    return PRESENT;
+                }
+
+                if (cur == MOVED) {
+                    return RESIZING;
+                }
+
+                if (cur == EMPTY) {
+                    if (SLOTS.compareAndSet(slots, index, EMPTY, key)) {
+                        return probesCount;
+                    }
+                    // slot was changed concurrently, check it again
+                    continue;
+                }
+
+                index = (index + 1) & mask;
+                ++probesCount;
+            }
+
+            return RESIZING;
+        }
+
+        /**
+         * Add key copied from the previous table, if it's not added by another thread yet.
+         * Slots are never cleared, so all threads copying the same key stop at the same slot.
+         */
+        void addForTransfer(long key) {
+            int index = hashFunction.hash(key);
+
+            while (true) {
+                long cur = (long) SLOTS.getVolatile(slots, index);
+
+                if (cur == key) {
+                    return;
+                }
+
+                if (cur == MOVED) {
+                    // this table is resized already, so the previous one was completely copied by other threads
+                    return;
+                }
+
+                if (cur == EMPTY) {
+                    if (SLOTS.compareAndSet(slots, index, EMPTY, key)) {
+                        return;
+                    }
+                    continue;
+                }
+
+                index = (index + 1) & mask;
+            }
+        }
+
+        /**
+         * @return FOUND, NOT_FOUND or NOT_FOUND_MOVED if the key can be in the next table.
+         */
+        int lookup(long key) {
+            int index = hashFunction.hash(key);
+            boolean movedDetected = false;
+
+            for (int probesCount = 0; probesCount < capacity; ++probesCount) {
+                long cur = (long) SLOTS.getVolatile(slots, index);
+
+                if (cur == key) {
+                    return FOUND;
+                }
+
+                if (cur == EMPTY) {
+                    break;
+                }
+
+                if (cur == MOVED) {
+                    // if the whole table is already copied, don't scan it
+                    if (transferredSlots.get() == capacity) {
+                        return NOT_FOUND_MOVED;
+                    }
+                    movedDetected = true;
+                }
+
+                index = (index + 1) & mask;
+            }
+
+            return movedDetected ? NOT_FOUND_MOVED : NOT_FOUND;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.max.app.hashing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongPredicate;
+
+/**
+ * Multi-threaded deduplication: every thread adds 2M random keys (half of them are duplicates across threads)
+ * into a shared set, throughput in million adds per second.
+ * <p>
+ * threads    ConcurrentLongHashSet, M ops/s    ConcurrentHashMap.newKeySet, M ops/s
+ * 1          2.7 - 4.8                         0.8 - 2.1
+ * 2          2.0 - 4.1                         1.3 - 2.2
+ * 4          3.1 - 3.7                         1.0 - 1.5
+ * <p>
+ * Measured on a single core machine, so the numbers show contention overhead of resize and CAS retries
+ * rather than scalability (ranges over 3 iterations, after the change to non-blocking resize with
+ * speculatively allocated tables).
+ */
+public final class ConcurrentLongHashSetBenchmark {
+
+    private static final int[] THREADS_COUNT = {1, 2, 4};
+
+    private static final int KEYS_PER_THREAD = 2_000_000;
+
+    public static void main(String[] args) throws Exception {
+
+        System.out.printf("available processors: %d%n", Runtime.getRuntime().availableProcessors());
+        System.out.printf("threads    ConcurrentLongHashSet, M ops/s    ConcurrentHashMap.newKeySet, M ops/s%n");
+
+        for (int it = 0; it < 3; ++it) {
+            for (int threadsCount : THREADS_COUNT) {
+                long[][] keys = generateKeys(threadsCount);
+
+                ConcurrentLongHashSet lockFreeSet = new ConcurrentLongHashSet();
+                double lockFreeThroughput = measure(keys, lockFreeSet::add);
+
+                Set<Long> keySet = ConcurrentHashMap.newKeySet();
+                double keySetThroughput = measure(keys, keySet::add);
+
+                if (lockFreeSet.size() != keySet.size()) {
+                    throw new IllegalStateException("Sets sizes are different: " + lockFreeSet.size() + ", " +
+                                                            keySet.size());
+                }
+
+                System.out.printf("%-10d %-33.1f %.1f%n", threadsCount, lockFreeThroughput, keySetThroughput);
+            }
+        }
+
+        System.out.println("ConcurrentLongHashSetBenchmark done...");
+    }
+
+    private static double measure(long[][] keys, LongPredicate addOperation) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(keys.length);
+
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+
+            for (long[] threadKeys : keys) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int addedCount = 0;
+                    for (long singleKey : threadKeys) {
+                        if (addOperation.test(singleKey)) {
+                            ++addedCount;
+                        }
+                    }
+                    return addedCount;
+                }));
+            }
+
+            long startTime = System.nanoTime();
+            start.countDown();
+
+            for (Future<Integer> singleResult : results) {
+                singleResult.get();
+            }
+
+            long elapsedTime = System.nanoTime() - startTime;
+
+            return (keys.length * (double) KEYS_PER_THREAD * 1000.0) / elapsedTime;
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Half of the keys of every thread are shared with other threads.
+     */
+    private static long[][] generateKeys(int threadsCount) {
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+
+        long[] sharedKeys = rand.longs(KEYS_PER_THREAD / 2).toArray();
+
+        long[][] keys = new long[threadsCount][KEYS_PER_THREAD];
+
+        for (long[] threadKeys : keys) {
+            for (int i = 0; i < threadKeys.length; ++i) {
+                threadKeys[i] = (i % 2 == 0) ? sharedKeys[i / 2] : rand.nextLong();
+            }
+        }
+
+        return keys;
+    }
+}
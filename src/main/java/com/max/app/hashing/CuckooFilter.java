@@ -0,0 +1,439 @@
+package com.max.app.hashing;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cuckoo filter for 'long' keys, approximate membership with deletion.
+ * https://www.cs.cmu.edu/~dga/papers/cuckoo-conext2014.pdf
+ * <p>
+ * Every key is stored as a small fingerprint in one of two buckets of BUCKET_SIZE slots (partial-key cuckoo
+ * hashing): i1 = hash(key), i2 = i1 ^ hash(fingerprint), so the alternative bucket can be calculated from
+ * the fingerprint only, during relocation the key itself is not needed.
+ * Key is hashed once with {@link UniversalHashMersennePrime}: high bits select the bucket, low bits are
+ * used as the fingerprint.
+ * <p>
+ * Fingerprint size is calculated from the false positive rate: f = log2(2 * BUCKET_SIZE / fpp), at most 16 bits.
+ * If relocation fails after MAX_KICKS, the last displaced fingerprint is kept as a 'victim', so there are
+ * no false negatives, and all following 'add' calls return false.
+ * <p>
+ * 'remove' should be called only for keys that were added, otherwise a fingerprint of some other key can be
+ * removed. The same key can be added several times (up to 2 * BUCKET_SIZE copies), every 'remove' deletes
+ * one copy.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ * header: int MAGIC, int fingerprintBits, long seed, int bucketsCount, int size,
+ *         int victimFingerprint (0 if no victim), int victimIndex
+ * slots:  short[bucketsCount * BUCKET_SIZE]
+ * </pre>
+ * Files are written and read through a small buffer, so filters bigger than 2GB can be saved as well.
+ * Not thread safe.
+ */
+public final class CuckooFilter {
+
+    // 'CKF2' in ASCII, version 2: bucket index is scrambled by UniversalHashMersennePrime.toRange
+    private static final int MAGIC = 0x43_4B_46_32;
+
+    private static final int HEADER_SIZE = 6 * Integer.BYTES + Long.BYTES;
+
+    private static final int BUCKET_SIZE = 4;
+
+    private static final int MAX_FINGERPRINT_BITS = Short.SIZE;
+
+    // with 4 slots per bucket the table can be filled up to ~95% before inserts start failing
+    private static final double MAX_LOAD_FACTOR = 0.95;
+
+    private static final int MAX_KICKS = 500;
+
+    // 'create' limit, slots array has at most 2^30 elements
+    private static final int MAX_BUCKETS_COUNT = 1 << 28;
+
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    private static final int EMPTY = 0;
+
+    private static final int FINGERPRINT_MIX = 0x5BD1_E995;
+
+    private final long seed;
+
+    private final int fingerprintBits;
+
+    private final int fingerprintMask;
+
+    private final int bucketsMask;
+
+    private final short[] slots;
+
+    private final UniversalHashMersennePrime<Object> hashFunction;
+
+    private int size;
+
+    private int victimFingerprint = EMPTY;
+
+    private int victimIndex;
+
+    /**
+     * @param expectedKeys - number of keys that can be added.
+     * @param fpp          - desired false positive probability, at least 2 * BUCKET_SIZE / 2^16 ~ 1.2E-4.
+     */
+    public static CuckooFilter create(int expectedKeys, double fpp) {
+        if (expectedKeys < 0) {
+            throw new IllegalArgumentException("Negative 'expectedKeys': " + expectedKeys);
+        }
+        if (!(fpp > 0.0 && fpp < 1.0)) {
+            throw new IllegalArgumentException("'fpp' should be in range (0, 1), but found " + fpp);
+        }
+
+        int fingerprintBits = (int) Math.ceil(Math.log(2.0 * BUCKET_SIZE / fpp) / Math.log(2.0));
+
+        if (fingerprintBits > MAX_FINGERPRINT_BITS) {
+            throw new IllegalArgumentException("'fpp' is too small for " + MAX_FINGERPRINT_BITS +
+                                                       " bits fingerprints: " + fpp);
+        }
+
+        long minBucketsCount = (long) Math.ceil(expectedKeys / (BUCKET_SIZE * MAX_LOAD_FACTOR));
+
+        int bucketsCount = 1;
+        while (bucketsCount < minBucketsCount) {
+            if (bucketsCount >= MAX_BUCKETS_COUNT) {
+                throw new IllegalArgumentException("Filter is too big for " + expectedKeys + " keys");
+            }
+            bucketsCount <<= 1;
+        }
+
+        return new CuckooFilter(ThreadLocalRandom.current().nextLong(), Math.max(1, fingerprintBits),
+                                new short[bucketsCount * BUCKET_SIZE]);
+    }
+
+    private CuckooFilter(long seed, int fingerprintBits, short[] slots) {
+        this.seed = seed;
+        this.fingerprintBits = fingerprintBits;
+        this.fingerprintMask = (1 << fingerprintBits) - 1;
+        this.bucketsMask = slots.length / BUCKET_SIZE - 1;
+        this.slots = slots;
+        this.hashFunction = new UniversalHashMersennePrime<>(slots.length / BUCKET_SIZE, seed);
+    }
+
+    /**
+     * @return false if the filter is full and the key can't be added.
+     */
+    public boolean add(long key) {
+        if (victimFingerprint != EMPTY) {
+            return false;
+        }
+
+        final long hash = hashFunction.hash64(key);
+        int fingerprint = fingerprint(hash);
+        int index = hashFunction.toRange(hash);
+
+        if (insertIntoBucket(index, fingerprint) || insertIntoBucket(altIndex(index, fingerprint), fingerprint)) {
+            ++size;
+            return true;
+        }
+
+        final ThreadLocalRandom rand = ThreadLocalRandom.current();
+
+        if (rand.nextBoolean()) {
+            index = altIndex(index, fingerprint);
+        }
+
+        // relocate random fingerprints into their alternative buckets
+        for (int kick = 0; kick < MAX_KICKS; ++kick) {
+            int slotIndex = index * BUCKET_SIZE + rand.nextInt(BUCKET_SIZE);
+
+            int displaced = slots[slotIndex] & 0xFFFF;
+            slots[slotIndex] = (short) fingerprint;
+            fingerprint = displaced;
+
+            index = altIndex(index, fingerprint);
+
+            if (insertIntoBucket(index, fingerprint)) {
+                ++size;
+                return true;
+            }
+        }
+
+        // the key itself is already in the table, keep the last displaced fingerprint aside
+        victimFingerprint = fingerprint;
+        victimIndex = index;
+        ++size;
+        return true;
+    }
+
+    /**
+     * @return false if the key was definitely not added, true if it was added with probability ~ 1 - fpp.
+     */
+    public boolean mightContain(long key) {
+        return mightContainHash(hashFunction.hash64(key));
+    }
+
+    /**
+     * Check all keys at once, hashes are calculated first, so bucket accesses don't depend on each other.
+     *
+     * @return array with 'mightContain' result for every key.
+     */
+    public boolean[] mightContainAll(long[] keys) {
+        Objects.requireNonNull(keys, "null 'keys' passed");
+
+        long[] hashes = new long[keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            hashes[i] = hashFunction.hash64(keys[i]);
+        }
+
+        boolean[] res = new boolean[keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            res[i] = mightContainHash(hashes[i]);
+        }
+
+        return res;
+    }
+
+    /**
+     * Remove a single copy of previously added key.
+     *
+     * @return true if the key fingerprint was found and removed.
+     */
+    public boolean remove(long key) {
+        final long hash = hashFunction.hash64(key);
+        final int fingerprint = fingerprint(hash);
+        final int index = hashFunction.toRange(hash);
+        final int altIndex = altIndex(index, fingerprint);
+
+        if (victimFingerprint == fingerprint && (victimIndex == index || victimIndex == altIndex)) {
+            victimFingerprint = EMPTY;
+            --size;
+            return true;
+        }
+
+        if (removeFromBucket(index, fingerprint) || removeFromBucket(altIndex, fingerprint)) {
+            --size;
+            reinsertVictim();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Number of added keys, every copy of the same key is counted.
+     */
+    public int size() {
+        return size;
+    }
+
+    public void writeTo(Path path) throws IOException {
+        Objects.requireNonNull(path, "null 'path' passed");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(fingerprintBits);
+            buffer.putLong(seed);
+            buffer.putInt(bucketsMask + 1);
+            buffer.putInt(size);
+            buffer.putInt(victimFingerprint);
+            buffer.putInt(victimIndex);
+
+            int from = 0;
+
+            while (from < slots.length) {
+                if (buffer.remaining() < Short.BYTES) {
+                    flush(channel, buffer);
+                }
+
+                int chunkLength = Math.min(buffer.remaining() / Short.BYTES, slots.length - from);
+
+                buffer.asShortBuffer().put(slots, from, chunkLength);
+                buffer.position(buffer.position() + chunkLength * Short.BYTES);
+
+                from += chunkLength;
+            }
+
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Read filter written by 'writeTo', the filter is loaded fully into heap.
+     */
+    public static CuckooFilter readFrom(Path path) throws IOException {
+        Objects.requireNonNull(path, "null 'path' passed");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+
+            if (fileSize < HEADER_SIZE) {
+                throw new IllegalStateException("Not a CuckooFilter file");
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+            buffer.limit(HEADER_SIZE);
+            readFully(channel, buffer);
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalStateException("Not a CuckooFilter file");
+            }
+
+            int fingerprintBits = buffer.getInt();
+            long seed = buffer.getLong();
+            int bucketsCount = buffer.getInt();
+            int size = buffer.getInt();
+            int victimFingerprint = buffer.getInt();
+            int victimIndex = buffer.getInt();
+
+            boolean validVictim = victimFingerprint >= 0 && (victimFingerprint >>> fingerprintBits) == 0 &&
+                    victimIndex >= 0 && victimIndex < bucketsCount;
+
+            if (fingerprintBits < 1 || fingerprintBits > MAX_FINGERPRINT_BITS || bucketsCount <= 0 ||
+                    bucketsCount > MAX_BUCKETS_COUNT || Integer.bitCount(bucketsCount) != 1 || size < 0 ||
+                    !validVictim ||
+                    HEADER_SIZE + (long) bucketsCount * BUCKET_SIZE * Short.BYTES != fileSize) {
+                throw new IllegalStateException(String.format("Corrupted CuckooFilter file: fingerprint bits = %d, " +
+                                                                      "buckets = %d, size = %d, file size = %d",
+                                                              fingerprintBits, bucketsCount, size, fileSize));
+            }
+
+            short[] slots = new short[bucketsCount * BUCKET_SIZE];
+
+            int from = 0;
+
+            while (from < slots.length) {
+                int chunkLength = Math.min(IO_BUFFER_SIZE / Short.BYTES, slots.length - from);
+
+                buffer.clear();
+                buffer.limit(chunkLength * Short.BYTES);
+                readFully(channel, buffer);
+
+                buffer.asShortBuffer().get(slots, from, chunkLength);
+
+                from += chunkLength;
+            }
+
+            CuckooFilter filter = new CuckooFilter(seed, fingerprintBits, slots);
+            filter.size = size;
+            filter.victimFingerprint = victimFingerprint;
+            filter.victimIndex = victimIndex;
+
+            return filter;
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * Fill 'buffer' up to its limit from the current channel position and flip it for reading.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of CuckooFilter file");
+            }
+        }
+
+        buffer.flip();
+    }
+
+    int fingerprintBits() {
+        return fingerprintBits;
+    }
+
+    long calculateUsedBytes() {
+        return (long) slots.length * Short.BYTES;
+    }
+
+    private boolean mightContainHash(long hash) {
+        final int fingerprint = fingerprint(hash);
+        final int index = hashFunction.toRange(hash);
+        final int altIndex = altIndex(index, fingerprint);
+
+        if (bucketContains(index, fingerprint) || bucketContains(altIndex, fingerprint)) {
+            return true;
+        }
+
+        return victimFingerprint == fingerprint && (victimIndex == index || victimIndex == altIndex);
+    }
+
+    /**
+     * Low bits of the hash, high bits are used for the bucket index. 0 is reserved for empty slots.
+     */
+    private int fingerprint(long hash) {
+        int fingerprint = (int) hash & fingerprintMask;
+        return fingerprint == EMPTY ? 1 : fingerprint;
+    }
+
+    /**
+     * Symmetric: altIndex(altIndex(i, f), f) == i.
+     */
+    private int altIndex(int index, int fingerprint) {
+        return (index ^ (fingerprint * FINGERPRINT_MIX)) & bucketsMask;
+    }
+
+    private boolean bucketContains(int index, int fingerprint) {
+        final int from = index * BUCKET_SIZE;
+
+        for (int i = from; i < from + BUCKET_SIZE; ++i) {
+            if ((slots[i] & 0xFFFF) == fingerprint) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean insertIntoBucket(int index, int fingerprint) {
+        final int from = index * BUCKET_SIZE;
+
+        for (int i = from; i < from + BUCKET_SIZE; ++i) {
+            if (slots[i] == EMPTY) {
+                slots[i] = (short) fingerprint;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean removeFromBucket(int index, int fingerprint) {
+        final int from = index * BUCKET_SIZE;
+
+        for (int i = from; i < from + BUCKET_SIZE; ++i) {
+            if ((slots[i] & 0xFFFF) == fingerprint) {
+                slots[i] = EMPTY;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * After removal there can be a free slot for the victim in one of its buckets.
+     */
+    private void reinsertVictim() {
+        if (victimFingerprint == EMPTY) {
+            return;
+        }
+
+        if (insertIntoBucket(victimIndex, victimFingerprint) ||
+                insertIntoBucket(altIndex(victimIndex, victimFingerprint), victimFingerprint)) {
+            victimFingerprint = EMPTY;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.max.app.hashing;
+
+import io.prometheus.client.Collector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in Prometheus collector for hash structures. Nothing is measured until a structure is monitored
+ * and the collector is registered:
+ * <pre>
+ * HashMetrics metrics = new HashMetrics().register(CollectorRegistry.defaultRegistry);
+ * metrics.monitor("users", usersSet::statistics);
+ * </pre>
+ * Statistics are requested on every scrape from the scrape thread. For structures that are not thread safe
+ * (RobinHoodIntHashMap) the supplier should return a snapshot taken by the owner thread, for example from
+ * an AtomicReference updated periodically.
+ * <p>
+ * Exported metrics, all labeled with 'structure' name:
+ * hash_bucket_occupancy (histogram of keys per bucket), hash_probe_length_max, hash_probe_length_avg,
+ * hash_rebuilds_total and hash_load_factor.
+ */
+public final class HashMetrics extends Collector {
+
+    private static final List<String> LABEL_NAMES = Collections.singletonList("structure");
+
+    private final Map<String, Supplier<HashStatistics>> structures = new ConcurrentHashMap<>();
+
+    /**
+     * Start exporting statistics of a structure with 'name' label, previous structure with the same name
+     * is replaced.
+     */
+    public HashMetrics monitor(String name, Supplier<HashStatistics> statistics) {
+        Objects.requireNonNull(name, "null 'name' passed");
+        Objects.requireNonNull(statistics, "null 'statistics' passed");
+        structures.put(name, statistics);
+        return this;
+    }
+
+    public void forget(String name) {
+        structures.remove(name);
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        List<MetricFamilySamples.Sample> occupancy = new ArrayList<>();
+        List<MetricFamilySamples.Sample> maxProbeLength = new ArrayList<>();
+        List<MetricFamilySamples.Sample> avgProbeLength = new ArrayList<>();
+        List<MetricFamilySamples.Sample> rebuilds = new ArrayList<>();
+        List<MetricFamilySamples.Sample> loadFactor = new ArrayList<>();
+
+        for (Map.Entry<String, Supplier<HashStatistics>> entry : structures.entrySet()) {
+            List<String> labelValues = Collections.singletonList(entry.getKey());
+            HashStatistics statistics = entry.getValue().get();
+
+            addOccupancySamples(occupancy, entry.getKey(), statistics);
+
+            maxProbeLength.add(new MetricFamilySamples.Sample("hash_probe_length_max", LABEL_NAMES, labelValues,
+                                                              statistics.maxProbeLength()));
+            avgProbeLength.add(new MetricFamilySamples.Sample("hash_probe_length_avg", LABEL_NAMES, labelValues,
+                                                              statistics.averageProbeLength()));
+            rebuilds.add(new MetricFamilySamples.Sample("hash_rebuilds_total", LABEL_NAMES, labelValues,
+                                                        statistics.rebuildsCount()));
+            loadFactor.add(new MetricFamilySamples.Sample("hash_load_factor", LABEL_NAMES, labelValues,
+                                                          statistics.loadFactor()));
+        }
+
+        List<MetricFamilySamples> res = new ArrayList<>();
+        res.add(new MetricFamilySamples("hash_bucket_occupancy", Type.HISTOGRAM,
+                                        "Number of keys hashed into a single bucket.", occupancy));
+        res.add(new MetricFamilySamples("hash_probe_length_max", Type.GAUGE,
+                                        "Max number of slots visited by a successful lookup.", maxProbeLength));
+        res.add(new MetricFamilySamples("hash_probe_length_avg", Type.GAUGE,
+                                        "Average number of slots visited by a successful lookup.", avgProbeLength));
+        res.add(new MetricFamilySamples("hash_rebuilds_total", Type.COUNTER,
+                                        "Number of rehashes with a new hash function or resizes.", rebuilds));
+        res.add(new MetricFamilySamples("hash_load_factor", Type.GAUGE,
+                                        "Keys count divided by allocated slots count.", loadFactor));
+        return res;
+    }
+
+    /**
+     * Histogram samples are cumulative: bucket 'le=i' counts buckets with at most 'i' keys.
+     */
+    private static void addOccupancySamples(List<MetricFamilySamples.Sample> samples, String name,
+                                            HashStatistics statistics) {
+        final List<String> bucketLabelNames = List.of("structure", "le");
+        final long[] bucketOccupancy = statistics.bucketOccupancy();
+
+        long cumulativeCount = 0L;
+        for (int i = 0; i < bucketOccupancy.length - 1; ++i) {
+            cumulativeCount += bucketOccupancy[i];
+            samples.add(new MetricFamilySamples.Sample("hash_bucket_occupancy_bucket", bucketLabelNames,
+                                                       List.of(name, doubleToGoString(i)), cumulativeCount));
+        }
+        cumulativeCount += bucketOccupancy[bucketOccupancy.length - 1];
+
+        samples.add(new MetricFamilySamples.Sample("hash_bucket_occupancy_bucket", bucketLabelNames,
+                                                   List.of(name, "+Inf"), cumulativeCount));
+        samples.add(new MetricFamilySamples.Sample("hash_bucket_occupancy_count", LABEL_NAMES, List.of(name),
+                                                   cumulativeCount));
+        samples.add(new MetricFamilySamples.Sample("hash_bucket_occupancy_sum", LABEL_NAMES, List.of(name),
+                                                   statistics.keysCount()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.max.app.hashing;
+
+/**
+ * Seeded 64-bit mixing and range reduction shared by primitive-key hash tables.
+ */
+final class HashMixing {
+
+    private static final long GOLDEN_GAMMA = 0x9E37_79B9_7F4A_7C15L;
+
+    private HashMixing() {
+        throw new AssertionError("Can't instantiate utility only class");
+    }
+
+    /**
+     * Stafford's variant 13 of the MurmurHash3 finalizer applied to 'key' combined with 'seed'.
+     * Every seed defines a different hash function.
+     */
+    static long mix(long key, long seed) {
+        long z = key * GOLDEN_GAMMA + seed;
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Map 64-bit hash into range [0, range) using multiplication instead of modulo (Lemire's reduction).
+     */
+    static int reduce(long hash, int range) {
+        assert range > 0 : "range should be positive";
+        return (int) (((hash >>> 33) * range) >>> 31);
+    }
+}
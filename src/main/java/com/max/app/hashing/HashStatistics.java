@@ -0,0 +1,102 @@
+package com.max.app.hashing;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of hash structure quality, calculated on demand by 'statistics()' methods,
+ * so lookups and inserts don't pay anything for it.
+ * <p>
+ * bucket occupancy - number of keys hashed into every bucket (home slot for open addressing),
+ * bucketOccupancy()[i] is the number of buckets with 'i' keys, the last element counts buckets
+ * with OCCUPANCY_LIMIT or more keys;
+ * probe length - number of slots (or nested tables) visited by a successful lookup;
+ * rebuilds count - how many times the structure was rehashed with a new hash function or resized;
+ * load factor - keys count divided by the number of allocated slots.
+ */
+public final class HashStatistics {
+
+    static final int OCCUPANCY_LIMIT = 16;
+
+    private final long[] bucketOccupancy;
+
+    private final long keysCount;
+
+    private final int maxProbeLength;
+
+    private final double averageProbeLength;
+
+    private final long rebuildsCount;
+
+    private final double loadFactor;
+
+    private HashStatistics(Builder builder, long rebuildsCount, double loadFactor) {
+        this.bucketOccupancy = builder.bucketOccupancy.clone();
+        this.keysCount = builder.keysCount;
+        this.maxProbeLength = builder.maxProbeLength;
+        this.averageProbeLength = builder.probesCount == 0L ? 0.0 :
+                (double) builder.probeLengthsSum / builder.probesCount;
+        this.rebuildsCount = rebuildsCount;
+        this.loadFactor = loadFactor;
+    }
+
+    public long[] bucketOccupancy() {
+        return bucketOccupancy.clone();
+    }
+
+    /**
+     * Number of keys counted in bucket occupancy.
+     */
+    public long keysCount() {
+        return keysCount;
+    }
+
+    public int maxProbeLength() {
+        return maxProbeLength;
+    }
+
+    public double averageProbeLength() {
+        return averageProbeLength;
+    }
+
+    public long rebuildsCount() {
+        return rebuildsCount;
+    }
+
+    public double loadFactor() {
+        return loadFactor;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("occupancy: %s, max probe: %d, avg probe: %.2f, rebuilds: %d, load factor: %.2f",
+                             Arrays.toString(bucketOccupancy), maxProbeLength, averageProbeLength, rebuildsCount,
+                             loadFactor);
+    }
+
+    static final class Builder {
+
+        private final long[] bucketOccupancy = new long[OCCUPANCY_LIMIT + 1];
+        private long keysCount;
+
+        private int maxProbeLength;
+        private long probeLengthsSum;
+        private long probesCount;
+
+        Builder addBucket(int bucketKeysCount) {
+            ++bucketOccupancy[Math.min(bucketKeysCount, OCCUPANCY_LIMIT)];
+            keysCount += bucketKeysCount;
+            return this;
+        }
+
+        Builder addProbeLength(int probeLength) {
+            maxProbeLength = Math.max(maxProbeLength, probeLength);
+            probeLengthsSum += probeLength;
+            ++probesCount;
+            return this;
+        }
+
+        HashStatistics build(long rebuildsCount, double loadFactor) {
+            return new HashStatistics(this, rebuildsCount, loadFactor);
+        }
+    }
+}
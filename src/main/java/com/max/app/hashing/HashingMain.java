@@ -7,12 +7,20 @@ public class HashingMain {
 
     private static final Random RAND = new Random();
 
+    // values are hashed in chunks into a single reusable buffer, so no extra 'int[n]' is allocated
+    private static final int CHUNK_SIZE = 64 * 1024;
+
     /*
     Benchmark:
                                  Mode  Cnt  Score   Error  Units
              UniversalHash.hash  avgt   25  0.416 ± 0.006  ms/op
     UniversalHashSuperFast.hash  avgt   25  0.273 ± 0.002  ms/op
 
+    Distribution pass (hashing + counting) over 100M values with m = 1024:
+    boxed UniversalHash.hash: ~430-710 ms
+    IntUniversalHash.hashAll: ~190 ms
+    IntUniversalHash.hashAll in 64K chunks: ~250 ms (~230 ms for the whole array on the same run,
+    but without an extra 400MB 'hashes' array)
      */
     public static void main(String[] args) {
 
@@ -20,21 +28,33 @@ public class HashingMain {
         final int[] arrayToHash = generateSequentialValues(n);
         final int m = 1024;
 
+        final int[] hashes = new int[CHUNK_SIZE];
+
         for (int it = 0; it < 10; ++it) {
-            UniversalHash hashFunc = new UniversalHashWithPowerOfTwoCapacityFast(m);
+            IntUniversalHash hashFunc = new UniversalHashWithPowerOfTwoCapacityFast<>(m);
 
             int[] freqPerBucket = new int[m];
 
-            for (int singeVal : arrayToHash) {
-                int hashBucketIndex = hashFunc.hash(singeVal);
+            long startTime = System.nanoTime();
+
+            for (int from = 0; from < n; from += CHUNK_SIZE) {
+                int to = Math.min(from + CHUNK_SIZE, n);
 
-                ++freqPerBucket[hashBucketIndex];
+                hashFunc.hashAll(arrayToHash, from, to, hashes);
 
-                if (hashBucketIndex >= m) {
-                    throw new IllegalStateException("Big hash value detected");
+                for (int i = 0; i < to - from; ++i) {
+                    int hashBucketIndex = hashes[i];
+
+                    if (hashBucketIndex >= m) {
+                        throw new IllegalStateException("Big hash value detected");
+                    }
+
+                    ++freqPerBucket[hashBucketIndex];
                 }
             }
 
+            long elapsedTime = System.nanoTime() - startTime;
+
             int minFreq = Arrays.stream(freqPerBucket).min().getAsInt();
             int maxFreq = Arrays.stream(freqPerBucket).max().getAsInt();
 
@@ -44,7 +64,8 @@ public class HashingMain {
 
             double deviationPercentageFromAvg = (deviation * 100) / average(freqPerBucket);
 
-            System.out.printf("deviation: %.1f, deviation(%%): %.2f %n", deviation, deviationPercentageFromAvg);
+            System.out.printf("deviation: %.1f, deviation(%%): %.2f, time: %d ms %n", deviation,
+                              deviationPercentageFromAvg, elapsedTime / 1_000_000L);
         }
 
         System.out.println("Maine done...");
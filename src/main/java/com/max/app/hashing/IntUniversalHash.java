@@ -0,0 +1,33 @@
+package com.max.app.hashing;
+
+import java.util.Objects;
+
+/**
+ * Primitive specialization of {@link UniversalHash} for 'int' keys, avoids boxing.
+ * For the same function hash(int) returns the same value as hash(Integer).
+ */
+public interface IntUniversalHash {
+
+    int hash(int value);
+
+    /**
+     * Hash all 'values' into 'hashes', implementations use simple loops that the JIT can vectorize.
+     */
+    default void hashAll(int[] values, int[] hashes) {
+        hashAll(values, 0, values.length, hashes);
+    }
+
+    /**
+     * Hash values[from, to) into hashes[0, to - from), so big arrays can be hashed in chunks
+     * into a single reusable 'hashes' buffer.
+     */
+    default void hashAll(int[] values, int from, int to, int[] hashes) {
+        Objects.checkFromToIndex(from, to, values.length);
+        // 'hashes' should have enough space for all values
+        Objects.checkFromToIndex(0, to - from, hashes.length);
+
+        for (int i = from; i < to; ++i) {
+            hashes[i - from] = hash(values[i]);
+        }
+    }
+}
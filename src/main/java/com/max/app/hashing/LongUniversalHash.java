@@ -0,0 +1,24 @@
+package com.max.app.hashing;
+
+import java.util.Objects;
+
+/**
+ * Primitive specialization of {@link UniversalHash} for 'long' keys, avoids boxing.
+ * For the same function hash(long) returns the same value as hash(Long).
+ */
+public interface LongUniversalHash {
+
+    int hash(long value);
+
+    /**
+     * Hash all 'values' into 'hashes'.
+     */
+    default void hashAll(long[] values, int[] hashes) {
+        // 'hashes' should have enough space for all values
+        Objects.checkFromToIndex(0, values.length, hashes.length);
+
+        for (int i = 0; i < values.length; ++i) {
+            hashes[i] = hash(values[i]);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.max.app.hashing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Read-only memory-mapped StaticLongHashSet, opened from a file written by StaticLongHashSet.writeTo.
+ * Opening doesn't rebuild or copy anything, 'contains' works directly against the mapping,
+ * so the page cache is shared between all JVMs that open the same file.
+ * All read operations use absolute positions, so the set can be safely shared between threads.
+ * <p>
+ * A single mapping is limited to 2GB, so buckets and slots are mapped in chunks of 2^27 longs (1GB),
+ * any set that fits into StaticLongHashSet arrays can be opened.
+ */
+public final class MappedStaticLongHashSet {
+
+    // 2^27 longs = 1GB per mapping
+    static final int DEFAULT_CHUNK_SHIFT = 27;
+
+    private final int size;
+    private final long topLevelSeed;
+    private final int bucketsCount;
+
+    private final MappedLongArray buckets;
+    private final MappedLongArray slots;
+
+    private MappedStaticLongHashSet(int size, long topLevelSeed, int bucketsCount, MappedLongArray buckets,
+                                    MappedLongArray slots) {
+        this.size = size;
+        this.topLevelSeed = topLevelSeed;
+        this.bucketsCount = bucketsCount;
+        this.buckets = buckets;
+        this.slots = slots;
+    }
+
+    public static MappedStaticLongHashSet open(Path path) throws IOException {
+        return open(path, DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     * @param chunkShift - every mapping contains 2^chunkShift longs, smaller chunks are used only in tests.
+     */
+    static MappedStaticLongHashSet open(Path path, int chunkShift) throws IOException {
+        Objects.requireNonNull(path, "null 'path' passed");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+
+            if (fileSize < StaticLongHashSetFormat.HEADER_SIZE) {
+                throw new IllegalStateException("Not a StaticLongHashSet file");
+            }
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0L, StaticLongHashSetFormat.HEADER_SIZE);
+
+            if (header.getInt(0) != StaticLongHashSetFormat.MAGIC) {
+                throw new IllegalStateException("Not a StaticLongHashSet file");
+            }
+
+            int size = header.getInt(StaticLongHashSetFormat.SIZE_OFFSET);
+            long topLevelSeed = header.getLong(StaticLongHashSetFormat.SEED_OFFSET);
+            int bucketsCount = header.getInt(StaticLongHashSetFormat.BUCKETS_COUNT_OFFSET);
+            int slotsCount = header.getInt(StaticLongHashSetFormat.SLOTS_COUNT_OFFSET);
+
+            if (size < 0 || bucketsCount <= 0 || slotsCount < 0 ||
+                    StaticLongHashSetFormat.fileSize(bucketsCount, slotsCount) != fileSize) {
+                throw new IllegalStateException(String.format("Corrupted StaticLongHashSet file: size = %d, " +
+                                                                      "buckets = %d, slots = %d, file size = %d",
+                                                              size, bucketsCount, slotsCount, fileSize));
+            }
+
+            // mappings stay valid after channel is closed
+            MappedLongArray buckets = MappedLongArray.map(channel, StaticLongHashSetFormat.bucketsOffset(),
+                                                          2L * bucketsCount, chunkShift);
+            MappedLongArray slots = MappedLongArray.map(channel, StaticLongHashSetFormat.slotsOffset(bucketsCount),
+                                                        slotsCount, chunkShift);
+
+            return new MappedStaticLongHashSet(size, topLevelSeed, bucketsCount, buckets, slots);
+        }
+    }
+
+    public boolean contains(long value) {
+        final int bucketIndex = HashMixing.reduce(HashMixing.mix(value, topLevelSeed), bucketsCount);
+
+        final long bucketSeed = buckets.get(2L * bucketIndex);
+        final long offsetAndSize = buckets.get(2L * bucketIndex + 1);
+
+        final int tableSize = (int) offsetAndSize;
+
+        if (tableSize == 0) {
+            return false;
+        }
+
+        final int slotsOffset = (int) (offsetAndSize >>> Integer.SIZE);
+
+        return slots.get((long) slotsOffset + HashMixing.reduce(HashMixing.mix(value, bucketSeed), tableSize)) ==
+                value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Read-only 'long' array mapped as several LongBuffers of 2^chunkShift longs each.
+     */
+    private static final class MappedLongArray {
+
+        private final LongBuffer[] chunks;
+        private final int chunkShift;
+        private final long chunkMask;
+
+        private MappedLongArray(LongBuffer[] chunks, int chunkShift) {
+            this.chunks = chunks;
+            this.chunkShift = chunkShift;
+            this.chunkMask = (1L << chunkShift) - 1L;
+        }
+
+        static MappedLongArray map(FileChannel channel, long offset, long length, int chunkShift)
+                throws IOException {
+            final long chunkLength = 1L << chunkShift;
+
+            LongBuffer[] chunks = new LongBuffer[Math.toIntExact((length + chunkLength - 1) / chunkLength)];
+
+            for (int i = 0; i < chunks.length; ++i) {
+                long chunkOffset = i * chunkLength;
+                long curLength = Math.min(chunkLength, length - chunkOffset);
+
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset + chunkOffset * Long.BYTES,
+                                        curLength * Long.BYTES).asLongBuffer();
+            }
+
+            return new MappedLongArray(chunks, chunkShift);
+        }
+
+        long get(long index) {
+            return chunks[(int) (index >>> chunkShift)].get((int) (index & chunkMask));
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.max.app.hashing;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToLongFunction;
+
+/**
+ * Minimal perfect hash function (BBHash): maps every one of N distinct keys into a unique index in range [0, N).
+ * https://arxiv.org/abs/1702.03154
+ * <p>
+ * Keys are hashed into a bit array of size GAMMA * N. Keys that landed into unique positions set their bits,
+ * keys that collided with some other key are hashed again into the next level of size GAMMA * (collided keys).
+ * Index of a key is the rank of its bit, i.e. number of set bits before it in all levels.
+ * With GAMMA = 1 the structure takes ~3 bits per key. Keys that are still colliding after MAX_LEVELS,
+ * or when a level can't place any key (keys with the same 64-bit key hash), are stored into a small
+ * fallback map.
+ * <p>
+ * Every level separates keys only by their 64-bit key hash. By default Long, Integer and CharSequence keys are
+ * hashed by their content into 64 bits, all other keys by 'hashCode', which gives only 32 bits: ~N^2 / 2^33 keys
+ * end up in the fallback map (~1.2M keys for 100M keys). For such keys pass 64-bit 'keyHasher' explicitly.
+ * <p>
+ * Every level is built in parallel: bits are set using atomic 'or' operations, so the result doesn't depend
+ * on the number of threads.
+ * For keys that were not used during construction 'index' returns some arbitrary index or -1.
+ */
+public final class MinimalPerfectHash<K> {
+
+    private static final double GAMMA = 1.0;
+
+    private static final int MAX_LEVELS = 32;
+
+    // HashMap.Node (32 bytes) + boxed Integer value (16 bytes) + table slot (~8 bytes), keys are not counted
+    private static final int FALLBACK_ENTRY_BYTES = 56;
+
+    // FNV-1a 64-bit parameters
+    private static final long FNV_OFFSET_BASIS = 0xCBF2_9CE4_8422_2325L;
+    private static final long FNV_PRIME = 0x100_0000_01B3L;
+
+    // rank is sampled for every 8 words (512 bits)
+    private static final int RANK_SAMPLE_WORDS_SHIFT = 3;
+
+    // levels smaller than this number of keys are not worth splitting between threads
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 16;
+
+    private static final VarHandle LONG_ARRAY = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int size;
+
+    private final long keySeed;
+
+    private final ToLongFunction<? super K> keyHasher;
+
+    // all levels bits one after another
+    private final long[] bits;
+
+    // levelOffsets[i] = offset of level 'i' in bits, levelOffsets[levels count] = total bits count
+    private final long[] levelOffsets;
+
+    private final long[] levelSeeds;
+
+    // number of set bits before every 8 words block
+    private final int[] rankSamples;
+
+    private final Map<K, Integer> fallback;
+
+    public static <U> MinimalPerfectHash<U> build(Collection<U> keys) {
+        return build(keys, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Build minimal perfect hash for distinct 'keys' using 'pool' for parallel construction.
+     */
+    public static <U> MinimalPerfectHash<U> build(Collection<U> keys, ForkJoinPool pool) {
+        return build(keys, MinimalPerfectHash::defaultKeyHash, pool);
+    }
+
+    /**
+     * Build minimal perfect hash for distinct 'keys', levels separate keys by 64-bit 'keyHasher' values,
+     * keys with equal 'keyHasher' values are stored into the fallback map.
+     */
+    public static <U> MinimalPerfectHash<U> build(Collection<U> keys, ToLongFunction<? super U> keyHasher,
+                                                  ForkJoinPool pool) {
+        Objects.requireNonNull(keys, "null 'keys' passed");
+        Objects.requireNonNull(keyHasher, "null 'keyHasher' passed");
+        Objects.requireNonNull(pool, "null 'pool' passed");
+
+        @SuppressWarnings("unchecked")
+        U[] keysArray = (U[]) keys.toArray();
+
+        for (U singleKey : keysArray) {
+            Objects.requireNonNull(singleKey, "Can't store null key.");
+        }
+
+        return new MinimalPerfectHash<>(keysArray, keyHasher, pool);
+    }
+
+    private MinimalPerfectHash(K[] keys, ToLongFunction<? super K> keyHasher, ForkJoinPool pool) {
+        this.size = keys.length;
+        this.keyHasher = keyHasher;
+
+        final ThreadLocalRandom rand = ThreadLocalRandom.current();
+        this.keySeed = rand.nextLong();
+
+        final long[] hashes = new long[keys.length];
+        parallelForEach(pool, keys.length, (from, to) -> {
+            for (int i = from; i < to; ++i) {
+                hashes[i] = HashMixing.mix(keyHasher.applyAsLong(keys[i]), keySeed);
+            }
+        });
+
+        int[] remaining = new int[keys.length];
+        Arrays.setAll(remaining, i -> i);
+
+        List<long[]> levels = new ArrayList<>();
+        long[] seeds = new long[MAX_LEVELS];
+
+        while (remaining.length > 0 && levels.size() < MAX_LEVELS) {
+            final long levelSeed = rand.nextLong();
+            final long[] levelBits = new long[levelWordsCount(remaining.length)];
+            final long levelSize = (long) levelBits.length * Long.SIZE;
+
+            int[] collided = buildLevel(pool, hashes, remaining, levelBits, levelSize, levelSeed);
+
+            // only keys with equal hashes are left, more levels won't help
+            if (collided.length == remaining.length) {
+                break;
+            }
+
+            remaining = collided;
+            seeds[levels.size()] = levelSeed;
+            levels.add(levelBits);
+        }
+
+        this.levelSeeds = Arrays.copyOf(seeds, levels.size());
+        this.levelOffsets = new long[levels.size() + 1];
+
+        int totalWords = 0;
+        for (int i = 0; i < levels.size(); ++i) {
+            levelOffsets[i + 1] = levelOffsets[i] + (long) levels.get(i).length * Long.SIZE;
+            totalWords += levels.get(i).length;
+        }
+
+        this.bits = new long[totalWords];
+        int wordsOffset = 0;
+        for (long[] levelBits : levels) {
+            System.arraycopy(levelBits, 0, bits, wordsOffset, levelBits.length);
+            wordsOffset += levelBits.length;
+        }
+
+        this.rankSamples = calculateRankSamples(bits);
+
+        // keys that are still colliding get indexes after all keys stored in levels
+        this.fallback = new HashMap<>();
+        int nextIndex = keys.length - remaining.length;
+        for (int keyIndex : remaining) {
+            if (fallback.put(keys[keyIndex], nextIndex) != null) {
+                throw new IllegalArgumentException("Duplicate key detected: " + keys[keyIndex]);
+            }
+            ++nextIndex;
+        }
+    }
+
+    /**
+     * @return index in range [0, size) for a key used during construction.
+     */
+    public int index(K key) {
+        Objects.requireNonNull(key);
+
+        final long hash = HashMixing.mix(keyHasher.applyAsLong(key), keySeed);
+
+        for (int level = 0; level < levelSeeds.length; ++level) {
+            long levelSize = levelOffsets[level + 1] - levelOffsets[level];
+            long position = levelOffsets[level] + reduce(HashMixing.mix(hash, levelSeeds[level]), levelSize);
+
+            if ((bits[(int) (position >>> 6)] & (1L << position)) != 0L) {
+                return rank(position);
+            }
+        }
+
+        Integer fallbackIndex = fallback.get(key);
+        return fallbackIndex == null ? -1 : fallbackIndex;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Approximate size of levels bits, rank samples and fallback map entries per single key
+     * (keys stored in the fallback map are not counted, they are owned by the caller).
+     */
+    double bitsPerKey() {
+        if (size == 0) {
+            return 0.0;
+        }
+        return (bits.length * (double) Long.SIZE + rankSamples.length * (double) Integer.SIZE +
+                fallback.size() * (double) FALLBACK_ENTRY_BYTES * Byte.SIZE) / size;
+    }
+
+    int levelsCount() {
+        return levelSeeds.length;
+    }
+
+    int fallbackSize() {
+        return fallback.size();
+    }
+
+    private int rank(long position) {
+        final int wordIndex = (int) (position >>> 6);
+        final int blockIndex = wordIndex >>> RANK_SAMPLE_WORDS_SHIFT;
+
+        int res = rankSamples[blockIndex];
+
+        for (int i = blockIndex << RANK_SAMPLE_WORDS_SHIFT; i < wordIndex; ++i) {
+            res += Long.bitCount(bits[i]);
+        }
+
+        // count only bits below 'position'
+        return res + Long.bitCount(bits[wordIndex] & ((1L << position) - 1L));
+    }
+
+    /**
+     * Hash all 'remaining' keys into a single level, set bits for keys without collisions
+     * and return indexes of collided keys.
+     */
+    private static int[] buildLevel(ForkJoinPool pool, long[] hashes, int[] remaining, long[] levelBits,
+                                    long levelSize, long levelSeed) {
+        final long[] collisions = new long[levelBits.length];
+
+        // pass 1: mark positions, second key at the same position marks collision
+        parallelForEach(pool, remaining.length, (from, to) -> {
+            for (int i = from; i < to; ++i) {
+                long position = reduce(HashMixing.mix(hashes[remaining[i]], levelSeed), levelSize);
+                int wordIndex = (int) (position >>> 6);
+                long mask = 1L << position;
+
+                long prevWord = (long) LONG_ARRAY.getAndBitwiseOr(levelBits, wordIndex, mask);
+                if ((prevWord & mask) != 0L) {
+                    LONG_ARRAY.getAndBitwiseOr(collisions, wordIndex, mask);
+                }
+            }
+        });
+
+        // pass 2: keep only positions without collisions and collect collided keys
+        int collidedCount = 0;
+        int[] collided = new int[remaining.length];
+
+        for (int i = 0; i < levelBits.length; ++i) {
+            levelBits[i] &= ~collisions[i];
+        }
+
+        for (int keyIndex : remaining) {
+            long position = reduce(HashMixing.mix(hashes[keyIndex], levelSeed), levelSize);
+            if ((collisions[(int) (position >>> 6)] & (1L << position)) != 0L) {
+                collided[collidedCount] = keyIndex;
+                ++collidedCount;
+            }
+        }
+
+        return Arrays.copyOf(collided, collidedCount);
+    }
+
+    private static int[] calculateRankSamples(long[] bits) {
+        final int blockWords = 1 << RANK_SAMPLE_WORDS_SHIFT;
+        int[] samples = new int[(bits.length + blockWords - 1) / blockWords + 1];
+
+        int setBitsCount = 0;
+        for (int i = 0; i < bits.length; ++i) {
+            if ((i & (blockWords - 1)) == 0) {
+                samples[i >>> RANK_SAMPLE_WORDS_SHIFT] = setBitsCount;
+            }
+            setBitsCount += Long.bitCount(bits[i]);
+        }
+
+        return samples;
+    }
+
+    private static int levelWordsCount(int keysCount) {
+        long levelBits = Math.max(Long.SIZE, (long) Math.ceil(GAMMA * keysCount));
+        return Math.toIntExact((levelBits + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * 64-bit content hash for Long, Integer and CharSequence (FNV-1a over chars), 'hashCode' for other keys.
+     */
+    private static long defaultKeyHash(Object key) {
+        if (key instanceof Long || key instanceof Integer) {
+            return ((Number) key).longValue();
+        }
+
+        if (key instanceof CharSequence) {
+            CharSequence str = (CharSequence) key;
+            final int length = str.length();
+
+            long res = FNV_OFFSET_BASIS ^ length;
+            for (int i = 0; i < length; ++i) {
+                res = (res ^ str.charAt(i)) * FNV_PRIME;
+            }
+            return res;
+        }
+
+        return key.hashCode();
+    }
+
+    /**
+     * Map 64-bit hash into range [0, range), range <= 2**32 expected.
+     */
+    private static long reduce(long hash, long range) {
+        return ((hash >>> 32) * range) >>> 32;
+    }
+
+    private interface RangeAction {
+        void apply(int from, int to);
+    }
+
+    private static void parallelForEach(ForkJoinPool pool, int length, RangeAction action) {
+        if (length <= PARALLEL_CHUNK_SIZE || pool.getParallelism() == 1) {
+            action.apply(0, length);
+            return;
+        }
+
+        pool.invoke(new RangeTask(action, 0, length));
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+
+        private final RangeAction action;
+        private final int from;
+        private final int to;
+
+        RangeTask(RangeAction action, int from, int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK_SIZE) {
+                action.apply(from, to);
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(action, from, mid), new RangeTask(action, mid, to));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.max.app.hashing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Minimal perfect hash and StaticHashMap for 5M random 'Long' keys.
+ * <p>
+ * parallelism: 1
+ * MinimalPerfectHash build: 813 ms, bits/key: 2.89, levels: 27, fallback: 0, index: 197.2 ns/op
+ * StaticHashMap build: 2401 ms, get: 271.8 ns/op, HashMap get: 95.6 ns/op
+ * <p>
+ * Long keys are hashed by their 64-bit value, bits/key includes the fallback map. With 32-bit Long.hashCode
+ * ~0.1% of 5M keys shared a hash code and went to the fallback map (5600 keys, ~0.5 extra bits per key).
+ * Lookup probes ~2.7 levels on average (only 1/e of keys are placed at every level with GAMMA = 1)
+ * and every probe is a cache miss, so it is slower than HashMap, but takes ~3 bits per key.
+ */
+public final class MinimalPerfectHashBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int KEYS_COUNT = 5_000_000;
+
+    private static final int LOOKUPS_COUNT = 10_000_000;
+
+    public static void main(String[] args) {
+
+        Map<Long, Long> data = new HashMap<>();
+        while (data.size() < KEYS_COUNT) {
+            long key = RAND.nextLong();
+            data.put(key, ~key);
+        }
+
+        List<Long> keys = new ArrayList<>(data.keySet());
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.printf("parallelism: %d%n", pool.getParallelism());
+
+        for (int it = 0; it < 3; ++it) {
+            long startTime = System.nanoTime();
+            MinimalPerfectHash<Long> perfectHash = MinimalPerfectHash.build(keys, pool);
+            long buildTime = System.nanoTime() - startTime;
+
+            System.out.printf("MinimalPerfectHash build: %d ms, bits/key: %.2f, levels: %d, fallback: %d, " +
+                                      "index: %.1f ns/op%n",
+                              buildTime / 1_000_000L, perfectHash.bitsPerKey(), perfectHash.levelsCount(),
+                              perfectHash.fallbackSize(), measure(index -> perfectHash.index(keys.get(index)) >= 0,
+                                                                  keys.size()));
+
+            startTime = System.nanoTime();
+            StaticHashMap<Long, Long> map = StaticHashMap.fromMap(data, pool);
+            buildTime = System.nanoTime() - startTime;
+
+            System.out.printf("StaticHashMap build: %d ms, get: %.1f ns/op, HashMap get: %.1f ns/op%n",
+                              buildTime / 1_000_000L,
+                              measure(index -> map.get(keys.get(index)) != null, keys.size()),
+                              measure(index -> data.get(keys.get(index)) != null, keys.size()));
+        }
+
+        System.out.println("MinimalPerfectHashBenchmark done...");
+    }
+
+    private interface IndexPredicate {
+        boolean test(int index);
+    }
+
+    private static double measure(IndexPredicate predicate, int keysCount) {
+        long startTime = System.nanoTime();
+
+        int foundCount = 0;
+        for (int it = 0; it < LOOKUPS_COUNT; ++it) {
+            if (predicate.test(it % keysCount)) {
+                ++foundCount;
+            }
+        }
+
+        long endTime = System.nanoTime();
+
+        if (foundCount != LOOKUPS_COUNT) {
+            throw new IllegalStateException("Not all keys found: " + foundCount);
+        }
+
+        return (double) (endTime - startTime) / LOOKUPS_COUNT;
+    }
+}
@@ -0,0 +1,306 @@
+package com.max.app.hashing;
+
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Mutable hash map with primitive 'int' keys, uses open addressing with Robin Hood linear probing:
+ * during insertion a key with a longer probe length takes the slot of a key with a shorter one, so all probe
+ * lengths stay close to the average and lookups can stop as soon as they meet a key with a shorter probe length.
+ * Removal uses backward shift deletion, so no tombstones are needed.
+ * <p>
+ * Slots are addressed by a primitive universal hash function created for the table capacity (power of 2),
+ * by default multiply-shift {@link UniversalHashWithPowerOfTwoCapacityFast}.
+ * If some probe length exceeds PROBE_LIMIT, the table is rehashed with a freshly seeded hash function
+ * (and grows after several unsuccessful re-seeds), which protects against hash-flooding.
+ * <p>
+ * Not thread safe.
+ */
+public final class RobinHoodIntHashMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private static final double MAX_LOAD_FACTOR = 0.8;
+
+    // should fit into 'byte' together with +1 shift, see 'probeLengths'
+    static final int PROBE_LIMIT = 64;
+
+    private static final int MAX_RESEEDS_PER_CAPACITY = 4;
+
+    private final IntFunction<IntUniversalHash> hashFactory;
+
+    private IntUniversalHash hashFunction;
+
+    private int[] keys;
+
+    private Object[] values;
+
+    // 0 for empty slot, otherwise probe length + 1
+    private byte[] probeLengths;
+
+    private int size;
+
+    private int reseedsCount;
+
+    private int resizesCount;
+
+    // entry that was carried out of the table, when insert exceeded PROBE_LIMIT
+    private int evictedKey;
+    private Object evictedValue;
+
+    public RobinHoodIntHashMap() {
+        this(MIN_CAPACITY, UniversalHashWithPowerOfTwoCapacityFast::new);
+    }
+
+    /**
+     * @param expectedSize - number of keys that can be stored without resizing.
+     * @param hashFactory  - creates universal hash function for a power of 2 capacity,
+     *                     every call should return a function with a new random seed.
+     */
+    public RobinHoodIntHashMap(int expectedSize, IntFunction<IntUniversalHash> hashFactory) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative 'expectedSize': " + expectedSize);
+        }
+        this.hashFactory = Objects.requireNonNull(hashFactory, "null 'hashFactory' passed");
+        allocate(capacityFor(expectedSize));
+    }
+
+    public V get(int key) {
+        final int index = findIndex(key);
+
+        @SuppressWarnings("unchecked")
+        V value = (index < 0) ? null : (V) values[index];
+
+        return value;
+    }
+
+    public boolean containsKey(int key) {
+        return findIndex(key) >= 0;
+    }
+
+    /**
+     * @return previous value associated with 'key' or null.
+     */
+    public V put(int key, V value) {
+        final int existingIndex = findIndex(key);
+
+        if (existingIndex >= 0) {
+            @SuppressWarnings("unchecked")
+            V prevValue = (V) values[existingIndex];
+            values[existingIndex] = value;
+            return prevValue;
+        }
+
+        if (size + 1 > maxSize(keys.length)) {
+            ++resizesCount;
+            rehash(keys.length << 1, key, value);
+        }
+        else {
+            insertOrRehash(key, value);
+        }
+
+        ++size;
+        return null;
+    }
+
+    /**
+     * @return removed value or null, if there was no such key.
+     */
+    public V remove(int key) {
+        int index = findIndex(key);
+
+        if (index < 0) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        V prevValue = (V) values[index];
+
+        // backward shift deletion: move following keys one slot back until empty slot or key at its home slot
+        final int mask = keys.length - 1;
+        int next = (index + 1) & mask;
+
+        while (probeLengths[next] > 1) {
+            keys[index] = keys[next];
+            values[index] = values[next];
+            probeLengths[index] = (byte) (probeLengths[next] - 1);
+
+            index = next;
+            next = (next + 1) & mask;
+        }
+
+        probeLengths[index] = 0;
+        values[index] = null;
+
+        --size;
+        return prevValue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Number of times the table was rehashed because of too long probe sequence.
+     */
+    int reseedsCount() {
+        return reseedsCount;
+    }
+
+    /**
+     * Occupancy of home slots and probe lengths of all keys, rebuilds count includes both re-seeds and resizes.
+     * Scans the whole table, should be called by the thread that owns the map.
+     */
+    public HashStatistics statistics() {
+        final int mask = keys.length - 1;
+
+        HashStatistics.Builder builder = new HashStatistics.Builder();
+        int[] homeSlotCounts = new int[keys.length];
+
+        for (int i = 0; i < keys.length; ++i) {
+            if (probeLengths[i] != 0) {
+                builder.addProbeLength(probeLengths[i]);
+                ++homeSlotCounts[(i - probeLengths[i] + 1) & mask];
+            }
+        }
+
+        for (int singleCount : homeSlotCounts) {
+            builder.addBucket(singleCount);
+        }
+
+        return builder.build((long) reseedsCount + resizesCount, (double) size / keys.length);
+    }
+
+    private int findIndex(int key) {
+        final int mask = keys.length - 1;
+
+        int index = hashFunction.hash(key);
+
+        for (int probeLength = 1; probeLength <= probeLengths[index]; ++probeLength) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private void insertOrRehash(int key, Object value) {
+        if (!insert(key, value)) {
+            // 'insert' placed a displaced entry into 'evictedKey/evictedValue'
+            Object displacedValue = evictedValue;
+            evictedValue = null;
+            ++reseedsCount;
+            rehash(keys.length, evictedKey, displacedValue);
+        }
+    }
+
+    /**
+     * Insert key that is not in the table yet.
+     * Returns false if probe length exceeded PROBE_LIMIT, in that case the entry that was
+     * carried at that moment is stored into 'evictedKey/evictedValue'.
+     */
+    private boolean insert(int key, Object value) {
+        final int mask = keys.length - 1;
+
+        int index = hashFunction.hash(key);
+        int probeLength = 1;
+
+        while (probeLengths[index] != 0) {
+            if (probeLengths[index] < probeLength) {
+                // Robin Hood: take the slot from the key that is closer to its home slot
+                int tempKey = keys[index];
+                Object tempValue = values[index];
+                int tempProbeLength = probeLengths[index];
+
+                keys[index] = key;
+                values[index] = value;
+                probeLengths[index] = (byte) probeLength;
+
+                key = tempKey;
+                value = tempValue;
+                probeLength = tempProbeLength;
+            }
+
+            index = (index + 1) & mask;
+            ++probeLength;
+
+            if (probeLength > PROBE_LIMIT) {
+                evictedKey = key;
+                evictedValue = value;
+                return false;
+            }
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        probeLengths[index] = (byte) probeLength;
+
+        return true;
+    }
+
+    /**
+     * Rebuild table with 'newCapacity' and a new hash function, 'extraKey' is inserted as well.
+     * Capacity is doubled if hash function re-seeding doesn't help.
+     */
+    private void rehash(int newCapacity, int extraKey, Object extraValue) {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+        final byte[] oldProbeLengths = probeLengths;
+
+        int capacity = newCapacity;
+        int attempt = 0;
+
+        while (!tryRebuild(capacity, oldKeys, oldValues, oldProbeLengths, extraKey, extraValue)) {
+            ++reseedsCount;
+            ++attempt;
+
+            if (attempt % MAX_RESEEDS_PER_CAPACITY == 0) {
+                capacity <<= 1;
+            }
+        }
+
+        evictedValue = null;
+    }
+
+    private boolean tryRebuild(int capacity, int[] oldKeys, Object[] oldValues, byte[] oldProbeLengths,
+                               int extraKey, Object extraValue) {
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldProbeLengths[i] != 0 && !insert(oldKeys[i], oldValues[i])) {
+                return false;
+            }
+        }
+
+        return insert(extraKey, extraValue);
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.probeLengths = new byte[capacity];
+        this.hashFunction = hashFactory.apply(capacity);
+    }
+
+    private static int maxSize(int capacity) {
+        return (int) (capacity * MAX_LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (maxSize(capacity) < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,63 @@
+package com.max.app.hashing;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Read-only hash map built on top of {@link MinimalPerfectHash}: keys and values are stored in dense arrays
+ * without empty slots, position of an entry is the index returned by minimal perfect hash function.
+ * Keys are stored too, so that lookup of a key that is not in the map returns null.
+ */
+public final class StaticHashMap<K, V> {
+
+    private final MinimalPerfectHash<K> perfectHash;
+
+    private final Object[] keys;
+
+    private final Object[] values;
+
+    public static <U, W> StaticHashMap<U, W> fromMap(Map<U, W> map) {
+        return fromMap(map, ForkJoinPool.commonPool());
+    }
+
+    public static <U, W> StaticHashMap<U, W> fromMap(Map<U, W> map, ForkJoinPool pool) {
+        Objects.requireNonNull(map, "null 'map' passed");
+        return new StaticHashMap<>(map, pool);
+    }
+
+    private StaticHashMap(Map<K, V> map, ForkJoinPool pool) {
+        this.perfectHash = MinimalPerfectHash.build(map.keySet(), pool);
+        this.keys = new Object[map.size()];
+        this.values = new Object[map.size()];
+
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            int index = perfectHash.index(entry.getKey());
+
+            assert keys[index] == null : "index " + index + " is used twice";
+
+            keys[index] = entry.getKey();
+            values[index] = entry.getValue();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        final int index = perfectHash.index(key);
+
+        if (index < 0 || !keys[index].equals(key)) {
+            return null;
+        }
+
+        return (V) values[index];
+    }
+
+    public boolean containsKey(K key) {
+        final int index = perfectHash.index(key);
+        return index >= 0 && keys[index].equals(key);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+}
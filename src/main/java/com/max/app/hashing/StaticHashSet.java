@@ -1,10 +1,16 @@
 package com.max.app.hashing;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
 
 /**
  * Perfect hashing is a data structure of linear expected size, whose expected worst-case search time is constant.
@@ -16,36 +22,102 @@ import java.util.Set;
  * with a new near-universal hash function.)
  * Although this data structure apparently needs significantly more memory for each secondary structure,
  * the overall increase in space is insignificant, at least in expectation.
+ * <p>
+ * Top level uses 61-bit {@link UniversalHashMersennePrime}: {@link UniversalHashRegular} works modulo
+ * p = 10_000_339, so for sets bigger than p most top level buckets would never be used and secondary
+ * tables would grow quadratically. Secondary tables are small, so they use the cheaper UniversalHashRegular.
+ * <p>
+ * Construction doesn't use any shared mutable state, so sets can be built concurrently
+ * and 'fromList(values, pool)' builds secondary tables in parallel.
  */
 public class StaticHashSet<T> {
 
-    private static int maxDepth = 0;
+    // sets with fewer values are always built sequentially
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    // number of values hashed or number of buckets processed by a single parallel task
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 12;
+
+    // parallel construction hashes values again into a smaller top level, if more than 1/16 of values are duplicates
+    private static final int DUPLICATES_REGROUP_SHIFT = 4;
+
+    // parallel grouping partitions values by this number of ranges of consecutive top level buckets
+    private static final int GROUPING_RANGES_COUNT = 1 << 10;
+
+    // values are split into this number of chunks per pool thread, every chunk counts its own ranges histogram
+    private static final int GROUPING_CHUNKS_PER_THREAD = 4;
 
     private final int capacity;
 
+    // the deepest nested table level, calculated during construction
+    private final int maxDepth;
+
     private final DataNode<T>[] table;
 
-    private final UniversalHashRegular<T> hashFunction;
+    private final UniversalHash<T> hashFunction;
+
+    // calculated on the first request, the set is immutable
+    private volatile HashStatistics statistics;
 
     public static <U> StaticHashSet<U> fromList(List<U> values) {
         Set<U> uniqueValues = new HashSet<>(values);
         return new StaticHashSet<>(new ArrayList<>(uniqueValues), uniqueValues.size(), 0);
     }
 
+    /**
+     * Build set in parallel using 'pool': values are hashed into top level buckets by chunks
+     * and secondary tables are built concurrently. Duplicates are removed inside every bucket,
+     * so there is no copying of all values into an intermediate HashSet. If more than 1/16 of values are
+     * duplicates, distinct values are hashed again into a top level of the distinct values count, so the set
+     * capacity is at most ~6% bigger than the capacity of the set built by sequential 'fromList'.
+     */
+    public static <U> StaticHashSet<U> fromList(List<U> values, ForkJoinPool pool) {
+        Objects.requireNonNull(values);
+        Objects.requireNonNull(pool);
+
+        if (values.size() < PARALLEL_THRESHOLD) {
+            return fromList(values);
+        }
+
+        // values are accessed by index from multiple tasks
+        return new StaticHashSet<>(values instanceof RandomAccess ? values : new ArrayList<>(values), pool);
+    }
+
     @SuppressWarnings("unchecked")
     private StaticHashSet(List<T> values, int capacity, int depth) {
         Objects.requireNonNull(values);
         this.capacity = capacity;
         this.table = new DataNode[capacity];
-        this.hashFunction = new UniversalHashRegular<>(capacity);
-        addValues(values, depth);
+        this.hashFunction = (depth == 0) ? new UniversalHashMersennePrime<>(capacity) :
+                new UniversalHashRegular<>(capacity);
+        this.maxDepth = addValues(values, depth);
+    }
+
+    @SuppressWarnings("unchecked")
+    private StaticHashSet(List<T> values, ForkJoinPool pool) {
+        BucketsGrouping<T> grouping = groupInParallel(values, values.size(), pool);
+
+        int distinctCount = pool.invoke(new DeduplicateBucketsTask<>(grouping, 0, grouping.bucketSizes.length));
+
+        if (distinctCount < values.size() - (values.size() >>> DUPLICATES_REGROUP_SHIFT)) {
+            // top level capacity should be the number of distinct values, the same as in sequential 'fromList'
+            List<T> distinctValues = (List<T>) Arrays.asList(grouping.distinctValues(distinctCount));
+            grouping = groupInParallel(distinctValues, distinctCount, pool);
+        }
+
+        this.capacity = grouping.bucketSizes.length;
+        this.table = new DataNode[capacity];
+        this.hashFunction = grouping.hashFunction;
+
+        // secondary tables are independent, so they can be built concurrently
+        this.maxDepth = pool.invoke(new BuildBucketsTask<>(table, grouping, 0, capacity));
     }
 
     /**
      * This method can be used to calculate space occupied by perfect hashtable.
      */
-    int calculateUsedCapacity() {
-        int totalCapacity = table.length;
+    long calculateUsedCapacity() {
+        long totalCapacity = table.length;
 
         for (DataNode<?> node : table) {
             if (node != null && node.hashtable != null) {
@@ -60,6 +132,31 @@ public class StaticHashSet<T> {
         return maxDepth;
     }
 
+    /**
+     * Top level buckets occupancy, probe length is the number of tables visited by a lookup.
+     * Secondary tables are not rebuilt on collision, nested tables are created instead,
+     * so rebuilds count is the number of nested tables below the secondary level.
+     */
+    public HashStatistics statistics() {
+        HashStatistics res = statistics;
+
+        if (res == null) {
+            HashStatistics.Builder builder = new HashStatistics.Builder();
+
+            long keysCount = 0L;
+            for (DataNode<T> node : table) {
+                int bucketKeysCount = (node == null) ? 0 : node.addProbeLengths(builder, 1);
+                builder.addBucket(bucketKeysCount);
+                keysCount += bucketKeysCount;
+            }
+
+            res = builder.build(collidedTablesCount(1), (double) keysCount / calculateUsedCapacity());
+            statistics = res;
+        }
+
+        return res;
+    }
+
     public boolean contains(T value) {
         Objects.requireNonNull(value);
 
@@ -70,9 +167,10 @@ public class StaticHashSet<T> {
         return bucket != null && bucket.contains(value);
     }
 
-    private void addValues(List<T> values, int depth) {
-
-        maxDepth = Math.max(maxDepth, depth);
+    /**
+     * @return the deepest nested table level.
+     */
+    private int addValues(List<T> values, int depth) {
 
         @SuppressWarnings("unchecked")
         TempNode<T>[] tempNodes = new TempNode[this.capacity];
@@ -102,15 +200,161 @@ public class StaticHashSet<T> {
             assert lastBucketValue != null;
             assert lastIndex >= 0 && lastIndex < table.length;
             table[lastIndex] = lastBucketValue.toOrdinarySet();
-            return;
+            return depth;
         }
 
         assert tempNodes.length == table.length;
 
+        int nestedMaxDepth = depth;
+
         for (int i = 0; i < tempNodes.length; ++i) {
             TempNode<T> cur = tempNodes[i];
             table[i] = (cur == null) ? null : cur.toDataNode(depth + 1);
+            nestedMaxDepth = Math.max(nestedMaxDepth, maxDepth(table[i], depth));
+        }
+
+        return nestedMaxDepth;
+    }
+
+    /**
+     * Hash values into 'capacity' top level buckets with a new hash function and group them by bucket.
+     * Grouping is a counting sort done in two parallel passes, so no single thread touches all values:
+     * 1. every chunk of values counts its values per range of consecutive buckets, prefix sums of these
+     * histograms give every chunk its own write positions, so all chunks scatter values into ranges concurrently;
+     * 2. ranges don't overlap, so values of every range are grouped by bucket concurrently.
+     */
+    private static <U> BucketsGrouping<U> groupInParallel(List<U> values, int capacity, ForkJoinPool pool) {
+        final int valuesCount = values.size();
+        final UniversalHashMersennePrime<U> hashFunction = new UniversalHashMersennePrime<>(capacity);
+
+        // top level pass: hash values by chunks
+        final int[] bucketIndexes = new int[valuesCount];
+        pool.invoke(new HashValuesTask<>(values, hashFunction, bucketIndexes, 0, valuesCount));
+
+        final int rangeSize = ceilDiv(capacity, GROUPING_RANGES_COUNT);
+        final int rangesCount = ceilDiv(capacity, rangeSize);
+
+        final int chunksCount = Math.max(1, Math.min(valuesCount / PARALLEL_CHUNK_SIZE,
+                                                     pool.getParallelism() * GROUPING_CHUNKS_PER_THREAD));
+        final int chunkSize = ceilDiv(valuesCount, chunksCount);
+
+        // rangePositions[c][r] = number of values from chunk 'c' in range 'r'
+        final int[][] rangePositions = new int[chunksCount][rangesCount];
+
+        pool.invoke(new ForEachIndexTask(0, chunksCount, chunk -> {
+            final int[] rangeCounts = rangePositions[chunk];
+            final int to = (int) Math.min(valuesCount, (long) (chunk + 1) * chunkSize);
+
+            for (int i = chunk * chunkSize; i < to; ++i) {
+                ++rangeCounts[bucketIndexes[i] / rangeSize];
+            }
+        }));
+
+        // prefix sums in (range, chunk) order, rangePositions[c][r] = index of the first value of chunk 'c'
+        // in range 'r', so values keep their order inside every range
+        final int[] rangeStarts = new int[rangesCount + 1];
+        int position = 0;
+
+        for (int r = 0; r < rangesCount; ++r) {
+            rangeStarts[r] = position;
+
+            for (int[] chunkPositions : rangePositions) {
+                int rangeCount = chunkPositions[r];
+                chunkPositions[r] = position;
+                position += rangeCount;
+            }
         }
+        rangeStarts[rangesCount] = position;
+
+        // pass 1: scatter values into ranges
+        final Object[] partitionedValues = new Object[valuesCount];
+        final int[] partitionedIndexes = new int[valuesCount];
+
+        pool.invoke(new ForEachIndexTask(0, chunksCount, chunk -> {
+            final int[] positions = rangePositions[chunk];
+            final int to = (int) Math.min(valuesCount, (long) (chunk + 1) * chunkSize);
+
+            for (int i = chunk * chunkSize; i < to; ++i) {
+                int bucketIndex = bucketIndexes[i];
+                int valuePosition = positions[bucketIndex / rangeSize]++;
+
+                partitionedValues[valuePosition] = values.get(i);
+                partitionedIndexes[valuePosition] = bucketIndex;
+            }
+        }));
+
+        // pass 2: group values by bucket inside every range,
+        // bucketStarts[j] = index of first value for bucket 'j'
+        final Object[] groupedValues = new Object[valuesCount];
+        final int[] bucketStarts = new int[capacity + 1];
+        final int[] bucketSizes = new int[capacity];
+
+        pool.invoke(new ForEachIndexTask(0, rangesCount, range -> {
+            final int firstBucket = range * rangeSize;
+            final int lastBucket = Math.min(capacity, firstBucket + rangeSize);
+            final int from = rangeStarts[range];
+            final int to = rangeStarts[range + 1];
+
+            for (int i = from; i < to; ++i) {
+                ++bucketSizes[partitionedIndexes[i]];
+            }
+
+            int bucketStart = from;
+            for (int j = firstBucket; j < lastBucket; ++j) {
+                bucketStarts[j] = bucketStart;
+                bucketStart += bucketSizes[j];
+            }
+
+            final int[] insertPositions = Arrays.copyOfRange(bucketStarts, firstBucket, lastBucket);
+
+            for (int i = from; i < to; ++i) {
+                groupedValues[insertPositions[partitionedIndexes[i] - firstBucket]++] = partitionedValues[i];
+            }
+        }));
+
+        bucketStarts[capacity] = valuesCount;
+
+        return new BucketsGrouping<>(hashFunction, groupedValues, bucketStarts, bucketSizes);
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    /**
+     * Add probe length for every key stored in this table at nesting 'level'.
+     *
+     * @return number of keys in this table and all nested tables.
+     */
+    private int addProbeLengths(HashStatistics.Builder builder, int level) {
+        int keysCount = 0;
+
+        for (DataNode<T> node : table) {
+            if (node != null) {
+                keysCount += node.addProbeLengths(builder, level);
+            }
+        }
+
+        return keysCount;
+    }
+
+    /**
+     * Number of tables deeper than secondary level, created because of collisions in secondary tables.
+     */
+    private int collidedTablesCount(int level) {
+        int res = (level > 2) ? 1 : 0;
+
+        for (DataNode<T> node : table) {
+            if (node != null && node.hashtable != null) {
+                res += node.hashtable.collidedTablesCount(level + 1);
+            }
+        }
+
+        return res;
+    }
+
+    private static int maxDepth(DataNode<?> node, int depth) {
+        return (node == null || node.hashtable == null) ? depth : node.hashtable.maxDepth;
     }
 
     //---- node for internal representation of single value and hashtable nodes
@@ -144,6 +388,23 @@ public class StaticHashSet<T> {
             }
             return set.contains(valueToSearch);
         }
+
+        /**
+         * @return number of keys in this node.
+         */
+        int addProbeLengths(HashStatistics.Builder builder, int level) {
+            if (hashtable != null) {
+                return hashtable.addProbeLengths(builder, level + 1);
+            }
+
+            int keysCount = (value != null) ? 1 : set.size();
+
+            for (int i = 0; i < keysCount; ++i) {
+                builder.addProbeLength(level);
+            }
+
+            return keysCount;
+        }
     }
 
     private static final class TempNode<U> {
@@ -171,4 +432,227 @@ public class StaticHashSet<T> {
 
     }
 
+    //---- tasks for parallel construction
+
+    /**
+     * Values grouped by top level bucket: bucket 'j' values are groupedValues[bucketStarts[j], + bucketSizes[j]).
+     */
+    private static final class BucketsGrouping<U> {
+
+        final UniversalHash<U> hashFunction;
+        final Object[] groupedValues;
+        final int[] bucketStarts;
+        final int[] bucketSizes;
+
+        BucketsGrouping(UniversalHash<U> hashFunction, Object[] groupedValues, int[] bucketStarts,
+                        int[] bucketSizes) {
+            this.hashFunction = hashFunction;
+            this.groupedValues = groupedValues;
+            this.bucketStarts = bucketStarts;
+            this.bucketSizes = bucketSizes;
+        }
+
+        Object[] distinctValues(int distinctCount) {
+            Object[] res = new Object[distinctCount];
+
+            int offset = 0;
+            for (int j = 0; j < bucketSizes.length; ++j) {
+                System.arraycopy(groupedValues, bucketStarts[j], res, offset, bucketSizes[j]);
+                offset += bucketSizes[j];
+            }
+
+            return res;
+        }
+    }
+
+    private static final class HashValuesTask<U> extends RecursiveAction {
+
+        private final List<U> values;
+        private final UniversalHash<U> hashFunction;
+        private final int[] bucketIndexes;
+        private final int from;
+        private final int to;
+
+        HashValuesTask(List<U> values, UniversalHash<U> hashFunction, int[] bucketIndexes, int from, int to) {
+            this.values = values;
+            this.hashFunction = hashFunction;
+            this.bucketIndexes = bucketIndexes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_CHUNK_SIZE) {
+                for (int i = from; i < to; ++i) {
+                    U singleValue = values.get(i);
+                    Objects.requireNonNull(singleValue, "Can't store null value.");
+                    bucketIndexes[i] = hashFunction.hash(singleValue);
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new HashValuesTask<>(values, hashFunction, bucketIndexes, from, mid),
+                      new HashValuesTask<>(values, hashFunction, bucketIndexes, mid, to));
+        }
+    }
+
+    /**
+     * Run 'action' for every index in [from, to), every index is already a coarse piece of work
+     * (chunk of values or range of buckets), so indexes are not batched.
+     */
+    private static final class ForEachIndexTask extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        ForEachIndexTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                for (int i = from; i < to; ++i) {
+                    action.accept(i);
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new ForEachIndexTask(from, mid, action), new ForEachIndexTask(mid, to, action));
+        }
+    }
+
+    /**
+     * Build secondary tables for buckets range [from, to), returns the deepest nested table level.
+     */
+    private static final class BuildBucketsTask<U> extends RecursiveTask<Integer> {
+
+        private final DataNode<U>[] table;
+        private final BucketsGrouping<U> grouping;
+        private final int from;
+        private final int to;
+
+        BuildBucketsTask(DataNode<U>[] table, BucketsGrouping<U> grouping, int from, int to) {
+            this.table = table;
+            this.grouping = grouping;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= PARALLEL_CHUNK_SIZE) {
+                return buildBuckets();
+            }
+
+            int mid = (from + to) >>> 1;
+            BuildBucketsTask<U> left = new BuildBucketsTask<>(table, grouping, from, mid);
+            left.fork();
+
+            int rightDepth = new BuildBucketsTask<>(table, grouping, mid, to).compute();
+
+            return Math.max(left.join(), rightDepth);
+        }
+
+        @SuppressWarnings("unchecked")
+        private int buildBuckets() {
+            final Object[] groupedValues = grouping.groupedValues;
+
+            int nestedMaxDepth = 0;
+
+            for (int j = from; j < to; ++j) {
+                final int bucketStart = grouping.bucketStarts[j];
+                final int bucketSize = grouping.bucketSizes[j];
+
+                if (bucketSize == 0) {
+                    continue;
+                }
+
+                if (bucketSize == 1) {
+                    table[j] = new DataNode<>((U) groupedValues[bucketStart]);
+                    continue;
+                }
+
+                // values are already distinct, see DeduplicateBucketsTask
+                TempNode<U> tempNode = new TempNode<>((U) groupedValues[bucketStart]);
+                for (int i = bucketStart + 1; i < bucketStart + bucketSize; ++i) {
+                    tempNode.add((U) groupedValues[i]);
+                }
+
+                table[j] = tempNode.toDataNode(1);
+                nestedMaxDepth = Math.max(nestedMaxDepth, maxDepth(table[j], 0));
+            }
+
+            return nestedMaxDepth;
+        }
+    }
+
+    /**
+     * Remove duplicates inside buckets range [from, to), distinct values are moved to the beginning
+     * of every bucket and bucket sizes are updated. Returns the number of distinct values.
+     */
+    private static final class DeduplicateBucketsTask<U> extends RecursiveTask<Integer> {
+
+        private final BucketsGrouping<U> grouping;
+        private final int from;
+        private final int to;
+
+        DeduplicateBucketsTask(BucketsGrouping<U> grouping, int from, int to) {
+            this.grouping = grouping;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= PARALLEL_CHUNK_SIZE) {
+                return deduplicateBuckets();
+            }
+
+            int mid = (from + to) >>> 1;
+            DeduplicateBucketsTask<U> left = new DeduplicateBucketsTask<>(grouping, from, mid);
+            left.fork();
+
+            int rightCount = new DeduplicateBucketsTask<>(grouping, mid, to).compute();
+
+            return left.join() + rightCount;
+        }
+
+        private int deduplicateBuckets() {
+            final Object[] groupedValues = grouping.groupedValues;
+
+            int distinctCount = 0;
+
+            for (int j = from; j < to; ++j) {
+                final int bucketStart = grouping.bucketStarts[j];
+                final int bucketSize = grouping.bucketSizes[j];
+
+                if (bucketSize > 1) {
+                    // duplicates always hash into the same bucket
+                    Set<Object> uniqueValues = new HashSet<>();
+                    int uniqueCount = 0;
+
+                    for (int i = bucketStart; i < bucketStart + bucketSize; ++i) {
+                        if (uniqueValues.add(groupedValues[i])) {
+                            groupedValues[bucketStart + uniqueCount] = groupedValues[i];
+                            ++uniqueCount;
+                        }
+                    }
+
+                    grouping.bucketSizes[j] = uniqueCount;
+                }
+
+                distinctCount += grouping.bucketSizes[j];
+            }
+
+            return distinctCount;
+        }
+    }
+
 }
@@ -0,0 +1,112 @@
+package com.max.app.hashing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boxed vs primitive perfect hash sets for 1M random 'long' keys.
+ * <p>
+ * set                  build, ms    contains hit, ns    contains miss, ns    used capacity    heap, MB
+ * StaticHashSet<Long>  952          339.5               214.6                4367676          67.1
+ * StaticLongHashSet    286          125.9               106.6                3000474          30.5
+ * StaticIntHashSet     217          117.0               104.3                2999416          22.9
+ * <p>
+ * Heap for StaticHashSet<Long> is measured as used heap delta and doesn't include boxed keys,
+ * for primitive sets it is calculated from arrays lengths.
+ */
+public final class StaticHashSetFootprintBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int KEYS_COUNT = 1_000_000;
+
+    private static final int LOOKUPS_COUNT = 10_000_000;
+
+    public static void main(String[] args) {
+
+        long[] keys = RAND.longs(KEYS_COUNT).toArray();
+        long[] misses = RAND.longs(KEYS_COUNT).toArray();
+
+        int[] intKeys = RAND.ints(KEYS_COUNT).toArray();
+        int[] intMisses = RAND.ints(KEYS_COUNT).toArray();
+
+        List<Long> boxedKeys = new ArrayList<>(KEYS_COUNT);
+        for (long singleKey : keys) {
+            boxedKeys.add(singleKey);
+        }
+
+        System.out.printf("set                  build, ms    contains hit, ns    contains miss, ns    " +
+                                  "used capacity    heap, MB%n");
+
+        for (int it = 0; it < 3; ++it) {
+            long usedBefore = usedHeap();
+            long startTime = System.nanoTime();
+            StaticHashSet<Long> boxedSet = StaticHashSet.fromList(boxedKeys);
+            long buildTime = System.nanoTime() - startTime;
+            long usedAfter = usedHeap();
+
+            print("StaticHashSet<Long>", buildTime,
+                  measure(index -> boxedSet.contains(keys[index])),
+                  measure(index -> boxedSet.contains(misses[index])),
+                  boxedSet.calculateUsedCapacity(), usedAfter - usedBefore);
+
+            startTime = System.nanoTime();
+            StaticLongHashSet longSet = StaticLongHashSet.fromArray(keys);
+            buildTime = System.nanoTime() - startTime;
+
+            print("StaticLongHashSet", buildTime,
+                  measure(index -> longSet.contains(keys[index])),
+                  measure(index -> longSet.contains(misses[index])),
+                  longSet.calculateUsedCapacity(), longSet.calculateUsedBytes());
+
+            startTime = System.nanoTime();
+            StaticIntHashSet intSet = StaticIntHashSet.fromArray(intKeys);
+            buildTime = System.nanoTime() - startTime;
+
+            print("StaticIntHashSet", buildTime,
+                  measure(index -> intSet.contains(intKeys[index])),
+                  measure(index -> intSet.contains(intMisses[index])),
+                  intSet.calculateUsedCapacity(), intSet.calculateUsedBytes());
+        }
+
+        System.out.println("StaticHashSetFootprintBenchmark done...");
+    }
+
+    private static void print(String name, long buildTimeNs, double hitTime, double missTime,
+                              long usedCapacity, long usedBytes) {
+        System.out.printf("%-20s %-12d %-19.1f %-20.1f %-16d %.1f%n", name, buildTimeNs / 1_000_000L, hitTime,
+                          missTime, usedCapacity, usedBytes / (1024.0 * 1024.0));
+    }
+
+    private interface IndexPredicate {
+        boolean test(int index);
+    }
+
+    private static double measure(IndexPredicate predicate) {
+        long startTime = System.nanoTime();
+
+        int foundCount = 0;
+        for (int it = 0; it < LOOKUPS_COUNT; ++it) {
+            if (predicate.test(it % KEYS_COUNT)) {
+                ++foundCount;
+            }
+        }
+
+        long endTime = System.nanoTime();
+
+        if (foundCount < 0) {
+            throw new IllegalStateException("Should never happen");
+        }
+
+        return (double) (endTime - startTime) / LOOKUPS_COUNT;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
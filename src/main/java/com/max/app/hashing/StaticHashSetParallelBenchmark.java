@@ -0,0 +1,85 @@
+package com.max.app.hashing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * StaticHashSet build time for random 'Integer' values, sequential 'fromList(values)' vs parallel
+ * 'fromList(values, pool)' for different pool sizes.
+ * Usage: StaticHashSetParallelBenchmark [valuesCount], default is 100M values, which needs > 20GB of heap
+ * (20M values already need ~4.5GB: boxed values, the set itself and temporary grouping arrays).
+ * <p>
+ * values        sequential, ms    parallelism 1, ms    parallelism 2, ms    parallelism 4, ms
+ * 2_000_000     3801              1461                 924                  1297
+ * 20_000_000    73_293            12_102               14_237               15_729
+ * <p>
+ * Measured on a single core machine with -Xmx4500m (100M values don't fit), numbers from the last of 3 iterations.
+ * Pools with several threads can't be faster there, they only add scheduling overhead, so scaling on multiple
+ * cores is not measured yet. Hashing, both counting sort passes and secondary tables building are split into
+ * independent tasks, the only serial step left is the prefix sum over (chunks x 1024 ranges) histograms.
+ * Sequential build is slow for 20M values mostly because of GC, the heap is almost full.
+ * With the old top level UniversalHashRegular (p = 10_000_339) 20M values failed with OutOfMemoryError:
+ * only 10M top level buckets were reachable, so secondary tables of 2 * Nj^2 slots were too big.
+ */
+public final class StaticHashSetParallelBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int DEFAULT_VALUES_COUNT = 100_000_000;
+
+    private static final int[] PARALLELISM = {1, 2, 4};
+
+    public static void main(String[] args) {
+
+        final int valuesCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_VALUES_COUNT;
+
+        List<Integer> values = new ArrayList<>(valuesCount);
+        for (int i = 0; i < valuesCount; ++i) {
+            values.add(RAND.nextInt());
+        }
+
+        System.out.printf("values: %d, available processors: %d%n", valuesCount,
+                          Runtime.getRuntime().availableProcessors());
+
+        for (int it = 0; it < 3; ++it) {
+            long startTime = System.nanoTime();
+            StaticHashSet<Integer> sequentialSet = StaticHashSet.fromList(values);
+            long sequentialTime = System.nanoTime() - startTime;
+
+            checkContains(sequentialSet, values);
+            sequentialSet = null;
+
+            StringBuilder parallelTimes = new StringBuilder();
+
+            for (int parallelism : PARALLELISM) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+                try {
+                    startTime = System.nanoTime();
+                    StaticHashSet<Integer> parallelSet = StaticHashSet.fromList(values, pool);
+                    long parallelTime = System.nanoTime() - startTime;
+
+                    checkContains(parallelSet, values);
+
+                    parallelTimes.append(String.format("parallelism %d: %d ms  ", parallelism,
+                                                       parallelTime / 1_000_000L));
+                }
+                finally {
+                    pool.shutdown();
+                }
+            }
+
+            System.out.printf("sequential: %d ms  %s%n", sequentialTime / 1_000_000L, parallelTimes);
+        }
+
+        System.out.println("StaticHashSetParallelBenchmark done...");
+    }
+
+    private static void checkContains(StaticHashSet<Integer> set, List<Integer> values) {
+        if (!set.contains(values.get(0)) || !set.contains(values.get(values.size() - 1))) {
+            throw new IllegalStateException("Should never happen");
+        }
+    }
+}
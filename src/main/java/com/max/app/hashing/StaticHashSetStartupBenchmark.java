@@ -0,0 +1,82 @@
+package com.max.app.hashing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Startup time for 10M random 'long' keys: build set from scratch vs open memory-mapped file.
+ * <p>
+ * build: 2773 ms, write: 423 ms, open: 0.35 ms (13.89 ms for the first open with class loading), file: 305 MB
+ * contains, ns/op, heap: 104.3, mapped: 153.9
+ * <p>
+ * Mapped lookups are slower, because file pages are mapped with small pages and first access
+ * to every page is a page fault.
+ */
+public final class StaticHashSetStartupBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int KEYS_COUNT = 10_000_000;
+
+    private static final int LOOKUPS_COUNT = 10_000_000;
+
+    public static void main(String[] args) throws IOException {
+
+        long[] keys = RAND.longs(KEYS_COUNT).toArray();
+
+        Path file = Files.createTempFile("static-long-hash-set", ".bin");
+
+        try {
+            for (int it = 0; it < 3; ++it) {
+                long startTime = System.nanoTime();
+                StaticLongHashSet set = StaticLongHashSet.fromArray(keys);
+                long buildTime = System.nanoTime() - startTime;
+
+                startTime = System.nanoTime();
+                set.writeTo(file);
+                long writeTime = System.nanoTime() - startTime;
+
+                startTime = System.nanoTime();
+                MappedStaticLongHashSet mappedSet = MappedStaticLongHashSet.open(file);
+                long openTime = System.nanoTime() - startTime;
+
+                System.out.printf("build: %d ms, write: %d ms, open: %.2f ms, file: %d MB%n",
+                                  buildTime / 1_000_000L, writeTime / 1_000_000L, openTime / 1_000_000.0,
+                                  Files.size(file) / (1024L * 1024L));
+
+                System.out.printf("contains, ns/op, heap: %.1f, mapped: %.1f%n",
+                                  measure(set::contains, keys), measure(mappedSet::contains, keys));
+            }
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+
+        System.out.println("StaticHashSetStartupBenchmark done...");
+    }
+
+    private interface LongPredicate {
+        boolean test(long value);
+    }
+
+    private static double measure(LongPredicate predicate, long[] keys) {
+        long startTime = System.nanoTime();
+
+        int foundCount = 0;
+        for (int it = 0; it < LOOKUPS_COUNT; ++it) {
+            if (predicate.test(keys[it % keys.length])) {
+                ++foundCount;
+            }
+        }
+
+        long endTime = System.nanoTime();
+
+        if (foundCount != LOOKUPS_COUNT) {
+            throw new IllegalStateException("Not all keys found: " + foundCount);
+        }
+
+        return (double) (endTime - startTime) / LOOKUPS_COUNT;
+    }
+}
@@ -0,0 +1,295 @@
+package com.max.app.hashing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Perfect hashing (FKS scheme) for primitive 'long' keys, same idea as {@link StaticHashSet},
+ * but both levels are flattened into primitive arrays:
+ * 1. 'buckets' contains 2 longs per top level bucket: hash seed of the secondary table and
+ * secondary table (offset, size) packed into a single long, so both values share a cache line;
+ * 2. 'slots' contains all secondary tables one after another.
+ * <p>
+ * Secondary table for a bucket with Nj keys has Nj^2 slots and is collision free. Empty slots are
+ * filled with some key of the same bucket, so no special 'empty' marker is needed.
+ * Lookup is allocation free and touches only 2 cache lines: one in 'buckets' and one in 'slots'.
+ * <p>
+ * Built set can be saved with 'writeTo' and later opened without rebuilding using {@link MappedStaticLongHashSet}.
+ */
+public final class StaticLongHashSet {
+
+    // top level hash is retried until sum(Nj^2) <= MAX_SLOTS_FACTOR * n, expected retries count is < 2
+    private static final int MAX_SLOTS_FACTOR = 4;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final long topLevelSeed;
+
+    private final long[] buckets;
+
+    private final long[] slots;
+
+    private final int size;
+
+    // top level and secondary tables hash seeds retries during construction
+    private final int rebuildsCount;
+
+    // calculated on the first request, the set is immutable
+    private volatile HashStatistics statistics;
+
+    public static StaticLongHashSet fromArray(long[] values) {
+        Objects.requireNonNull(values);
+
+        long[] uniqueValues = values.clone();
+        Arrays.sort(uniqueValues);
+
+        int uniqueCount = 0;
+        for (int i = 0; i < uniqueValues.length; ++i) {
+            if (i == 0 || uniqueValues[i] != uniqueValues[i - 1]) {
+                uniqueValues[uniqueCount] = uniqueValues[i];
+                ++uniqueCount;
+            }
+        }
+
+        return new StaticLongHashSet(Arrays.copyOf(uniqueValues, uniqueCount));
+    }
+
+    private StaticLongHashSet(long[] keys) {
+        this.size = keys.length;
+
+        final int bucketsCount = Math.max(1, keys.length);
+        final ThreadLocalRandom rand = ThreadLocalRandom.current();
+
+        int[] bucketIndexes = new int[keys.length];
+        int[] bucketSizes = new int[bucketsCount];
+
+        int retriesCount = -1;
+
+        long seed;
+        do {
+            seed = rand.nextLong();
+            ++retriesCount;
+        }
+        while (!distributeKeys(keys, seed, bucketIndexes, bucketSizes));
+
+        this.topLevelSeed = seed;
+
+        // group keys by bucket using counting sort, bucketStarts[j] = index of first key for bucket 'j'
+        int[] bucketStarts = new int[bucketsCount + 1];
+        long slotsCount = 0L;
+        for (int j = 0; j < bucketsCount; ++j) {
+            bucketStarts[j + 1] = bucketStarts[j] + bucketSizes[j];
+            slotsCount += (long) bucketSizes[j] * bucketSizes[j];
+        }
+
+        long[] groupedKeys = new long[keys.length];
+        int[] insertPositions = Arrays.copyOf(bucketStarts, bucketsCount);
+        for (int i = 0; i < keys.length; ++i) {
+            groupedKeys[insertPositions[bucketIndexes[i]]++] = keys[i];
+        }
+
+        this.buckets = new long[2 * bucketsCount];
+        this.slots = new long[Math.toIntExact(slotsCount)];
+
+        // scratch space to detect collisions in a single secondary table without allocations
+        int[] slotMarks = new int[maxTableSize(bucketSizes)];
+        int markValue = 0;
+
+        int slotsOffset = 0;
+        for (int j = 0; j < bucketsCount; ++j) {
+            final int from = bucketStarts[j];
+            final int keysCount = bucketSizes[j];
+
+            if (keysCount == 0) {
+                continue;
+            }
+
+            final int tableSize = keysCount * keysCount;
+
+            long bucketSeed;
+            boolean collisionFree;
+            do {
+                bucketSeed = rand.nextLong();
+                ++retriesCount;
+                ++markValue;
+                collisionFree = true;
+
+                for (int i = from; i < from + keysCount && collisionFree; ++i) {
+                    int slotIndex = HashMixing.reduce(HashMixing.mix(groupedKeys[i], bucketSeed), tableSize);
+                    collisionFree = slotMarks[slotIndex] != markValue;
+                    slotMarks[slotIndex] = markValue;
+                }
+            }
+            while (!collisionFree);
+
+            Arrays.fill(slots, slotsOffset, slotsOffset + tableSize, groupedKeys[from]);
+            for (int i = from; i < from + keysCount; ++i) {
+                int slotIndex = HashMixing.reduce(HashMixing.mix(groupedKeys[i], bucketSeed), tableSize);
+                slots[slotsOffset + slotIndex] = groupedKeys[i];
+            }
+
+            buckets[2 * j] = bucketSeed;
+            buckets[2 * j + 1] = ((long) slotsOffset << Integer.SIZE) | tableSize;
+
+            slotsOffset += tableSize;
+        }
+
+        // every non-empty bucket needs at least one seed
+        for (int bucketSize : bucketSizes) {
+            if (bucketSize != 0) {
+                --retriesCount;
+            }
+        }
+
+        this.rebuildsCount = retriesCount;
+    }
+
+    public boolean contains(long value) {
+        final int bucketIndex = HashMixing.reduce(HashMixing.mix(value, topLevelSeed), buckets.length >>> 1);
+
+        final long bucketSeed = buckets[2 * bucketIndex];
+        final long offsetAndSize = buckets[2 * bucketIndex + 1];
+
+        final int tableSize = (int) offsetAndSize;
+
+        if (tableSize == 0) {
+            return false;
+        }
+
+        final int slotsOffset = (int) (offsetAndSize >>> Integer.SIZE);
+
+        return slots[slotsOffset + HashMixing.reduce(HashMixing.mix(value, bucketSeed), tableSize)] == value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Save table layout into a file (see StaticLongHashSetFormat), so it can be opened with
+     * MappedStaticLongHashSet.open
+     */
+    public void writeTo(Path path) throws IOException {
+        Objects.requireNonNull(path, "null 'path' passed");
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+
+            buffer.putInt(StaticLongHashSetFormat.MAGIC);
+            buffer.putInt(size);
+            buffer.putLong(topLevelSeed);
+            buffer.putInt(buckets.length >>> 1);
+            buffer.putInt(slots.length);
+
+            writeLongs(channel, buffer, buckets);
+            writeLongs(channel, buffer, slots);
+
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * This method can be used to calculate space occupied by perfect hashtable:
+     * top level buckets count plus all secondary tables slots.
+     */
+    int calculateUsedCapacity() {
+        return (buckets.length >>> 1) + slots.length;
+    }
+
+    /**
+     * Top level buckets occupancy, every lookup probes exactly one slot, rebuilds count is the number of
+     * hash seeds retries during construction.
+     */
+    public HashStatistics statistics() {
+        HashStatistics res = statistics;
+
+        if (res == null) {
+            HashStatistics.Builder builder = new HashStatistics.Builder();
+
+            for (int j = 1; j < buckets.length; j += 2) {
+                int tableSize = (int) buckets[j];
+                int keysCount = (int) Math.round(Math.sqrt(tableSize));
+
+                builder.addBucket(keysCount);
+                for (int i = 0; i < keysCount; ++i) {
+                    builder.addProbeLength(1);
+                }
+            }
+
+            res = builder.build(rebuildsCount, slots.length == 0 ? 0.0 : (double) size / slots.length);
+            statistics = res;
+        }
+
+        return res;
+    }
+
+    /**
+     * Approximate heap size in bytes, ignoring object headers.
+     */
+    long calculateUsedBytes() {
+        return (long) Long.BYTES * (buckets.length + slots.length);
+    }
+
+    /**
+     * Calculate top level buckets sizes for 'seed', returns false if secondary tables would be too big.
+     */
+    private static boolean distributeKeys(long[] keys, long seed, int[] bucketIndexes, int[] bucketSizes) {
+        final int bucketsCount = bucketSizes.length;
+        Arrays.fill(bucketSizes, 0);
+
+        for (int i = 0; i < keys.length; ++i) {
+            int bucketIndex = HashMixing.reduce(HashMixing.mix(keys[i], seed), bucketsCount);
+            bucketIndexes[i] = bucketIndex;
+            ++bucketSizes[bucketIndex];
+        }
+
+        long slotsCount = 0L;
+        for (int j = 0; j < bucketsCount; ++j) {
+            slotsCount += (long) bucketSizes[j] * bucketSizes[j];
+        }
+
+        return slotsCount <= (long) MAX_SLOTS_FACTOR * keys.length;
+    }
+
+    private static void writeLongs(FileChannel channel, ByteBuffer buffer, long[] values) throws IOException {
+        int from = 0;
+
+        while (from < values.length) {
+            if (buffer.remaining() < Long.BYTES) {
+                flush(channel, buffer);
+            }
+
+            int chunkLength = Math.min(buffer.remaining() / Long.BYTES, values.length - from);
+
+            buffer.asLongBuffer().put(values, from, chunkLength);
+            buffer.position(buffer.position() + chunkLength * Long.BYTES);
+
+            from += chunkLength;
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    private static int maxTableSize(int[] bucketSizes) {
+        int maxSize = 0;
+        for (int singleSize : bucketSizes) {
+            maxSize = Math.max(maxSize, singleSize);
+        }
+        return maxSize * maxSize;
+    }
+}
@@ -0,0 +1,42 @@
+package com.max.app.hashing;
+
+/**
+ * Binary file layout for StaticLongHashSet, all values are stored in big-endian byte order:
+ * <pre>
+ * header:  int MAGIC, int size, long topLevelSeed, int bucketsCount, int slotsCount
+ * buckets: long[2 * bucketsCount], (seed, offset << 32 | tableSize) pairs
+ * slots:   long[slotsCount]
+ * </pre>
+ * Header size is a multiple of 8, so both arrays can be read directly from a LongBuffer view.
+ */
+final class StaticLongHashSetFormat {
+
+    // 'SLH1' in ASCII
+    static final int MAGIC = 0x53_4C_48_31;
+
+    static final int SIZE_OFFSET = Integer.BYTES;
+
+    static final int SEED_OFFSET = SIZE_OFFSET + Integer.BYTES;
+
+    static final int BUCKETS_COUNT_OFFSET = SEED_OFFSET + Long.BYTES;
+
+    static final int SLOTS_COUNT_OFFSET = BUCKETS_COUNT_OFFSET + Integer.BYTES;
+
+    static final int HEADER_SIZE = SLOTS_COUNT_OFFSET + Integer.BYTES;
+
+    private StaticLongHashSetFormat() {
+        throw new AssertionError("Can't instantiate utility only class");
+    }
+
+    static long bucketsOffset() {
+        return HEADER_SIZE;
+    }
+
+    static long slotsOffset(int bucketsCount) {
+        return HEADER_SIZE + 2L * bucketsCount * Long.BYTES;
+    }
+
+    static long fileSize(int bucketsCount, int slotsCount) {
+        return slotsOffset(bucketsCount) + (long) slotsCount * Long.BYTES;
+    }
+}
@@ -1,5 +1,13 @@
 package com.max.app.hashing;
 
+/**
+ * Hash function randomly selected from a universal family on construction.
+ * <p>
+ * Implementations take random coefficients from 'ThreadLocalRandom.current()' inside the constructor, so hash
+ * functions can be created concurrently. ThreadLocalRandom instance must never be cached in a static field:
+ * it belongs to the thread that initialized the class, other threads would use an uninitialized seed and
+ * generate the same predictable sequence of coefficients.
+ */
 public interface UniversalHash<T> {
 
     int hash(T value);
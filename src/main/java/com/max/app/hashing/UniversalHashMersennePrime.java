@@ -0,0 +1,160 @@
+package com.max.app.hashing;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 64-bit Carter-Wegman universal hash family over Mersenne prime p = 2^61 - 1.
+ * <p>
+ * 'long' key is split into two 32-bit halves: h(x) = (a1 * lo + a2 * hi + b) mod p.
+ * byte[] and CharSequence keys are hashed with polynomial hashing mod p (Horner's rule with random 'a1',
+ * started from the length, so keys with leading zeros don't collide), and the result is passed through
+ * the outer function (a2 * h + b) mod p.
+ * <p>
+ * Multiplication mod p doesn't use division: 2^61 = 1 (mod p), so the 122-bit product is reduced by adding
+ * its high and low 61-bit parts. Full 61-bit hash is mapped into [0, capacity) with multiply-shift.
+ * <p>
+ * 100M sequential 'int' keys, m = 1024: deviation: 1.3, deviation(%): 0.00, ~720-860 ms
+ * (UniversalHashRegular ~570-900 ms).
+ */
+public final class UniversalHashMersennePrime<T> implements UniversalHash<T>, IntUniversalHash, LongUniversalHash {
+
+    static final long MERSENNE_PRIME = (1L << 61) - 1;
+
+    private static final int PRIME_BITS = 61;
+
+    private static final long LOW_32_BITS_MASK = 0xFFFF_FFFFL;
+
+    private final long a1;
+    private final long a2;
+    private final long b;
+    private final int capacity;
+
+    public UniversalHashMersennePrime(int capacity) {
+        this(capacity, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * The same 'seed' and 'capacity' always define the same function, so hashes can be stored on disk.
+     */
+    public UniversalHashMersennePrime(int capacity, long seed) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("'capacity' should be positive, but found '" + capacity + "'");
+        }
+        SplittableRandom rand = new SplittableRandom(seed);
+        this.a1 = 1L + rand.nextLong(MERSENNE_PRIME - 1L);
+        this.a2 = 1L + rand.nextLong(MERSENNE_PRIME - 1L);
+        this.b = rand.nextLong(MERSENNE_PRIME);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Long, byte[] and CharSequence values are hashed by their content, all other values by 'hashCode'.
+     */
+    @Override
+    public int hash(T value) {
+        if (value instanceof Long) {
+            return hash(((Long) value).longValue());
+        }
+        if (value instanceof CharSequence) {
+            return hash((CharSequence) value);
+        }
+        if (value instanceof byte[]) {
+            return hash((byte[]) value);
+        }
+        return hash(value == null ? 0 : value.hashCode());
+    }
+
+    @Override
+    public int hash(int value) {
+        return hash((long) value);
+    }
+
+    @Override
+    public int hash(long value) {
+        return toRange(hash64(value));
+    }
+
+    public int hash(byte[] value) {
+        return toRange(hash64(value));
+    }
+
+    public int hash(CharSequence value) {
+        return toRange(hash64(value));
+    }
+
+    /**
+     * @return full hash value in range [0, 2^61 - 1).
+     */
+    public long hash64(long value) {
+        long res = mulMod(a1, value & LOW_32_BITS_MASK) + mulMod(a2, value >>> 32) + b;
+        return reduce(res);
+    }
+
+    public long hash64(byte[] value) {
+        Objects.requireNonNull(value, "null 'value' passed");
+
+        long res = value.length;
+        for (byte singleByte : value) {
+            res = reduce(mulMod(res, a1) + (singleByte & 0xFF));
+        }
+
+        return reduce(mulMod(res, a2) + b);
+    }
+
+    public long hash64(CharSequence value) {
+        Objects.requireNonNull(value, "null 'value' passed");
+
+        final int length = value.length();
+
+        long res = length;
+        for (int i = 0; i < length; ++i) {
+            res = reduce(mulMod(res, a1) + value.charAt(i));
+        }
+
+        return reduce(mulMod(res, a2) + b);
+    }
+
+    /**
+     * (x * y) mod p for x, y < 2^61 without division.
+     * 122-bit product = hi * 2^64 + lo = (hi * 2^3 + (lo >>> 61)) * 2^61 + (lo & p), and 2^61 = 1 (mod p).
+     *
+     * @return value in range [0, p].
+     */
+    static long mulMod(long x, long y) {
+        long hi = Math.multiplyHigh(x, y);
+        long lo = x * y;
+
+        long res = (lo & MERSENNE_PRIME) + ((hi << 3) | (lo >>> PRIME_BITS));
+        return (res & MERSENNE_PRIME) + (res >>> PRIME_BITS);
+    }
+
+    /**
+     * Reduce value in range [0, 2^63) into [0, p).
+     */
+    private static long reduce(long value) {
+        long res = (value & MERSENNE_PRIME) + (value >>> PRIME_BITS);
+        return res >= MERSENNE_PRIME ? res - MERSENNE_PRIME : res;
+    }
+
+    /**
+     * Map full hash into [0, capacity), uses 32 high bits of 61-bit hash, so the product with capacity
+     * fits into 63 bits. Low bits of the hash are not used and stay available to callers.
+     * <p>
+     * High bits are scrambled with murmur3 'fmix32' first: for structured keys (like "key-0", "key-1", ...)
+     * the affine outer function produces a lattice, and for some random 'a2' its high bits are distributed
+     * noticeably worse than random (~3.5% of seeds gave > 6% bucket deviation for 1M keys and 1024 buckets).
+     */
+    int toRange(long hash) {
+        int high = (int) (hash >>> (PRIME_BITS - 32));
+
+        high ^= high >>> 16;
+        high *= 0x85EB_CA6B;
+        high ^= high >>> 13;
+        high *= 0xC2B2_AE35;
+        high ^= high >>> 16;
+
+        return (int) (((high & LOW_32_BITS_MASK) * capacity) >>> 32);
+    }
+}
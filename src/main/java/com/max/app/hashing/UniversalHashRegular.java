@@ -3,21 +3,21 @@ package com.max.app.hashing;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * deviation: 667.1, deviation(%): 0.34
+ * deviation: 2.1, deviation(%): 0.00
+ * (was 667.1 and 0.34% before the fix of 'int' overflow in 'hash')
  */
-public final class UniversalHashRegular<T> implements UniversalHash<T> {
+public final class UniversalHashRegular<T> implements UniversalHash<T>, IntUniversalHash, LongUniversalHash {
 
     private static final int BIG_PRIME = 10_000_339;
 
-    private static final ThreadLocalRandom RAND = ThreadLocalRandom.current();
-
     private final int a;
     private final int b;
     private final int mod;
 
     public UniversalHashRegular(int capacity) {
-        this.a = 1 + RAND.nextInt(BIG_PRIME - 1);
-        this.b = RAND.nextInt(BIG_PRIME);
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        this.a = 1 + rand.nextInt(BIG_PRIME - 1);
+        this.b = rand.nextInt(BIG_PRIME);
         this.mod = capacity;
     }
 
@@ -29,7 +29,21 @@ public final class UniversalHashRegular<T> implements UniversalHash<T> {
 
     @Override
     public int hash(T value) {
-        int hashValue = ((a * (value == null ? 0 : value.hashCode() + b) % BIG_PRIME)) % mod;
-        return hashValue >= 0 ? hashValue : -hashValue;
+        return hash(value == null ? 0 : value.hashCode());
+    }
+
+    /**
+     * ((a * (value + b)) mod p) mod m, calculated in 'long' arithmetic: a, value mod p and b are below p ~ 2^24,
+     * so the product fits into 64 bits and can't overflow.
+     */
+    @Override
+    public int hash(int value) {
+        long reduced = Math.floorMod(value, BIG_PRIME) + (long) b;
+        return (int) ((a * reduced % BIG_PRIME) % mod);
+    }
+
+    @Override
+    public int hash(long value) {
+        return hash(Long.hashCode(value));
     }
 }
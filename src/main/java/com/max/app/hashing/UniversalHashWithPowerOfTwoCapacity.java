@@ -5,24 +5,34 @@ import java.util.concurrent.ThreadLocalRandom;
 /**
  * deviation: 667.1, deviation(%): 0.34
  */
-public final class UniversalHashWithPowerOfTwoCapacity<T> implements UniversalHash<T> {
+public final class UniversalHashWithPowerOfTwoCapacity<T> implements UniversalHash<T>, IntUniversalHash,
+                                                                       LongUniversalHash {
 
     private static int BIG_PRIME = 10_000_339;
 
-    private static final ThreadLocalRandom RAND = ThreadLocalRandom.current();
-
     private final int a;
     private final int b;
     private final int mod;
 
     public UniversalHashWithPowerOfTwoCapacity(int m) {
-        this.a = 1 + RAND.nextInt(BIG_PRIME - 1);
-        this.b = RAND.nextInt(BIG_PRIME);
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        this.a = 1 + rand.nextInt(BIG_PRIME - 1);
+        this.b = rand.nextInt(BIG_PRIME);
         this.mod = m - 1;
     }
 
     @Override
     public int hash(T value) {
-        return ((a * (value == null ? 0 : value.hashCode()) + b) % BIG_PRIME) & (mod);
+        return hash(value == null ? 0 : value.hashCode());
+    }
+
+    @Override
+    public int hash(int value) {
+        return ((a * value + b) % BIG_PRIME) & (mod);
+    }
+
+    @Override
+    public int hash(long value) {
+        return hash(Long.hashCode(value));
     }
 }
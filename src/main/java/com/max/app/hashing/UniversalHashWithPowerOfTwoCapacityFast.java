@@ -1,14 +1,14 @@
 package com.max.app.hashing;
 
+import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Super fast universal hash function with very good distribution.
  * deviation: 3.0, deviation(%): 0.00
  */
-public final class UniversalHashWithPowerOfTwoCapacityFast<T> implements UniversalHash<T> {
-
-    private static final ThreadLocalRandom RAND = ThreadLocalRandom.current();
+public final class UniversalHashWithPowerOfTwoCapacityFast<T> implements UniversalHash<T>, IntUniversalHash,
+                                                                           LongUniversalHash {
 
     private static final int INT_BITS = Integer.SIZE;
     private final int a;
@@ -22,17 +22,54 @@ public final class UniversalHashWithPowerOfTwoCapacityFast<T> implements Univers
         this.mBits = log2(m);
     }
 
+    /**
+     * Hash function with multiplier derived from 'seed', for callers that manage seeds themselves.
+     */
+    public UniversalHashWithPowerOfTwoCapacityFast(int m, int seed) {
+        if (!isPowerOfTwo(m)) {
+            throw new IllegalArgumentException("'m' should be power of 2, but found '" + m + "'");
+        }
+        this.a = seed | 1;
+        this.mBits = log2(m);
+    }
+
     private static boolean isPowerOfTwo(int value) {
         return (value & (value - 1)) == 0;
     }
 
-    private int randomOddNumber() {
-        return RAND.nextInt() | 1;
+    private static int randomOddNumber() {
+        return ThreadLocalRandom.current().nextInt() | 1;
     }
 
     @Override
     public int hash(T value) {
-        return (a * value.hashCode()) >>> (INT_BITS - mBits);
+        return hash(value.hashCode());
+    }
+
+    @Override
+    public int hash(int value) {
+        return (a * value) >>> (INT_BITS - mBits);
+    }
+
+    @Override
+    public int hash(long value) {
+        return hash(Long.hashCode(value));
+    }
+
+    /**
+     * Multiply-shift loop without branches, so it's compiled into SIMD instructions.
+     */
+    @Override
+    public void hashAll(int[] values, int from, int to, int[] hashes) {
+        Objects.checkFromToIndex(from, to, values.length);
+        Objects.checkFromToIndex(0, to - from, hashes.length);
+
+        final int multiplier = a;
+        final int shift = INT_BITS - mBits;
+
+        for (int i = from; i < to; ++i) {
+            hashes[i - from] = (multiplier * values[i]) >>> shift;
+        }
     }
 
     int log2(int value) {
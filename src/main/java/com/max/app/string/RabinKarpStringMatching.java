@@ -1,5 +1,8 @@
 package com.max.app.string;
 
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -44,7 +47,7 @@ public class RabinKarpStringMatching {
             }
         }
 
-        System.out.printf("collisionCnt: %d%n", COLLISIONS_CNT);
+        System.out.printf("collisionCnt: %.0f%n", COLLISIONS.get());
 
         System.out.println("Maine done...");
     }
@@ -68,7 +71,19 @@ public class RabinKarpStringMatching {
         }
     }
 
-    private static int COLLISIONS_CNT = 0;
+    // thread safe, exported only after 'registerMetrics' call
+    private static final Counter COLLISIONS = Counter.build().
+            name("rabin_karp_hash_collisions_total").
+            help("Count of Rabin-Karp rolling hash matches that are not real substring matches.").
+            create();
+
+    /**
+     * Export hash collisions counter into 'registry'.
+     */
+    public static void registerMetrics(CollectorRegistry registry) {
+        Objects.requireNonNull(registry, "null 'registry' passed");
+        COLLISIONS.register(registry);
+    }
 
     private static final char[] DNAS = {'A', 'C', 'T', 'G'};
     private static final int DNAS_LENGTH = DNAS.length;
@@ -137,7 +152,7 @@ public class RabinKarpStringMatching {
                 if (isEquals(str, i, pattern)) {
                     return i;
                 }
-                ++COLLISIONS_CNT;
+                COLLISIONS.inc();
             }
         }
 
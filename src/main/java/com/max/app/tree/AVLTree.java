@@ -2,24 +2,101 @@ package com.max.app.tree;
 
 import java.util.AbstractSet;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.function.Predicate;
 
 /**
  * AVLTree implementation with height tracking.
  * For each node balance factor lies in range [-1...1].
  * <p>
  * balance factor = left child height - right child height
+ * <p>
+ * Every node also stores its subtree size, so order statistics 'select(k)' and 'rank(x)' are O(lgN),
+ * as well as 'size' of subSet/headSet/tailSet views.
+ * Views are backed by the tree, their iterators start from the lower bound in O(lgN)
+ * and move to the next node using parent links.
+ * <p>
+ * Bulk operations: 'fromSorted' builds a perfectly balanced tree in O(N), 'union', 'intersect' and 'difference'
+ * are based on 'join' and 'split' (https://arxiv.org/abs/1602.02120). They never change their argument:
+ * it is copied first in O(M), and then joined in O(M * lg(N/M + 1)) for trees of sizes M <= N.
+ * Split and join have bigger constants than a single 'add', so when one tree is SMALL_TREE_RATIO times smaller
+ * than the other, operations fall back to per value add/remove/contains in O(M * lgN).
  */
-public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> {
+public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> implements NavigableSet<T> {
+
+    // for trees with sizes ratio above it per value operations are faster than split/join, see AVLTreeBulkBenchmark
+    private static final int SMALL_TREE_RATIO = 32;
 
     private Node<T> root;
 
     private int size;
     private int modCount;
 
+    /**
+     * Build tree from strictly ascending values in O(N), tree is perfectly balanced:
+     * sizes of left and right subtrees of every node differ at most by 1.
+     */
+    @SafeVarargs
+    public static <U extends Comparable<U>> AVLTree<U> fromSorted(U... values) {
+        checkNotNull(values, "NULL 'values' passed");
+        return fromSortedArray(values.clone());
+    }
+
+    /**
+     * Build tree from strictly ascending values in O(N), values are buffered into an array first,
+     * because tree shape depends on the values count.
+     */
+    public static <U extends Comparable<U>> AVLTree<U> fromSorted(Iterator<U> valuesIt) {
+        checkNotNull(valuesIt, "NULL 'valuesIt' passed");
+
+        List<U> values = new ArrayList<>();
+        valuesIt.forEachRemaining(values::add);
+
+        @SuppressWarnings("unchecked")
+        U[] valuesArray = (U[]) values.toArray(new Comparable[0]);
+
+        return fromSortedArray(valuesArray);
+    }
+
+    private static <U extends Comparable<U>> AVLTree<U> fromSortedArray(U[] values) {
+        for (int i = 0; i < values.length; ++i) {
+            checkNotNull(values[i], "Can't add NULL value");
+
+            if (i > 0 && values[i - 1].compareTo(values[i]) >= 0) {
+                throw new IllegalArgumentException("Values are not strictly ascending at index " + i);
+            }
+        }
+
+        AVLTree<U> tree = new AVLTree<>();
+        tree.root = buildBalanced(values, 0, values.length);
+        tree.size = values.length;
+
+        return tree;
+    }
+
+    /**
+     * Build balanced subtree from values[from, to), middle value becomes the subtree root.
+     */
+    private static <U> Node<U> buildBalanced(U[] values, int from, int to) {
+        if (from == to) {
+            return null;
+        }
+
+        int mid = (from + to) >>> 1;
+
+        return link(buildBalanced(values, from, mid), new Node<>(values[mid]), buildBalanced(values, mid + 1, to));
+    }
+
     @Override
     public boolean add(T value) {
 
@@ -167,7 +244,7 @@ public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> {
 
         nodeToDelete.parent = null;
 
-        parent.recalculateHeight();
+        parent.recalculateHeightAndSize();
     }
 
     @Override
@@ -187,6 +264,139 @@ public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> {
         return new InOrderIterator();
     }
 
+    /**
+     * @return k-th smallest value, k is 0-based.
+     */
+    public T select(int k) {
+        Objects.checkIndex(k, size);
+
+        Node<T> cur = root;
+        int index = k;
+
+        while (true) {
+            int leftSize = sizeOf(cur.left);
+
+            if (index == leftSize) {
+                return cur.value;
+            }
+
+            if (index < leftSize) {
+                cur = cur.left;
+            }
+            else {
+                index -= leftSize + 1;
+                cur = cur.right;
+            }
+        }
+    }
+
+    /**
+     * @return number of values strictly less than 'value', value itself can be absent.
+     */
+    public int rank(T value) {
+        checkNotNull(value, "Can't calculate rank for NULL value");
+        return countLess(value, false);
+    }
+
+    @Override
+    public T first() {
+        return valueOrThrow(firstNode());
+    }
+
+    @Override
+    public T last() {
+        return valueOrThrow(lastNode());
+    }
+
+    @Override
+    public T lower(T value) {
+        return valueOrNull(floorNode(value, false));
+    }
+
+    @Override
+    public T floor(T value) {
+        return valueOrNull(floorNode(value, true));
+    }
+
+    @Override
+    public T ceiling(T value) {
+        return valueOrNull(ceilingNode(value, true));
+    }
+
+    @Override
+    public T higher(T value) {
+        return valueOrNull(ceilingNode(value, false));
+    }
+
+    @Override
+    public T pollFirst() {
+        Node<T> node = firstNode();
+        return node == null ? null : removeAndReturn(node.value);
+    }
+
+    @Override
+    public T pollLast() {
+        Node<T> node = lastNode();
+        return node == null ? null : removeAndReturn(node.value);
+    }
+
+    /**
+     * Natural ordering is used.
+     */
+    @Override
+    public Comparator<? super T> comparator() {
+        return null;
+    }
+
+    @Override
+    public NavigableSet<T> descendingSet() {
+        return new SubSetView(null, false, null, false, true);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return descendingSet().iterator();
+    }
+
+    @Override
+    public NavigableSet<T> subSet(T fromElement, boolean fromInclusive, T toElement, boolean toInclusive) {
+        checkNotNull(fromElement, "NULL 'fromElement' passed");
+        checkNotNull(toElement, "NULL 'toElement' passed");
+
+        if (fromElement.compareTo(toElement) > 0) {
+            throw new IllegalArgumentException("'fromElement' > 'toElement'");
+        }
+
+        return new SubSetView(fromElement, fromInclusive, toElement, toInclusive, false);
+    }
+
+    @Override
+    public NavigableSet<T> headSet(T toElement, boolean inclusive) {
+        checkNotNull(toElement, "NULL 'toElement' passed");
+        return new SubSetView(null, false, toElement, inclusive, false);
+    }
+
+    @Override
+    public NavigableSet<T> tailSet(T fromElement, boolean inclusive) {
+        checkNotNull(fromElement, "NULL 'fromElement' passed");
+        return new SubSetView(fromElement, inclusive, null, false, false);
+    }
+
+    @Override
+    public SortedSet<T> subSet(T fromElement, T toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> headSet(T toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(T fromElement) {
+        return tailSet(fromElement, true);
+    }
+
     @Override
     public int size() {
         return size;
@@ -211,15 +421,15 @@ public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> {
 
         while (cur != null) {
 
-            // update height and balance
-            cur.recalculateHeight();
+            // update height, size and balance
+            cur.recalculateHeightAndSize();
 
             Node<T> parent = cur.parent;
 
             // check AVL properties
             if (cur.balance() == 2) {
-                // 1.1. left-left case
-                if (cur.left.balance() == 1) {
+                // 1.1. left-left case, left child can be balanced only after deletion
+                if (cur.left.balance() >= 0) {
                     rotateRight(cur, parent);
                 }
                 else if (cur.left.balance() == -1) {
@@ -234,7 +444,7 @@ public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> {
                 }
             }
             else if (cur.balance() == -2) {
-                if (cur.right.balance() == -1) {
+                if (cur.right.balance() <= 0) {
                     // 2.1. right-right case
                     rotateLeft(cur, parent);
                 }
@@ -263,8 +473,8 @@ public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> {
         movedUpNode.left = cur;
         setParent(cur, movedUpNode);
 
-        cur.recalculateHeight();
-        movedUpNode.recalculateHeight();
+        cur.recalculateHeightAndSize();
+        movedUpNode.recalculateHeightAndSize();
 
         updateParentLink(parent, movedUpNode, cur);
     }
@@ -278,8 +488,8 @@ public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> {
         mainNode.right = cur;
         setParent(mainNode.right, mainNode);
 
-        cur.recalculateHeight();
-        mainNode.recalculateHeight();
+        cur.recalculateHeightAndSize();
+        mainNode.recalculateHeightAndSize();
 
         updateParentLink(parent, mainNode, cur);
     }
@@ -297,7 +507,7 @@ public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> {
                 parent.right = movedUpNode;
             }
             setParent(movedUpNode, parent);
-            parent.recalculateHeight();
+            parent.recalculateHeightAndSize();
         }
     }
 
@@ -330,12 +540,490 @@ public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> {
         return parent;
     }
 
+    /**
+     * Number of values less than 'value' (or equal to it, if 'inclusive').
+     */
+    private int countLess(T value, boolean inclusive) {
+        Node<T> cur = root;
+        int res = 0;
+
+        while (cur != null) {
+            int cmpRes = value.compareTo(cur.value);
+
+            if (cmpRes > 0 || (cmpRes == 0 && inclusive)) {
+                res += sizeOf(cur.left) + 1;
+                cur = cur.right;
+            }
+            else {
+                cur = cur.left;
+            }
+        }
+
+        return res;
+    }
+
+    private Node<T> firstNode() {
+        return root == null ? null : findMin(root);
+    }
+
+    private Node<T> lastNode() {
+        return root == null ? null : findMax(root);
+    }
+
+    /**
+     * @return node with the smallest value >= 'value' (> 'value' if not 'inclusive') or null.
+     */
+    private Node<T> ceilingNode(T value, boolean inclusive) {
+        checkNotNull(value, "NULL value passed");
+
+        Node<T> cur = root;
+        Node<T> res = null;
+
+        while (cur != null) {
+            int cmpRes = value.compareTo(cur.value);
+
+            if (cmpRes < 0 || (cmpRes == 0 && inclusive)) {
+                res = cur;
+                cur = cur.left;
+            }
+            else {
+                cur = cur.right;
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * @return node with the biggest value <= 'value' (< 'value' if not 'inclusive') or null.
+     */
+    private Node<T> floorNode(T value, boolean inclusive) {
+        checkNotNull(value, "NULL value passed");
+
+        Node<T> cur = root;
+        Node<T> res = null;
+
+        while (cur != null) {
+            int cmpRes = value.compareTo(cur.value);
+
+            if (cmpRes > 0 || (cmpRes == 0 && inclusive)) {
+                res = cur;
+                cur = cur.right;
+            }
+            else {
+                cur = cur.left;
+            }
+        }
+
+        return res;
+    }
+
+    private static <U> Node<U> successor(Node<U> node) {
+        if (node.right != null) {
+            Node<U> cur = node.right;
+            while (cur.left != null) {
+                cur = cur.left;
+            }
+            return cur;
+        }
+
+        Node<U> cur = node;
+        while (cur.parent != null && cur.parent.right == cur) {
+            cur = cur.parent;
+        }
+        return cur.parent;
+    }
+
+    private static <U> Node<U> predecessor(Node<U> node) {
+        if (node.left != null) {
+            Node<U> cur = node.left;
+            while (cur.right != null) {
+                cur = cur.right;
+            }
+            return cur;
+        }
+
+        Node<U> cur = node;
+        while (cur.parent != null && cur.parent.left == cur) {
+            cur = cur.parent;
+        }
+        return cur.parent;
+    }
+
+    private T removeAndReturn(T value) {
+        remove(value);
+        return value;
+    }
+
+    private static <U> int sizeOf(Node<U> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static <U> U valueOrNull(Node<U> node) {
+        return node == null ? null : node.value;
+    }
+
+    private static <U> U valueOrThrow(Node<U> node) {
+        if (node == null) {
+            throw new NoSuchElementException("AVLTree is EMPTY");
+        }
+        return node.value;
+    }
+
     private static <U> void checkNotNull(U value, String errorMsg) {
         if (value == null) {
             throw new IllegalArgumentException(errorMsg);
         }
     }
 
+    // Bulk operations part
+
+    /**
+     * Add all values from 'other' into this tree, 'other' is not changed.
+     */
+    public void union(AVLTree<T> other) {
+        checkNotNull(other, "NULL 'other' passed");
+
+        if (other == this || other.isEmpty()) {
+            return;
+        }
+
+        if (isSmallComparedTo(other, this)) {
+            for (T value : other) {
+                add(value);
+            }
+            return;
+        }
+
+        replaceWithResult(unionNodes(root, copyNodes(other.root)));
+    }
+
+    /**
+     * Keep in this tree only values that also exist in 'other', 'other' is not changed.
+     */
+    public void intersect(AVLTree<T> other) {
+        checkNotNull(other, "NULL 'other' passed");
+
+        if (other == this) {
+            return;
+        }
+
+        if (isSmallComparedTo(this, other)) {
+            rebuildWithValues(other::contains);
+            return;
+        }
+
+        replaceWithResult(intersectNodes(root, copyNodes(other.root)));
+    }
+
+    /**
+     * Remove from this tree all values that exist in 'other', 'other' is not changed.
+     */
+    public void difference(AVLTree<T> other) {
+        checkNotNull(other, "NULL 'other' passed");
+
+        if (other == this) {
+            clear();
+            return;
+        }
+
+        if (isSmallComparedTo(other, this)) {
+            for (T value : other) {
+                remove(value);
+            }
+            return;
+        }
+
+        if (isSmallComparedTo(this, other)) {
+            rebuildWithValues(value -> !other.contains(value));
+            return;
+        }
+
+        replaceWithResult(differenceNodes(root, copyNodes(other.root)));
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+        ++modCount;
+    }
+
+    private void replaceWithResult(Node<T> newRoot) {
+        root = newRoot;
+        size = sizeOf(newRoot);
+        ++modCount;
+    }
+
+    private static boolean isSmallComparedTo(AVLTree<?> small, AVLTree<?> big) {
+        return (long) small.size * SMALL_TREE_RATIO <= big.size;
+    }
+
+    /**
+     * Rebuild this tree from its values accepted by 'filter' in O(N).
+     */
+    private void rebuildWithValues(Predicate<T> filter) {
+        @SuppressWarnings("unchecked")
+        T[] values = (T[]) new Comparable[size];
+
+        int count = 0;
+        for (T value : this) {
+            if (filter.test(value)) {
+                values[count] = value;
+                ++count;
+            }
+        }
+
+        replaceWithResult(buildBalanced(values, 0, count));
+    }
+
+    /**
+     * Copy subtree with the same shape, so the copy is balanced as well.
+     */
+    private static <U> Node<U> copyNodes(Node<U> node) {
+        if (node == null) {
+            return null;
+        }
+        return link(copyNodes(node.left), new Node<>(node.value), copyNodes(node.right));
+    }
+
+    private static <U extends Comparable<U>> Node<U> unionNodes(Node<U> first, Node<U> second) {
+        if (first == null) {
+            return second;
+        }
+
+        if (second == null) {
+            return first;
+        }
+
+        Node<U> left = first.left;
+        Node<U> right = first.right;
+
+        SplitResult<U> split = split(second, first.value);
+
+        return join(unionNodes(left, split.left), first, unionNodes(right, split.right));
+    }
+
+    private static <U extends Comparable<U>> Node<U> intersectNodes(Node<U> first, Node<U> second) {
+        if (first == null || second == null) {
+            return null;
+        }
+
+        Node<U> left = first.left;
+        Node<U> right = first.right;
+
+        SplitResult<U> split = split(second, first.value);
+
+        Node<U> leftRes = intersectNodes(left, split.left);
+        Node<U> rightRes = intersectNodes(right, split.right);
+
+        return split.found ? join(leftRes, first, rightRes) : join2(leftRes, rightRes);
+    }
+
+    private static <U extends Comparable<U>> Node<U> differenceNodes(Node<U> first, Node<U> second) {
+        if (first == null || second == null) {
+            return first;
+        }
+
+        Node<U> left = second.left;
+        Node<U> right = second.right;
+
+        SplitResult<U> split = split(first, second.value);
+
+        return join2(differenceNodes(split.left, left), differenceNodes(split.right, right));
+    }
+
+    private static final class SplitResult<U> {
+        private final Node<U> left;
+        private final boolean found;
+        private final Node<U> right;
+
+        SplitResult(Node<U> left, boolean found, Node<U> right) {
+            this.left = left;
+            this.found = found;
+            this.right = right;
+        }
+    }
+
+    /**
+     * Split subtree into values < 'value' and values > 'value', node with 'value' itself is dropped.
+     */
+    private static <U extends Comparable<U>> SplitResult<U> split(Node<U> node, U value) {
+        if (node == null) {
+            return new SplitResult<>(null, false, null);
+        }
+
+        Node<U> left = detach(node.left);
+        Node<U> right = detach(node.right);
+
+        int cmpRes = value.compareTo(node.value);
+
+        if (cmpRes == 0) {
+            node.unlink();
+            return new SplitResult<>(left, true, right);
+        }
+
+        if (cmpRes < 0) {
+            SplitResult<U> leftSplit = split(left, value);
+            return new SplitResult<>(leftSplit.left, leftSplit.found, join(leftSplit.right, node, right));
+        }
+
+        SplitResult<U> rightSplit = split(right, value);
+        return new SplitResult<>(join(left, node, rightSplit.left), rightSplit.found, rightSplit.right);
+    }
+
+    /**
+     * Join two subtrees, all values in 'left' should be less than all values in 'right'.
+     */
+    private static <U> Node<U> join2(Node<U> left, Node<U> right) {
+        if (left == null) {
+            return right;
+        }
+
+        if (right == null) {
+            return left;
+        }
+
+        Node<U> minNode = right;
+        while (minNode.left != null) {
+            minNode = minNode.left;
+        }
+
+        Node<U> rightWithoutMin = removeMinNode(right);
+        minNode.unlink();
+
+        return join(left, minNode, rightWithoutMin);
+    }
+
+    /**
+     * Remove the leftmost node from the subtree.
+     *
+     * @return new subtree root.
+     */
+    private static <U> Node<U> removeMinNode(Node<U> node) {
+        if (node.left == null) {
+            return detach(node.right);
+        }
+
+        Node<U> right = detach(node.right);
+        Node<U> left = removeMinNode(detach(node.left));
+
+        return join(left, node, right);
+    }
+
+    /**
+     * Join 'left' subtree, 'middle' node and 'right' subtree into a single AVL subtree,
+     * all values in 'left' < middle value < all values in 'right'. Takes O(|height(left) - height(right)|).
+     *
+     * @return new subtree root, its parent is null.
+     */
+    private static <U> Node<U> join(Node<U> left, Node<U> middle, Node<U> right) {
+        int leftHeight = heightOf(left);
+        int rightHeight = heightOf(right);
+
+        if (leftHeight > rightHeight + 1) {
+            return joinRight(left, middle, right);
+        }
+
+        if (rightHeight > leftHeight + 1) {
+            return joinLeft(left, middle, right);
+        }
+
+        return link(left, middle, right);
+    }
+
+    /**
+     * 'left' is higher: descend along the right spine of 'left' until subtree height is close to 'right'.
+     */
+    private static <U> Node<U> joinRight(Node<U> left, Node<U> middle, Node<U> right) {
+        Node<U> leftLeft = detach(left.left);
+        Node<U> leftRight = detach(left.right);
+
+        if (heightOf(leftRight) <= heightOf(right) + 1) {
+            Node<U> joined = link(leftRight, middle, right);
+
+            if (joined.height <= heightOf(leftLeft) + 1) {
+                return link(leftLeft, left, joined);
+            }
+
+            return rotateLeftSubtree(link(leftLeft, left, rotateRightSubtree(joined)));
+        }
+
+        Node<U> joined = joinRight(leftRight, middle, right);
+        Node<U> res = link(leftLeft, left, joined);
+
+        return (joined.height <= heightOf(leftLeft) + 1) ? res : rotateLeftSubtree(res);
+    }
+
+    /**
+     * Mirror of 'joinRight', 'right' is higher.
+     */
+    private static <U> Node<U> joinLeft(Node<U> left, Node<U> middle, Node<U> right) {
+        Node<U> rightLeft = detach(right.left);
+        Node<U> rightRight = detach(right.right);
+
+        if (heightOf(rightLeft) <= heightOf(left) + 1) {
+            Node<U> joined = link(left, middle, rightLeft);
+
+            if (joined.height <= heightOf(rightRight) + 1) {
+                return link(joined, right, rightRight);
+            }
+
+            return rotateRightSubtree(link(rotateLeftSubtree(joined), right, rightRight));
+        }
+
+        Node<U> joined = joinLeft(left, middle, rightLeft);
+        Node<U> res = link(joined, right, rightRight);
+
+        return (joined.height <= heightOf(rightRight) + 1) ? res : rotateRightSubtree(res);
+    }
+
+    private static <U> Node<U> rotateLeftSubtree(Node<U> node) {
+        Node<U> movedUp = detach(node.right);
+        Node<U> movedUpLeft = detach(movedUp.left);
+
+        return link(link(detach(node.left), node, movedUpLeft), movedUp, detach(movedUp.right));
+    }
+
+    private static <U> Node<U> rotateRightSubtree(Node<U> node) {
+        Node<U> movedUp = detach(node.left);
+        Node<U> movedUpRight = detach(movedUp.right);
+
+        return link(detach(movedUp.left), movedUp, link(movedUpRight, node, detach(node.right)));
+    }
+
+    /**
+     * Make 'left' and 'right' children of 'node' and recalculate its height and size, no balancing is done.
+     *
+     * @return 'node' as a root of subtree.
+     */
+    private static <U> Node<U> link(Node<U> left, Node<U> node, Node<U> right) {
+        node.left = left;
+        node.right = right;
+        node.parent = null;
+
+        if (left != null) {
+            left.parent = node;
+        }
+        if (right != null) {
+            right.parent = node;
+        }
+
+        node.recalculateHeightAndSize();
+        return node;
+    }
+
+    private static <U> Node<U> detach(Node<U> node) {
+        if (node != null) {
+            node.parent = null;
+        }
+        return node;
+    }
+
+    private static <U> int heightOf(Node<U> node) {
+        return node == null ? 0 : node.height;
+    }
+
     // Visitor part
 
     /**
@@ -371,14 +1059,18 @@ public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> {
 
         private int height;
 
+        // number of nodes in subtree, including this one
+        private int size;
+
         static <U> Node<U> withParent(U value, Node<U> parent) {
             Node<U> node = new Node<>(value);
             node.parent = parent;
             return node;
         }
 
-        void recalculateHeight() {
+        void recalculateHeightAndSize() {
             height = 1 + Math.max(leftHeight(), rightHeight());
+            size = 1 + sizeOf(left) + sizeOf(right);
         }
 
         int balance() {
@@ -389,6 +1081,8 @@ public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> {
 
         Node(U value) {
             this.value = value;
+            this.height = 1;
+            this.size = 1;
         }
 
         boolean isLeaf() {
@@ -417,6 +1111,18 @@ public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> {
             return right == null ? 0 : right.getHeight();
         }
 
+        public int getSize() {
+            return size;
+        }
+
+        public int leftSize() {
+            return sizeOf(left);
+        }
+
+        public int rightSize() {
+            return sizeOf(right);
+        }
+
         Node<U> getParent() {
             return parent;
         }
@@ -431,6 +1137,297 @@ public class AVLTree<T extends Comparable<T>> extends AbstractSet<T> {
         }
     }
 
+    // SubSet view part
+
+    /**
+     * View of tree values in range [lo, hi], null bound means the range is not bounded from that side.
+     * Descending view mirrors all navigation methods. Bounds are always stored in ascending order.
+     */
+    private final class SubSetView extends AbstractSet<T> implements NavigableSet<T> {
+
+        private final T lo;
+        private final boolean loInclusive;
+        private final T hi;
+        private final boolean hiInclusive;
+        private final boolean descending;
+
+        SubSetView(T lo, boolean loInclusive, T hi, boolean hiInclusive, boolean descending) {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+        }
+
+        @Override
+        public int size() {
+            int lowCount = (lo == null) ? 0 : countLess(lo, !loInclusive);
+            int highCount = (hi == null) ? AVLTree.this.size : countLess(hi, hiInclusive);
+            return Math.max(0, highCount - lowCount);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return absLowest() == null;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean contains(Object obj) {
+            return obj != null && inRange((T) obj) && AVLTree.this.contains(obj);
+        }
+
+        @Override
+        public boolean add(T value) {
+            checkNotNull(value, "Can't add NULL value");
+
+            if (!inRange(value)) {
+                throw new IllegalArgumentException("Value is out of the view range: " + value);
+            }
+
+            return AVLTree.this.add(value);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean remove(Object obj) {
+            return obj != null && inRange((T) obj) && AVLTree.this.remove(obj);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return descending ? new ViewIterator(absHighest(), false) : new ViewIterator(absLowest(), true);
+        }
+
+        @Override
+        public Iterator<T> descendingIterator() {
+            return descending ? new ViewIterator(absLowest(), true) : new ViewIterator(absHighest(), false);
+        }
+
+        @Override
+        public T first() {
+            return valueOrThrow(descending ? absHighest() : absLowest());
+        }
+
+        @Override
+        public T last() {
+            return valueOrThrow(descending ? absLowest() : absHighest());
+        }
+
+        @Override
+        public T lower(T value) {
+            return valueOrNull(descending ? absCeiling(value, false) : absFloor(value, false));
+        }
+
+        @Override
+        public T floor(T value) {
+            return valueOrNull(descending ? absCeiling(value, true) : absFloor(value, true));
+        }
+
+        @Override
+        public T ceiling(T value) {
+            return valueOrNull(descending ? absFloor(value, true) : absCeiling(value, true));
+        }
+
+        @Override
+        public T higher(T value) {
+            return valueOrNull(descending ? absFloor(value, false) : absCeiling(value, false));
+        }
+
+        @Override
+        public T pollFirst() {
+            Node<T> node = descending ? absHighest() : absLowest();
+            return node == null ? null : removeAndReturn(node.value);
+        }
+
+        @Override
+        public T pollLast() {
+            Node<T> node = descending ? absLowest() : absHighest();
+            return node == null ? null : removeAndReturn(node.value);
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return descending ? Collections.reverseOrder() : null;
+        }
+
+        @Override
+        public NavigableSet<T> descendingSet() {
+            return new SubSetView(lo, loInclusive, hi, hiInclusive, !descending);
+        }
+
+        @Override
+        public NavigableSet<T> subSet(T fromElement, boolean fromInclusive, T toElement, boolean toInclusive) {
+            checkNotNull(fromElement, "NULL 'fromElement' passed");
+            checkNotNull(toElement, "NULL 'toElement' passed");
+
+            if (descending) {
+                return bounded(toElement, toInclusive, fromElement, fromInclusive);
+            }
+            return bounded(fromElement, fromInclusive, toElement, toInclusive);
+        }
+
+        @Override
+        public NavigableSet<T> headSet(T toElement, boolean inclusive) {
+            checkNotNull(toElement, "NULL 'toElement' passed");
+
+            if (descending) {
+                return bounded(toElement, inclusive, hi, hiInclusive);
+            }
+            return bounded(lo, loInclusive, toElement, inclusive);
+        }
+
+        @Override
+        public NavigableSet<T> tailSet(T fromElement, boolean inclusive) {
+            checkNotNull(fromElement, "NULL 'fromElement' passed");
+
+            if (descending) {
+                return bounded(lo, loInclusive, fromElement, inclusive);
+            }
+            return bounded(fromElement, inclusive, hi, hiInclusive);
+        }
+
+        @Override
+        public SortedSet<T> subSet(T fromElement, T toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public SortedSet<T> headSet(T toElement) {
+            return headSet(toElement, false);
+        }
+
+        @Override
+        public SortedSet<T> tailSet(T fromElement) {
+            return tailSet(fromElement, true);
+        }
+
+        /**
+         * Create nested view with ascending bounds, new bounds should be inside the current range
+         * (inclusive bound should be in range, exclusive bound can be equal to the current bound),
+         * the same way as TreeSet views do.
+         */
+        private NavigableSet<T> bounded(T newLo, boolean newLoInclusive, T newHi, boolean newHiInclusive) {
+            if (newLo != null && newLo != lo && !boundInRange(newLo, newLoInclusive)) {
+                throw new IllegalArgumentException("Lower bound is out of the view range: " + newLo);
+            }
+            if (newHi != null && newHi != hi && !boundInRange(newHi, newHiInclusive)) {
+                throw new IllegalArgumentException("Upper bound is out of the view range: " + newHi);
+            }
+            if (newLo != null && newHi != null && newLo.compareTo(newHi) > 0) {
+                throw new IllegalArgumentException("Lower bound > upper bound");
+            }
+
+            // bound equal to the exclusive bound of this view should stay exclusive
+            boolean loIncl = newLoInclusive && (lo == null || loInclusive || newLo.compareTo(lo) != 0);
+            boolean hiIncl = newHiInclusive && (hi == null || hiInclusive || newHi.compareTo(hi) != 0);
+
+            return new SubSetView(newLo, loIncl, newHi, hiIncl, descending);
+        }
+
+        private boolean boundInRange(T bound, boolean inclusive) {
+            if (inclusive) {
+                return inRange(bound);
+            }
+            return (lo == null || bound.compareTo(lo) >= 0) && (hi == null || bound.compareTo(hi) <= 0);
+        }
+
+        private boolean tooLow(T value) {
+            if (lo == null) {
+                return false;
+            }
+            int cmpRes = value.compareTo(lo);
+            return cmpRes < 0 || (cmpRes == 0 && !loInclusive);
+        }
+
+        private boolean tooHigh(T value) {
+            if (hi == null) {
+                return false;
+            }
+            int cmpRes = value.compareTo(hi);
+            return cmpRes > 0 || (cmpRes == 0 && !hiInclusive);
+        }
+
+        private boolean inRange(T value) {
+            return !tooLow(value) && !tooHigh(value);
+        }
+
+        private Node<T> absLowest() {
+            Node<T> node = (lo == null) ? firstNode() : ceilingNode(lo, loInclusive);
+            return (node == null || tooHigh(node.value)) ? null : node;
+        }
+
+        private Node<T> absHighest() {
+            Node<T> node = (hi == null) ? lastNode() : floorNode(hi, hiInclusive);
+            return (node == null || tooLow(node.value)) ? null : node;
+        }
+
+        private Node<T> absCeiling(T value, boolean inclusive) {
+            checkNotNull(value, "NULL value passed");
+
+            if (tooLow(value)) {
+                return absLowest();
+            }
+
+            Node<T> node = ceilingNode(value, inclusive);
+            return (node == null || tooHigh(node.value)) ? null : node;
+        }
+
+        private Node<T> absFloor(T value, boolean inclusive) {
+            checkNotNull(value, "NULL value passed");
+
+            if (tooHigh(value)) {
+                return absHighest();
+            }
+
+            Node<T> node = floorNode(value, inclusive);
+            return (node == null || tooLow(node.value)) ? null : node;
+        }
+
+        /**
+         * Moves from node to node using parent links, so no stack is needed.
+         */
+        private final class ViewIterator implements Iterator<T> {
+
+            private final int modCountSnapshot;
+            private final boolean ascending;
+
+            private Node<T> next;
+
+            ViewIterator(Node<T> first, boolean ascending) {
+                this.modCountSnapshot = modCount;
+                this.ascending = ascending;
+                this.next = first;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (next == null) {
+                    throw new NoSuchElementException("Iterator is EMPTY");
+                }
+
+                if (modCountSnapshot != AVLTree.this.modCount) {
+                    throw new ConcurrentModificationException("AVLTree was modified during traversal");
+                }
+
+                T res = next.value;
+
+                next = ascending ? successor(next) : predecessor(next);
+
+                if (next != null && (ascending ? tooHigh(next.value) : tooLow(next.value))) {
+                    next = null;
+                }
+
+                return res;
+            }
+        }
+    }
+
     // Iterator part
     private final class InOrderIterator implements Iterator<T> {
 
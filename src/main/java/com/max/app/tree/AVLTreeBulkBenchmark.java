@@ -0,0 +1,109 @@
+package com.max.app.tree;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Bulk load and set operations vs repeated 'add' for AVLTree<Integer>.
+ * <p>
+ * operation                               bulk, ms    repeated add, ms
+ * fromSorted 2M keys                      26          543
+ * union 2M keys + 10K random keys         11          11
+ * union 2M keys + 30K random keys         26          27
+ * union 2M keys + 60K random keys         37          39
+ * union 2M keys + 120K random keys        52          58
+ * union 2M keys + 250K random keys        54          90
+ * union 2M keys + 2M random keys          191         518
+ * <p>
+ * Single core, -Xms4g, GC pauses sometimes add a few hundred ms to a single row.
+ * Measured with split/join forced for all sizes, 'other' tree is copied first, the copy is included.
+ * Union doesn't beat repeated add for small trees: O(M * lg(N/M + 1)) = 10K * 7.6 node visits for 10K keys
+ * vs 10K * 21 comparisons for 'add', but every visit in split/join detaches and relinks the node and
+ * recalculates its height and size, while 'add' descent only compares keys. Split/join wins only when
+ * the tree is less than ~32 times smaller (AVLTree.SMALL_TREE_RATIO), otherwise AVLTree falls back to 'add'.
+ */
+public final class AVLTreeBulkBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int KEYS_COUNT = 2_000_000;
+
+    private static final int[] OTHER_KEYS_COUNTS = {10_000, 30_000, 60_000, 120_000, 250_000};
+
+    public static void main(String[] args) {
+
+        Integer[] sortedKeys = new Integer[KEYS_COUNT];
+        for (int i = 0; i < KEYS_COUNT; ++i) {
+            sortedKeys[i] = 2 * i;
+        }
+
+        Integer[] otherKeys = randomSortedKeys(KEYS_COUNT);
+
+        Integer[][] smallKeys = new Integer[OTHER_KEYS_COUNTS.length][];
+        for (int i = 0; i < OTHER_KEYS_COUNTS.length; ++i) {
+            smallKeys[i] = randomSortedKeys(OTHER_KEYS_COUNTS[i]);
+        }
+
+        System.out.printf("operation                               bulk, ms    repeated add, ms%n");
+
+        for (int it = 0; it < 3; ++it) {
+            long startTime = System.nanoTime();
+            AVLTree<Integer> bulkTree = AVLTree.fromSorted(sortedKeys);
+            long bulkTime = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            AVLTree<Integer> addTree = new AVLTree<>();
+            for (Integer singleKey : sortedKeys) {
+                addTree.add(singleKey);
+            }
+            long addTime = System.nanoTime() - startTime;
+
+            checkSameSize(bulkTree, addTree);
+            print("fromSorted 2M keys", bulkTime, addTime);
+
+            for (int i = 0; i < OTHER_KEYS_COUNTS.length; ++i) {
+                measureUnion("union 2M keys + " + (OTHER_KEYS_COUNTS[i] / 1000) + "K random keys", sortedKeys,
+                             smallKeys[i]);
+            }
+            measureUnion("union 2M keys + 2M random keys", sortedKeys, otherKeys);
+        }
+
+        System.out.println("AVLTreeBulkBenchmark done...");
+    }
+
+    private static void measureUnion(String name, Integer[] keys, Integer[] otherKeys) {
+        AVLTree<Integer> bulkTree = AVLTree.fromSorted(keys);
+        AVLTree<Integer> other = AVLTree.fromSorted(otherKeys);
+
+        long startTime = System.nanoTime();
+        bulkTree.union(other);
+        long bulkTime = System.nanoTime() - startTime;
+
+        AVLTree<Integer> addTree = AVLTree.fromSorted(keys);
+
+        startTime = System.nanoTime();
+        for (Integer singleKey : otherKeys) {
+            addTree.add(singleKey);
+        }
+        long addTime = System.nanoTime() - startTime;
+
+        checkSameSize(bulkTree, addTree);
+        print(name, bulkTime, addTime);
+    }
+
+    private static Integer[] randomSortedKeys(int count) {
+        return Arrays.stream(RAND.ints(count, 0, 4 * KEYS_COUNT).distinct().sorted().toArray())
+                .boxed()
+                .toArray(Integer[]::new);
+    }
+
+    private static void checkSameSize(AVLTree<Integer> bulkTree, AVLTree<Integer> addTree) {
+        if (bulkTree.size() != addTree.size()) {
+            throw new IllegalStateException("Should never happen");
+        }
+    }
+
+    private static void print(String name, long bulkTimeNs, long addTimeNs) {
+        System.out.printf("%-39s %-11d %d%n", name, bulkTimeNs / 1_000_000L, addTimeNs / 1_000_000L);
+    }
+}
@@ -0,0 +1,128 @@
+package com.max.app.tree;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Boxed vs array-backed AVL trees for 1M random keys.
+ * <p>
+ * tree               build, ms    contains hit, ns    contains miss, ns    heap, MB
+ * AVLTree<Long>      2079         1247.5              1428.8               61.0
+ * TreeSet<Long>      1402         1142.0              1514.3               61.0
+ * LongAVLTree        1183         822.0               1175.0               22.3
+ * IntAVLTree         1136         770.1               969.6                18.1
+ * <p>
+ * Heap for boxed trees is measured as used heap delta and includes boxed keys,
+ * for array-backed trees it is calculated from arrays lengths.
+ */
+public final class AVLTreeFootprintBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int KEYS_COUNT = 1_000_000;
+
+    private static final int LOOKUPS_COUNT = 10_000_000;
+
+    public static void main(String[] args) {
+
+        long[] keys = RAND.longs(KEYS_COUNT).toArray();
+        long[] misses = RAND.longs(KEYS_COUNT).toArray();
+
+        int[] intKeys = RAND.ints(KEYS_COUNT).toArray();
+        int[] intMisses = RAND.ints(KEYS_COUNT).toArray();
+
+        System.out.printf("tree               build, ms    contains hit, ns    contains miss, ns    heap, MB%n");
+
+        for (int it = 0; it < 3; ++it) {
+            long usedBefore = usedHeap();
+            long startTime = System.nanoTime();
+            AVLTree<Long> boxedTree = new AVLTree<>();
+            for (long singleKey : keys) {
+                boxedTree.add(singleKey);
+            }
+            long buildTime = System.nanoTime() - startTime;
+            long usedAfter = usedHeap();
+
+            print("AVLTree<Long>", buildTime,
+                  measure(index -> boxedTree.contains(keys[index])),
+                  measure(index -> boxedTree.contains(misses[index])),
+                  usedAfter - usedBefore);
+
+            usedBefore = usedHeap();
+            startTime = System.nanoTime();
+            TreeSet<Long> treeSet = new TreeSet<>();
+            for (long singleKey : keys) {
+                treeSet.add(singleKey);
+            }
+            buildTime = System.nanoTime() - startTime;
+            usedAfter = usedHeap();
+
+            print("TreeSet<Long>", buildTime,
+                  measure(index -> treeSet.contains(keys[index])),
+                  measure(index -> treeSet.contains(misses[index])),
+                  usedAfter - usedBefore);
+
+            startTime = System.nanoTime();
+            LongAVLTree longTree = new LongAVLTree();
+            for (long singleKey : keys) {
+                longTree.add(singleKey);
+            }
+            buildTime = System.nanoTime() - startTime;
+
+            print("LongAVLTree", buildTime,
+                  measure(index -> longTree.contains(keys[index])),
+                  measure(index -> longTree.contains(misses[index])),
+                  longTree.calculateUsedBytes());
+
+            startTime = System.nanoTime();
+            IntAVLTree intTree = new IntAVLTree();
+            for (int singleKey : intKeys) {
+                intTree.add(singleKey);
+            }
+            buildTime = System.nanoTime() - startTime;
+
+            print("IntAVLTree", buildTime,
+                  measure(index -> intTree.contains(intKeys[index])),
+                  measure(index -> intTree.contains(intMisses[index])),
+                  intTree.calculateUsedBytes());
+        }
+
+        System.out.println("AVLTreeFootprintBenchmark done...");
+    }
+
+    private static void print(String name, long buildTimeNs, double hitTime, double missTime, long usedBytes) {
+        System.out.printf("%-18s %-12d %-19.1f %-20.1f %.1f%n", name, buildTimeNs / 1_000_000L, hitTime,
+                          missTime, usedBytes / (1024.0 * 1024.0));
+    }
+
+    private interface IndexPredicate {
+        boolean test(int index);
+    }
+
+    private static double measure(IndexPredicate predicate) {
+        long startTime = System.nanoTime();
+
+        int foundCount = 0;
+        for (int it = 0; it < LOOKUPS_COUNT; ++it) {
+            if (predicate.test(it % KEYS_COUNT)) {
+                ++foundCount;
+            }
+        }
+
+        long endTime = System.nanoTime();
+
+        if (foundCount < 0) {
+            throw new IllegalStateException("Should never happen");
+        }
+
+        return (double) (endTime - startTime) / LOOKUPS_COUNT;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
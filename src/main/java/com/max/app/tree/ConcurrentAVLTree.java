@@ -0,0 +1,1094 @@
+package com.max.app.tree;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent AVL tree with optimistic readers, based on:
+ * N. G. Bronson, J. Casper, H. Chafi, K. Olukotun "A Practical Concurrent Binary Search Tree".
+ * https://ppl.stanford.edu/papers/ppopp207-bronson.pdf
+ * <p>
+ * Every node has a version. A writer that moves a node down during rotation (so the key range of its subtree
+ * shrinks) marks the version as SHRINKING and increments it after the rotation; unlinked node gets UNLINKED version.
+ * Readers never take locks: they descend hand-over-hand, reading a child and then validating that the parent
+ * version is the same, so the child was really reached from the parent. If validation fails, search is
+ * retried from the last node that is still valid. A reader that meets a node being rotated down spins until
+ * the rotation is finished.
+ * <p>
+ * Writers lock only the nodes they change (parent before child). Removal of a node with two children only
+ * marks it as a routing node, such node is unlinked later when it has at most one child.
+ * Balance is relaxed: heights are repaired and rotations are done bottom-up after every change, so
+ * the tree is a valid AVL tree (besides routing nodes) when there are no concurrent updates.
+ * Unlike the original algorithm, a routing node that is left with one child after a double rotation is unlinked
+ * in the same step, and a new subtree root keeps the old height until all damage below it is repaired,
+ * otherwise some damage could be left unrepaired.
+ * <p>
+ * Iteration is weakly consistent, like in ConcurrentSkipListSet: iterator never throws
+ * ConcurrentModificationException and every next value is found with an optimistic 'higher' search.
+ */
+public final class ConcurrentAVLTree<T extends Comparable<T>> extends AbstractSet<T> {
+
+    // results of optimistic attempts, search should be retried from the previous node for RETRY
+    private static final int RETRY = -1;
+    private static final int FALSE = 0;
+    private static final int TRUE = 1;
+
+    private static final long UNLINKED = 1L;
+    private static final long SHRINKING = 2L;
+    private static final long SHRINK_COUNT_INCR = 4L;
+
+    // results of 'nodeCondition', non-negative values are new node heights
+    private static final int UNLINK_REQUIRED = -1;
+    private static final int REBALANCE_REQUIRED = -2;
+    private static final int NOTHING_REQUIRED = -3;
+
+    private static final int SPIN_COUNT = 100;
+
+    // sentinel, real root is always its right child
+    private final Node<T> rootHolder = new Node<>(null, 0, false, null);
+
+    private final LongAdder size = new LongAdder();
+
+    @Override
+    public boolean contains(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        T key = (T) obj;
+
+        while (true) {
+            Node<T> root = rootHolder.right;
+
+            if (root == null) {
+                return false;
+            }
+
+            long rootVersion = root.version;
+
+            if (isShrinkingOrUnlinked(rootVersion)) {
+                root.waitUntilShrinkCompleted(rootVersion);
+            }
+            else if (root == rootHolder.right) {
+                int res = attemptContains(key, root, rootVersion);
+
+                if (res != RETRY) {
+                    return res == TRUE;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean add(T key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Can't add NULL value");
+        }
+
+        while (true) {
+            Node<T> root = rootHolder.right;
+
+            if (root == null) {
+                synchronized (rootHolder) {
+                    if (rootHolder.right == null) {
+                        rootHolder.right = new Node<>(key, 1, true, rootHolder);
+                        size.increment();
+                        return true;
+                    }
+                }
+                continue;
+            }
+
+            long rootVersion = root.version;
+
+            if (isShrinkingOrUnlinked(rootVersion)) {
+                root.waitUntilShrinkCompleted(rootVersion);
+            }
+            else if (root == rootHolder.right) {
+                int res = attemptAdd(key, root, rootVersion);
+
+                if (res != RETRY) {
+                    if (res == TRUE) {
+                        size.increment();
+                    }
+                    return res == TRUE;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        T key = (T) obj;
+
+        while (true) {
+            Node<T> root = rootHolder.right;
+
+            if (root == null) {
+                return false;
+            }
+
+            long rootVersion = root.version;
+
+            if (isShrinkingOrUnlinked(rootVersion)) {
+                root.waitUntilShrinkCompleted(rootVersion);
+            }
+            else if (root == rootHolder.right) {
+                int res = attemptRemove(key, rootHolder, root, rootVersion);
+
+                if (res != RETRY) {
+                    if (res == TRUE) {
+                        size.decrement();
+                    }
+                    return res == TRUE;
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of values, exact only when there are no concurrent updates.
+     */
+    @Override
+    public int size() {
+        return (int) size.sum();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return higherNode(null) == null;
+    }
+
+    /**
+     * Weakly consistent iterator in ascending order.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new HigherIterator();
+    }
+
+    /**
+     * Check heights, balance factors, parent links and routing nodes, should be called
+     * when there are no concurrent updates.
+     *
+     * @return true if the tree is a valid AVL tree.
+     */
+    boolean checkInvariants() {
+        Node<T> root = rootHolder.right;
+        return root == null || (root.parent == rootHolder && checkSubtree(root) >= 0);
+    }
+
+    /**
+     * @return subtree height or -1 if some invariant is broken.
+     */
+    private int checkSubtree(Node<T> node) {
+        if (node == null) {
+            return 0;
+        }
+
+        if ((node.left != null && (node.left.parent != node || node.left.key.compareTo(node.key) >= 0)) ||
+                (node.right != null && (node.right.parent != node || node.right.key.compareTo(node.key) <= 0))) {
+            return -1;
+        }
+
+        if (!node.present && (node.left == null || node.right == null)) {
+            return -1;
+        }
+
+        int leftHeight = checkSubtree(node.left);
+        int rightHeight = checkSubtree(node.right);
+
+        if (leftHeight < 0 || rightHeight < 0 || Math.abs(leftHeight - rightHeight) > 1 ||
+                node.height != 1 + Math.max(leftHeight, rightHeight)) {
+            return -1;
+        }
+
+        return node.height;
+    }
+
+    // Optimistic search part
+
+    /**
+     * 'node' was reached from its parent when node version was 'nodeVersion'.
+     */
+    private int attemptContains(T key, Node<T> node, long nodeVersion) {
+        while (true) {
+            int cmpRes = key.compareTo(node.key);
+
+            if (cmpRes == 0) {
+                return node.present ? TRUE : FALSE;
+            }
+
+            Node<T> child = node.child(cmpRes);
+
+            if (child == null) {
+                return (node.version != nodeVersion) ? RETRY : FALSE;
+            }
+
+            long childVersion = child.version;
+
+            if (isShrinkingOrUnlinked(childVersion)) {
+                child.waitUntilShrinkCompleted(childVersion);
+
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+            }
+            else if (child != node.child(cmpRes)) {
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+            }
+            else {
+                // child was reached from the node, while the node was still valid
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+
+                int res = attemptContains(key, child, childVersion);
+
+                if (res != RETRY) {
+                    return res;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return node with the smallest key > 'key' (any key if 'key' is null), routing nodes are included.
+     */
+    private Node<T> higherNode(T key) {
+        while (true) {
+            Node<T> root = rootHolder.right;
+
+            if (root == null) {
+                return null;
+            }
+
+            long rootVersion = root.version;
+
+            if (isShrinkingOrUnlinked(rootVersion)) {
+                root.waitUntilShrinkCompleted(rootVersion);
+            }
+            else if (root == rootHolder.right) {
+                Node<T> res = attemptHigher(key, root, rootVersion);
+
+                if (res != null || root.version == rootVersion) {
+                    return res;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return node with the smallest key > 'key' in 'node' subtree or null. Caller should check that node
+     * version is still 'nodeVersion', when null is returned.
+     */
+    private Node<T> attemptHigher(T key, Node<T> node, long nodeVersion) {
+        while (true) {
+            int cmpRes = (key == null) ? -1 : key.compareTo(node.key);
+            int dir = (cmpRes < 0) ? -1 : 1;
+
+            Node<T> child = node.child(dir);
+
+            if (child == null) {
+                if (node.version != nodeVersion) {
+                    return null;
+                }
+                return (cmpRes < 0) ? node : null;
+            }
+
+            long childVersion = child.version;
+
+            if (isShrinkingOrUnlinked(childVersion)) {
+                child.waitUntilShrinkCompleted(childVersion);
+
+                if (node.version != nodeVersion) {
+                    return null;
+                }
+            }
+            else if (child != node.child(dir)) {
+                if (node.version != nodeVersion) {
+                    return null;
+                }
+            }
+            else {
+                if (node.version != nodeVersion) {
+                    return null;
+                }
+
+                Node<T> res = attemptHigher(key, child, childVersion);
+
+                if (res != null) {
+                    return res;
+                }
+
+                if (child.version == childVersion) {
+                    // subtree of 'child' has no bigger keys, current node is the answer if it is bigger
+                    if (node.version != nodeVersion) {
+                        return null;
+                    }
+                    return (cmpRes < 0) ? node : null;
+                }
+            }
+        }
+    }
+
+    // Update part
+
+    private int attemptAdd(T key, Node<T> node, long nodeVersion) {
+        while (true) {
+            int cmpRes = key.compareTo(node.key);
+
+            if (cmpRes == 0) {
+                return attemptMarkPresent(node);
+            }
+
+            Node<T> child = node.child(cmpRes);
+
+            if (node.version != nodeVersion) {
+                return RETRY;
+            }
+
+            if (child == null) {
+                Node<T> damaged;
+
+                synchronized (node) {
+                    if (node.version != nodeVersion) {
+                        return RETRY;
+                    }
+
+                    if (node.child(cmpRes) != null) {
+                        // child was added concurrently, descend into it
+                        continue;
+                    }
+
+                    node.setChild(cmpRes, new Node<>(key, 1, true, node));
+                    damaged = fixHeight(node);
+                }
+
+                fixHeightAndRebalance(damaged);
+                return TRUE;
+            }
+
+            long childVersion = child.version;
+
+            if (isShrinkingOrUnlinked(childVersion)) {
+                child.waitUntilShrinkCompleted(childVersion);
+            }
+            else if (child == node.child(cmpRes)) {
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+
+                int res = attemptAdd(key, child, childVersion);
+
+                if (res != RETRY) {
+                    return res;
+                }
+            }
+        }
+    }
+
+    /**
+     * Key was found in a routing node, make it present again.
+     */
+    private static <U> int attemptMarkPresent(Node<U> node) {
+        if (node.present) {
+            return FALSE;
+        }
+
+        synchronized (node) {
+            if (node.version == UNLINKED) {
+                return RETRY;
+            }
+
+            if (node.present) {
+                return FALSE;
+            }
+
+            node.present = true;
+            return TRUE;
+        }
+    }
+
+    private int attemptRemove(T key, Node<T> parent, Node<T> node, long nodeVersion) {
+        while (true) {
+            int cmpRes = key.compareTo(node.key);
+
+            if (cmpRes == 0) {
+                return attemptRemoveNode(parent, node);
+            }
+
+            Node<T> child = node.child(cmpRes);
+
+            if (node.version != nodeVersion) {
+                return RETRY;
+            }
+
+            if (child == null) {
+                return FALSE;
+            }
+
+            long childVersion = child.version;
+
+            if (isShrinkingOrUnlinked(childVersion)) {
+                child.waitUntilShrinkCompleted(childVersion);
+            }
+            else if (child == node.child(cmpRes)) {
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+
+                int res = attemptRemove(key, node, child, childVersion);
+
+                if (res != RETRY) {
+                    return res;
+                }
+            }
+        }
+    }
+
+    /**
+     * Node with at most one child is unlinked under parent and node locks,
+     * node with two children just becomes a routing node under its own lock.
+     */
+    private int attemptRemoveNode(Node<T> parent, Node<T> node) {
+        if (!node.present) {
+            return FALSE;
+        }
+
+        if (node.left == null || node.right == null) {
+            Node<T> damaged;
+
+            synchronized (parent) {
+                if (parent.version == UNLINKED || node.parent != parent) {
+                    return RETRY;
+                }
+
+                synchronized (node) {
+                    if (!node.present) {
+                        return FALSE;
+                    }
+
+                    if (node.left != null && node.right != null) {
+                        // second child was added concurrently
+                        node.present = false;
+                        return TRUE;
+                    }
+
+                    unlink(parent, node);
+                }
+
+                damaged = fixHeight(parent);
+            }
+
+            fixHeightAndRebalance(damaged);
+            return TRUE;
+        }
+
+        synchronized (node) {
+            if (node.version == UNLINKED) {
+                return RETRY;
+            }
+
+            if (!node.present) {
+                return FALSE;
+            }
+
+            if (node.left == null || node.right == null) {
+                // one child was removed concurrently, node should be unlinked under parent lock
+                return RETRY;
+            }
+
+            node.present = false;
+            return TRUE;
+        }
+    }
+
+    /**
+     * Both 'parent' and 'node' should be locked, node has at most one child.
+     */
+    private static <U> void unlink(Node<U> parent, Node<U> node) {
+        assert node.left == null || node.right == null : "unlinked node has two children";
+        assert parent.left == node || parent.right == node : "unlinked node is not a child of parent";
+
+        Node<U> splice = (node.left != null) ? node.left : node.right;
+
+        if (parent.left == node) {
+            parent.left = splice;
+        }
+        else {
+            parent.right = splice;
+        }
+
+        if (splice != null) {
+            splice.parent = parent;
+        }
+
+        node.version = UNLINKED;
+        node.present = false;
+    }
+
+    // Rebalance part
+
+    /**
+     * Repair heights and balance bottom-up starting from 'node', every step locks only the nodes it changes.
+     */
+    private void fixHeightAndRebalance(Node<T> start) {
+        Node<T> node = start;
+
+        while (node != null && node.parent != null) {
+            int condition = nodeCondition(node);
+
+            if (condition == NOTHING_REQUIRED || node.version == UNLINKED) {
+                return;
+            }
+
+            if (condition != UNLINK_REQUIRED && condition != REBALANCE_REQUIRED) {
+                synchronized (node) {
+                    node = fixHeight(node);
+                }
+            }
+            else {
+                Node<T> nodeParent = node.parent;
+
+                synchronized (nodeParent) {
+                    if (nodeParent.version != UNLINKED && node.parent == nodeParent) {
+                        synchronized (node) {
+                            // unlinked node keeps its parent link, so it is checked under lock
+                            if (node.version != UNLINKED) {
+                                node = rebalance(nodeParent, node);
+                            }
+                        }
+                    }
+                    // otherwise parent was changed concurrently, check the same node again
+                }
+            }
+        }
+    }
+
+    /**
+     * @return new node height or one of UNLINK_REQUIRED, REBALANCE_REQUIRED, NOTHING_REQUIRED.
+     */
+    private static <U> int nodeCondition(Node<U> node) {
+        Node<U> left = node.left;
+        Node<U> right = node.right;
+
+        if ((left == null || right == null) && !node.present) {
+            return UNLINK_REQUIRED;
+        }
+
+        int leftHeight = heightOf(left);
+        int rightHeight = heightOf(right);
+
+        int balance = leftHeight - rightHeight;
+
+        if (balance < -1 || balance > 1) {
+            return REBALANCE_REQUIRED;
+        }
+
+        int newHeight = 1 + Math.max(leftHeight, rightHeight);
+
+        return (node.height != newHeight) ? newHeight : NOTHING_REQUIRED;
+    }
+
+    /**
+     * 'node' should be locked.
+     *
+     * @return next node to repair or null.
+     */
+    private static <U> Node<U> fixHeight(Node<U> node) {
+        int condition = nodeCondition(node);
+
+        if (condition == REBALANCE_REQUIRED || condition == UNLINK_REQUIRED) {
+            // parent lock is required
+            return node;
+        }
+
+        if (condition == NOTHING_REQUIRED) {
+            return null;
+        }
+
+        node.height = condition;
+        return node.parent;
+    }
+
+    /**
+     * Both 'nodeParent' and 'node' should be locked.
+     *
+     * @return next node to repair or null.
+     */
+    private static <U> Node<U> rebalance(Node<U> nodeParent, Node<U> node) {
+        Node<U> left = node.left;
+        Node<U> right = node.right;
+
+        if ((left == null || right == null) && !node.present) {
+            unlink(nodeParent, node);
+            return fixHeight(nodeParent);
+        }
+
+        int leftHeight = heightOf(left);
+        int rightHeight = heightOf(right);
+        int balance = leftHeight - rightHeight;
+
+        if (balance > 1) {
+            return rebalanceToRight(nodeParent, node, left, rightHeight);
+        }
+
+        if (balance < -1) {
+            return rebalanceToLeft(nodeParent, node, right, leftHeight);
+        }
+
+        int newHeight = 1 + Math.max(leftHeight, rightHeight);
+
+        if (newHeight != node.height) {
+            node.height = newHeight;
+            return fixHeight(nodeParent);
+        }
+
+        return null;
+    }
+
+    private static <U> Node<U> rebalanceToRight(Node<U> nodeParent, Node<U> node, Node<U> left, int rightHeight) {
+        synchronized (left) {
+            int leftHeight = left.height;
+
+            if (leftHeight - rightHeight <= 1) {
+                // left subtree was changed concurrently
+                return node;
+            }
+
+            Node<U> leftRight = left.right;
+            int leftLeftHeight = heightOf(left.left);
+            int leftRightHeight = heightOf(leftRight);
+
+            if (leftLeftHeight >= leftRightHeight) {
+                return rotateRight(nodeParent, node, left, rightHeight, leftLeftHeight, leftRight, leftRightHeight);
+            }
+
+            synchronized (leftRight) {
+                int lockedLeftRightHeight = leftRight.height;
+
+                if (leftLeftHeight >= lockedLeftRightHeight) {
+                    return rotateRight(nodeParent, node, left, rightHeight, leftLeftHeight, leftRight,
+                                       lockedLeftRightHeight);
+                }
+
+                int leftRightLeftHeight = heightOf(leftRight.left);
+                int balance = leftLeftHeight - leftRightLeftHeight;
+
+                if (balance >= -1 && balance <= 1) {
+                    return rotateRightOverLeft(nodeParent, node, left, rightHeight, leftLeftHeight, leftRight,
+                                               leftRightLeftHeight);
+                }
+            }
+
+            // double rotation would leave 'left' unbalanced, so 'left' is unbalanced itself:
+            // rotate it first, 'node' will be repaired on the next step
+            return rebalanceToLeft(node, left, leftRight, leftLeftHeight);
+        }
+    }
+
+    private static <U> Node<U> rebalanceToLeft(Node<U> nodeParent, Node<U> node, Node<U> right, int leftHeight) {
+        synchronized (right) {
+            int rightHeight = right.height;
+
+            if (leftHeight - rightHeight >= -1) {
+                return node;
+            }
+
+            Node<U> rightLeft = right.left;
+            int rightLeftHeight = heightOf(rightLeft);
+            int rightRightHeight = heightOf(right.right);
+
+            if (rightRightHeight >= rightLeftHeight) {
+                return rotateLeft(nodeParent, node, leftHeight, right, rightLeft, rightLeftHeight, rightRightHeight);
+            }
+
+            synchronized (rightLeft) {
+                int lockedRightLeftHeight = rightLeft.height;
+
+                if (rightRightHeight >= lockedRightLeftHeight) {
+                    return rotateLeft(nodeParent, node, leftHeight, right, rightLeft, lockedRightLeftHeight,
+                                      rightRightHeight);
+                }
+
+                int rightLeftRightHeight = heightOf(rightLeft.right);
+                int balance = rightRightHeight - rightLeftRightHeight;
+
+                if (balance >= -1 && balance <= 1) {
+                    return rotateLeftOverRight(nodeParent, node, leftHeight, right, rightLeft, rightRightHeight,
+                                               rightLeftRightHeight);
+                }
+            }
+
+            return rebalanceToRight(node, right, rightLeft, rightRightHeight);
+        }
+    }
+
+    private static <U> Node<U> rotateRight(Node<U> nodeParent, Node<U> node, Node<U> left, int rightHeight,
+                                           int leftLeftHeight, Node<U> leftRight, int leftRightHeight) {
+        final long nodeVersion = node.version;
+        final int oldNodeHeight = node.height;
+
+        // 'node' moves down, searches that passed through it should be retried
+        node.version = nodeVersion | SHRINKING;
+
+        node.left = leftRight;
+        if (leftRight != null) {
+            leftRight.parent = node;
+        }
+
+        left.right = node;
+        node.parent = left;
+
+        replaceChild(nodeParent, node, left);
+
+        int newNodeHeight = 1 + Math.max(leftRightHeight, rightHeight);
+        node.height = newNodeHeight;
+
+        // new subtree root keeps the height 'nodeParent' has seen, until the damage below is repaired,
+        // so the repair that reaches it later continues to 'nodeParent'
+        left.height = oldNodeHeight;
+
+        node.version = nodeVersion + SHRINK_COUNT_INCR;
+
+        int nodeBalance = leftRightHeight - rightHeight;
+        if (nodeBalance < -1 || nodeBalance > 1) {
+            return node;
+        }
+
+        if ((leftRight == null || rightHeight == 0) && !node.present) {
+            return node;
+        }
+
+        int leftBalance = leftLeftHeight - newNodeHeight;
+        if (leftBalance < -1 || leftBalance > 1) {
+            return left;
+        }
+
+        if (leftLeftHeight == 0 && !left.present) {
+            return left;
+        }
+
+        left.height = 1 + Math.max(leftLeftHeight, newNodeHeight);
+        return fixHeight(nodeParent);
+    }
+
+    private static <U> Node<U> rotateLeft(Node<U> nodeParent, Node<U> node, int leftHeight, Node<U> right,
+                                          Node<U> rightLeft, int rightLeftHeight, int rightRightHeight) {
+        final long nodeVersion = node.version;
+        final int oldNodeHeight = node.height;
+
+        node.version = nodeVersion | SHRINKING;
+
+        node.right = rightLeft;
+        if (rightLeft != null) {
+            rightLeft.parent = node;
+        }
+
+        right.left = node;
+        node.parent = right;
+
+        replaceChild(nodeParent, node, right);
+
+        int newNodeHeight = 1 + Math.max(leftHeight, rightLeftHeight);
+        node.height = newNodeHeight;
+        right.height = oldNodeHeight;
+
+        node.version = nodeVersion + SHRINK_COUNT_INCR;
+
+        int nodeBalance = rightLeftHeight - leftHeight;
+        if (nodeBalance < -1 || nodeBalance > 1) {
+            return node;
+        }
+
+        if ((rightLeft == null || leftHeight == 0) && !node.present) {
+            return node;
+        }
+
+        int rightBalance = rightRightHeight - newNodeHeight;
+        if (rightBalance < -1 || rightBalance > 1) {
+            return right;
+        }
+
+        if (rightRightHeight == 0 && !right.present) {
+            return right;
+        }
+
+        right.height = 1 + Math.max(newNodeHeight, rightRightHeight);
+        return fixHeight(nodeParent);
+    }
+
+    private static <U> Node<U> rotateRightOverLeft(Node<U> nodeParent, Node<U> node, Node<U> left, int rightHeight,
+                                                   int leftLeftHeight, Node<U> leftRight, int leftRightLeftHeight) {
+        final long nodeVersion = node.version;
+        final long leftVersion = left.version;
+        final int oldNodeHeight = node.height;
+
+        Node<U> leftRightLeft = leftRight.left;
+        Node<U> leftRightRight = leftRight.right;
+        int leftRightRightHeight = heightOf(leftRightRight);
+
+        // both 'node' and 'left' move down
+        node.version = nodeVersion | SHRINKING;
+        left.version = leftVersion | SHRINKING;
+
+        node.left = leftRightRight;
+        if (leftRightRight != null) {
+            leftRightRight.parent = node;
+        }
+
+        left.right = leftRightLeft;
+        if (leftRightLeft != null) {
+            leftRightLeft.parent = left;
+        }
+
+        leftRight.left = left;
+        left.parent = leftRight;
+        leftRight.right = node;
+        node.parent = leftRight;
+
+        replaceChild(nodeParent, node, leftRight);
+
+        int newNodeHeight = 1 + Math.max(leftRightRightHeight, rightHeight);
+        node.height = newNodeHeight;
+
+        int newLeftHeight;
+
+        // routing node left with one child is unlinked right away, all required locks are held
+        if (!left.present && (leftLeftHeight == 0 || leftRightLeft == null)) {
+            unlink(leftRight, left);
+            newLeftHeight = Math.max(leftLeftHeight, leftRightLeftHeight);
+        }
+        else {
+            newLeftHeight = 1 + Math.max(leftLeftHeight, leftRightLeftHeight);
+            left.height = newLeftHeight;
+            left.version = leftVersion + SHRINK_COUNT_INCR;
+        }
+
+        leftRight.height = oldNodeHeight;
+
+        node.version = nodeVersion + SHRINK_COUNT_INCR;
+
+        int nodeBalance = leftRightRightHeight - rightHeight;
+        if (nodeBalance < -1 || nodeBalance > 1) {
+            return node;
+        }
+
+        if ((leftRightRight == null || rightHeight == 0) && !node.present) {
+            return node;
+        }
+
+        int leftRightBalance = newLeftHeight - newNodeHeight;
+        if (leftRightBalance < -1 || leftRightBalance > 1) {
+            return leftRight;
+        }
+
+        leftRight.height = 1 + Math.max(newLeftHeight, newNodeHeight);
+        return fixHeight(nodeParent);
+    }
+
+    private static <U> Node<U> rotateLeftOverRight(Node<U> nodeParent, Node<U> node, int leftHeight, Node<U> right,
+                                                   Node<U> rightLeft, int rightRightHeight,
+                                                   int rightLeftRightHeight) {
+        final long nodeVersion = node.version;
+        final long rightVersion = right.version;
+        final int oldNodeHeight = node.height;
+
+        Node<U> rightLeftLeft = rightLeft.left;
+        Node<U> rightLeftRight = rightLeft.right;
+        int rightLeftLeftHeight = heightOf(rightLeftLeft);
+
+        node.version = nodeVersion | SHRINKING;
+        right.version = rightVersion | SHRINKING;
+
+        node.right = rightLeftLeft;
+        if (rightLeftLeft != null) {
+            rightLeftLeft.parent = node;
+        }
+
+        right.left = rightLeftRight;
+        if (rightLeftRight != null) {
+            rightLeftRight.parent = right;
+        }
+
+        rightLeft.right = right;
+        right.parent = rightLeft;
+        rightLeft.left = node;
+        node.parent = rightLeft;
+
+        replaceChild(nodeParent, node, rightLeft);
+
+        int newNodeHeight = 1 + Math.max(leftHeight, rightLeftLeftHeight);
+        node.height = newNodeHeight;
+
+        int newRightHeight;
+
+        if (!right.present && (rightRightHeight == 0 || rightLeftRight == null)) {
+            unlink(rightLeft, right);
+            newRightHeight = Math.max(rightLeftRightHeight, rightRightHeight);
+        }
+        else {
+            newRightHeight = 1 + Math.max(rightLeftRightHeight, rightRightHeight);
+            right.height = newRightHeight;
+            right.version = rightVersion + SHRINK_COUNT_INCR;
+        }
+
+        rightLeft.height = oldNodeHeight;
+
+        node.version = nodeVersion + SHRINK_COUNT_INCR;
+
+        int nodeBalance = rightLeftLeftHeight - leftHeight;
+        if (nodeBalance < -1 || nodeBalance > 1) {
+            return node;
+        }
+
+        if ((rightLeftLeft == null || leftHeight == 0) && !node.present) {
+            return node;
+        }
+
+        int rightLeftBalance = newRightHeight - newNodeHeight;
+        if (rightLeftBalance < -1 || rightLeftBalance > 1) {
+            return rightLeft;
+        }
+
+        rightLeft.height = 1 + Math.max(newNodeHeight, newRightHeight);
+        return fixHeight(nodeParent);
+    }
+
+    private static <U> void replaceChild(Node<U> parent, Node<U> oldChild, Node<U> newChild) {
+        if (parent.left == oldChild) {
+            parent.left = newChild;
+        }
+        else {
+            parent.right = newChild;
+        }
+        newChild.parent = parent;
+    }
+
+    private static boolean isShrinkingOrUnlinked(long version) {
+        return (version & (SHRINKING | UNLINKED)) != 0L;
+    }
+
+    private static <U> int heightOf(Node<U> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    // Node part
+
+    private static final class Node<U> {
+
+        final U key;
+
+        // UNLINKED, or shrinks count with optional SHRINKING flag
+        volatile long version;
+
+        volatile int height;
+
+        // false for routing nodes, their keys were removed from the set
+        volatile boolean present;
+
+        volatile Node<U> parent;
+        volatile Node<U> left;
+        volatile Node<U> right;
+
+        Node(U key, int height, boolean present, Node<U> parent) {
+            this.key = key;
+            this.height = height;
+            this.present = present;
+            this.parent = parent;
+        }
+
+        Node<U> child(int dir) {
+            return dir < 0 ? left : right;
+        }
+
+        void setChild(int dir, Node<U> child) {
+            if (dir < 0) {
+                left = child;
+            }
+            else {
+                right = child;
+            }
+        }
+
+        /**
+         * Spin while node is being rotated down, rotation never waits for readers, so it finishes quickly.
+         */
+        void waitUntilShrinkCompleted(long observedVersion) {
+            if ((observedVersion & SHRINKING) == 0L) {
+                return;
+            }
+
+            for (int i = 0; i < SPIN_COUNT; ++i) {
+                if (version != observedVersion) {
+                    return;
+                }
+                Thread.onSpinWait();
+            }
+
+            while (version == observedVersion) {
+                Thread.yield();
+            }
+        }
+    }
+
+    // Iterator part
+
+    private final class HigherIterator implements Iterator<T> {
+
+        private Node<T> next;
+        private T lastReturned;
+
+        HigherIterator() {
+            this.next = nextPresent(null);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (next == null) {
+                throw new NoSuchElementException("Iterator is EMPTY");
+            }
+
+            lastReturned = next.key;
+            next = nextPresent(lastReturned);
+
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException("'next' was not called");
+            }
+
+            ConcurrentAVLTree.this.remove(lastReturned);
+            lastReturned = null;
+        }
+
+        private Node<T> nextPresent(T key) {
+            Node<T> cur = higherNode(key);
+
+            while (cur != null && !cur.present) {
+                cur = higherNode(cur.key);
+            }
+
+            return cur;
+        }
+    }
+}
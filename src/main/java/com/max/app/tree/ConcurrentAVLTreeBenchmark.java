@@ -0,0 +1,133 @@
+package com.max.app.tree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Read/write mix over 1M keys range, the set is prefilled with half of the keys.
+ * Every thread executes 2M operations: 'contains' with READ_PERCENT probability, otherwise 'add' or 'remove'.
+ * Throughput in million operations per second.
+ * <p>
+ * reads, %   threads    ConcurrentAVLTree    ConcurrentSkipListSet    synchronized AVLTree
+ * 90         1          0.55                 0.54                     0.58
+ * 90         2          0.54                 0.51                     0.56
+ * 90         4          0.54                 0.49                     0.56
+ * 50         1          0.54                 0.43                     0.52
+ * 50         2          0.51                 0.36                     0.53
+ * 50         4          0.52                 0.35                     0.50
+ * <p>
+ * Measured on a single core machine, so the numbers show the cost of optimistic validation and node locks
+ * rather than scalability: a single lock is not contended here, that's why synchronized AVLTree is as fast.
+ * All sets are dominated by cache misses of random lookups over 500K nodes.
+ */
+public final class ConcurrentAVLTreeBenchmark {
+
+    private static final int[] THREADS_COUNT = {1, 2, 4};
+
+    private static final int[] READ_PERCENTS = {90, 50};
+
+    private static final int KEYS_RANGE = 1_000_000;
+
+    private static final int OPS_PER_THREAD = 2_000_000;
+
+    private static final Integer[] KEYS = new Integer[KEYS_RANGE];
+
+    static {
+        for (int i = 0; i < KEYS.length; ++i) {
+            KEYS[i] = i;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        System.out.printf("available processors: %d%n", Runtime.getRuntime().availableProcessors());
+        System.out.printf("reads, %%   threads    ConcurrentAVLTree    ConcurrentSkipListSet    " +
+                                  "synchronized AVLTree%n");
+
+        for (int it = 0; it < 3; ++it) {
+            for (int readPercent : READ_PERCENTS) {
+                for (int threadsCount : THREADS_COUNT) {
+                    double avlThroughput = measure(prefill(new ConcurrentAVLTree<>()), threadsCount, readPercent);
+                    double skipListThroughput = measure(prefill(new ConcurrentSkipListSet<>()), threadsCount,
+                                                        readPercent);
+                    double syncThroughput = measure(Collections.synchronizedSet(prefill(new AVLTree<>())),
+                                                    threadsCount, readPercent);
+
+                    System.out.printf("%-10d %-10d %-20.2f %-24.2f %.2f%n", readPercent, threadsCount,
+                                      avlThroughput, skipListThroughput, syncThroughput);
+                }
+            }
+        }
+
+        System.out.println("ConcurrentAVLTreeBenchmark done...");
+    }
+
+    private static <S extends Set<Integer>> S prefill(S set) {
+        for (int i = 0; i < KEYS_RANGE; i += 2) {
+            set.add(KEYS[i]);
+        }
+        return set;
+    }
+
+    private static double measure(Set<Integer> set, int threadsCount, int readPercent) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threadsCount);
+
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+
+            for (int i = 0; i < threadsCount; ++i) {
+                results.add(pool.submit(() -> {
+                    ThreadLocalRandom rand = ThreadLocalRandom.current();
+                    start.await();
+
+                    int foundCount = 0;
+                    for (int op = 0; op < OPS_PER_THREAD; ++op) {
+                        Integer key = KEYS[rand.nextInt(KEYS_RANGE)];
+                        int opType = rand.nextInt(100);
+
+                        if (opType < readPercent) {
+                            if (set.contains(key)) {
+                                ++foundCount;
+                            }
+                        }
+                        else if ((opType & 1) == 0) {
+                            set.add(key);
+                        }
+                        else {
+                            set.remove(key);
+                        }
+                    }
+                    return foundCount;
+                }));
+            }
+
+            long startTime = System.nanoTime();
+            start.countDown();
+
+            int foundCount = 0;
+            for (Future<Integer> singleResult : results) {
+                foundCount += singleResult.get();
+            }
+
+            long elapsedTime = System.nanoTime() - startTime;
+
+            if (foundCount < 0) {
+                throw new IllegalStateException("Should never happen");
+            }
+
+            return (threadsCount * (double) OPS_PER_THREAD * 1000.0) / elapsedTime;
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.max.app.tree;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * AVL tree of primitive 'int' keys, nodes are stored in parallel arrays instead of separate objects:
+ * 'keys', 'left', 'right' and 'parent' indexes and 'byte' heights (AVL tree height is < 1.45 * lg(N + 2)).
+ * Node with index 0 is a sentinel (NIL) with height 0, so children don't need null checks.
+ * <p>
+ * A node costs 4 + 3 * 4 + 1 = 17 bytes, without object headers and boxed keys of {@link AVLTree}.
+ * Removed nodes are linked into a free list through 'left' array and reused by following 'add' calls.
+ * 'contains' and iteration don't allocate: the iterator moves from node to node using parent links.
+ * <p>
+ * Not thread safe.
+ */
+public final class IntAVLTree {
+
+    private static final int NIL = 0;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+    private byte[] height;
+
+    private int root = NIL;
+
+    // head of removed nodes list, linked through 'left'
+    private int freeList = NIL;
+
+    // next never used node index
+    private int nextIndex = 1;
+
+    private int size;
+    private int modCount;
+
+    public IntAVLTree() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntAVLTree(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative 'expectedSize': " + expectedSize);
+        }
+
+        final int capacity = Math.max(2, expectedSize + 1);
+
+        this.keys = new int[capacity];
+        this.left = new int[capacity];
+        this.right = new int[capacity];
+        this.parent = new int[capacity];
+        this.height = new byte[capacity];
+    }
+
+    public boolean contains(int key) {
+        int cur = root;
+
+        while (cur != NIL) {
+            int curKey = keys[cur];
+
+            if (key == curKey) {
+                return true;
+            }
+
+            cur = (key < curKey) ? left[cur] : right[cur];
+        }
+
+        return false;
+    }
+
+    public boolean add(int key) {
+        int parentNode = NIL;
+        int cur = root;
+
+        while (cur != NIL) {
+            int curKey = keys[cur];
+
+            if (key == curKey) {
+                return false;
+            }
+
+            parentNode = cur;
+            cur = (key < curKey) ? left[cur] : right[cur];
+        }
+
+        final int node = allocateNode(key, parentNode);
+
+        if (parentNode == NIL) {
+            root = node;
+        }
+        else if (key < keys[parentNode]) {
+            left[parentNode] = node;
+        }
+        else {
+            right[parentNode] = node;
+        }
+
+        rebalanceUp(parentNode);
+
+        ++size;
+        ++modCount;
+        return true;
+    }
+
+    public boolean remove(int key) {
+        int node = findNode(key);
+
+        if (node == NIL) {
+            return false;
+        }
+
+        // node with both children: move successor key into it and remove the successor node instead
+        if (left[node] != NIL && right[node] != NIL) {
+            int successor = minNode(right[node]);
+            keys[node] = keys[successor];
+            node = successor;
+        }
+
+        final int child = (left[node] != NIL) ? left[node] : right[node];
+        final int nodeParent = parent[node];
+
+        replaceChild(nodeParent, node, child);
+        freeNode(node);
+
+        rebalanceUp(nodeParent);
+
+        --size;
+        ++modCount;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int first() {
+        if (root == NIL) {
+            throw new NoSuchElementException("IntAVLTree is EMPTY");
+        }
+        return keys[minNode(root)];
+    }
+
+    public int last() {
+        if (root == NIL) {
+            throw new NoSuchElementException("IntAVLTree is EMPTY");
+        }
+        return keys[maxNode(root)];
+    }
+
+    /**
+     * In-order traversal without boxing.
+     */
+    public void forEach(IntConsumer action) {
+        Objects.requireNonNull(action, "null 'action' passed");
+
+        final int modCountSnapshot = modCount;
+
+        for (int cur = (root == NIL) ? NIL : minNode(root); cur != NIL; cur = successor(cur)) {
+            action.accept(keys[cur]);
+
+            if (modCountSnapshot != modCount) {
+                throw new ConcurrentModificationException("IntAVLTree was modified during traversal");
+            }
+        }
+    }
+
+    /**
+     * In-order iterator, 'nextInt' doesn't allocate.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new InOrderIterator();
+    }
+
+    /**
+     * Height of the tree, 0 for empty tree.
+     */
+    int height() {
+        return height[root];
+    }
+
+    /**
+     * Check heights, balance factors, parent links, keys order and size.
+     *
+     * @return true if the tree is a valid AVL tree.
+     */
+    boolean checkInvariants() {
+        if (root == NIL) {
+            return size == 0;
+        }
+
+        if (parent[root] != NIL || checkSubtree(root) < 0) {
+            return false;
+        }
+
+        int nodesCount = 1;
+        int prev = minNode(root);
+
+        for (int cur = successor(prev); cur != NIL; prev = cur, cur = successor(cur)) {
+            if (keys[prev] >= keys[cur]) {
+                return false;
+            }
+            ++nodesCount;
+        }
+
+        return nodesCount == size;
+    }
+
+    /**
+     * Size of all node arrays in bytes, ignoring array headers.
+     */
+    long calculateUsedBytes() {
+        return (long) keys.length * (4 * Integer.BYTES + Byte.BYTES);
+    }
+
+    /**
+     * @return subtree height or -1 if heights or parent links are broken.
+     */
+    private int checkSubtree(int node) {
+        if (node == NIL) {
+            return 0;
+        }
+
+        if ((left[node] != NIL && parent[left[node]] != node) || (right[node] != NIL && parent[right[node]] != node)) {
+            return -1;
+        }
+
+        int leftHeight = checkSubtree(left[node]);
+        int rightHeight = checkSubtree(right[node]);
+
+        if (leftHeight < 0 || rightHeight < 0 || Math.abs(leftHeight - rightHeight) > 1 ||
+                height[node] != 1 + Math.max(leftHeight, rightHeight)) {
+            return -1;
+        }
+
+        return height[node];
+    }
+
+    private int findNode(int key) {
+        int cur = root;
+
+        while (cur != NIL && keys[cur] != key) {
+            cur = (key < keys[cur]) ? left[cur] : right[cur];
+        }
+
+        return cur;
+    }
+
+    /**
+     * Walk from 'node' to the root, update heights and rotate unbalanced nodes.
+     * Stops as soon as a subtree height doesn't change, ancestors are not affected in that case.
+     */
+    private void rebalanceUp(int node) {
+        int cur = node;
+
+        while (cur != NIL) {
+            final int oldHeight = height[cur];
+            final int curParent = parent[cur];
+
+            updateHeight(cur);
+            final int subtreeRoot = rebalance(cur);
+
+            if (height[subtreeRoot] == oldHeight) {
+                return;
+            }
+
+            cur = curParent;
+        }
+    }
+
+    /**
+     * @return new root of the subtree.
+     */
+    private int rebalance(int node) {
+        final int balance = balance(node);
+
+        if (balance > 1) {
+            // left-right case is reduced to left-left
+            if (balance(left[node]) < 0) {
+                rotateLeft(left[node]);
+            }
+            return rotateRight(node);
+        }
+
+        if (balance < -1) {
+            // right-left case is reduced to right-right
+            if (balance(right[node]) > 0) {
+                rotateRight(right[node]);
+            }
+            return rotateLeft(node);
+        }
+
+        return node;
+    }
+
+    private int rotateLeft(int node) {
+        final int movedUp = right[node];
+        final int movedUpLeft = left[movedUp];
+
+        right[node] = movedUpLeft;
+        if (movedUpLeft != NIL) {
+            parent[movedUpLeft] = node;
+        }
+
+        replaceChild(parent[node], node, movedUp);
+
+        left[movedUp] = node;
+        parent[node] = movedUp;
+
+        updateHeight(node);
+        updateHeight(movedUp);
+
+        return movedUp;
+    }
+
+    private int rotateRight(int node) {
+        final int movedUp = left[node];
+        final int movedUpRight = right[movedUp];
+
+        left[node] = movedUpRight;
+        if (movedUpRight != NIL) {
+            parent[movedUpRight] = node;
+        }
+
+        replaceChild(parent[node], node, movedUp);
+
+        right[movedUp] = node;
+        parent[node] = movedUp;
+
+        updateHeight(node);
+        updateHeight(movedUp);
+
+        return movedUp;
+    }
+
+    /**
+     * Replace 'oldChild' of 'parentNode' with 'newChild', 'newChild' can be NIL.
+     */
+    private void replaceChild(int parentNode, int oldChild, int newChild) {
+        if (parentNode == NIL) {
+            root = newChild;
+        }
+        else if (left[parentNode] == oldChild) {
+            left[parentNode] = newChild;
+        }
+        else {
+            right[parentNode] = newChild;
+        }
+
+        if (newChild != NIL) {
+            parent[newChild] = parentNode;
+        }
+    }
+
+    private void updateHeight(int node) {
+        height[node] = (byte) (1 + Math.max(height[left[node]], height[right[node]]));
+    }
+
+    private int balance(int node) {
+        return height[left[node]] - height[right[node]];
+    }
+
+    private int minNode(int node) {
+        int cur = node;
+        while (left[cur] != NIL) {
+            cur = left[cur];
+        }
+        return cur;
+    }
+
+    private int maxNode(int node) {
+        int cur = node;
+        while (right[cur] != NIL) {
+            cur = right[cur];
+        }
+        return cur;
+    }
+
+    private int successor(int node) {
+        if (right[node] != NIL) {
+            return minNode(right[node]);
+        }
+
+        int cur = node;
+        while (parent[cur] != NIL && right[parent[cur]] == cur) {
+            cur = parent[cur];
+        }
+        return parent[cur];
+    }
+
+    private int allocateNode(int key, int parentNode) {
+        int node;
+
+        if (freeList != NIL) {
+            node = freeList;
+            freeList = left[node];
+        }
+        else {
+            if (nextIndex == keys.length) {
+                grow();
+            }
+            node = nextIndex;
+            ++nextIndex;
+        }
+
+        keys[node] = key;
+        left[node] = NIL;
+        right[node] = NIL;
+        parent[node] = parentNode;
+        height[node] = 1;
+
+        return node;
+    }
+
+    private void freeNode(int node) {
+        left[node] = freeList;
+        right[node] = NIL;
+        parent[node] = NIL;
+        height[node] = 0;
+        freeList = node;
+    }
+
+    private void grow() {
+        final int newCapacity = (int) Math.min(Integer.MAX_VALUE - 8, keys.length * 2L);
+
+        if (newCapacity == keys.length) {
+            throw new IllegalStateException("IntAVLTree is full, size: " + size);
+        }
+
+        keys = Arrays.copyOf(keys, newCapacity);
+        left = Arrays.copyOf(left, newCapacity);
+        right = Arrays.copyOf(right, newCapacity);
+        parent = Arrays.copyOf(parent, newCapacity);
+        height = Arrays.copyOf(height, newCapacity);
+    }
+
+    private final class InOrderIterator implements PrimitiveIterator.OfInt {
+
+        private final int modCountSnapshot;
+
+        private int next;
+
+        InOrderIterator() {
+            this.modCountSnapshot = modCount;
+            this.next = (root == NIL) ? NIL : minNode(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != NIL;
+        }
+
+        @Override
+        public int nextInt() {
+            if (next == NIL) {
+                throw new NoSuchElementException("Iterator is EMPTY");
+            }
+
+            if (modCountSnapshot != modCount) {
+                throw new ConcurrentModificationException("IntAVLTree was modified during traversal");
+            }
+
+            int res = keys[next];
+            next = successor(next);
+            return res;
+        }
+    }
+}
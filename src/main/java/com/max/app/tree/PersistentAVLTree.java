@@ -0,0 +1,353 @@
+package com.max.app.tree;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable (persistent) AVL tree. 'add' and 'remove' don't change the tree, they return a new tree
+ * that shares all unchanged subtrees with the old one: only nodes on the path from the root to the changed
+ * node are copied (path copying), so every update allocates O(lgN) nodes.
+ * <p>
+ * Every version of the tree stays valid forever, readers of an old version never block and never see
+ * later updates. See {@link SnapshotAVLTree} for a mutable set with O(1) snapshots built on top of it.
+ */
+public final class PersistentAVLTree<T extends Comparable<T>> implements Iterable<T> {
+
+    private static final PersistentAVLTree<?> EMPTY = new PersistentAVLTree<>(null);
+
+    private final Node<T> root;
+
+    private PersistentAVLTree(Node<T> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <U extends Comparable<U>> PersistentAVLTree<U> empty() {
+        return (PersistentAVLTree<U>) EMPTY;
+    }
+
+    /**
+     * @return tree with 'value' added, or this tree if 'value' is already present.
+     */
+    public PersistentAVLTree<T> add(T value) {
+        checkNotNull(value, "Can't add NULL value");
+
+        Node<T> newRoot = insert(root, value);
+        return newRoot == root ? this : new PersistentAVLTree<>(newRoot);
+    }
+
+    /**
+     * @return tree without 'value', or this tree if 'value' is absent.
+     */
+    public PersistentAVLTree<T> remove(T value) {
+        if (value == null) {
+            return this;
+        }
+
+        Node<T> newRoot = delete(root, value);
+        return newRoot == root ? this : new PersistentAVLTree<>(newRoot);
+    }
+
+    public boolean contains(T value) {
+        if (value == null) {
+            return false;
+        }
+
+        Node<T> cur = root;
+
+        while (cur != null) {
+            int cmpRes = value.compareTo(cur.value);
+
+            if (cmpRes == 0) {
+                return true;
+            }
+
+            cur = (cmpRes < 0) ? cur.left : cur.right;
+        }
+
+        return false;
+    }
+
+    public int size() {
+        return sizeOf(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    public T first() {
+        if (root == null) {
+            throw new NoSuchElementException("PersistentAVLTree is EMPTY");
+        }
+
+        Node<T> cur = root;
+        while (cur.left != null) {
+            cur = cur.left;
+        }
+        return cur.value;
+    }
+
+    public T last() {
+        if (root == null) {
+            throw new NoSuchElementException("PersistentAVLTree is EMPTY");
+        }
+
+        Node<T> cur = root;
+        while (cur.right != null) {
+            cur = cur.right;
+        }
+        return cur.value;
+    }
+
+    /**
+     * In-order iterator, doesn't support 'remove'.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new InOrderIterator<>(root);
+    }
+
+    int height() {
+        return heightOf(root);
+    }
+
+    /**
+     * Check heights, sizes, balance factors and values order.
+     *
+     * @return true if the tree is a valid AVL tree.
+     */
+    boolean checkInvariants() {
+        if (checkSubtree(root) < 0) {
+            return false;
+        }
+
+        T prev = null;
+        for (T value : this) {
+            if (prev != null && prev.compareTo(value) >= 0) {
+                return false;
+            }
+            prev = value;
+        }
+
+        return true;
+    }
+
+    /**
+     * Number of distinct node objects used by all 'trees', shared subtrees are counted once.
+     */
+    static int distinctNodesCount(PersistentAVLTree<?>... trees) {
+        Set<Node<?>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        Deque<Node<?>> stack = new ArrayDeque<>();
+        for (PersistentAVLTree<?> singleTree : trees) {
+            if (singleTree.root != null) {
+                stack.push(singleTree.root);
+            }
+        }
+
+        while (!stack.isEmpty()) {
+            Node<?> cur = stack.pop();
+
+            if (visited.add(cur)) {
+                if (cur.left != null) {
+                    stack.push(cur.left);
+                }
+                if (cur.right != null) {
+                    stack.push(cur.right);
+                }
+            }
+        }
+
+        return visited.size();
+    }
+
+    private static <U> int checkSubtree(Node<U> node) {
+        if (node == null) {
+            return 0;
+        }
+
+        int leftHeight = checkSubtree(node.left);
+        int rightHeight = checkSubtree(node.right);
+
+        if (leftHeight < 0 || rightHeight < 0 || Math.abs(leftHeight - rightHeight) > 1 ||
+                node.height != 1 + Math.max(leftHeight, rightHeight) ||
+                node.size != 1 + sizeOf(node.left) + sizeOf(node.right)) {
+            return -1;
+        }
+
+        return node.height;
+    }
+
+    private static <U extends Comparable<U>> Node<U> insert(Node<U> node, U value) {
+        if (node == null) {
+            return new Node<>(value, null, null);
+        }
+
+        int cmpRes = value.compareTo(node.value);
+
+        if (cmpRes == 0) {
+            return node;
+        }
+
+        if (cmpRes < 0) {
+            Node<U> newLeft = insert(node.left, value);
+            return newLeft == node.left ? node : balance(node.value, newLeft, node.right);
+        }
+
+        Node<U> newRight = insert(node.right, value);
+        return newRight == node.right ? node : balance(node.value, node.left, newRight);
+    }
+
+    private static <U extends Comparable<U>> Node<U> delete(Node<U> node, U value) {
+        if (node == null) {
+            return null;
+        }
+
+        int cmpRes = value.compareTo(node.value);
+
+        if (cmpRes < 0) {
+            Node<U> newLeft = delete(node.left, value);
+            return newLeft == node.left ? node : balance(node.value, newLeft, node.right);
+        }
+
+        if (cmpRes > 0) {
+            Node<U> newRight = delete(node.right, value);
+            return newRight == node.right ? node : balance(node.value, node.left, newRight);
+        }
+
+        if (node.left == null) {
+            return node.right;
+        }
+
+        if (node.right == null) {
+            return node.left;
+        }
+
+        // node with both children: replace its value with the smallest value of the right subtree
+        Node<U> minNode = node.right;
+        while (minNode.left != null) {
+            minNode = minNode.left;
+        }
+
+        return balance(minNode.value, node.left, deleteMin(node.right));
+    }
+
+    private static <U> Node<U> deleteMin(Node<U> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.value, deleteMin(node.left), node.right);
+    }
+
+    /**
+     * Create node with 'value' and children, heights of 'left' and 'right' differ at most by 2.
+     *
+     * @return root of the balanced subtree, all nodes are new except 'left' and 'right' subtrees parts.
+     */
+    private static <U> Node<U> balance(U value, Node<U> left, Node<U> right) {
+        int balance = heightOf(left) - heightOf(right);
+
+        if (balance > 1) {
+            // left-right case is reduced to left-left
+            if (heightOf(left.left) < heightOf(left.right)) {
+                left = rotateLeft(left.value, left.left, left.right);
+            }
+            return rotateRight(value, left, right);
+        }
+
+        if (balance < -1) {
+            // right-left case is reduced to right-right
+            if (heightOf(right.right) < heightOf(right.left)) {
+                right = rotateRight(right.value, right.left, right.right);
+            }
+            return rotateLeft(value, left, right);
+        }
+
+        return new Node<>(value, left, right);
+    }
+
+    /**
+     * Rotate right a node with 'value', 'left' and 'right' children, 'left' moves up.
+     */
+    private static <U> Node<U> rotateRight(U value, Node<U> left, Node<U> right) {
+        return new Node<>(left.value, left.left, new Node<>(value, left.right, right));
+    }
+
+    /**
+     * Rotate left a node with 'value', 'left' and 'right' children, 'right' moves up.
+     */
+    private static <U> Node<U> rotateLeft(U value, Node<U> left, Node<U> right) {
+        return new Node<>(right.value, new Node<>(value, left, right.left), right.right);
+    }
+
+    private static <U> int heightOf(Node<U> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static <U> int sizeOf(Node<U> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static <U> void checkNotNull(U value, String errorMsg) {
+        if (value == null) {
+            throw new IllegalArgumentException(errorMsg);
+        }
+    }
+
+    private static final class Node<U> {
+
+        private final U value;
+        private final Node<U> left;
+        private final Node<U> right;
+
+        private final int height;
+
+        // number of nodes in subtree, including this one
+        private final int size;
+
+        Node(U value, Node<U> left, Node<U> right) {
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(heightOf(left), heightOf(right));
+            this.size = 1 + sizeOf(left) + sizeOf(right);
+        }
+    }
+
+    private static final class InOrderIterator<U> implements Iterator<U> {
+
+        private final Deque<Node<U>> stack = new ArrayDeque<>();
+
+        InOrderIterator(Node<U> root) {
+            pushLeftPath(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public U next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException("Iterator is EMPTY");
+            }
+
+            Node<U> cur = stack.pop();
+            pushLeftPath(cur.right);
+            return cur.value;
+        }
+
+        private void pushLeftPath(Node<U> node) {
+            for (Node<U> cur = node; cur != null; cur = cur.left) {
+                stack.push(cur);
+            }
+        }
+    }
+}
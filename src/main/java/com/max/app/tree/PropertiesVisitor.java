@@ -5,6 +5,8 @@ public final class PropertiesVisitor<U> implements TreeVisitor<U> {
     private int height;
     private int minBalance = Integer.MAX_VALUE;
     private int maxBalance = Integer.MIN_VALUE;
+    private int invalidSizesCount;
+    private int invalidHeightsCount;
 
     @Override
     public void visitNode(AVLTree.Node<U> node) {
@@ -15,6 +17,14 @@ public final class PropertiesVisitor<U> implements TreeVisitor<U> {
         height = Math.max(height, curHeight);
         minBalance = Math.min(minBalance, curBalance);
         maxBalance = Math.max(maxBalance, curBalance);
+
+        if (node.getSize() != 1 + node.leftSize() + node.rightSize()) {
+            ++invalidSizesCount;
+        }
+
+        if (node.getHeight() != curHeight) {
+            ++invalidHeightsCount;
+        }
     }
 
     public int height() {
@@ -28,4 +38,18 @@ public final class PropertiesVisitor<U> implements TreeVisitor<U> {
     public int maxBalance() {
         return maxBalance;
     }
+
+    /**
+     * Number of nodes with subtree size not equal to children sizes + 1.
+     */
+    public int invalidSizesCount() {
+        return invalidSizesCount;
+    }
+
+    /**
+     * Number of nodes with stored height not equal to max children height + 1.
+     */
+    public int invalidHeightsCount() {
+        return invalidHeightsCount;
+    }
 }
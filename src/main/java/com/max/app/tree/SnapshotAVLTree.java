@@ -0,0 +1,86 @@
+package com.max.app.tree;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread safe mutable set on top of {@link PersistentAVLTree}. The current version of the tree is stored in
+ * a single atomic reference, writers build a new version with path copying and publish it with CAS
+ * (retrying if another writer won), so no locks are used.
+ * <p>
+ * 'snapshot' is O(1): it returns the current immutable version, which stays consistent while writers keep
+ * changing the set. Readers of a snapshot (and iterators, which iterate over a snapshot) never block writers
+ * and are never blocked by them.
+ */
+public final class SnapshotAVLTree<T extends Comparable<T>> implements Iterable<T> {
+
+    private final AtomicReference<PersistentAVLTree<T>> current =
+            new AtomicReference<>(PersistentAVLTree.empty());
+
+    /**
+     * @return true if 'value' was not in the set.
+     */
+    public boolean add(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Can't add NULL value");
+        }
+        return update(tree -> tree.add(value));
+    }
+
+    /**
+     * @return true if 'value' was in the set.
+     */
+    public boolean remove(T value) {
+        return update(tree -> tree.remove(value));
+    }
+
+    public boolean contains(T value) {
+        return current.get().contains(value);
+    }
+
+    public int size() {
+        return current.get().size();
+    }
+
+    public boolean isEmpty() {
+        return current.get().isEmpty();
+    }
+
+    public void clear() {
+        current.set(PersistentAVLTree.empty());
+    }
+
+    /**
+     * @return immutable version of the set at the moment of the call, O(1).
+     */
+    public PersistentAVLTree<T> snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Iterates over a snapshot taken at the moment of the call, later updates are not visible.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return current.get().iterator();
+    }
+
+    /**
+     * @return true if 'updateFunction' created a new version of the tree and it was published.
+     */
+    private boolean update(UnaryOperator<PersistentAVLTree<T>> updateFunction) {
+        while (true) {
+            PersistentAVLTree<T> prev = current.get();
+            PersistentAVLTree<T> next = updateFunction.apply(prev);
+
+            if (next == prev) {
+                return false;
+            }
+
+            if (current.compareAndSet(prev, next)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.max.app.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Updates and snapshots of SnapshotAVLTree<Integer> vs mutable AVLTree<Integer> with 1M keys.
+ * AVLTree snapshot is a copy of all values into ArrayList (the cheapest consistent copy).
+ * <p>
+ * operation                         SnapshotAVLTree     AVLTree
+ * add/remove random key, ns         2150                2050
+ * snapshot, ns                      300                 105_000_000
+ * <p>
+ * Single core, -Xmx4g, numbers from the last of 3 iterations (the first one includes JIT warmup).
+ * Path copying costs only ~5% per update, snapshot is a single volatile read (measured time is mostly
+ * 'System.nanoTime' overhead), while a consistent copy of the mutable tree takes ~100 ms.
+ */
+public final class SnapshotAVLTreeBenchmark {
+
+    private static final Random RAND = new Random();
+
+    private static final int KEYS_COUNT = 1_000_000;
+
+    private static final int UPDATES_COUNT = 1_000_000;
+
+    private static final int SNAPSHOTS_COUNT = 20;
+
+    public static void main(String[] args) {
+
+        SnapshotAVLTree<Integer> snapshotTree = new SnapshotAVLTree<>();
+        AVLTree<Integer> mutableTree = new AVLTree<>();
+
+        for (int i = 0; i < KEYS_COUNT; ++i) {
+            int key = RAND.nextInt(2 * KEYS_COUNT);
+            snapshotTree.add(key);
+            mutableTree.add(key);
+        }
+
+        int[] updateKeys = RAND.ints(UPDATES_COUNT, 0, 2 * KEYS_COUNT).toArray();
+
+        System.out.printf("operation                         SnapshotAVLTree     AVLTree%n");
+
+        for (int it = 0; it < 3; ++it) {
+            long startTime = System.nanoTime();
+            for (int i = 0; i < updateKeys.length; ++i) {
+                if ((i & 1) == 0) {
+                    snapshotTree.add(updateKeys[i]);
+                }
+                else {
+                    snapshotTree.remove(updateKeys[i]);
+                }
+            }
+            long snapshotTreeUpdateTime = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            for (int i = 0; i < updateKeys.length; ++i) {
+                if ((i & 1) == 0) {
+                    mutableTree.add(updateKeys[i]);
+                }
+                else {
+                    mutableTree.remove(updateKeys[i]);
+                }
+            }
+            long mutableTreeUpdateTime = System.nanoTime() - startTime;
+
+            if (snapshotTree.size() != mutableTree.size()) {
+                throw new IllegalStateException("Should never happen");
+            }
+
+            System.out.printf("%-33s %-19d %d%n", "add/remove random key, ns",
+                    snapshotTreeUpdateTime / UPDATES_COUNT, mutableTreeUpdateTime / UPDATES_COUNT);
+
+            long foundCount = 0;
+
+            startTime = System.nanoTime();
+            for (int i = 0; i < SNAPSHOTS_COUNT; ++i) {
+                foundCount += snapshotTree.snapshot().size();
+            }
+            long snapshotTime = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            for (int i = 0; i < SNAPSHOTS_COUNT; ++i) {
+                List<Integer> copy = new ArrayList<>(mutableTree);
+                foundCount += copy.size();
+            }
+            long copyTime = System.nanoTime() - startTime;
+
+            if (foundCount < 0) {
+                throw new IllegalStateException("Should never happen");
+            }
+
+            System.out.printf("%-33s %-19d %d%n", "snapshot, ns",
+                    snapshotTime / SNAPSHOTS_COUNT, copyTime / SNAPSHOTS_COUNT);
+        }
+
+        System.out.println("SnapshotAVLTreeBenchmark done...");
+    }
+}
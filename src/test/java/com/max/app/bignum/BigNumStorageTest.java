@@ -0,0 +1,199 @@
+package com.max.app.bignum;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BigNumStorageTest {
+
+    private static final Random RAND = new Random();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void writeAndReadRandomValues() throws IOException {
+        Path file = tempDir.resolve("values.bin");
+
+        List<BigNum> values = randomValues(1000);
+        List<Long> offsets = writeAll(file, values);
+
+        List<BigNum> readValues = BigNumReader.readAll(file);
+        assertThat(readValues).hasSize(values.size());
+
+        BigNumMappedView view = BigNumMappedView.open(file);
+        assertThat(view.count()).isEqualTo(values.size());
+
+        long[] scannedOffsets = view.offsets();
+
+        for (int i = 0; i < values.size(); ++i) {
+            BigInteger expected = values.get(i).toBigInt();
+
+            assertThat(readValues.get(i).toBigInt()).isEqualTo(expected);
+            assertThat(scannedOffsets[i]).isEqualTo(offsets.get(i));
+            assertThat(view.get(offsets.get(i)).toBigInt()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void writeHugeValueBiggerThanBuffer() throws IOException {
+        Path file = tempDir.resolve("huge.bin");
+
+        BigNum huge = new BigNum(new BigInteger(30 * 100_000, RAND).negate().toString());
+
+        writeAll(file, List.of(BigNum.ZERO, huge, new BigNum("1")));
+
+        List<BigNum> readValues = BigNumReader.readAll(file);
+
+        assertThat(readValues.get(0).isZero()).isTrue();
+        assertThat(readValues.get(1).cmp(huge)).isEqualTo(0);
+        assertThat(readValues.get(2).toString()).isEqualTo("1");
+
+        BigNumMappedView view = BigNumMappedView.open(file);
+        long secondOffset = view.nextOffset(view.firstOffset());
+
+        assertThat(view.get(secondOffset).cmp(huge)).isEqualTo(0);
+    }
+
+    @Test
+    public void incorrectFileOrOffsetThrowsException() throws IOException {
+        Path notBigNumFile = tempDir.resolve("text.txt");
+        Files.writeString(notBigNumFile, "123456789012345678901234567890");
+
+        assertThatThrownBy(() -> new BigNumReader(notBigNumFile)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> BigNumMappedView.open(notBigNumFile)).isInstanceOf(IllegalStateException.class);
+
+        Path file = tempDir.resolve("values.bin");
+        writeAll(file, randomValues(10));
+
+        BigNumMappedView view = BigNumMappedView.open(file);
+        assertThatThrownBy(() -> view.get(3L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> view.get(Files.size(file))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void corruptedLimbsThrowException() throws IOException {
+        Path file = tempDir.resolve("values.bin");
+
+        // 3 limbs value
+        BigNum value = new BigNum(BigInteger.ONE.shiftLeft(75).add(BigInteger.valueOf(12345)).toString());
+        long offset = writeAll(file, List.of(value)).get(0);
+        byte[] original = Files.readAllBytes(file);
+
+        int firstLimbPosition = (int) offset + 2 * Integer.BYTES;
+
+        int[][] corruptions = {
+                // {limb index, limb value}
+                {0, 0},
+                {1, -1},
+                {2, Integer.MIN_VALUE},
+                {1, BigNum.BASE},
+                {2, Integer.MAX_VALUE}
+        };
+
+        for (int[] singleCorruption : corruptions) {
+            byte[] corrupted = original.clone();
+            ByteBuffer.wrap(corrupted).putInt(firstLimbPosition + singleCorruption[0] * Integer.BYTES,
+                                              singleCorruption[1]);
+            Files.write(file, corrupted);
+
+            assertThatThrownBy(() -> BigNumReader.readAll(file)).
+                    isInstanceOf(IllegalStateException.class).
+                    hasMessageStartingWith("Corrupted BigNum record at offset " + offset);
+
+            BigNumMappedView view = BigNumMappedView.open(file);
+            assertThatThrownBy(() -> view.get(offset)).
+                    isInstanceOf(IllegalStateException.class).
+                    hasMessageStartingWith("Corrupted BigNum record at offset " + offset);
+        }
+
+        Files.write(file, original);
+        assertThat(BigNumReader.readAll(file).get(0).cmp(value)).isEqualTo(0);
+    }
+
+    @Test
+    public void openWithSmallChunks() throws IOException {
+        Path file = tempDir.resolve("values.bin");
+
+        List<BigNum> values = randomValues(200);
+        List<Long> offsets = writeAll(file, values);
+
+        // records cross chunk boundaries, so bulk reads span several mappings
+        for (int chunkShift : new int[]{6, 10}) {
+            BigNumMappedView view = BigNumMappedView.open(file, chunkShift);
+
+            assertThat(view.count()).isEqualTo(values.size());
+            assertThat(view.offsets()).containsExactly(offsets.stream().mapToLong(Long::longValue).toArray());
+
+            for (int i = 0; i < values.size(); ++i) {
+                assertThat(view.get(offsets.get(i)).toBigInt()).isEqualTo(values.get(i).toBigInt());
+            }
+        }
+    }
+
+    @Test
+    public void corruptedHeaderOrLimbsCountThrowsException() throws IOException {
+        Path file = tempDir.resolve("values.bin");
+
+        long offset = writeAll(file, randomValues(10)).get(0);
+        byte[] original = Files.readAllBytes(file);
+
+        // count bigger than the file can hold, readers should fail before any allocation
+        byte[] corrupted = original.clone();
+        ByteBuffer.wrap(corrupted).putLong(BigNumBinaryFormat.COUNT_OFFSET, Integer.MAX_VALUE);
+        Files.write(file, corrupted);
+
+        assertThatThrownBy(() -> BigNumReader.readAll(file)).
+                isInstanceOf(IllegalStateException.class).
+                hasMessageStartingWith("Corrupted BigNum file header");
+        assertThatThrownBy(() -> BigNumMappedView.open(file)).
+                isInstanceOf(IllegalStateException.class).
+                hasMessageStartingWith("Corrupted BigNum file header");
+
+        // negative limbs count would move the next offset backwards
+        corrupted = original.clone();
+        ByteBuffer.wrap(corrupted).putInt((int) offset + Integer.BYTES, -5);
+        Files.write(file, corrupted);
+
+        BigNumMappedView view = BigNumMappedView.open(file);
+
+        assertThatThrownBy(() -> view.nextOffset(offset)).
+                isInstanceOf(IllegalStateException.class).
+                hasMessageStartingWith("Corrupted BigNum record at offset " + offset);
+        assertThatThrownBy(view::offsets).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static List<Long> writeAll(Path file, List<BigNum> values) throws IOException {
+        List<Long> offsets = new ArrayList<>();
+
+        try (BigNumWriter writer = new BigNumWriter(file)) {
+            for (BigNum value : values) {
+                offsets.add(writer.write(value));
+            }
+        }
+
+        return offsets;
+    }
+
+    private static List<BigNum> randomValues(int count) {
+        List<BigNum> values = new ArrayList<>(count);
+
+        for (int i = 0; i < count; ++i) {
+            BigInteger value = new BigInteger(RAND.nextInt(5000), RAND);
+            values.add(new BigNum((RAND.nextBoolean() ? value : value.negate()).toString()));
+        }
+
+        return values;
+    }
+}
@@ -4,8 +4,10 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigInteger;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
 public class BigNumTest {
 
@@ -29,6 +31,112 @@ public class BigNumTest {
         }
     }
 
+    @Test
+    public void mulBigRandomValuesWithKaratsubaAndToomCook() {
+
+        for (int it = 0; it < 50; ++it) {
+
+            // 1_000 ... 6_000 decimal digits, which is ~110 ... 660 limbs in base 2**30
+            BigNum first = new BigNum((RAND.nextBoolean() ? "" : "-") + createRandomNumberString(1000 + RAND.nextInt(5000)));
+            BigNum second = new BigNum((RAND.nextBoolean() ? "" : "-") + createRandomNumberString(1000 + RAND.nextInt(5000)));
+
+            BigNum result = first.mul(second);
+
+            assertThat(result.toBigInt()).isEqualTo(mulBigIntegers(first.toBigInt(), second.toBigInt()));
+        }
+    }
+
+    @Test
+    public void mulBigValuesWithDifferentLength() {
+
+        BigNum first = new BigNum(createRandomNumberString(20_000));
+        BigNum second = new BigNum("-" + createRandomNumberString(800));
+
+        assertThat(first.mul(second).toBigInt()).isEqualTo(mulBigIntegers(first.toBigInt(), second.toBigInt()));
+        assertThat(second.mul(first).toBigInt()).isEqualTo(mulBigIntegers(second.toBigInt(), first.toBigInt()));
+    }
+
+    @Test
+    public void mulUnbalancedValues() {
+        // shorter operand lengths cover Karatsuba, Toom-Cook and NTT for the blocks, longer operand length
+        // isn't a multiple of the shorter one, so the last block is shorter
+        int[][] limbsCounts = {{20_000, 240}, {20_000, 300}, {7_777, 1_000}, {2_345, 1_100}, {23_456, 5_100}};
+
+        for (int[] counts : limbsCounts) {
+            BigInteger first = randomSignedBigInteger(30 * counts[0]);
+            BigInteger second = randomSignedBigInteger(30 * counts[1]);
+
+            BigNum firstNum = new BigNum(first.toString());
+            BigNum secondNum = new BigNum(second.toString());
+
+            assertThat(firstNum.mul(secondNum).toBigInt()).isEqualTo(first.multiply(second));
+            assertThat(secondNum.mul(firstNum).toBigInt()).isEqualTo(second.multiply(first));
+        }
+    }
+
+    @Test
+    public void mulValuesWithManyZeroLimbs() {
+
+        // 2**30000 and 2**30000 - 1 have a lot of zero and max digit limbs
+        BigInteger powerOfTwo = BigInteger.ONE.shiftLeft(30_000);
+
+        BigNum first = new BigNum(powerOfTwo.toString());
+        BigNum second = new BigNum(powerOfTwo.subtract(BigInteger.ONE).toString());
+
+        assertThat(first.mul(second).toBigInt()).isEqualTo(powerOfTwo.multiply(powerOfTwo.subtract(BigInteger.ONE)));
+        assertThat(second.mul(second).toBigInt()).isEqualTo(powerOfTwo.subtract(BigInteger.ONE).pow(2));
+    }
+
+    @Test
+    public void mulHugeValuesWithNtt() {
+        for (int it = 0; it < 5; ++it) {
+            // 5_000 ... 15_000 limbs, so number-theoretic transform is used
+            BigInteger first = randomSignedBigInteger(30 * (5_000 + RAND.nextInt(10_000)));
+            BigInteger second = randomSignedBigInteger(30 * (5_000 + RAND.nextInt(10_000)));
+
+            BigNum firstNum = new BigNum(first.toString());
+            BigNum secondNum = new BigNum(second.toString());
+
+            assertThat(firstNum.mul(secondNum).toBigInt()).isEqualTo(first.multiply(second));
+            assertThat(firstNum.mul(firstNum).toBigInt()).isEqualTo(first.multiply(first));
+        }
+    }
+
+    @Test
+    public void parallelMulHugeValues() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (int it = 0; it < 5; ++it) {
+                // 2_000 ... 20_000 limbs, so at least one level of parallel split is used
+                BigInteger first = randomSignedBigInteger(30 * (2_000 + RAND.nextInt(18_000)));
+                BigInteger second = randomSignedBigInteger(30 * (2_000 + RAND.nextInt(18_000)));
+
+                BigNum result = new BigNum(first.toString()).parallelMul(new BigNum(second.toString()), pool);
+
+                assertThat(result.toBigInt()).isEqualTo(first.multiply(second));
+            }
+
+            BigNum small = new BigNum("-123456789123456789");
+            assertThat(small.parallelMul(small, pool).toBigInt()).isEqualTo(small.toBigInt().pow(2));
+            assertThat(small.parallelMul(BigNum.ZERO, pool).isZero()).isTrue();
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void subWithZero() {
+        BigNum value = new BigNum("123456789123456789");
+        BigNum zero = new BigNum("0");
+
+        assertThat(value.sub(zero).toBigInt()).isEqualTo(new BigInteger("123456789123456789"));
+        assertThat(zero.sub(value).toBigInt()).isEqualTo(new BigInteger("-123456789123456789"));
+        assertThat(value.sub(value).isZero()).isTrue();
+        assertThat(value.sub(value).cmp(zero)).isEqualTo(0);
+    }
+
     @Test
     public void subRandomValues() {
 
@@ -227,6 +335,48 @@ public class BigNumTest {
         }
     }
 
+    @Test
+    public void createFromLongCornerCases() {
+        for (long value : new long[]{Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE + 1, (1L << 30) - 1, 1L << 30,
+                -(1L << 60), (1L << 60) - 1, 0L, -1L}) {
+            assertThat(new BigNum(value).toBigInt()).isEqualTo(BigInteger.valueOf(value));
+            assertThat(BigNum.valueOf(value).toBigInt()).isEqualTo(BigInteger.valueOf(value));
+            assertThat(new BigNum(value).toString()).isEqualTo(String.valueOf(value));
+        }
+    }
+
+    @Test
+    public void valueOfReturnsCachedInstances() {
+        assertThat(BigNum.valueOf(0)).isSameAs(BigNum.ZERO);
+        assertThat(BigNum.valueOf(1)).isSameAs(BigNum.ONE);
+        assertThat(BigNum.valueOf(10)).isSameAs(BigNum.TEN);
+        assertThat(BigNum.valueOf(-128)).isSameAs(BigNum.valueOf(-128));
+        assertThat(BigNum.valueOf(1024)).isSameAs(BigNum.valueOf(1024));
+
+        assertThat(BigNum.valueOf(512).add(BigNum.valueOf(512))).isSameAs(BigNum.valueOf(1024));
+        assertThat(BigNum.valueOf(7).sub(BigNum.valueOf(7))).isSameAs(BigNum.ZERO);
+    }
+
+    @Test
+    public void smallValuesArithmetic() {
+        for (int it = 0; it < ITERATIONS_CONT; ++it) {
+            // values with 1 or 2 limbs, so fast paths are used
+            long first = RAND.nextLong() >> (4 + RAND.nextInt(60));
+            long second = RAND.nextLong() >> (4 + RAND.nextInt(60));
+
+            BigNum firstNum = new BigNum(first);
+            BigNum secondNum = new BigNum(second);
+
+            BigInteger firstBig = BigInteger.valueOf(first);
+            BigInteger secondBig = BigInteger.valueOf(second);
+
+            assertThat(firstNum.add(secondNum).toBigInt()).isEqualTo(firstBig.add(secondBig));
+            assertThat(firstNum.sub(secondNum).toBigInt()).isEqualTo(firstBig.subtract(secondBig));
+            assertThat(firstNum.mul(secondNum).toBigInt()).isEqualTo(firstBig.multiply(secondBig));
+            assertThat(firstNum.cmp(secondNum)).isEqualTo(firstBig.compareTo(secondBig));
+        }
+    }
+
     @Test
     public void createBigNumberFromString() {
 
@@ -247,6 +397,190 @@ public class BigNumTest {
         }
     }
 
+    @Test
+    public void parseAndToStringForHugeRandomValues() {
+        for (int it = 0; it < 20; ++it) {
+            String numberStr = (RAND.nextBoolean() ? "" : "-") + (1 + RAND.nextInt(9)) +
+                    createRandomNumberString(RAND.nextInt(30_000));
+
+            BigNum num = new BigNum(numberStr);
+
+            assertThat(num.toBigInt()).isEqualTo(new BigInteger(numberStr));
+            assertThat(num.toString()).isEqualTo(numberStr);
+        }
+    }
+
+    @Test
+    public void toStringForValuesWithManyZeroDigits() {
+        for (int digitsCount : new int[]{1, 9, 10, 1000, 5000, 20_000}) {
+            String powerOfTen = BigInteger.TEN.pow(digitsCount).toString();
+            String allNines = BigInteger.TEN.pow(digitsCount).subtract(BigInteger.ONE).toString();
+
+            assertThat(new BigNum(powerOfTen).toString()).isEqualTo(powerOfTen);
+            assertThat(new BigNum(allNines).toString()).isEqualTo(allNines);
+        }
+    }
+
+    @Test
+    public void parseWithLeadingZeros() {
+        String numberStr = "0000000000000000000000" + createRandomNumberString(3000);
+
+        assertThat(new BigNum(numberStr).toBigInt()).isEqualTo(new BigInteger(numberStr));
+        assertThat(new BigNum("000").isZero()).isTrue();
+        assertThat(new BigNum("  -000123  ").toString()).isEqualTo("-123");
+    }
+
+    @Test
+    public void parseFromCharSequenceSlice() {
+        StringBuilder buf = new StringBuilder("abc,-1234567890123456789012345,xyz");
+
+        BigNum num = new BigNum(buf, 4, 30);
+
+        assertThat(num.toString()).isEqualTo("-1234567890123456789012345");
+        assertThat(new BigNum(buf, 5, 8).toString()).isEqualTo("123");
+    }
+
+    @Test
+    public void parseIncorrectValueThrowsException() {
+        assertThatThrownBy(() -> new BigNum("123a45")).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> new BigNum("-")).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> new BigNum("   ")).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> new BigNum("123", 2, 5)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void divRemRandomValues() {
+        for (int it = 0; it < ITERATIONS_CONT; ++it) {
+            BigInteger dividend = randomSignedBigInteger(1 + RAND.nextInt(3000));
+            BigInteger divisor = randomSignedBigInteger(1 + RAND.nextInt(1500));
+
+            if (divisor.signum() == 0) {
+                continue;
+            }
+
+            assertDivRem(dividend, divisor);
+        }
+    }
+
+    @Test
+    public void divRemWithZeroAndMaxDigitLimbs() {
+        // values built from limbs 0 and 2**30 - 1 exercise rare 'add back' step of Knuth division
+        for (int it = 0; it < ITERATIONS_CONT; ++it) {
+            BigInteger dividend = limbsPatternBigInteger(2 + RAND.nextInt(20));
+            BigInteger divisor = limbsPatternBigInteger(1 + RAND.nextInt(10));
+
+            if (divisor.signum() == 0) {
+                continue;
+            }
+
+            assertDivRem(dividend, divisor);
+        }
+    }
+
+    @Test
+    public void addAndSubLongValuesWithRippleCarry() {
+        // limbs 0 and 2**30 - 1 make carries and borrows ripple through many limbs
+        for (int it = 0; it < 1000; ++it) {
+            BigInteger first = limbsPatternBigInteger(1 + RAND.nextInt(300));
+            BigInteger second = limbsPatternBigInteger(1 + RAND.nextInt(300));
+
+            if (RAND.nextBoolean()) {
+                first = first.negate();
+            }
+
+            BigNum firstNum = new BigNum(first.toString());
+            BigNum secondNum = new BigNum(second.toString());
+
+            assertThat(firstNum.add(secondNum).toBigInt()).isEqualTo(first.add(second));
+            assertThat(firstNum.sub(secondNum).toBigInt()).isEqualTo(first.subtract(second));
+        }
+    }
+
+    @Test
+    public void carrySaveAddAndSubSameAsScalar() {
+        for (int it = 0; it < ITERATIONS_CONT; ++it) {
+            int[] first = new BigNum(limbsPatternBigInteger(1 + RAND.nextInt(50)).toString()).digits();
+            int[] second = new BigNum(limbsPatternBigInteger(1 + RAND.nextInt(50)).toString()).digits();
+
+            assertThat(CarrySaveLimbs.addAbs(first, second)).isEqualTo(BigNum.addAbsScalar(first, second));
+
+            if (BigNum.fromMagnitude(1, first).cmp(BigNum.fromMagnitude(1, second)) < 0) {
+                int[] temp = first;
+                first = second;
+                second = temp;
+            }
+
+            assertThat(CarrySaveLimbs.subAbs(first, second)).isEqualTo(BigNum.subAbsScalar(first, second));
+        }
+    }
+
+    @Test
+    public void divideByZeroThrowsException() {
+        BigNum value = new BigNum("12345");
+
+        assertThatThrownBy(() -> value.divRem(BigNum.ZERO)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> value.mod(new BigNum("-7"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> value.modPow(new BigNum("-1"), new BigNum("7"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    public void modRandomValues() {
+        for (int it = 0; it < ITERATIONS_CONT; ++it) {
+            BigInteger value = randomSignedBigInteger(1 + RAND.nextInt(2000));
+            BigInteger modulus = new BigInteger(1 + RAND.nextInt(1000), RAND).add(BigInteger.ONE);
+
+            BigNum res = new BigNum(value.toString()).mod(new BigNum(modulus.toString()));
+
+            assertThat(res.toBigInt()).isEqualTo(value.mod(modulus));
+        }
+    }
+
+    @Test
+    public void modPowRandomValues() {
+        for (int it = 0; it < 200; ++it) {
+            BigInteger base = randomSignedBigInteger(1 + RAND.nextInt(2000));
+            BigInteger exponent = new BigInteger(RAND.nextInt(300), RAND);
+            BigInteger modulus = new BigInteger(1 + RAND.nextInt(1000), RAND).add(BigInteger.ONE);
+
+            BigNum res = new BigNum(base.toString()).modPow(new BigNum(exponent.toString()),
+                                                            new BigNum(modulus.toString()));
+
+            assertThat(res.toBigInt()).isEqualTo(base.modPow(exponent, modulus));
+        }
+    }
+
+    private static void assertDivRem(BigInteger dividend, BigInteger divisor) {
+        BigInteger[] expected = dividend.divideAndRemainder(divisor);
+
+        BigNumDivResult actual = new BigNum(dividend.toString()).divRem(new BigNum(divisor.toString()));
+
+        assertThat(actual.quotient().toBigInt()).
+                as(String.format("dividend: %s, divisor: %s", dividend, divisor)).
+                isEqualTo(expected[0]);
+        assertThat(actual.remainder().toBigInt()).
+                as(String.format("dividend: %s, divisor: %s", dividend, divisor)).
+                isEqualTo(expected[1]);
+    }
+
+    private static BigInteger randomSignedBigInteger(int bitsCount) {
+        BigInteger value = new BigInteger(bitsCount, RAND);
+        return RAND.nextBoolean() ? value : value.negate();
+    }
+
+    private static BigInteger limbsPatternBigInteger(int limbsCount) {
+        BigInteger res = BigInteger.ZERO;
+        BigInteger maxDigit = BigInteger.ONE.shiftLeft(30).subtract(BigInteger.ONE);
+
+        for (int i = 0; i < limbsCount; ++i) {
+            int choice = RAND.nextInt(3);
+            BigInteger limb = (choice == 0) ? BigInteger.ZERO :
+                    (choice == 1 ? maxDigit : BigInteger.valueOf(RAND.nextInt(1 << 30)));
+            res = res.shiftLeft(30).add(limb);
+        }
+
+        return res;
+    }
+
     private static String createRandomNumberString(int length) {
         char[] arr = new char[length];
 
@@ -0,0 +1,96 @@
+package com.max.app.bignum;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+public class MutableBigNumTest {
+
+    private static final Random RAND = new Random();
+
+    private static final int ITERATIONS_CONT = 10_000;
+
+    @Test
+    public void addAndSubRandomValues() {
+
+        MutableBigNum acc = new MutableBigNum();
+        BigInteger expected = BigInteger.ZERO;
+
+        for (int it = 0; it < ITERATIONS_CONT; ++it) {
+            BigInteger value = randomBigInteger(1 + RAND.nextInt(300));
+
+            if (RAND.nextBoolean()) {
+                acc.addInPlace(new BigNum(value.toString()));
+                expected = expected.add(value);
+            }
+            else {
+                acc.subInPlace(new BigNum(value.toString()));
+                expected = expected.subtract(value);
+            }
+
+            assertThat(acc.toBigNum().toBigInt()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void mulSmallRandomValues() {
+
+        for (int it = 0; it < ITERATIONS_CONT; ++it) {
+            BigInteger value = randomBigInteger(1 + RAND.nextInt(300));
+            int factor = RAND.nextInt();
+
+            MutableBigNum acc = new MutableBigNum(new BigNum(value.toString()));
+            acc.mulSmallInPlace(factor);
+
+            assertThat(acc.toBigNum().toBigInt()).isEqualTo(value.multiply(BigInteger.valueOf(factor)));
+        }
+    }
+
+    @Test
+    public void mulSmallByCornerCaseValues() {
+        MutableBigNum acc = new MutableBigNum(new BigNum("123456789123456789123456789"));
+
+        acc.mulSmallInPlace(Integer.MIN_VALUE);
+        assertThat(acc.toBigNum().toBigInt()).isEqualTo(
+                new BigInteger("123456789123456789123456789").multiply(BigInteger.valueOf(Integer.MIN_VALUE)));
+
+        acc.mulSmallInPlace(0);
+        assertThat(acc.isZero()).isTrue();
+        assertThat(acc.toBigNum().isZero()).isTrue();
+    }
+
+    @Test
+    public void subtractSameValueGivesZero() {
+        BigNum value = new BigNum("-98765432109876543210987654321");
+
+        MutableBigNum acc = new MutableBigNum(value);
+        acc.subInPlace(value);
+
+        assertThat(acc.isZero()).isTrue();
+        assertThat(acc.toBigNum().cmp(BigNum.ZERO)).isEqualTo(0);
+
+        acc.addInPlace(value);
+        assertThat(acc.toBigNum().cmp(value)).isEqualTo(0);
+    }
+
+    @Test
+    public void setAndResetReuseAccumulator() {
+        MutableBigNum acc = new MutableBigNum();
+
+        acc.set(new BigNum("1000000000000000000000000000000"));
+        acc.addInPlace(new BigNum("-1"));
+        assertThat(acc.toString()).isEqualTo("999999999999999999999999999999");
+
+        acc.reset();
+        acc.addInPlace(new BigNum("7"));
+        assertThat(acc.toString()).isEqualTo("7");
+    }
+
+    private static BigInteger randomBigInteger(int bitsCount) {
+        BigInteger value = new BigInteger(bitsCount, RAND);
+        return RAND.nextBoolean() ? value : value.negate();
+    }
+}
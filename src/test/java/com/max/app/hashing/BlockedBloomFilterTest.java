@@ -0,0 +1,120 @@
+package com.max.app.hashing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BlockedBloomFilterTest {
+
+    private static final Random RAND = new Random();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void noFalseNegativesAndFalsePositiveRateCloseToExpected() {
+        checkFalsePositiveRate(RAND.longs(100_000).toArray(), 0.01);
+        checkFalsePositiveRate(RAND.longs(100_000).toArray(), 0.001);
+
+        long[] sequentialKeys = new long[100_000];
+        for (int i = 0; i < sequentialKeys.length; ++i) {
+            sequentialKeys[i] = i;
+        }
+        checkFalsePositiveRate(sequentialKeys, 0.01);
+    }
+
+    @Test
+    public void mightContainAllSameAsSingleChecks() {
+        BlockedBloomFilter filter = BlockedBloomFilter.create(10_000, 0.01);
+
+        long[] keys = RAND.longs(10_000).toArray();
+        for (int i = 0; i < keys.length; i += 2) {
+            filter.put(keys[i]);
+        }
+
+        boolean[] expected = new boolean[keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            expected[i] = filter.mightContain(keys[i]);
+        }
+
+        assertArrayEquals(expected, filter.mightContainAll(keys));
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        Path file = tempDir.resolve("bloom.bin");
+
+        // ~240KB of bits, so the filter is written and read in several IO buffer chunks
+        BlockedBloomFilter filter = BlockedBloomFilter.create(200_000, 0.01);
+
+        long[] keys = RAND.longs(200_000).toArray();
+        for (long singleKey : keys) {
+            filter.put(singleKey);
+        }
+
+        filter.writeTo(file);
+
+        BlockedBloomFilter readFilter = BlockedBloomFilter.readFrom(file);
+
+        long[] misses = RAND.longs(50_000).toArray();
+        assertArrayEquals(filter.mightContainAll(keys), readFilter.mightContainAll(keys));
+        assertArrayEquals(filter.mightContainAll(misses), readFilter.mightContainAll(misses));
+    }
+
+    @Test
+    public void readCorruptedFileThrowsException() throws IOException {
+        Path file = tempDir.resolve("corrupted.bin");
+        Files.write(file, new byte[100]);
+
+        assertThrows(IllegalStateException.class, () -> BlockedBloomFilter.readFrom(file));
+    }
+
+    @Test
+    public void createWithWrongParametersThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> BlockedBloomFilter.create(-1, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> BlockedBloomFilter.create(100, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> BlockedBloomFilter.create(100, 1.0));
+    }
+
+    @Test
+    public void emptyFilterContainsNothing() {
+        BlockedBloomFilter filter = BlockedBloomFilter.create(0, 0.01);
+
+        for (int it = 0; it < 1000; ++it) {
+            assertFalse(filter.mightContain(RAND.nextLong()));
+        }
+    }
+
+    private static void checkFalsePositiveRate(long[] keys, double fpp) {
+        BlockedBloomFilter filter = BlockedBloomFilter.create(keys.length, fpp);
+
+        for (long singleKey : keys) {
+            filter.put(singleKey);
+        }
+
+        for (long singleKey : keys) {
+            assertTrue(filter.mightContain(singleKey));
+        }
+
+        final int missesCount = 200_000;
+        int falsePositivesCount = 0;
+
+        for (int it = 0; it < missesCount; ++it) {
+            // random keys are very unlikely to be in 'keys'
+            if (filter.mightContain(RAND.nextLong() | Long.MIN_VALUE)) {
+                ++falsePositivesCount;
+            }
+        }
+
+        double falsePositiveRate = (double) falsePositivesCount / missesCount;
+
+        assertTrue(falsePositiveRate < 1.5 * fpp, "false positive rate: " + falsePositiveRate + ", expected: " + fpp);
+    }
+}
@@ -0,0 +1,133 @@
+package com.max.app.hashing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentLongHashSetTest {
+
+    @Test
+    public void addAndContains() {
+        ConcurrentLongHashSet set = new ConcurrentLongHashSet();
+
+        assertTrue(set.add(1L));
+        assertTrue(set.add(-1L));
+        assertTrue(set.add(0L));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertTrue(set.add(Long.MAX_VALUE));
+
+        assertFalse(set.add(1L));
+        assertFalse(set.add(0L));
+        assertFalse(set.add(Long.MIN_VALUE));
+
+        assertEquals(5, set.size());
+
+        assertTrue(set.contains(0L));
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertTrue(set.contains(Long.MAX_VALUE));
+        assertFalse(set.contains(2L));
+    }
+
+    @Test
+    public void addManyKeysWithResize() {
+        ConcurrentLongHashSet set = new ConcurrentLongHashSet();
+
+        for (long key = 1; key <= 100_000; ++key) {
+            assertTrue(set.add(key * 31));
+        }
+
+        assertEquals(100_000, set.size());
+        assertTrue(set.capacity() >= 200_000);
+
+        for (long key = 1; key <= 100_000; ++key) {
+            assertTrue(set.contains(key * 31));
+            assertFalse(set.contains(key * 31 + 1));
+        }
+    }
+
+    @Test
+    public void tableWithMaxCapacityIsFilledCompletely() {
+        final int maxCapacity = 64;
+
+        ConcurrentLongHashSet set = new ConcurrentLongHashSet(0, maxCapacity);
+
+        for (long key = 1; key <= maxCapacity; ++key) {
+            assertTrue(set.add(key));
+        }
+
+        assertEquals(maxCapacity, set.capacity());
+        assertFalse(set.add(1L));
+        assertThrows(IllegalStateException.class, () -> set.add(maxCapacity + 1L));
+
+        assertEquals(maxCapacity, set.size());
+        for (long key = 1; key <= maxCapacity; ++key) {
+            assertTrue(set.contains(key));
+        }
+    }
+
+    @Test
+    public void tooBigExpectedSizeThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentLongHashSet(Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new ConcurrentLongHashSet(ConcurrentLongHashSet.MAX_CAPACITY / 2 + 1));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentLongHashSet(-1));
+    }
+
+    @Test
+    public void concurrentAddReturnsTrueOnlyOncePerKey() throws Exception {
+        final int threadsCount = 4;
+        final int keysCount = 200_000;
+
+        ConcurrentLongHashSet set = new ConcurrentLongHashSet();
+        ExecutorService pool = Executors.newFixedThreadPool(threadsCount);
+
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+
+            // every thread adds the same keys, but in a different order
+            for (int t = 0; t < threadsCount; ++t) {
+                final int shift = t * (keysCount / threadsCount);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int addedCount = 0;
+                    for (int i = 0; i < keysCount; ++i) {
+                        long key = (i + shift) % keysCount + 1L;
+                        if (set.add(key)) {
+                            ++addedCount;
+                        }
+                        if (!set.contains(key)) {
+                            throw new IllegalStateException("Added key not found: " + key);
+                        }
+                    }
+                    return addedCount;
+                }));
+            }
+
+            start.countDown();
+
+            int totalAdded = 0;
+            for (Future<Integer> singleResult : results) {
+                totalAdded += singleResult.get();
+            }
+
+            assertEquals(keysCount, totalAdded);
+            assertEquals(keysCount, set.size());
+
+            for (long key = 1; key <= keysCount; ++key) {
+                assertTrue(set.contains(key));
+            }
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.max.app.hashing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CuckooFilterTest {
+
+    private static final Random RAND = new Random();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void noFalseNegativesAndFalsePositiveRateCloseToExpected() {
+        checkFalsePositiveRate(0.01);
+        checkFalsePositiveRate(0.001);
+    }
+
+    @Test
+    public void addAndRemove() {
+        CuckooFilter filter = CuckooFilter.create(100_000, 0.001);
+
+        long[] keys = RAND.longs(100_000).toArray();
+        for (long singleKey : keys) {
+            assertTrue(filter.add(singleKey));
+        }
+
+        assertEquals(keys.length, filter.size());
+
+        // remove first half, second half should still be in the filter
+        for (int i = 0; i < keys.length / 2; ++i) {
+            assertTrue(filter.remove(keys[i]));
+        }
+
+        assertEquals(keys.length - keys.length / 2, filter.size());
+
+        int stillPresentCount = 0;
+        for (int i = 0; i < keys.length / 2; ++i) {
+            if (filter.mightContain(keys[i])) {
+                ++stillPresentCount;
+            }
+        }
+        assertTrue(stillPresentCount < keys.length / 100, "removed keys still present: " + stillPresentCount);
+
+        for (int i = keys.length / 2; i < keys.length; ++i) {
+            assertTrue(filter.mightContain(keys[i]));
+        }
+    }
+
+    @Test
+    public void addSameKeyTwiceAndRemoveOnce() {
+        CuckooFilter filter = CuckooFilter.create(100, 0.01);
+
+        assertTrue(filter.add(42L));
+        assertTrue(filter.add(42L));
+
+        assertTrue(filter.remove(42L));
+        assertTrue(filter.mightContain(42L));
+
+        assertTrue(filter.remove(42L));
+        assertFalse(filter.mightContain(42L));
+        assertFalse(filter.remove(42L));
+    }
+
+    @Test
+    public void addIntoFullFilterReturnsFalse() {
+        CuckooFilter filter = CuckooFilter.create(1000, 0.01);
+
+        long[] keys = RAND.longs(10_000).toArray();
+        int addedCount = 0;
+
+        for (long singleKey : keys) {
+            if (!filter.add(singleKey)) {
+                break;
+            }
+            ++addedCount;
+        }
+
+        assertTrue(addedCount < keys.length);
+        assertEquals(addedCount, filter.size());
+
+        // no false negatives, even for the key kept aside as a victim
+        for (int i = 0; i < addedCount; ++i) {
+            assertTrue(filter.mightContain(keys[i]));
+        }
+    }
+
+    @Test
+    public void mightContainAllSameAsSingleChecks() {
+        CuckooFilter filter = CuckooFilter.create(10_000, 0.01);
+
+        long[] keys = RAND.longs(10_000).toArray();
+        for (int i = 0; i < keys.length; i += 2) {
+            filter.add(keys[i]);
+        }
+
+        boolean[] expected = new boolean[keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            expected[i] = filter.mightContain(keys[i]);
+        }
+
+        assertArrayEquals(expected, filter.mightContainAll(keys));
+    }
+
+    @Test
+    public void writeAndRead() throws IOException {
+        Path file = tempDir.resolve("cuckoo.bin");
+
+        // 128KB of slots, so the filter is written and read in several IO buffer chunks
+        CuckooFilter filter = CuckooFilter.create(50_000, 0.01);
+
+        long[] keys = RAND.longs(50_000).toArray();
+        for (long singleKey : keys) {
+            filter.add(singleKey);
+        }
+
+        filter.writeTo(file);
+
+        CuckooFilter readFilter = CuckooFilter.readFrom(file);
+
+        assertEquals(filter.size(), readFilter.size());
+
+        long[] misses = RAND.longs(50_000).toArray();
+        assertArrayEquals(filter.mightContainAll(keys), readFilter.mightContainAll(keys));
+        assertArrayEquals(filter.mightContainAll(misses), readFilter.mightContainAll(misses));
+
+        // removal works the same way after reading
+        assertTrue(readFilter.remove(keys[0]));
+    }
+
+    @Test
+    public void readCorruptedFileThrowsException() throws IOException {
+        Path file = tempDir.resolve("corrupted.bin");
+        Files.write(file, new byte[100]);
+
+        assertThrows(IllegalStateException.class, () -> CuckooFilter.readFrom(file));
+    }
+
+    @Test
+    public void createWithWrongParametersThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> CuckooFilter.create(-1, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> CuckooFilter.create(100, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> CuckooFilter.create(100, 1.0E-6));
+    }
+
+    private static void checkFalsePositiveRate(double fpp) {
+        long[] keys = RAND.longs(100_000).toArray();
+
+        CuckooFilter filter = CuckooFilter.create(keys.length, fpp);
+
+        for (long singleKey : keys) {
+            assertTrue(filter.add(singleKey));
+        }
+
+        for (long singleKey : keys) {
+            assertTrue(filter.mightContain(singleKey));
+        }
+
+        final int missesCount = 200_000;
+        int falsePositivesCount = 0;
+
+        for (int it = 0; it < missesCount; ++it) {
+            if (filter.mightContain(RAND.nextLong())) {
+                ++falsePositivesCount;
+            }
+        }
+
+        double falsePositiveRate = (double) falsePositivesCount / missesCount;
+
+        assertTrue(falsePositiveRate < 1.5 * fpp, "false positive rate: " + falsePositiveRate + ", expected: " + fpp);
+    }
+}
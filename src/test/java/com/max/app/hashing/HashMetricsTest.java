@@ -0,0 +1,146 @@
+package com.max.app.hashing;
+
+import io.prometheus.client.CollectorRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class HashMetricsTest {
+
+    private static final Random RAND = new Random();
+
+    private static final String[] LABEL_NAMES = {"structure"};
+
+    @Test
+    public void statisticsCountAllKeys() {
+        long[] keys = RAND.longs(10_000).distinct().toArray();
+
+        List<Long> boxedKeys = new ArrayList<>();
+        RobinHoodIntHashMap<Long> robinHoodMap = new RobinHoodIntHashMap<>();
+        ConcurrentLongHashSet concurrentSet = new ConcurrentLongHashSet();
+
+        for (long singleKey : keys) {
+            boxedKeys.add(singleKey);
+            robinHoodMap.put((int) singleKey, singleKey);
+            concurrentSet.add(singleKey | 1L);
+        }
+
+        checkStatistics(StaticHashSet.fromList(boxedKeys).statistics(), keys.length, keys.length);
+        checkStatistics(StaticLongHashSet.fromArray(keys).statistics(), keys.length, keys.length);
+        checkStatistics(robinHoodMap.statistics(), robinHoodMap.size(), robinHoodMap.capacity());
+        checkStatistics(concurrentSet.statistics(), concurrentSet.size(), concurrentSet.capacity());
+
+        // perfect hashing, every key is found by probing a single slot
+        assertEquals(1, StaticLongHashSet.fromArray(keys).statistics().maxProbeLength());
+        assertTrue(robinHoodMap.statistics().maxProbeLength() <= RobinHoodIntHashMap.PROBE_LIMIT);
+        assertTrue(concurrentSet.statistics().rebuildsCount() > 0);
+    }
+
+    @Test
+    public void staticSetsStatisticsCalculatedOnce() {
+        long[] keys = RAND.longs(1000).distinct().toArray();
+        int[] intKeys = RAND.ints(1000).distinct().toArray();
+
+        List<Long> boxedKeys = new ArrayList<>();
+        for (long singleKey : keys) {
+            boxedKeys.add(singleKey);
+        }
+
+        StaticHashSet<Long> set = StaticHashSet.fromList(boxedKeys);
+        StaticLongHashSet longSet = StaticLongHashSet.fromArray(keys);
+        StaticIntHashSet intSet = StaticIntHashSet.fromArray(intKeys);
+
+        // sets are immutable, so every scrape returns the same cached snapshot
+        assertSame(set.statistics(), set.statistics());
+        assertSame(longSet.statistics(), longSet.statistics());
+        assertSame(intSet.statistics(), intSet.statistics());
+
+        checkStatistics(intSet.statistics(), intKeys.length, intKeys.length);
+    }
+
+    @Test
+    public void degenerateKeysDistributionDetected() {
+        // all keys have the same 'hashCode', so they are hashed into the same top level bucket
+        List<Collision> keys = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            keys.add(new Collision(i));
+        }
+
+        HashStatistics statistics = StaticHashSet.fromList(keys).statistics();
+
+        assertEquals(1L, statistics.bucketOccupancy()[HashStatistics.OCCUPANCY_LIMIT]);
+        assertEquals(100L, statistics.keysCount());
+    }
+
+    @Test
+    public void metricsExportedOnlyForMonitoredStructures() {
+        CollectorRegistry registry = new CollectorRegistry();
+        HashMetrics metrics = new HashMetrics().register(registry);
+
+        RobinHoodIntHashMap<String> map = new RobinHoodIntHashMap<>();
+        for (int i = 0; i < 1000; ++i) {
+            map.put(i, "value-" + i);
+        }
+
+        String[] labelValues = {"robin-hood"};
+
+        assertNull(registry.getSampleValue("hash_load_factor", LABEL_NAMES, labelValues));
+
+        metrics.monitor("robin-hood", map::statistics);
+
+        HashStatistics statistics = map.statistics();
+
+        assertEquals(statistics.loadFactor(), registry.getSampleValue("hash_load_factor", LABEL_NAMES, labelValues));
+        assertEquals(statistics.maxProbeLength(),
+                     registry.getSampleValue("hash_probe_length_max", LABEL_NAMES, labelValues));
+        assertEquals(statistics.averageProbeLength(),
+                     registry.getSampleValue("hash_probe_length_avg", LABEL_NAMES, labelValues));
+        assertEquals((double) statistics.rebuildsCount(),
+                     registry.getSampleValue("hash_rebuilds_total", LABEL_NAMES, labelValues));
+
+        // histogram is cumulative, '+Inf' bucket counts all buckets
+        assertEquals((double) map.capacity(),
+                     registry.getSampleValue("hash_bucket_occupancy_bucket", new String[]{"structure", "le"},
+                                             new String[]{"robin-hood", "+Inf"}));
+        assertEquals(1000.0, registry.getSampleValue("hash_bucket_occupancy_sum", LABEL_NAMES, labelValues));
+
+        metrics.forget("robin-hood");
+
+        assertNull(registry.getSampleValue("hash_load_factor", LABEL_NAMES, labelValues));
+    }
+
+    private static void checkStatistics(HashStatistics statistics, long keysCount, long bucketsCount) {
+        assertEquals(keysCount, statistics.keysCount());
+        assertEquals(bucketsCount, Arrays.stream(statistics.bucketOccupancy()).sum());
+        assertTrue(statistics.maxProbeLength() >= 1);
+        assertTrue(statistics.averageProbeLength() >= 1.0 &&
+                           statistics.averageProbeLength() <= statistics.maxProbeLength());
+        assertTrue(statistics.loadFactor() > 0.0 && statistics.loadFactor() <= 1.0);
+    }
+
+    private static final class Collision {
+
+        private final int id;
+
+        Collision(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Collision && ((Collision) obj).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
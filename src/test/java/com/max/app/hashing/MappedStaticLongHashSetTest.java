@@ -0,0 +1,99 @@
+package com.max.app.hashing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MappedStaticLongHashSetTest {
+
+    private static final Random RAND = new Random();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void writeAndOpenRandomValues() throws IOException {
+        Path file = tempDir.resolve("set.bin");
+
+        long[] data = RAND.longs(100_000).toArray();
+
+        StaticLongHashSet set = StaticLongHashSet.fromArray(data);
+        set.writeTo(file);
+
+        MappedStaticLongHashSet mappedSet = MappedStaticLongHashSet.open(file);
+
+        assertEquals(set.size(), mappedSet.size());
+
+        for (long addedValue : data) {
+            assertTrue(mappedSet.contains(addedValue));
+        }
+
+        for (int it = 0; it < 10_000; ++it) {
+            long value = RAND.nextLong();
+            assertEquals(set.contains(value), mappedSet.contains(value));
+        }
+    }
+
+    /**
+     * Regions bigger than a single mapping are split into chunks, small chunks make every bucket
+     * and secondary table cross chunk boundaries.
+     */
+    @Test
+    public void openWithSmallChunks() throws IOException {
+        Path file = tempDir.resolve("set.bin");
+
+        long[] data = RAND.longs(10_000).toArray();
+
+        StaticLongHashSet set = StaticLongHashSet.fromArray(data);
+        set.writeTo(file);
+
+        for (int chunkShift : new int[]{6, 10}) {
+            MappedStaticLongHashSet mappedSet = MappedStaticLongHashSet.open(file, chunkShift);
+
+            assertEquals(set.size(), mappedSet.size());
+
+            for (long addedValue : data) {
+                assertTrue(mappedSet.contains(addedValue));
+            }
+
+            for (int it = 0; it < 10_000; ++it) {
+                long value = RAND.nextLong();
+                assertEquals(set.contains(value), mappedSet.contains(value));
+            }
+        }
+    }
+
+    @Test
+    public void writeAndOpenEmptySet() throws IOException {
+        Path file = tempDir.resolve("empty.bin");
+
+        StaticLongHashSet.fromArray(new long[0]).writeTo(file);
+
+        MappedStaticLongHashSet mappedSet = MappedStaticLongHashSet.open(file);
+
+        assertEquals(0, mappedSet.size());
+        assertFalse(mappedSet.contains(0L));
+    }
+
+    @Test
+    public void openCorruptedFileThrowsException() throws IOException {
+        Path file = tempDir.resolve("corrupted.bin");
+
+        StaticLongHashSet.fromArray(new long[]{1L, 2L, 3L}).writeTo(file);
+        byte[] content = Files.readAllBytes(file);
+
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IllegalStateException.class, () -> MappedStaticLongHashSet.open(file));
+
+        Files.write(file, Arrays.copyOf(content, content.length - 1));
+        assertThrows(IllegalStateException.class, () -> MappedStaticLongHashSet.open(file));
+    }
+}
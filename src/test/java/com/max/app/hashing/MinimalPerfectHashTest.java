@@ -0,0 +1,127 @@
+package com.max.app.hashing;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class MinimalPerfectHashTest {
+
+    private static final Random RAND = new Random();
+
+    @Test
+    public void indexesAreUniqueAndMinimal() {
+        Set<Long> keys = new HashSet<>();
+        while (keys.size() < 200_000) {
+            keys.add(RAND.nextLong());
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MinimalPerfectHash<Long> perfectHash = MinimalPerfectHash.build(keys, pool);
+
+            assertEquals(keys.size(), perfectHash.size());
+            assertIndexesArePermutation(perfectHash, new ArrayList<>(keys));
+
+            assertTrue(perfectHash.bitsPerKey() < 4.0, "bits per key: " + perfectHash.bitsPerKey());
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void keysWithSameHashCodeAreSeparatedByDefaultKeyHash() {
+        // "Aa" and "BB" have the same hash code, so do all strings built from them
+        List<String> keys = new ArrayList<>(List.of("AaAa", "AaBB", "BBAa", "BBBB", "one", "two", "three"));
+
+        // (i << 32) | i has 'Long.hashCode' 0 for every 'i'
+        List<Long> longKeys = new ArrayList<>();
+        for (long i = 1; i <= 100_000; ++i) {
+            longKeys.add((i << 32) | i);
+        }
+
+        MinimalPerfectHash<String> perfectHash = MinimalPerfectHash.build(keys);
+        MinimalPerfectHash<Long> longPerfectHash = MinimalPerfectHash.build(longKeys);
+
+        assertEquals(0, perfectHash.fallbackSize());
+        assertIndexesArePermutation(perfectHash, keys);
+
+        assertEquals(0, longPerfectHash.fallbackSize());
+        assertIndexesArePermutation(longPerfectHash, longKeys);
+        assertTrue(longPerfectHash.bitsPerKey() < 4.0, "bits per key: " + longPerfectHash.bitsPerKey());
+    }
+
+    @Test
+    public void keysWithSameHashCodeUseFallbackAndCountIt() {
+        List<CollidingKey> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            keys.add(new CollidingKey(i));
+        }
+
+        MinimalPerfectHash<CollidingKey> perfectHash = MinimalPerfectHash.build(keys);
+
+        assertEquals(keys.size(), perfectHash.fallbackSize());
+        assertIndexesArePermutation(perfectHash, keys);
+        assertTrue(perfectHash.bitsPerKey() > 64.0, "fallback not counted: " + perfectHash.bitsPerKey());
+
+        // explicit 64-bit key hash separates the same keys
+        MinimalPerfectHash<CollidingKey> withKeyHasher = MinimalPerfectHash.build(keys, key -> key.id,
+                                                                                  ForkJoinPool.commonPool());
+
+        assertEquals(0, withKeyHasher.fallbackSize());
+        assertIndexesArePermutation(withKeyHasher, keys);
+        assertTrue(withKeyHasher.bitsPerKey() < 4.0, "bits per key: " + withKeyHasher.bitsPerKey());
+    }
+
+    @Test
+    public void emptyKeys() {
+        MinimalPerfectHash<String> perfectHash = MinimalPerfectHash.build(List.of());
+
+        assertEquals(0, perfectHash.size());
+        assertEquals(-1, perfectHash.index("one"));
+    }
+
+    @Test
+    public void duplicateKeysThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> MinimalPerfectHash.build(List.of("one", "two", "one")));
+    }
+
+    private static final class CollidingKey {
+
+        final long id;
+
+        CollidingKey(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    private static <T> void assertIndexesArePermutation(MinimalPerfectHash<T> perfectHash, List<T> keys) {
+        boolean[] usedIndexes = new boolean[keys.size()];
+
+        for (T singleKey : keys) {
+            int index = perfectHash.index(singleKey);
+
+            assertTrue(index >= 0 && index < keys.size(), "index out of range: " + index);
+            assertTrue(!usedIndexes[index], "index used twice: " + index);
+
+            usedIndexes[index] = true;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.max.app.hashing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class RobinHoodIntHashMapTest {
+
+    private static final Random RAND = new Random();
+
+    @Test
+    public void putGetAndRemove() {
+        RobinHoodIntHashMap<String> map = new RobinHoodIntHashMap<>();
+
+        assertTrue(map.isEmpty());
+
+        assertNull(map.put(1, "one"));
+        assertNull(map.put(-2, "minus two"));
+        assertEquals("one", map.put(1, "ONE"));
+
+        assertEquals(2, map.size());
+        assertEquals("ONE", map.get(1));
+        assertEquals("minus two", map.get(-2));
+        assertNull(map.get(3));
+
+        assertEquals("ONE", map.remove(1));
+        assertNull(map.remove(1));
+        assertFalse(map.containsKey(1));
+        assertTrue(map.containsKey(-2));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void randomOperationsSameAsHashMap() {
+        RobinHoodIntHashMap<Integer> map = new RobinHoodIntHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int it = 0; it < 500_000; ++it) {
+            int key = RAND.nextInt(50_000);
+            int operation = RAND.nextInt(3);
+
+            if (operation == 0) {
+                assertEquals(expected.put(key, it), map.put(key, it));
+            }
+            else if (operation == 1) {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            else {
+                assertEquals(expected.get(key), map.get(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void reseedWhenProbeLengthIsTooLong() {
+        AtomicInteger createdFunctions = new AtomicInteger();
+
+        // first hash function sends every key into the same slot, like a hash-flooding attack
+        RobinHoodIntHashMap<Integer> map = new RobinHoodIntHashMap<>(1000, capacity ->
+                createdFunctions.getAndIncrement() == 0 ? value -> 0 :
+                        new UniversalHashWithPowerOfTwoCapacityFast<>(capacity));
+
+        for (int i = 0; i < 1000; ++i) {
+            map.put(i, i);
+        }
+
+        assertEquals(1, map.reseedsCount());
+        assertEquals(1000, map.size());
+
+        for (int i = 0; i < 1000; ++i) {
+            assertEquals(i, map.get(i));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.max.app.hashing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class StaticHashMapTest {
+
+    private static final Random RAND = new Random();
+
+    @Test
+    public void createAndCallGet() {
+        StaticHashMap<String, Integer> map = StaticHashMap.fromMap(Map.of("one", 1, "two", 2, "three", 3));
+
+        assertEquals(3, map.size());
+
+        assertEquals(1, map.get("one"));
+        assertEquals(2, map.get("two"));
+        assertEquals(3, map.get("three"));
+
+        assertNull(map.get("four"));
+        assertFalse(map.containsKey("One"));
+        assertTrue(map.containsKey("three"));
+    }
+
+    @Test
+    public void createWithRandomValues() {
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; ++i) {
+            int key = RAND.nextInt();
+            expected.put(key, "value-" + key);
+        }
+
+        StaticHashMap<Integer, String> map = StaticHashMap.fromMap(expected);
+
+        assertEquals(expected.size(), map.size());
+
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+
+        for (int it = 0; it < 10_000; ++it) {
+            int key = RAND.nextInt();
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.max.app.hashing;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
@@ -73,6 +77,78 @@ public class StaticHashSetTest {
         System.out.printf("total capacity: %d, maxDepth: %d%n", set.calculateUsedCapacity(), set.maxDepth());
     }
 
+    @Test
+    public void createInParallelWithDuplicates() {
+        final int elementsCount = 100_000;
+        List<String> data = new ArrayList<>();
+
+        for (int i = 0; i < elementsCount; ++i) {
+            data.add(randomAsciiString());
+        }
+        data.addAll(data.subList(0, 1000));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            StaticHashSet<String> set = StaticHashSet.fromList(data, pool);
+
+            for (String addedValue : data) {
+                assertTrue(set.contains(addedValue));
+            }
+
+            for (int it = 0; it < 100; ++it) {
+                assertFalse(set.contains(randomAsciiString()));
+            }
+
+            assertTrue(set.maxDepth() >= 1);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Top level capacity of the parallel set is the number of distinct values, the same as for 'fromList',
+     * so duplicates don't make the table bigger and sparser.
+     */
+    @Test
+    public void parallelAndSequentialCapacitiesAreCloseWithManyDuplicates() {
+        final int distinctCount = 20_000;
+        final int copiesCount = 10;
+
+        // sequential strings have sequential hash codes and much bigger variance of secondary tables sizes
+        Set<String> distinctValues = new HashSet<>();
+        while (distinctValues.size() < distinctCount) {
+            distinctValues.add(randomAsciiString());
+        }
+        List<String> distinctData = new ArrayList<>(distinctValues);
+
+        List<String> data = new ArrayList<>();
+        for (int copy = 0; copy < copiesCount; ++copy) {
+            data.addAll(distinctData);
+        }
+        Collections.shuffle(data, RAND);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            StaticHashSet<String> parallelSet = StaticHashSet.fromList(data, pool);
+            StaticHashSet<String> sequentialSet = StaticHashSet.fromList(data);
+
+            for (String addedValue : distinctData) {
+                assertTrue(parallelSet.contains(addedValue));
+            }
+            for (int it = 0; it < 100; ++it) {
+                assertFalse(parallelSet.contains(randomAsciiString()));
+            }
+
+            // secondary tables sizes are random, top level sizes are the same (with duplicates ~2.5 times bigger)
+            double ratio = (double) parallelSet.calculateUsedCapacity() / sequentialSet.calculateUsedCapacity();
+            assertTrue(ratio > 0.9 && ratio < 1.1, "parallel / sequential used capacity: " + ratio);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
     private static final Random RAND = new Random();
 
     private String randomAsciiString() {
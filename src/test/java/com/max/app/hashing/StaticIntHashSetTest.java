@@ -0,0 +1,73 @@
+package com.max.app.hashing;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class StaticIntHashSetTest {
+
+    private static final Random RAND = new Random();
+
+    @Test
+    public void createAndCallContains() {
+        StaticIntHashSet set = StaticIntHashSet.fromArray(new int[]{1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE, 0});
+
+        assertEquals(5, set.size());
+
+        assertTrue(set.contains(1));
+        assertTrue(set.contains(-1));
+        assertTrue(set.contains(Integer.MAX_VALUE));
+        assertTrue(set.contains(Integer.MIN_VALUE));
+        assertTrue(set.contains(0));
+
+        assertFalse(set.contains(2));
+        assertFalse(set.contains(Integer.MAX_VALUE - 1));
+    }
+
+    @Test
+    public void emptySet() {
+        StaticIntHashSet set = StaticIntHashSet.fromArray(new int[0]);
+
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+    }
+
+    @Test
+    public void checkWithDuplicateValues() {
+        StaticIntHashSet set = StaticIntHashSet.fromArray(new int[]{7, 7, 3, 7, 3});
+
+        assertEquals(2, set.size());
+        assertTrue(set.contains(7));
+        assertTrue(set.contains(3));
+    }
+
+    @Test
+    public void createWithRandomValues() {
+        final int elementsCount = 100_000;
+
+        int[] data = new int[elementsCount];
+        Set<Integer> expected = new HashSet<>();
+
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = RAND.nextInt();
+            expected.add(data[i]);
+        }
+
+        StaticIntHashSet set = StaticIntHashSet.fromArray(data);
+
+        for (int addedValue : data) {
+            assertTrue(set.contains(addedValue));
+        }
+
+        for (int it = 0; it < 10_000; ++it) {
+            int value = RAND.nextInt();
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+
+        assertTrue(set.calculateUsedCapacity() <= 5 * elementsCount);
+    }
+}
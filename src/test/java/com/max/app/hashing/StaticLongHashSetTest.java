@@ -0,0 +1,73 @@
+package com.max.app.hashing;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class StaticLongHashSetTest {
+
+    private static final Random RAND = new Random();
+
+    @Test
+    public void createAndCallContains() {
+        StaticLongHashSet set = StaticLongHashSet.fromArray(new long[]{1L, -1L, Long.MAX_VALUE, Long.MIN_VALUE, 0L});
+
+        assertEquals(5, set.size());
+
+        assertTrue(set.contains(1L));
+        assertTrue(set.contains(-1L));
+        assertTrue(set.contains(Long.MAX_VALUE));
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertTrue(set.contains(0L));
+
+        assertFalse(set.contains(2L));
+        assertFalse(set.contains(Long.MAX_VALUE - 1));
+    }
+
+    @Test
+    public void emptySet() {
+        StaticLongHashSet set = StaticLongHashSet.fromArray(new long[0]);
+
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0L));
+    }
+
+    @Test
+    public void checkWithDuplicateValues() {
+        StaticLongHashSet set = StaticLongHashSet.fromArray(new long[]{7L, 7L, 3L, 7L, 3L});
+
+        assertEquals(2, set.size());
+        assertTrue(set.contains(7L));
+        assertTrue(set.contains(3L));
+    }
+
+    @Test
+    public void createWithRandomValues() {
+        final int elementsCount = 100_000;
+
+        long[] data = new long[elementsCount];
+        Set<Long> expected = new HashSet<>();
+
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = RAND.nextLong();
+            expected.add(data[i]);
+        }
+
+        StaticLongHashSet set = StaticLongHashSet.fromArray(data);
+
+        for (long addedValue : data) {
+            assertTrue(set.contains(addedValue));
+        }
+
+        for (int it = 0; it < 10_000; ++it) {
+            long value = RAND.nextLong();
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+
+        assertTrue(set.calculateUsedCapacity() <= 5 * elementsCount);
+    }
+}
@@ -0,0 +1,284 @@
+package com.max.app.hashing;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class UniversalHashTest {
+
+    private static final Random RAND = new Random();
+
+    private static final int CAPACITY = 1024;
+
+    @Test
+    public void primitiveHashesSameAsBoxed() {
+        checkPrimitiveHashesSameAsBoxed(new UniversalHashRegular<>(CAPACITY));
+        checkPrimitiveHashesSameAsBoxed(new UniversalHashWithPowerOfTwoCapacity<>(CAPACITY));
+        checkPrimitiveHashesSameAsBoxed(new UniversalHashWithPowerOfTwoCapacityFast<>(CAPACITY));
+        checkPrimitiveHashesSameAsBoxed(new UniversalHashMersennePrime<>(CAPACITY));
+    }
+
+    @Test
+    public void hashAllSameAsSingleHash() {
+        int[] values = RAND.ints(10_000).toArray();
+        long[] longValues = RAND.longs(10_000).toArray();
+
+        checkHashAll(new UniversalHashRegular<>(CAPACITY), values, longValues);
+        checkHashAll(new UniversalHashWithPowerOfTwoCapacity<>(CAPACITY), values, longValues);
+        checkHashAll(new UniversalHashWithPowerOfTwoCapacityFast<>(CAPACITY), values, longValues);
+        checkHashAll(new UniversalHashMersennePrime<>(CAPACITY), values, longValues);
+    }
+
+    @Test
+    public void regularHashWithBigCoefficientsDoesNotOverflow() {
+        final int bigPrime = 10_000_339;
+        final int a = bigPrime - 1;
+        final int b = bigPrime - 2;
+
+        UniversalHashRegular<Integer> hashFunction = new UniversalHashRegular<>(a, b, CAPACITY);
+
+        for (int it = 0; it < 10_000; ++it) {
+            int value = RAND.nextInt();
+
+            int expected = BigInteger.valueOf(value).mod(BigInteger.valueOf(bigPrime)).add(BigInteger.valueOf(b)).
+                    multiply(BigInteger.valueOf(a)).mod(BigInteger.valueOf(bigPrime)).
+                    mod(BigInteger.valueOf(CAPACITY)).intValueExact();
+
+            assertEquals(expected, hashFunction.hash(value));
+        }
+    }
+
+    @Test
+    public void mulModSameAsBigInteger() {
+        final BigInteger prime = BigInteger.valueOf(UniversalHashMersennePrime.MERSENNE_PRIME);
+
+        long[] corners = {0L, 1L, 2L, UniversalHashMersennePrime.MERSENNE_PRIME - 1L,
+                UniversalHashMersennePrime.MERSENNE_PRIME};
+
+        for (long x : corners) {
+            for (long y : corners) {
+                checkMulMod(prime, x, y);
+            }
+        }
+
+        for (int it = 0; it < 10_000; ++it) {
+            checkMulMod(prime, RAND.nextLong() >>> 3, RAND.nextLong() >>> 3);
+        }
+    }
+
+    @Test
+    public void mersennePrimeHashWithSameSeedIsDeterministic() {
+        long seed = RAND.nextLong();
+
+        UniversalHashMersennePrime<Object> first = new UniversalHashMersennePrime<>(CAPACITY, seed);
+        UniversalHashMersennePrime<Object> second = new UniversalHashMersennePrime<>(CAPACITY, seed);
+
+        for (int it = 0; it < 1000; ++it) {
+            long value = RAND.nextLong();
+            assertEquals(first.hash64(value), second.hash64(value));
+            assertEquals(first.hash("key-" + value), second.hash("key-" + value));
+        }
+    }
+
+    @Test
+    public void mersennePrimeHashCharSequenceAndBytes() {
+        UniversalHashMersennePrime<Object> hashFunction = new UniversalHashMersennePrime<>(CAPACITY);
+
+        String key = "some-key";
+
+        assertEquals(hashFunction.hash(key), hashFunction.hash(new StringBuilder(key)));
+        assertEquals(hashFunction.hash(key), hashFunction.hash((Object) key));
+        assertEquals(hashFunction.hash(key.getBytes(StandardCharsets.US_ASCII)),
+                     hashFunction.hash((Object) key.getBytes(StandardCharsets.US_ASCII)));
+
+        // keys with leading zeros should be different
+        assertTrue(hashFunction.hash64(new byte[]{0, 1}) != hashFunction.hash64(new byte[]{1}));
+        assertTrue(hashFunction.hash64("\0a") != hashFunction.hash64("a"));
+
+        assertThrows(IllegalArgumentException.class, () -> new UniversalHashMersennePrime<>(0));
+    }
+
+    /**
+     * Distribution of sequential keys between buckets, the same way as HashingMain does.
+     */
+    @Test
+    public void mersennePrimeHashBucketsDeviation() {
+        final int keysCount = 1_000_000;
+
+        UniversalHashMersennePrime<Object> hashFunction = new UniversalHashMersennePrime<>(CAPACITY);
+
+        int[] longFreq = new int[CAPACITY];
+        int[] stringFreq = new int[CAPACITY];
+        int[] bytesFreq = new int[CAPACITY];
+
+        for (int i = 0; i < keysCount; ++i) {
+            String key = "key-" + i;
+
+            ++longFreq[hashFunction.hash((long) i)];
+            ++stringFreq[hashFunction.hash(key)];
+            ++bytesFreq[hashFunction.hash(key.getBytes(StandardCharsets.US_ASCII))];
+        }
+
+        // for random hash values deviation is ~ 1/sqrt(keysCount / CAPACITY) ~ 3.2%
+        assertTrue(deviationPercentage(longFreq) < 6.0, "long deviation: " + deviationPercentage(longFreq));
+        assertTrue(deviationPercentage(stringFreq) < 6.0, "string deviation: " + deviationPercentage(stringFreq));
+        assertTrue(deviationPercentage(bytesFreq) < 6.0, "bytes deviation: " + deviationPercentage(bytesFreq));
+    }
+
+    /**
+     * Flipping any key bit should flip every bucket index bit with probability ~ 1/2 over random hash functions.
+     */
+    @Test
+    public void mersennePrimeHashAvalanche() {
+        final int trialsCount = 4000;
+        final int bucketBits = Integer.numberOfTrailingZeros(CAPACITY);
+
+        int[][] flipsCount = new int[Long.SIZE][bucketBits];
+
+        for (int it = 0; it < trialsCount; ++it) {
+            UniversalHashMersennePrime<Object> hashFunction = new UniversalHashMersennePrime<>(CAPACITY);
+            long key = RAND.nextLong();
+            int bucket = hashFunction.hash(key);
+
+            for (int keyBit = 0; keyBit < Long.SIZE; ++keyBit) {
+                int flippedBucket = hashFunction.hash(key ^ (1L << keyBit));
+                int diff = bucket ^ flippedBucket;
+
+                for (int bucketBit = 0; bucketBit < bucketBits; ++bucketBit) {
+                    flipsCount[keyBit][bucketBit] += (diff >>> bucketBit) & 1;
+                }
+            }
+        }
+
+        for (int keyBit = 0; keyBit < Long.SIZE; ++keyBit) {
+            for (int bucketBit = 0; bucketBit < bucketBits; ++bucketBit) {
+                double flipProbability = (double) flipsCount[keyBit][bucketBit] / trialsCount;
+
+                assertTrue(Math.abs(flipProbability - 0.5) < 0.1,
+                           "key bit " + keyBit + ", bucket bit " + bucketBit + ", probability: " + flipProbability);
+            }
+        }
+    }
+
+    /**
+     * Every new thread has its own ThreadLocalRandom seed, so hash functions created on fresh threads
+     * should get different random coefficients.
+     */
+    @Test
+    public void hashFunctionsCreatedOnFreshThreadsHaveDifferentSeeds() throws Exception {
+        final int bigCapacity = 1 << 30;
+
+        checkDifferentSeedsOnFreshThreads(UniversalHashWithPowerOfTwoCapacityFast::new, bigCapacity);
+        checkDifferentSeedsOnFreshThreads(UniversalHashWithPowerOfTwoCapacity::new, bigCapacity);
+        checkDifferentSeedsOnFreshThreads(UniversalHashRegular::new, bigCapacity);
+        checkDifferentSeedsOnFreshThreads(UniversalHashMersennePrime::new, bigCapacity);
+    }
+
+    @Test
+    public void hashAllWithShortOutputThrowsException() {
+        IntUniversalHash hashFunction = new UniversalHashWithPowerOfTwoCapacityFast<>(CAPACITY);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> hashFunction.hashAll(new int[10], new int[9]));
+        assertThrows(IndexOutOfBoundsException.class, () -> hashFunction.hashAll(new int[10], 2, 8, new int[5]));
+        assertThrows(IndexOutOfBoundsException.class, () -> hashFunction.hashAll(new int[10], 8, 11, new int[5]));
+    }
+
+    private static <H extends UniversalHash<Object> & IntUniversalHash & LongUniversalHash>
+    void checkPrimitiveHashesSameAsBoxed(H hashFunction) {
+        for (int it = 0; it < 10_000; ++it) {
+            int value = RAND.nextInt();
+            long longValue = RAND.nextLong();
+
+            int hash = hashFunction.hash(value);
+
+            assertTrue(hash >= 0 && hash < CAPACITY, "hash out of range: " + hash);
+            assertEquals(hashFunction.hash((Object) value), hash);
+            assertEquals(hashFunction.hash((Object) longValue), hashFunction.hash(longValue));
+        }
+    }
+
+    private static <H extends IntUniversalHash & LongUniversalHash> void checkHashAll(H hashFunction, int[] values,
+                                                                                      long[] longValues) {
+        int[] hashes = new int[values.length];
+        hashFunction.hashAll(values, hashes);
+
+        int[] expected = new int[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            expected[i] = hashFunction.hash(values[i]);
+        }
+        assertArrayEquals(expected, hashes);
+
+        // chunks of odd size, so the last one is shorter than the buffer
+        int[] chunkHashes = new int[333];
+        for (int from = 0; from < values.length; from += chunkHashes.length) {
+            int to = Math.min(from + chunkHashes.length, values.length);
+            hashFunction.hashAll(values, from, to, chunkHashes);
+            assertArrayEquals(Arrays.copyOfRange(expected, from, to), Arrays.copyOf(chunkHashes, to - from));
+        }
+
+        hashFunction.hashAll(longValues, hashes);
+        for (int i = 0; i < longValues.length; ++i) {
+            expected[i] = hashFunction.hash(longValues[i]);
+        }
+        assertArrayEquals(expected, hashes);
+    }
+
+    private static void checkDifferentSeedsOnFreshThreads(IntFunction<IntUniversalHash> factory, int capacity)
+            throws Exception {
+        int[] first = hashesOnFreshThread(factory, capacity);
+        int[] second = hashesOnFreshThread(factory, capacity);
+
+        assertFalse(Arrays.equals(first, second), "hash functions created on fresh threads are the same");
+    }
+
+    private static int[] hashesOnFreshThread(IntFunction<IntUniversalHash> factory, int capacity) throws Exception {
+        CompletableFuture<int[]> result = new CompletableFuture<>();
+
+        Thread thread = new Thread(() -> {
+            IntUniversalHash hashFunction = factory.apply(capacity);
+
+            int[] hashes = new int[16];
+            for (int i = 0; i < hashes.length; ++i) {
+                hashes[i] = hashFunction.hash(i + 1);
+            }
+            result.complete(hashes);
+        });
+
+        thread.start();
+        thread.join();
+
+        return result.get();
+    }
+
+    private static void checkMulMod(BigInteger prime, long x, long y) {
+        long expected = BigInteger.valueOf(x).multiply(BigInteger.valueOf(y)).mod(prime).longValueExact();
+        long actual = UniversalHashMersennePrime.mulMod(x, y);
+
+        // mulMod can return 'p' instead of 0
+        assertEquals(expected, actual % UniversalHashMersennePrime.MERSENNE_PRIME, "x = " + x + ", y = " + y);
+    }
+
+    private static double deviationPercentage(int[] freq) {
+        double avg = 0.0;
+        for (int val : freq) {
+            avg += val;
+        }
+        avg /= freq.length;
+
+        double deviation = 0.0;
+        for (int val : freq) {
+            deviation += (val - avg) * (val - avg);
+        }
+
+        return Math.sqrt(deviation / freq.length) * 100.0 / avg;
+    }
+}
@@ -1,12 +1,15 @@
 package com.max.app.tree;
 
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeSet;
@@ -21,8 +24,7 @@ public class AVLTreeTest {
 
     private static final ThreadLocalRandom RAND = ThreadLocalRandom.current();
 
-    @RepeatedTest(1)
-    @Disabled
+    @RepeatedTest(10)
     public void deleteRandomValues() {
 
         int[] arr = randomArray(100);
@@ -41,7 +43,11 @@ public class AVLTreeTest {
             boolean wasDeleted1 = expectedSet.remove(valueToDelete);
             boolean wasDeleted2 = actualSet.remove(valueToDelete);
             assertEquals(wasDeleted1, wasDeleted2, "value = " + valueToDelete);
+            assertAVLTreePropertiesCorrect(actualSet);
         }
+
+        assertEquals(expectedSet.size(), actualSet.size());
+        checkIterator(expectedSet.stream().mapToInt(Integer::intValue).toArray(), actualSet.iterator());
     }
 
     @Test
@@ -183,6 +189,8 @@ public class AVLTreeTest {
                 maxPossibleAvlHeight + ", but found: " + visitor.height());
         assertTrue(visitor.maxBalance() < 2, "max balance value is too high: " + visitor.maxBalance());
         assertTrue(visitor.minBalance() > -2, "min balance value is too small: " + visitor.minBalance());
+        assertEquals(0, visitor.invalidSizesCount(), "subtree sizes are not consistent");
+        assertEquals(0, visitor.invalidHeightsCount(), "stored heights are not consistent");
     }
 
     private static double log2(int value) {
@@ -345,4 +353,332 @@ public class AVLTreeTest {
         assertFalse(it.hasNext());
     }
 
+    // order statistics and navigation
+    @RepeatedTest(20)
+    public void selectAndRankSameAsSortedArray() {
+        AVLTree<Integer> tree = new AVLTree<>();
+        TreeSet<Integer> expectedSet = new TreeSet<>();
+
+        for (int value : randomArray(10 + RAND.nextInt(1000))) {
+            tree.add(value);
+            expectedSet.add(value);
+        }
+
+        // remove some values to check sizes after deletion rotations
+        for (int it = 0; it < expectedSet.size() / 3; ++it) {
+            Integer value = tree.select(RAND.nextInt(tree.size()));
+            assertTrue(tree.remove(value));
+            expectedSet.remove(value);
+        }
+
+        assertAVLTreePropertiesCorrect(tree);
+
+        List<Integer> sorted = new ArrayList<>(expectedSet);
+
+        for (int k = 0; k < sorted.size(); ++k) {
+            assertEquals(sorted.get(k), tree.select(k));
+            assertEquals(k, tree.rank(sorted.get(k)));
+        }
+
+        for (int it = 0; it < 1000; ++it) {
+            int value = RAND.nextInt();
+            assertEquals(expectedSet.headSet(value).size(), tree.rank(value));
+        }
+
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.select(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.select(sorted.size()));
+    }
+
+    @RepeatedTest(20)
+    public void navigationSameAsTreeSet() {
+        AVLTree<Integer> tree = new AVLTree<>();
+        TreeSet<Integer> expectedSet = new TreeSet<>();
+
+        for (int it = 0; it < 500; ++it) {
+            int value = RAND.nextInt(2000);
+            tree.add(value);
+            expectedSet.add(value);
+        }
+
+        assertEquals(expectedSet.first(), tree.first());
+        assertEquals(expectedSet.last(), tree.last());
+
+        for (int value = -10; value < 2010; ++value) {
+            assertEquals(expectedSet.floor(value), tree.floor(value));
+            assertEquals(expectedSet.ceiling(value), tree.ceiling(value));
+            assertEquals(expectedSet.lower(value), tree.lower(value));
+            assertEquals(expectedSet.higher(value), tree.higher(value));
+        }
+
+        assertEquals(expectedSet.pollFirst(), tree.pollFirst());
+        assertEquals(expectedSet.pollLast(), tree.pollLast());
+        assertEquals(expectedSet, tree);
+    }
+
+    @RepeatedTest(20)
+    public void subSetViewsSameAsTreeSet() {
+        AVLTree<Integer> tree = new AVLTree<>();
+        TreeSet<Integer> expectedSet = new TreeSet<>();
+
+        for (int it = 0; it < 300; ++it) {
+            int value = RAND.nextInt(1000);
+            tree.add(value);
+            expectedSet.add(value);
+        }
+
+        for (int it = 0; it < 100; ++it) {
+            int from = RAND.nextInt(1000);
+            int to = from + RAND.nextInt(1000 - from + 1);
+            boolean fromInclusive = RAND.nextBoolean();
+            boolean toInclusive = RAND.nextBoolean();
+
+            checkSameSets(expectedSet.subSet(from, fromInclusive, to, toInclusive),
+                          tree.subSet(from, fromInclusive, to, toInclusive));
+            checkSameSets(expectedSet.headSet(to, toInclusive), tree.headSet(to, toInclusive));
+            checkSameSets(expectedSet.tailSet(from, fromInclusive), tree.tailSet(from, fromInclusive));
+
+            // nested views
+            int mid = from + (to - from) / 2;
+            checkSameSets(expectedSet.subSet(from, fromInclusive, to, toInclusive).headSet(mid, false),
+                          tree.subSet(from, fromInclusive, to, toInclusive).headSet(mid, false));
+            checkSameSets(expectedSet.tailSet(from, fromInclusive).descendingSet().headSet(mid, false),
+                          tree.tailSet(from, fromInclusive).descendingSet().headSet(mid, false));
+        }
+
+        checkSameSets(expectedSet.descendingSet(), tree.descendingSet());
+    }
+
+    @Test
+    public void subSetViewIsBackedByTree() {
+        AVLTree<Integer> tree = new AVLTree<>();
+        for (int value = 0; value < 100; value += 10) {
+            tree.add(value);
+        }
+
+        NavigableSet<Integer> view = tree.subSet(20, true, 50, false);
+
+        assertEquals(3, view.size());
+        assertEquals(20, view.first());
+        assertEquals(40, view.last());
+
+        assertTrue(view.add(25));
+        assertTrue(tree.contains(25));
+        assertEquals(4, view.size());
+
+        assertThrows(IllegalArgumentException.class, () -> view.add(50));
+        assertThrows(IllegalArgumentException.class, () -> view.subSet(10, true, 30, true));
+        assertThrows(IllegalArgumentException.class, () -> tree.subSet(30, 20));
+
+        assertFalse(view.remove(60));
+        assertTrue(tree.contains(60));
+
+        assertEquals(20, view.pollFirst());
+        assertFalse(tree.contains(20));
+
+        Iterator<Integer> it = view.iterator();
+        assertEquals(25, it.next());
+        tree.add(33);
+        assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+    @Test
+    public void fromSortedBuildsPerfectlyBalancedTree() {
+        for (int length : new int[]{2, 3, 7, 8, 100, 1023, 1024, 10_000}) {
+            Integer[] values = new Integer[length];
+            for (int i = 0; i < length; ++i) {
+                values[i] = i * 2;
+            }
+
+            AVLTree<Integer> tree = AVLTree.fromSorted(values);
+
+            assertEquals(length, tree.size());
+            assertAVLTreePropertiesCorrect(tree);
+            assertEquals(Arrays.asList(values), new ArrayList<>(tree));
+
+            PropertiesVisitor<Integer> visitor = new PropertiesVisitor<>();
+            tree.visitPostOrder(visitor);
+            assertEquals(32 - Integer.numberOfLeadingZeros(length), visitor.height());
+
+            AVLTree<Integer> fromIterator = AVLTree.fromSorted(Arrays.asList(values).iterator());
+            assertEquals(new ArrayList<>(tree), new ArrayList<>(fromIterator));
+
+            // tree built in bulk should stay valid after modifications
+            tree.add(1);
+            tree.remove(0);
+            assertTrue(tree.contains(1));
+            assertFalse(tree.contains(0));
+            assertAVLTreePropertiesCorrect(tree);
+        }
+    }
+
+    @Test
+    public void fromSortedEmptyOrSingleValue() {
+        AVLTree<Integer> emptyTree = AVLTree.fromSorted(new Integer[0]);
+        assertTrue(emptyTree.isEmpty());
+        assertTrue(emptyTree.add(5));
+
+        AVLTree<Integer> singleValueTree = AVLTree.fromSorted(Collections.singletonList(7).iterator());
+        assertEquals(1, singleValueTree.size());
+        assertEquals(7, singleValueTree.first());
+    }
+
+    @Test
+    public void fromSortedWithUnsortedValuesThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> AVLTree.fromSorted(1, 3, 2));
+        assertThrows(IllegalArgumentException.class, () -> AVLTree.fromSorted(1, 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> AVLTree.fromSorted(1, null, 2));
+    }
+
+    @RepeatedTest(10)
+    public void unionIntersectDifferenceSameAsTreeSet() {
+        int firstSize = RAND.nextInt(1, 2000);
+        int secondSize = RAND.nextInt(1, 2000);
+        int bound = RAND.nextInt(100, 5000);
+
+        TreeSet<Integer> first = randomTreeSet(firstSize, bound);
+        TreeSet<Integer> second = randomTreeSet(secondSize, bound);
+
+        TreeSet<Integer> expectedUnion = new TreeSet<>(first);
+        expectedUnion.addAll(second);
+        checkSetOperation(expectedUnion, first, second, AVLTree::union);
+
+        TreeSet<Integer> expectedIntersection = new TreeSet<>(first);
+        expectedIntersection.retainAll(second);
+        checkSetOperation(expectedIntersection, first, second, AVLTree::intersect);
+
+        TreeSet<Integer> expectedDifference = new TreeSet<>(first);
+        expectedDifference.removeAll(second);
+        checkSetOperation(expectedDifference, first, second, AVLTree::difference);
+    }
+
+    /**
+     * Trees with very different sizes use per value operations instead of split/join.
+     */
+    @RepeatedTest(5)
+    public void setOperationsWithSmallTreeSameAsTreeSet() {
+        TreeSet<Integer> small = randomTreeSet(RAND.nextInt(1, 20), 10_000);
+        TreeSet<Integer> big = randomTreeSet(5000, 10_000);
+
+        for (boolean smallFirst : new boolean[]{true, false}) {
+            TreeSet<Integer> first = smallFirst ? small : big;
+            TreeSet<Integer> second = smallFirst ? big : small;
+
+            TreeSet<Integer> expectedUnion = new TreeSet<>(first);
+            expectedUnion.addAll(second);
+            checkSetOperation(expectedUnion, first, second, AVLTree::union);
+
+            TreeSet<Integer> expectedIntersection = new TreeSet<>(first);
+            expectedIntersection.retainAll(second);
+            checkSetOperation(expectedIntersection, first, second, AVLTree::intersect);
+
+            TreeSet<Integer> expectedDifference = new TreeSet<>(first);
+            expectedDifference.removeAll(second);
+            checkSetOperation(expectedDifference, first, second, AVLTree::difference);
+        }
+    }
+
+    @Test
+    public void setOperationsWithEmptyOrSameTree() {
+        AVLTree<Integer> tree = AVLTree.fromSorted(1, 2, 3);
+
+        tree.union(tree);
+        assertEquals(List.of(1, 2, 3), new ArrayList<>(tree));
+
+        tree.intersect(tree);
+        assertEquals(List.of(1, 2, 3), new ArrayList<>(tree));
+
+        tree.union(new AVLTree<>());
+        assertEquals(List.of(1, 2, 3), new ArrayList<>(tree));
+
+        AVLTree<Integer> emptyTree = new AVLTree<>();
+        emptyTree.union(tree);
+        assertEquals(List.of(1, 2, 3), new ArrayList<>(emptyTree));
+        assertEquals(List.of(1, 2, 3), new ArrayList<>(tree));
+
+        emptyTree.intersect(new AVLTree<>());
+        assertTrue(emptyTree.isEmpty());
+
+        emptyTree.difference(emptyTree);
+        assertTrue(emptyTree.isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> emptyTree.union(null));
+    }
+
+    @Test
+    public void setOperationInvalidatesOnlyOwnIterators() {
+        AVLTree<Integer> tree = AVLTree.fromSorted(1, 2, 3);
+        AVLTree<Integer> other = AVLTree.fromSorted(2, 5);
+
+        Iterator<Integer> it = tree.iterator();
+        Iterator<Integer> otherIt = other.iterator();
+
+        tree.union(other);
+
+        assertThrows(ConcurrentModificationException.class, it::next);
+        assertEquals(2, otherIt.next());
+        assertEquals(5, otherIt.next());
+    }
+
+    private interface SetOperation {
+        void apply(AVLTree<Integer> first, AVLTree<Integer> second);
+    }
+
+    private static void checkSetOperation(TreeSet<Integer> expected, TreeSet<Integer> first,
+                                          TreeSet<Integer> second, SetOperation operation) {
+        AVLTree<Integer> firstTree = AVLTree.fromSorted(first.iterator());
+        AVLTree<Integer> secondTree = new AVLTree<>();
+        secondTree.addAll(second);
+
+        operation.apply(firstTree, secondTree);
+
+        // argument is never changed
+        assertEquals(new ArrayList<>(second), new ArrayList<>(secondTree));
+        if (second.size() > 1) {
+            assertAVLTreePropertiesCorrect(secondTree);
+        }
+
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(firstTree));
+        assertEquals(expected.size(), firstTree.size());
+
+        if (expected.size() > 1) {
+            assertAVLTreePropertiesCorrect(firstTree);
+        }
+
+        for (int k = 0; k < expected.size(); k += 17) {
+            assertEquals(expected.headSet(firstTree.select(k)).size(), k);
+        }
+    }
+
+    private static TreeSet<Integer> randomTreeSet(int size, int bound) {
+        TreeSet<Integer> set = new TreeSet<>();
+        for (int i = 0; i < size; ++i) {
+            set.add(RAND.nextInt(bound));
+        }
+        return set;
+    }
+
+    private static void checkSameSets(NavigableSet<Integer> expected, NavigableSet<Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(actual));
+
+        List<Integer> expectedDescending = new ArrayList<>();
+        expected.descendingIterator().forEachRemaining(expectedDescending::add);
+        List<Integer> actualDescending = new ArrayList<>();
+        actual.descendingIterator().forEachRemaining(actualDescending::add);
+        assertEquals(expectedDescending, actualDescending);
+
+        if (!expected.isEmpty()) {
+            assertEquals(expected.first(), actual.first());
+            assertEquals(expected.last(), actual.last());
+        }
+
+        for (int value = -1; value <= 1001; value += 7) {
+            assertEquals(expected.contains(value), actual.contains(value));
+            assertEquals(expected.floor(value), actual.floor(value));
+            assertEquals(expected.ceiling(value), actual.ceiling(value));
+            assertEquals(expected.lower(value), actual.lower(value));
+            assertEquals(expected.higher(value), actual.higher(value));
+        }
+    }
 }
@@ -0,0 +1,231 @@
+package com.max.app.tree;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentAVLTreeTest {
+
+    private static final ThreadLocalRandom RAND = ThreadLocalRandom.current();
+
+    @RepeatedTest(10)
+    public void randomAddRemoveSameAsTreeSet() {
+        ConcurrentAVLTree<Integer> tree = new ConcurrentAVLTree<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int it = 0; it < 10_000; ++it) {
+            int value = RAND.nextInt(1000);
+
+            if (RAND.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), tree.remove(value));
+            }
+            else {
+                assertEquals(expected.add(value), tree.add(value));
+            }
+        }
+
+        assertEquals(expected.size(), tree.size());
+        assertTrue(tree.checkInvariants());
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(tree));
+
+        for (int value = -1; value <= 1000; ++value) {
+            assertEquals(expected.contains(value), tree.contains(value));
+        }
+    }
+
+    @Test
+    public void sequentialAddAndRemoveKeepTreeBalanced() {
+        ConcurrentAVLTree<Integer> tree = new ConcurrentAVLTree<>();
+
+        for (int value = 0; value < 10_000; ++value) {
+            assertTrue(tree.add(value));
+        }
+        assertTrue(tree.checkInvariants());
+
+        for (int value = 0; value < 10_000; value += 3) {
+            assertTrue(tree.remove(value));
+        }
+        assertTrue(tree.checkInvariants());
+
+        for (int value = 0; value < 10_000; ++value) {
+            assertEquals(value % 3 != 0, tree.contains(value));
+        }
+    }
+
+    @Test
+    public void emptyTree() {
+        ConcurrentAVLTree<Integer> tree = new ConcurrentAVLTree<>();
+
+        assertTrue(tree.isEmpty());
+        assertFalse(tree.contains(1));
+        assertFalse(tree.contains(null));
+        assertFalse(tree.remove(1));
+        assertFalse(tree.iterator().hasNext());
+        assertThrows(NoSuchElementException.class, () -> tree.iterator().next());
+        assertThrows(IllegalArgumentException.class, () -> tree.add(null));
+
+        tree.add(5);
+        tree.remove(5);
+        assertTrue(tree.isEmpty());
+    }
+
+    @Test
+    public void iteratorRemove() {
+        ConcurrentAVLTree<Integer> tree = new ConcurrentAVLTree<>();
+        for (int value = 0; value < 100; ++value) {
+            tree.add(value);
+        }
+
+        Iterator<Integer> it = tree.iterator();
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+
+        assertEquals(50, tree.size());
+        assertTrue(tree.checkInvariants());
+        assertFalse(tree.contains(10));
+        assertTrue(tree.contains(11));
+
+        tree.clear();
+        assertTrue(tree.isEmpty());
+    }
+
+    @Test
+    public void concurrentUpdatesFromDifferentThreads() throws Exception {
+        final int threadsCount = 4;
+        final int keysPerThread = 20_000;
+
+        ConcurrentAVLTree<Integer> tree = new ConcurrentAVLTree<>();
+
+        runInParallel(threadsCount, threadIndex -> {
+            ThreadLocalRandom rand = ThreadLocalRandom.current();
+
+            // keys of different threads are interleaved, so threads rebalance the same subtrees
+            for (int i = 0; i < keysPerThread; ++i) {
+                assertTrue(tree.add(i * threadsCount + threadIndex));
+            }
+
+            for (int i = 0; i < keysPerThread; i += 2) {
+                assertTrue(tree.remove(i * threadsCount + threadIndex));
+            }
+
+            for (int it = 0; it < keysPerThread; ++it) {
+                int i = rand.nextInt(keysPerThread);
+                assertEquals(i % 2 != 0, tree.contains(i * threadsCount + threadIndex));
+            }
+        });
+
+        assertEquals(threadsCount * keysPerThread / 2, tree.size());
+        assertTrue(tree.checkInvariants());
+
+        int expectedValue = threadsCount;
+        for (int value : tree) {
+            assertEquals(expectedValue, value);
+            ++expectedValue;
+            if (expectedValue % (2 * threadsCount) == 0) {
+                expectedValue += threadsCount;
+            }
+        }
+    }
+
+    @Test
+    public void readersAlwaysSeeStableKeysDuringUpdates() throws Exception {
+        final int stableKeysCount = 1000;
+        final int threadsCount = 4;
+
+        ConcurrentAVLTree<Integer> tree = new ConcurrentAVLTree<>();
+
+        // even keys are never removed, odd keys are added and removed by writers
+        for (int i = 0; i < stableKeysCount; ++i) {
+            tree.add(2 * i);
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+
+        runInParallel(threadsCount, threadIndex -> {
+            ThreadLocalRandom rand = ThreadLocalRandom.current();
+
+            if (threadIndex < threadsCount / 2) {
+                for (int it = 0; it < 200_000; ++it) {
+                    int oddKey = 2 * rand.nextInt(stableKeysCount) + 1;
+                    if (rand.nextBoolean()) {
+                        tree.add(oddKey);
+                    }
+                    else {
+                        tree.remove(oddKey);
+                    }
+                }
+                done.set(true);
+                return;
+            }
+
+            while (!done.get()) {
+                assertTrue(tree.contains(2 * rand.nextInt(stableKeysCount)));
+
+                int stableCount = 0;
+                int prev = Integer.MIN_VALUE;
+
+                for (int value : tree) {
+                    assertTrue(value > prev, "iteration order is broken");
+                    prev = value;
+                    if (value % 2 == 0) {
+                        ++stableCount;
+                    }
+                }
+
+                assertEquals(stableKeysCount, stableCount);
+            }
+        });
+
+        assertTrue(tree.checkInvariants());
+    }
+
+    private interface ThreadTask {
+        void run(int threadIndex);
+    }
+
+    private static void runInParallel(int threadsCount, ThreadTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threadsCount);
+
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+
+            for (int i = 0; i < threadsCount; ++i) {
+                final int threadIndex = i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    task.run(threadIndex);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> singleResult : results) {
+                singleResult.get();
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+}
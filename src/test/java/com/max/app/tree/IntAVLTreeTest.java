@@ -0,0 +1,169 @@
+package com.max.app.tree;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntAVLTreeTest {
+
+    private static final ThreadLocalRandom RAND = ThreadLocalRandom.current();
+
+    @RepeatedTest(10)
+    public void randomAddRemoveSameAsTreeSet() {
+        IntAVLTree tree = new IntAVLTree();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int it = 0; it < 10_000; ++it) {
+            int value = RAND.nextInt(1000);
+
+            if (RAND.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), tree.remove(value));
+            }
+            else {
+                assertEquals(expected.add(value), tree.add(value));
+            }
+
+            assertEquals(expected.size(), tree.size());
+        }
+
+        assertTrue(tree.checkInvariants());
+
+        for (int value = -10; value < 1010; ++value) {
+            assertEquals(expected.contains(value), tree.contains(value));
+        }
+
+        assertIteratesAs(expected, tree);
+    }
+
+    @Test
+    public void sequentialAddKeepsTreeBalanced() {
+        final int keysCount = 100_000;
+        IntAVLTree tree = new IntAVLTree();
+
+        for (int value = 0; value < keysCount; ++value) {
+            assertTrue(tree.add(value));
+        }
+
+        assertTrue(tree.checkInvariants());
+        assertTrue(tree.height() <= 1.45 * (Math.log(keysCount + 2) / Math.log(2.0)));
+        assertEquals(0, tree.first());
+        assertEquals(keysCount - 1, tree.last());
+
+        for (int value = 0; value < keysCount; value += 2) {
+            assertTrue(tree.remove(value));
+        }
+
+        assertTrue(tree.checkInvariants());
+        assertEquals(keysCount / 2, tree.size());
+        assertEquals(1, tree.first());
+    }
+
+    @Test
+    public void removedNodesAreReused() {
+        IntAVLTree tree = new IntAVLTree(100);
+
+        for (int value = 0; value < 100; ++value) {
+            tree.add(value);
+        }
+
+        long usedBytes = tree.calculateUsedBytes();
+
+        for (int it = 0; it < 10; ++it) {
+            for (int value = 0; value < 100; ++value) {
+                assertTrue(tree.remove(value));
+            }
+            assertTrue(tree.isEmpty());
+
+            for (int value = 100; value < 200; ++value) {
+                assertTrue(tree.add(value + it * 100));
+            }
+            assertTrue(tree.checkInvariants());
+
+            for (int value = 100; value < 200; ++value) {
+                assertTrue(tree.remove(value + it * 100));
+            }
+            for (int value = 0; value < 100; ++value) {
+                tree.add(value);
+            }
+        }
+
+        assertEquals(usedBytes, tree.calculateUsedBytes());
+    }
+
+    @Test
+    public void extremeKeys() {
+        IntAVLTree tree = new IntAVLTree();
+
+        assertTrue(tree.add(Integer.MAX_VALUE));
+        assertTrue(tree.add(Integer.MIN_VALUE));
+        assertTrue(tree.add(0));
+        assertFalse(tree.add(Integer.MIN_VALUE));
+
+        assertTrue(tree.checkInvariants());
+        assertEquals(Integer.MIN_VALUE, tree.first());
+        assertEquals(Integer.MAX_VALUE, tree.last());
+        assertTrue(tree.contains(Integer.MAX_VALUE));
+        assertFalse(tree.contains(1));
+    }
+
+    @Test
+    public void emptyTree() {
+        IntAVLTree tree = new IntAVLTree(0);
+
+        assertTrue(tree.isEmpty());
+        assertFalse(tree.contains(0));
+        assertFalse(tree.remove(0));
+        assertFalse(tree.iterator().hasNext());
+        assertThrows(NoSuchElementException.class, tree::first);
+        assertThrows(NoSuchElementException.class, tree::last);
+        assertThrows(NoSuchElementException.class, () -> tree.iterator().nextInt());
+        assertTrue(tree.checkInvariants());
+    }
+
+    @Test
+    public void iteratorFailsFastOnModification() {
+        IntAVLTree tree = new IntAVLTree();
+        tree.add(1);
+        tree.add(2);
+
+        PrimitiveIterator.OfInt it = tree.iterator();
+        it.nextInt();
+        tree.add(3);
+
+        assertThrows(ConcurrentModificationException.class, it::nextInt);
+        assertThrows(ConcurrentModificationException.class, () -> tree.forEach(value -> tree.remove(1)));
+    }
+
+    @Test
+    public void negativeExpectedSizeThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new IntAVLTree(-1));
+    }
+
+    private static void assertIteratesAs(TreeSet<Integer> expected, IntAVLTree tree) {
+        Iterator<Integer> expectedIt = expected.iterator();
+        PrimitiveIterator.OfInt it = tree.iterator();
+
+        while (expectedIt.hasNext()) {
+            assertTrue(it.hasNext());
+            assertEquals(expectedIt.next().intValue(), it.nextInt());
+        }
+        assertFalse(it.hasNext());
+
+        List<Integer> visited = new ArrayList<>();
+        tree.forEach(visited::add);
+        assertEquals(new ArrayList<>(expected), visited);
+    }
+}
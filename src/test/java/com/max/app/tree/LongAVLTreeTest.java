@@ -0,0 +1,169 @@
+package com.max.app.tree;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongAVLTreeTest {
+
+    private static final ThreadLocalRandom RAND = ThreadLocalRandom.current();
+
+    @RepeatedTest(10)
+    public void randomAddRemoveSameAsTreeSet() {
+        LongAVLTree tree = new LongAVLTree();
+        TreeSet<Long> expected = new TreeSet<>();
+
+        for (int it = 0; it < 10_000; ++it) {
+            long value = RAND.nextLong(1000);
+
+            if (RAND.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), tree.remove(value));
+            }
+            else {
+                assertEquals(expected.add(value), tree.add(value));
+            }
+
+            assertEquals(expected.size(), tree.size());
+        }
+
+        assertTrue(tree.checkInvariants());
+
+        for (long value = -10; value < 1010; ++value) {
+            assertEquals(expected.contains(value), tree.contains(value));
+        }
+
+        assertIteratesAs(expected, tree);
+    }
+
+    @Test
+    public void sequentialAddKeepsTreeBalanced() {
+        final int keysCount = 100_000;
+        LongAVLTree tree = new LongAVLTree();
+
+        for (long value = 0; value < keysCount; ++value) {
+            assertTrue(tree.add(value));
+        }
+
+        assertTrue(tree.checkInvariants());
+        assertTrue(tree.height() <= 1.45 * (Math.log(keysCount + 2) / Math.log(2.0)));
+        assertEquals(0L, tree.first());
+        assertEquals(keysCount - 1L, tree.last());
+
+        for (long value = 0; value < keysCount; value += 2) {
+            assertTrue(tree.remove(value));
+        }
+
+        assertTrue(tree.checkInvariants());
+        assertEquals(keysCount / 2, tree.size());
+        assertEquals(1L, tree.first());
+    }
+
+    @Test
+    public void removedNodesAreReused() {
+        LongAVLTree tree = new LongAVLTree(100);
+
+        for (long value = 0; value < 100; ++value) {
+            tree.add(value);
+        }
+
+        long usedBytes = tree.calculateUsedBytes();
+
+        for (int it = 0; it < 10; ++it) {
+            for (long value = 0; value < 100; ++value) {
+                assertTrue(tree.remove(value));
+            }
+            assertTrue(tree.isEmpty());
+
+            for (long value = 100; value < 200; ++value) {
+                assertTrue(tree.add(value + it * 100L));
+            }
+            assertTrue(tree.checkInvariants());
+
+            for (long value = 100; value < 200; ++value) {
+                assertTrue(tree.remove(value + it * 100L));
+            }
+            for (long value = 0; value < 100; ++value) {
+                tree.add(value);
+            }
+        }
+
+        assertEquals(usedBytes, tree.calculateUsedBytes());
+    }
+
+    @Test
+    public void extremeKeys() {
+        LongAVLTree tree = new LongAVLTree();
+
+        assertTrue(tree.add(Long.MAX_VALUE));
+        assertTrue(tree.add(Long.MIN_VALUE));
+        assertTrue(tree.add(0L));
+        assertFalse(tree.add(Long.MIN_VALUE));
+
+        assertTrue(tree.checkInvariants());
+        assertEquals(Long.MIN_VALUE, tree.first());
+        assertEquals(Long.MAX_VALUE, tree.last());
+        assertTrue(tree.contains(Long.MAX_VALUE));
+        assertFalse(tree.contains(1L));
+    }
+
+    @Test
+    public void emptyTree() {
+        LongAVLTree tree = new LongAVLTree(0);
+
+        assertTrue(tree.isEmpty());
+        assertFalse(tree.contains(0L));
+        assertFalse(tree.remove(0L));
+        assertFalse(tree.iterator().hasNext());
+        assertThrows(NoSuchElementException.class, tree::first);
+        assertThrows(NoSuchElementException.class, tree::last);
+        assertThrows(NoSuchElementException.class, () -> tree.iterator().nextLong());
+        assertTrue(tree.checkInvariants());
+    }
+
+    @Test
+    public void iteratorFailsFastOnModification() {
+        LongAVLTree tree = new LongAVLTree();
+        tree.add(1L);
+        tree.add(2L);
+
+        PrimitiveIterator.OfLong it = tree.iterator();
+        it.nextLong();
+        tree.add(3L);
+
+        assertThrows(ConcurrentModificationException.class, it::nextLong);
+        assertThrows(ConcurrentModificationException.class, () -> tree.forEach(value -> tree.remove(1L)));
+    }
+
+    @Test
+    public void negativeExpectedSizeThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new LongAVLTree(-1));
+    }
+
+    private static void assertIteratesAs(TreeSet<Long> expected, LongAVLTree tree) {
+        Iterator<Long> expectedIt = expected.iterator();
+        PrimitiveIterator.OfLong it = tree.iterator();
+
+        while (expectedIt.hasNext()) {
+            assertTrue(it.hasNext());
+            assertEquals(expectedIt.next().longValue(), it.nextLong());
+        }
+        assertFalse(it.hasNext());
+
+        List<Long> visited = new ArrayList<>();
+        tree.forEach(visited::add);
+        assertEquals(new ArrayList<>(expected), visited);
+    }
+}
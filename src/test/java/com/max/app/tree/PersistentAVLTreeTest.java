@@ -0,0 +1,267 @@
+package com.max.app.tree;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PersistentAVLTreeTest {
+
+    private static final ThreadLocalRandom RAND = ThreadLocalRandom.current();
+
+    @RepeatedTest(10)
+    public void randomAddRemoveSameAsTreeSet() {
+        PersistentAVLTree<Integer> tree = PersistentAVLTree.empty();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int it = 0; it < 10_000; ++it) {
+            int value = RAND.nextInt(1000);
+
+            PersistentAVLTree<Integer> prev = tree;
+
+            if (RAND.nextInt(3) == 0) {
+                tree = tree.remove(value);
+                assertEquals(expected.remove(value), tree != prev);
+            }
+            else {
+                tree = tree.add(value);
+                assertEquals(expected.add(value), tree != prev);
+            }
+        }
+
+        assertEquals(expected.size(), tree.size());
+        assertTrue(tree.checkInvariants());
+        assertEquals(new ArrayList<>(expected), toList(tree));
+
+        for (int value = -1; value <= 1000; ++value) {
+            assertEquals(expected.contains(value), tree.contains(value));
+        }
+    }
+
+    @Test
+    public void oldVersionsAreNotChanged() {
+        List<PersistentAVLTree<Integer>> versions = new ArrayList<>();
+        List<List<Integer>> expectedVersions = new ArrayList<>();
+
+        PersistentAVLTree<Integer> tree = PersistentAVLTree.empty();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int it = 0; it < 2000; ++it) {
+            int value = RAND.nextInt(500);
+
+            if (RAND.nextBoolean()) {
+                tree = tree.remove(value);
+                expected.remove(value);
+            }
+            else {
+                tree = tree.add(value);
+                expected.add(value);
+            }
+
+            versions.add(tree);
+            expectedVersions.add(new ArrayList<>(expected));
+        }
+
+        for (int i = 0; i < versions.size(); ++i) {
+            assertTrue(versions.get(i).checkInvariants());
+            assertEquals(expectedVersions.get(i).size(), versions.get(i).size());
+            assertEquals(expectedVersions.get(i), toList(versions.get(i)));
+        }
+    }
+
+    @Test
+    public void updatesShareUnchangedSubtrees() {
+        PersistentAVLTree<Integer> tree = PersistentAVLTree.empty();
+        for (int value = 0; value < 1023; ++value) {
+            tree = tree.add(2 * value);
+        }
+
+        assertEquals(10, tree.height());
+        assertEquals(1023, PersistentAVLTree.distinctNodesCount(tree));
+
+        // only the path from root is copied, rotations copy at most a few extra nodes
+        PersistentAVLTree<Integer> added = tree.add(777);
+        int newNodesCount = PersistentAVLTree.distinctNodesCount(tree, added) - 1023;
+        assertTrue(newNodesCount <= tree.height() + 3, "too many nodes copied: " + newNodesCount);
+
+        PersistentAVLTree<Integer> removed = tree.remove(1000);
+        newNodesCount = PersistentAVLTree.distinctNodesCount(tree, removed) - 1023;
+        assertTrue(newNodesCount <= 2 * tree.height(), "too many nodes copied: " + newNodesCount);
+
+        assertSame(tree, tree.add(1000));
+        assertSame(tree, tree.remove(777));
+    }
+
+    @Test
+    public void sequentialAddAndRemoveKeepTreeBalanced() {
+        PersistentAVLTree<Integer> tree = PersistentAVLTree.empty();
+
+        for (int value = 0; value < 10_000; ++value) {
+            tree = tree.add(value);
+        }
+        assertTrue(tree.checkInvariants());
+        assertEquals(0, tree.first());
+        assertEquals(9999, tree.last());
+
+        for (int value = 0; value < 10_000; value += 3) {
+            tree = tree.remove(value);
+        }
+        assertTrue(tree.checkInvariants());
+
+        for (int value = 0; value < 10_000; ++value) {
+            assertEquals(value % 3 != 0, tree.contains(value));
+        }
+    }
+
+    @Test
+    public void emptyTree() {
+        PersistentAVLTree<Integer> tree = PersistentAVLTree.empty();
+
+        assertTrue(tree.isEmpty());
+        assertEquals(0, tree.size());
+        assertFalse(tree.contains(1));
+        assertFalse(tree.contains(null));
+        assertSame(tree, tree.remove(1));
+        assertSame(tree, tree.remove(null));
+        assertFalse(tree.iterator().hasNext());
+        assertThrows(NoSuchElementException.class, () -> tree.iterator().next());
+        assertThrows(NoSuchElementException.class, tree::first);
+        assertThrows(NoSuchElementException.class, tree::last);
+        assertThrows(IllegalArgumentException.class, () -> tree.add(null));
+
+        assertTrue(tree.add(5).remove(5).isEmpty());
+    }
+
+    @Test
+    public void snapshotTreeSameAsTreeSet() {
+        SnapshotAVLTree<Integer> tree = new SnapshotAVLTree<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int it = 0; it < 10_000; ++it) {
+            int value = RAND.nextInt(1000);
+
+            if (RAND.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), tree.remove(value));
+            }
+            else {
+                assertEquals(expected.add(value), tree.add(value));
+            }
+        }
+
+        assertEquals(expected.size(), tree.size());
+        assertEquals(new ArrayList<>(expected), toList(tree));
+
+        PersistentAVLTree<Integer> snapshot = tree.snapshot();
+        tree.clear();
+
+        assertTrue(tree.isEmpty());
+        assertEquals(new ArrayList<>(expected), toList(snapshot));
+        assertThrows(IllegalArgumentException.class, () -> tree.add(null));
+    }
+
+    @Test
+    public void snapshotsStayConsistentDuringConcurrentUpdates() throws Exception {
+        final int stableKeysCount = 1000;
+        final int threadsCount = 4;
+
+        SnapshotAVLTree<Integer> tree = new SnapshotAVLTree<>();
+
+        // even keys are never removed, odd keys are added and removed by writers
+        for (int i = 0; i < stableKeysCount; ++i) {
+            tree.add(2 * i);
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+
+        runInParallel(threadsCount, threadIndex -> {
+            ThreadLocalRandom rand = ThreadLocalRandom.current();
+
+            if (threadIndex < threadsCount / 2) {
+                for (int it = 0; it < 100_000; ++it) {
+                    int oddKey = 2 * rand.nextInt(stableKeysCount) + 1;
+                    if (rand.nextBoolean()) {
+                        tree.add(oddKey);
+                    }
+                    else {
+                        tree.remove(oddKey);
+                    }
+                }
+                done.set(true);
+                return;
+            }
+
+            while (!done.get()) {
+                PersistentAVLTree<Integer> snapshot = tree.snapshot();
+                List<Integer> firstPass = toList(snapshot);
+
+                // snapshot is immutable, so the second pass sees exactly the same values
+                assertEquals(snapshot.size(), firstPass.size());
+                assertEquals(firstPass, toList(snapshot));
+
+                int stableCount = 0;
+                for (int value : firstPass) {
+                    if (value % 2 == 0) {
+                        ++stableCount;
+                    }
+                }
+                assertEquals(stableKeysCount, stableCount);
+            }
+        });
+
+        assertTrue(tree.snapshot().checkInvariants());
+    }
+
+    private static List<Integer> toList(Iterable<Integer> values) {
+        List<Integer> res = new ArrayList<>();
+        for (Integer singleValue : values) {
+            res.add(singleValue);
+        }
+        return res;
+    }
+
+    private interface ThreadTask {
+        void run(int threadIndex);
+    }
+
+    private static void runInParallel(int threadsCount, ThreadTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threadsCount);
+
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+
+            for (int i = 0; i < threadsCount; ++i) {
+                final int threadIndex = i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    task.run(threadIndex);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> singleResult : results) {
+                singleResult.get();
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+}